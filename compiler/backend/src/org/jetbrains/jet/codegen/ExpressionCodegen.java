@@ -35,8 +35,10 @@ import org.jetbrains.jet.codegen.binding.CalculatedClosure;
 import org.jetbrains.jet.codegen.binding.CodegenBinding;
 import org.jetbrains.jet.codegen.context.*;
 import org.jetbrains.jet.codegen.inline.*;
+import org.jetbrains.jet.codegen.intrinsics.Concat;
 import org.jetbrains.jet.codegen.intrinsics.IntrinsicMethod;
 import org.jetbrains.jet.codegen.intrinsics.IntrinsicMethods;
+import org.jetbrains.jet.codegen.intrinsics.StringPlus;
 import org.jetbrains.jet.codegen.state.GenerationState;
 import org.jetbrains.jet.codegen.state.JetTypeMapper;
 import org.jetbrains.jet.codegen.when.SwitchCodegen;
@@ -97,6 +99,9 @@ import static org.jetbrains.jet.lang.resolve.scopes.receivers.ReceiverValue.NO_R
 import static org.jetbrains.org.objectweb.asm.Opcodes.ACC_PRIVATE;
 
 public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implements LocalLookup {
+    // Expected length of a non-constant part of a string template, the same as the default capacity of StringBuilder
+    private static final int STRING_PART_LENGTH_ESTIMATE = 16;
+
     private static final Set<DeclarationDescriptor> INTEGRAL_RANGES = KotlinBuiltIns.getInstance().getIntegralRanges();
 
     private final GenerationState state;
@@ -533,6 +538,15 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         JetExpression loopRange = forExpression.getLoopRange();
         JetType loopRangeType = bindingContext.get(EXPRESSION_TYPE, loopRange);
         assert loopRangeType != null;
+
+        // Is it a "n downTo 0", "0..n step 2", "(a..b).reversed()", "list.indices" or so
+        //noinspection ConstantConditions
+        if (RangeCodegenUtil.isIntegerRangeOrProgression(loopRangeType) &&
+            RangeCodegenUtil.getProgressionCall(loopRange, bindingContext) != null) {
+            generateForLoop(new ForInProgressionCallLoopGenerator(forExpression));
+            return StackValue.none();
+        }
+
         Type asmLoopRangeType = asmType(loopRangeType);
         if (asmLoopRangeType.getSort() == Type.ARRAY) {
             generateForLoop(new ForInArrayLoopGenerator(forExpression));
@@ -930,6 +944,71 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
                 v.ificmpeq(loopExit);
             }
         }
+
+        // Stores the last value of the loop parameter to a new local variable, the increment should be non-zero
+        protected int storeProgressionFinalElement(int incrementVar, @NotNull Type incrementType) {
+            v.load(loopParameterVar, asmElementType);
+            v.load(endVar, asmElementType);
+            v.load(incrementVar, incrementType);
+
+            Type methodParamType = asmElementType.getSort() == Type.LONG ? Type.LONG_TYPE : Type.INT_TYPE;
+            v.invokestatic("kotlin/internal/InternalPackage", "getProgressionFinalElement",
+                           Type.getMethodDescriptor(methodParamType, methodParamType, methodParamType, methodParamType), false);
+
+            int finalVar = createLoopTempVariable(asmElementType);
+            v.store(finalVar, asmElementType);
+            return finalVar;
+        }
+
+        protected void checkEmptyIntegerProgression(@NotNull Label loopExit, int incrementVar, @NotNull Type incrementType) {
+            v.load(loopParameterVar, asmElementType);
+            v.load(endVar, asmElementType);
+            v.load(incrementVar, incrementType);
+
+            Label negativeIncrement = new Label();
+            Label afterIf = new Label();
+
+            if (asmElementType.getSort() == Type.LONG) {
+                v.lconst(0L);
+                v.lcmp();
+                v.ifle(negativeIncrement); // if increment < 0, jump
+
+                // increment > 0
+                v.lcmp();
+                v.ifgt(loopExit);
+                v.goTo(afterIf);
+
+                // increment < 0
+                v.mark(negativeIncrement);
+                v.lcmp();
+                v.iflt(loopExit);
+                v.mark(afterIf);
+            }
+            else {
+                v.ifle(negativeIncrement); // if increment < 0, jump
+
+                // increment > 0
+                v.ificmpgt(loopExit);
+                v.goTo(afterIf);
+
+                // increment < 0
+                v.mark(negativeIncrement);
+                v.ificmplt(loopExit);
+                v.mark(afterIf);
+            }
+        }
+
+        protected void incrementLoopParameter(int incrementVar) {
+            v.load(loopParameterVar, asmElementType);
+            v.load(incrementVar, asmElementType);
+            v.add(asmElementType);
+
+            if (asmElementType == Type.BYTE_TYPE || asmElementType == Type.SHORT_TYPE || asmElementType == Type.CHAR_TYPE) {
+                StackValue.coerce(Type.INT_TYPE, asmElementType, v);
+            }
+
+            v.store(loopParameterVar, asmElementType);
+        }
     }
 
     private abstract class AbstractForInRangeLoopGenerator extends AbstractForInProgressionOrRangeLoopGenerator {
@@ -1078,21 +1157,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
 
         private void storeFinalVar() {
-            if (!isIntegerProgression) {
-                finalVar = -1;
-                return;
-            }
-
-            v.load(loopParameterVar, asmElementType);
-            v.load(endVar, asmElementType);
-            v.load(incrementVar, incrementType);
-
-            Type methodParamType = asmElementType.getSort() == Type.LONG ? Type.LONG_TYPE : Type.INT_TYPE;
-            v.invokestatic("kotlin/internal/InternalPackage", "getProgressionFinalElement",
-                           Type.getMethodDescriptor(methodParamType, methodParamType, methodParamType, methodParamType), false);
-
-            finalVar = createLoopTempVariable(asmElementType);
-            v.store(finalVar, asmElementType);
+            finalVar = isIntegerProgression ? storeProgressionFinalElement(incrementVar, incrementType) : -1;
         }
 
         @Override
@@ -1131,62 +1196,251 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         public void checkEmptyLoop(@NotNull Label loopExit) {
             if (!isIntegerProgression) return;
 
-            v.load(loopParameterVar, asmElementType);
-            v.load(endVar, asmElementType);
-            v.load(incrementVar, incrementType);
+            checkEmptyIntegerProgression(loopExit, incrementVar, incrementType);
+        }
 
-            Label negativeIncrement = new Label();
-            Label afterIf = new Label();
+        @Override
+        protected void assignToLoopParameter() {
+        }
 
-            if (asmElementType.getSort() == Type.LONG) {
+        @Override
+        protected void increment(@NotNull Label loopExit) {
+            if (isIntegerProgression) {
+                checkPostCondition(loopExit);
+            }
+
+            incrementLoopParameter(incrementVar);
+        }
+    }
+
+    // Loops over integer progressions made by "downTo", "step", "reversed", "indices" and "..", see RangeCodegenUtil.getProgressionCall().
+    // Start, end and increment of the progression are computed right into local variables, no progression object is created.
+    // If the increment is known to be 1 or -1, the loop is checked against the end as in a range loop
+    private class ForInProgressionCallLoopGenerator extends AbstractForInProgressionOrRangeLoopGenerator {
+        private final Type incrementType;
+        private int incrementVar = -1;
+
+        // 0 if the increment is only known at runtime and is stored in incrementVar
+        private int constantIncrement;
+        private int finalVar;
+
+        private ForInProgressionCallLoopGenerator(@NotNull JetForExpression forExpression) {
+            super(forExpression);
+            assert isIntegerProgression : "Only integer progressions are supported: " + asmElementType;
+            incrementType = asmElementType.getSort() == Type.LONG ? Type.LONG_TYPE : Type.INT_TYPE;
+        }
+
+        @Override
+        protected int getFinalVar() {
+            return finalVar;
+        }
+
+        @Override
+        public void beforeLoop() {
+            super.beforeLoop();
+
+            JetExpression loopRange = forExpression.getLoopRange();
+            assert loopRange != null;
+            constantIncrement = storeProgression(loopRange);
+            finalVar = constantIncrement != 0 ? endVar : storeProgressionFinalElement(incrementVar, incrementType);
+        }
+
+        // Stores the start of the progression to loopParameterVar and its end to endVar.
+        // Returns the increment if it's a constant, otherwise stores it to incrementVar and returns 0
+        private int storeProgression(@NotNull JetExpression expression) {
+            RangeCodegenUtil.ProgressionCall call = RangeCodegenUtil.getProgressionCall(expression, bindingContext);
+            if (call == null) {
+                return storeProgressionInstance(expression);
+            }
+
+            switch (call.kind) {
+                case RANGE_TO:
+                case DOWN_TO:
+                    gen(call.receiver, asmElementType);
+                    v.store(loopParameterVar, asmElementType);
+                    gen(call.argument, asmElementType);
+                    v.store(endVar, asmElementType);
+                    return call.kind == RangeCodegenUtil.ProgressionCall.Kind.RANGE_TO ? 1 : -1;
+
+                case INDICES: {
+                    v.iconst(0);
+                    v.store(loopParameterVar, Type.INT_TYPE);
+
+                    Type asmReceiverType = asmType(call.receiverType);
+                    gen(call.receiver, asmReceiverType);
+                    if (asmReceiverType.getSort() == Type.ARRAY) {
+                        v.arraylength();
+                    }
+                    else {
+                        v.invokeinterface("java/util/Collection", "size", "()I");
+                    }
+                    v.iconst(1);
+                    v.sub(Type.INT_TYPE);
+                    v.store(endVar, Type.INT_TYPE);
+                    return 1;
+                }
+
+                case REVERSED: {
+                    int increment = storeProgression(call.receiver);
+
+                    v.load(loopParameterVar, asmElementType);
+                    v.load(endVar, asmElementType);
+                    v.store(loopParameterVar, asmElementType);
+                    v.store(endVar, asmElementType);
+
+                    if (increment != 0) return -increment;
+
+                    v.load(incrementVar, incrementType);
+                    v.neg(incrementType);
+                    v.store(incrementVar, incrementType);
+                    return 0;
+                }
+
+                case STEP: {
+                    int increment = storeProgression(call.receiver);
+
+                    int stepVar = increment != 0 ? getIncrementVar() : createLoopTempVariable(incrementType);
+                    gen(call.argument, incrementType);
+                    v.store(stepVar, incrementType);
+                    checkStepIsPositive(stepVar);
+
+                    if (increment > 0) return 0;
+
+                    if (increment < 0) {
+                        v.load(stepVar, incrementType);
+                        v.neg(incrementType);
+                        v.store(stepVar, incrementType);
+                        return 0;
+                    }
+
+                    // The step keeps the direction of the receiver progression: increment = if (increment > 0) step else -step
+                    Label positiveIncrement = new Label();
+                    Label afterIf = new Label();
+                    v.load(incrementVar, incrementType);
+                    compareWithZero(incrementType);
+                    v.ifgt(positiveIncrement);
+                    v.load(stepVar, incrementType);
+                    v.neg(incrementType);
+                    v.goTo(afterIf);
+                    v.mark(positiveIncrement);
+                    v.load(stepVar, incrementType);
+                    v.mark(afterIf);
+                    v.store(incrementVar, incrementType);
+                    return 0;
+                }
+
+                default:
+                    throw new IllegalStateException("Unknown progression call: " + call.kind);
+            }
+        }
+
+        // The receiver of "step" or "reversed" which is not made by a call known to the generator, e.g. a local variable
+        private int storeProgressionInstance(@NotNull JetExpression expression) {
+            JetType type = bindingContext.get(EXPRESSION_TYPE, expression);
+            assert type != null : "No type for " + expression.getText();
+            Type asmType = asmType(type);
+
+            gen(expression, asmType);
+            v.dup();
+            if (RangeCodegenUtil.isRange(type)) {
+                generateRangeOrProgressionProperty(asmType, "getStart", asmElementType, loopParameterVar);
+                generateRangeOrProgressionProperty(asmType, "getEnd", asmElementType, endVar);
+                return 1;
+            }
+
+            v.dup();
+            generateRangeOrProgressionProperty(asmType, "getStart", asmElementType, loopParameterVar);
+            generateRangeOrProgressionProperty(asmType, "getEnd", asmElementType, endVar);
+            generateRangeOrProgressionProperty(asmType, "getIncrement", incrementType, getIncrementVar());
+            return 0;
+        }
+
+        private int getIncrementVar() {
+            if (incrementVar == -1) {
+                incrementVar = createLoopTempVariable(incrementType);
+            }
+            return incrementVar;
+        }
+
+        // Same check and message as in the standard library "step" functions
+        private void checkStepIsPositive(int stepVar) {
+            Label positiveStep = new Label();
+            v.load(stepVar, incrementType);
+            compareWithZero(incrementType);
+            v.ifgt(positiveStep);
+
+            String exception = "java/lang/IllegalArgumentException";
+            v.anew(Type.getObjectType(exception));
+            v.dup();
+            genStringBuilderConstructor(v);
+            v.aconst("Step must be positive, was: ");
+            genInvokeAppendMethod(v, JAVA_STRING_TYPE);
+            v.load(stepVar, incrementType);
+            genInvokeAppendMethod(v, incrementType);
+            v.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+            v.invokespecial(exception, "<init>", "(Ljava/lang/String;)V", false);
+            v.athrow();
+
+            v.mark(positiveStep);
+        }
+
+        // Leaves an int on the stack to be checked with one of the "if<cond>" instructions
+        private void compareWithZero(@NotNull Type type) {
+            if (type.getSort() == Type.LONG) {
                 v.lconst(0L);
                 v.lcmp();
-                v.ifle(negativeIncrement); // if increment < 0, jump
+            }
+        }
 
-                // increment > 0
-                v.lcmp();
-                v.ifgt(loopExit);
-                v.goTo(afterIf);
+        @Override
+        public void checkEmptyLoop(@NotNull Label loopExit) {
+            if (constantIncrement == 0) {
+                checkEmptyIntegerProgression(loopExit, incrementVar, incrementType);
+                return;
+            }
 
-                // increment < 0
-                v.mark(negativeIncrement);
+            v.load(loopParameterVar, asmElementType);
+            v.load(endVar, asmElementType);
+            if (asmElementType.getSort() == Type.LONG) {
                 v.lcmp();
-                v.iflt(loopExit);
-                v.mark(afterIf);
+                if (constantIncrement > 0) {
+                    v.ifgt(loopExit);
+                }
+                else {
+                    v.iflt(loopExit);
+                }
             }
-            else {
-                v.ifle(negativeIncrement); // if increment < 0, jump
-
-                // increment > 0
+            else if (constantIncrement > 0) {
                 v.ificmpgt(loopExit);
-                v.goTo(afterIf);
-
-                // increment < 0
-                v.mark(negativeIncrement);
+            }
+            else {
                 v.ificmplt(loopExit);
-                v.mark(afterIf);
             }
         }
 
+        @Override
+        public void checkPreCondition(@NotNull Label loopExit) {
+        }
+
         @Override
         protected void assignToLoopParameter() {
         }
 
         @Override
         protected void increment(@NotNull Label loopExit) {
-            if (isIntegerProgression) {
-                checkPostCondition(loopExit);
-            }
-
-            v.load(loopParameterVar, asmElementType);
-            v.load(incrementVar, asmElementType);
-            v.add(asmElementType);
+            checkPostCondition(loopExit);
 
-            if (asmElementType == Type.BYTE_TYPE || asmElementType == Type.SHORT_TYPE || asmElementType == Type.CHAR_TYPE) {
-                StackValue.coerce(Type.INT_TYPE, asmElementType, v);
+            if (constantIncrement == 0) {
+                incrementLoopParameter(incrementVar);
+            }
+            else if (asmElementType == Type.INT_TYPE) {
+                v.iinc(loopParameterVar, constantIncrement);
+            }
+            else {
+                v.load(loopParameterVar, asmElementType);
+                genIncrement(asmElementType, constantIncrement, v);
+                v.store(loopParameterVar, asmElementType);
             }
-
-            v.store(loopParameterVar, asmElementType);
         }
     }
 
@@ -1292,51 +1546,169 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
     @Override
     public StackValue visitStringTemplateExpression(@NotNull JetStringTemplateExpression expression, StackValue receiver) {
-        StringBuilder constantValue = new StringBuilder("");
-        final JetStringTemplateEntry[] entries = expression.getEntries();
+        final List<StringPart> parts = collectStringParts(Collections.<JetExpression>singletonList(expression));
+        if (parts.isEmpty()) {
+            return StackValue.constant("", expressionType(expression));
+        }
+        if (parts.size() == 1 && parts.get(0).constant != null) {
+            return StackValue.constant(parts.get(0).constant, expressionType(expression));
+        }
+        return StackValue.operation(JAVA_STRING_TYPE, new Function1<InstructionAdapter, Unit>() {
+            @Override
+            public Unit invoke(InstructionAdapter v) {
+                genStringConcatenation(parts);
+                return Unit.INSTANCE$;
+            }
+        });
+    }
 
-        if (entries.length == 1 && entries[0] instanceof JetStringTemplateEntryWithExpression) {
-            JetExpression expr = entries[0].getExpression();
-            return genToString(gen(expr), expressionType(expr));
+    /**
+     * Generates concatenation of string representations of the given expressions, string templates and concatenations among them
+     * are flattened, so that the result is built in one go.
+     */
+    public void genStringConcatenation(@NotNull List<JetExpression> expressions) {
+        genStringConcatenation(collectStringParts(expressions));
+    }
+
+    private void genStringConcatenation(@NotNull List<StringPart> parts) {
+        if (parts.isEmpty()) {
+            v.aconst("");
+            return;
         }
 
-        for (JetStringTemplateEntry entry : entries) {
-            if (entry instanceof JetLiteralStringTemplateEntry) {
-                constantValue.append(entry.getText());
+        // One or two parts are concatenated without a builder, which would copy the characters once more in toString()
+        if (parts.size() <= 2) {
+            genStringValueOf(parts.get(0));
+            if (parts.size() == 2) {
+                genStringValueOf(parts.get(1));
+                v.invokevirtual("java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", false);
             }
-            else if (entry instanceof JetEscapeStringTemplateEntry) {
-                constantValue.append(((JetEscapeStringTemplateEntry) entry).getUnescapedValue());
+            return;
+        }
+
+        int capacity = 0;
+        for (StringPart part : parts) {
+            capacity += part.constant != null ? part.constant.length() : STRING_PART_LENGTH_ESTIMATE;
+        }
+        genStringBuilderConstructor(v, capacity);
+        for (StringPart part : parts) {
+            if (part.constant != null) {
+                v.aconst(part.constant);
+                genInvokeAppendMethod(v, JAVA_STRING_TYPE);
             }
             else {
-                constantValue = null;
-                break;
+                Type type = expressionType(part.expression);
+                gen(part.expression, type);
+                genInvokeAppendMethod(v, type);
             }
         }
-        if (constantValue != null) {
-            Type type = expressionType(expression);
-            return StackValue.constant(constantValue.toString(), type);
+        v.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
+    }
+
+    private void genStringValueOf(@NotNull StringPart part) {
+        if (part.constant != null) {
+            v.aconst(part.constant);
         }
         else {
-            return StackValue.operation(AsmTypeConstants.JAVA_STRING_TYPE, new Function1<InstructionAdapter, Unit>() {
-                @Override
-                public Unit invoke(InstructionAdapter v) {
-                    genStringBuilderConstructor(v);
-                    for (JetStringTemplateEntry entry : entries) {
-                        if (entry instanceof JetStringTemplateEntryWithExpression) {
-                            invokeAppend(entry.getExpression());
-                        }
-                        else {
-                            String text = entry instanceof JetEscapeStringTemplateEntry
-                                          ? ((JetEscapeStringTemplateEntry) entry).getUnescapedValue()
-                                          : entry.getText();
-                            v.aconst(text);
-                            genInvokeAppendMethod(v, JAVA_STRING_TYPE);
-                        }
-                    }
-                    v.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
-                    return Unit.INSTANCE$;
+            genToString(gen(part.expression), expressionType(part.expression)).put(JAVA_STRING_TYPE, v);
+        }
+    }
+
+    @NotNull
+    private List<StringPart> collectStringParts(@NotNull List<JetExpression> expressions) {
+        List<StringPart> parts = new ArrayList<StringPart>();
+        for (JetExpression expression : expressions) {
+            collectStringParts(expression, parts);
+        }
+        return parts;
+    }
+
+    private void collectStringParts(@NotNull JetExpression expression, @NotNull List<StringPart> parts) {
+        if (tempVariables.containsKey(expression)) {
+            parts.add(new StringPart(null, expression));
+            return;
+        }
+
+        String constant = getStringConstant(expression);
+        if (constant != null) {
+            addConstantStringPart(constant, parts);
+        }
+        else if (expression instanceof JetParenthesizedExpression && ((JetParenthesizedExpression) expression).getExpression() != null) {
+            collectStringParts(((JetParenthesizedExpression) expression).getExpression(), parts);
+        }
+        else if (expression instanceof JetStringTemplateExpression) {
+            for (JetStringTemplateEntry entry : ((JetStringTemplateExpression) expression).getEntries()) {
+                if (entry instanceof JetStringTemplateEntryWithExpression) {
+                    JetExpression entryExpression = entry.getExpression();
+                    assert entryExpression != null : "String template entry has no expression: " + expression.getText();
+                    collectStringParts(entryExpression, parts);
                 }
-            });
+                else if (entry instanceof JetEscapeStringTemplateEntry) {
+                    addConstantStringPart(((JetEscapeStringTemplateEntry) entry).getUnescapedValue(), parts);
+                }
+                else {
+                    addConstantStringPart(entry.getText(), parts);
+                }
+            }
+        }
+        else if (isStringConcatenation(expression)) {
+            JetBinaryExpression binaryExpression = (JetBinaryExpression) expression;
+            collectStringParts(binaryExpression.getLeft(), parts);
+            //noinspection ConstantConditions
+            collectStringParts(binaryExpression.getRight(), parts);
+        }
+        else {
+            parts.add(new StringPart(null, expression));
+        }
+    }
+
+    private static void addConstantStringPart(@NotNull String constant, @NotNull List<StringPart> parts) {
+        if (constant.isEmpty()) return;
+
+        int last = parts.size() - 1;
+        if (last >= 0 && parts.get(last).constant != null) {
+            parts.set(last, new StringPart(parts.get(last).constant + constant, null));
+        }
+        else {
+            parts.add(new StringPart(constant, null));
+        }
+    }
+
+    // Only literals are evaluated here: values of properties are read at runtime, even if they're known at compile time
+    @Nullable
+    private String getStringConstant(@NotNull JetExpression expression) {
+        CompileTimeConstant<?> compileTimeValue = getCompileTimeConstant(expression, bindingContext);
+        if (compileTimeValue == null || compileTimeValue.usesVariableAsConstant()) return null;
+
+        Object value = compileTimeValue.getValue();
+        return value instanceof String || value instanceof Number || value instanceof Character || value instanceof Boolean
+               ? String.valueOf(value)
+               : null;
+    }
+
+    private boolean isStringConcatenation(@NotNull JetExpression expression) {
+        if (!(expression instanceof JetBinaryExpression)) return false;
+
+        JetBinaryExpression binaryExpression = (JetBinaryExpression) expression;
+        if (binaryExpression.getOperationToken() != JetTokens.PLUS || binaryExpression.getRight() == null) return false;
+
+        ResolvedCall<?> resolvedCall = getResolvedCall(expression, bindingContext);
+        if (resolvedCall == null) return false;
+
+        CallableDescriptor descriptor = resolvedCall.getResultingDescriptor();
+        if (!(descriptor instanceof CallableMemberDescriptor)) return false;
+
+        IntrinsicMethod intrinsic = state.getIntrinsics().getIntrinsic((CallableMemberDescriptor) descriptor.getOriginal());
+        return intrinsic instanceof Concat || intrinsic instanceof StringPlus;
+    }
+
+    private static class StringPart {
+        public final String constant;
+        public final JetExpression expression;
+
+        public StringPart(@Nullable String constant, @Nullable JetExpression expression) {
+            this.constant = constant;
+            this.expression = expression;
         }
     }
 
@@ -1836,7 +2208,9 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
                     expression.getReferencedNameElementType() == JetTokens.FIELD_IDENTIFIER && contextKind() != OwnerKind.TRAIT_IMPL;
             JetExpression r = getReceiverForSelector(expression);
             boolean isSuper = r instanceof JetSuperExpression;
-            propertyDescriptor = accessiblePropertyDescriptor(propertyDescriptor);
+            if (!isAccessedDirectly(propertyDescriptor)) {
+                propertyDescriptor = accessiblePropertyDescriptor(propertyDescriptor);
+            }
 
             if (directToField) {
                 receiver = StackValue.receiverWithoutReceiverArgument(receiver);
@@ -1930,6 +2304,13 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         return null;
     }
 
+    // Properties read and written through their backing field need no synthetic accessors, e.g. in inlined lambdas
+    private boolean isAccessedDirectly(@NotNull PropertyDescriptor propertyDescriptor) {
+        boolean isDelegatedProperty = getPropertyDelegateType(propertyDescriptor, bindingContext) != null;
+        return couldUseDirectAccessToProperty(propertyDescriptor, true, isDelegatedProperty, context) &&
+               (!propertyDescriptor.isVar() || couldUseDirectAccessToProperty(propertyDescriptor, false, isDelegatedProperty, context));
+    }
+
     @NotNull
     public StackValue.Property intermediateValueForProperty(
             @NotNull PropertyDescriptor propertyDescriptor,
@@ -1963,7 +2344,7 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
 
         boolean skipPropertyAccessors = forceField && !isBackingFieldInAnotherClass;
 
-        CodegenContext backingFieldContext = context.getParentContext();
+        CodegenContext backingFieldContext = getCallSiteContextOfInlinedLambda(context).getParentContext();
         boolean changeOwnerOnTypeMapping = isBackingFieldInAnotherClass;
 
         if (isBackingFieldInAnotherClass && forceField) {
@@ -3158,26 +3539,6 @@ public class ExpressionCodegen extends JetVisitor<StackValue, StackValue> implem
         }
     }
 
-    public void invokeAppend(JetExpression expr) {
-        if (expr instanceof JetBinaryExpression) {
-            JetBinaryExpression binaryExpression = (JetBinaryExpression) expr;
-            if (binaryExpression.getOperationToken() == JetTokens.PLUS) {
-                JetExpression left = binaryExpression.getLeft();
-                JetExpression right = binaryExpression.getRight();
-                Type leftType = expressionType(left);
-
-                if (leftType.equals(JAVA_STRING_TYPE)) {
-                    invokeAppend(left);
-                    invokeAppend(right);
-                    return;
-                }
-            }
-        }
-        Type exprType = expressionType(expr);
-        gen(expr, exprType);
-        genInvokeAppendMethod(v, exprType.getSort() == Type.ARRAY ? OBJECT_TYPE : exprType);
-    }
-
     @Nullable
     private static JetSimpleNameExpression targetLabel(JetExpression expression) {
         if (expression.getParent() instanceof JetLabeledExpression) {
@@ -165,6 +165,9 @@ public class JvmCodegenUtil {
     ) {
         if (JetTypeMapper.isAccessor(property)) return false;
 
+        // Bodies of inlined lambdas end up in the method of the call site, so the access is made from there
+        context = getCallSiteContextOfInlinedLambda(context);
+
         // Inline functions can't use direct access because a field may not be visible at the call site
         if (context.isInlineFunction() && property.getVisibility() != Visibilities.PRIVATE) return false;
 
@@ -186,7 +189,21 @@ public class JvmCodegenUtil {
         if (accessor.hasBody()) return false;
 
         // If the accessor is private or final, it can't be overridden in the subclass and thus we can use direct access
-        return property.getVisibility() == Visibilities.PRIVATE || accessor.getModality() == FINAL;
+        return property.getVisibility() == Visibilities.PRIVATE ||
+               accessor.getVisibility() == Visibilities.PRIVATE ||
+               accessor.getModality() == FINAL;
+    }
+
+    @NotNull
+    public static MethodContext getCallSiteContextOfInlinedLambda(@NotNull MethodContext context) {
+        MethodContext result = context;
+        while (result.isInlinedIntoCallSite()) {
+            // Inlined lambda is generated in the context of its closure, which is nested in the context of the call site
+            CodegenContext callSite = result.getParentContext().getParentContext();
+            if (!(callSite instanceof MethodContext)) break;
+            result = (MethodContext) callSite;
+        }
+        return result;
     }
 
     private static boolean isDebuggerContext(@NotNull MethodContext context) {
@@ -20,9 +20,14 @@ import com.google.common.collect.ImmutableMap;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.lang.descriptors.CallableDescriptor;
+import org.jetbrains.jet.lang.descriptors.DeclarationDescriptor;
 import org.jetbrains.jet.lang.descriptors.ClassifierDescriptor;
+import org.jetbrains.jet.lang.descriptors.PackageFragmentDescriptor;
+import org.jetbrains.jet.lang.descriptors.ReceiverParameterDescriptor;
 import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
 import org.jetbrains.jet.lang.resolve.DescriptorUtils;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 import org.jetbrains.jet.lang.resolve.name.Name;
 import org.jetbrains.jet.lang.types.JetType;
@@ -32,6 +37,7 @@ import org.jetbrains.jet.lang.types.lang.PrimitiveType;
 import java.util.List;
 
 import static org.jetbrains.jet.codegen.AsmUtil.isPrimitiveNumberClassDescriptor;
+import static org.jetbrains.jet.lang.resolve.calls.callUtil.CallUtilPackage.getResolvedCall;
 import static org.jetbrains.jet.lang.types.lang.KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME;
 
 public class RangeCodegenUtil {
@@ -61,12 +67,27 @@ public class RangeCodegenUtil {
         return !rangeType.isNullable() && getPrimitiveProgressionElementType(rangeType) != null;
     }
 
+    public static boolean isIntegerRangeOrProgression(@NotNull JetType rangeType) {
+        if (rangeType.isNullable()) return false;
+        PrimitiveType elementType = getPrimitiveRangeElementType(rangeType);
+        if (elementType == null) {
+            elementType = getPrimitiveProgressionElementType(rangeType);
+        }
+        return elementType != null &&
+               elementType != PrimitiveType.BOOLEAN && elementType != PrimitiveType.FLOAT && elementType != PrimitiveType.DOUBLE;
+    }
+
     @Nullable
     public static BinaryCall getRangeAsBinaryCall(@NotNull JetForExpression forExpression) {
-        // We are looking for rangeTo() calls
-        // Other binary operations will succeed too, but will be filtered out later (by examining a resolvedCall)
         JetExpression rangeExpression = forExpression.getLoopRange();
         assert rangeExpression != null;
+        return getBinaryCall(rangeExpression);
+    }
+
+    @Nullable
+    private static BinaryCall getBinaryCall(@NotNull JetExpression rangeExpression) {
+        // We are looking for rangeTo() calls
+        // Other binary operations will succeed too, but will be filtered out later (by examining a resolvedCall)
         JetExpression loopRange = JetPsiUtil.deparenthesize(rangeExpression);
         if (loopRange instanceof JetQualifiedExpression) {
             // a.rangeTo(b)
@@ -91,6 +112,68 @@ public class RangeCodegenUtil {
         return null;
     }
 
+    /**
+     * Recognizes the calls of the standard library functions which make a range or a progression out of their arguments:
+     * "a..b", "a downTo b", "p step s", "p.reversed()" and "c.indices" for arrays and collections.
+     * The receiver of "step" and "reversed" should be either such a call itself or an expression of a range or progression type
+     */
+    @Nullable
+    public static ProgressionCall getProgressionCall(@NotNull JetExpression expression, @NotNull BindingContext bindingContext) {
+        BinaryCall binaryCall = getBinaryCall(expression);
+        if (binaryCall != null) {
+            if (binaryCall.left == null || binaryCall.right == null) return null;
+
+            ResolvedCall<?> resolvedCall = getResolvedCall(binaryCall.op, bindingContext);
+            if (resolvedCall == null) return null;
+
+            CallableDescriptor descriptor = resolvedCall.getResultingDescriptor();
+            if (isOptimizableRangeTo(descriptor)) {
+                return new ProgressionCall(ProgressionCall.Kind.RANGE_TO, binaryCall.left, null, binaryCall.right);
+            }
+            if (isOptimizableDownTo(descriptor)) {
+                return new ProgressionCall(ProgressionCall.Kind.DOWN_TO, binaryCall.left, null, binaryCall.right);
+            }
+            if (isOptimizableStep(descriptor) && isProgressionReceiver(binaryCall.left, bindingContext)) {
+                return new ProgressionCall(ProgressionCall.Kind.STEP, binaryCall.left, getReceiverType(descriptor), binaryCall.right);
+            }
+            return null;
+        }
+
+        JetExpression deparenthesized = JetPsiUtil.deparenthesize(expression);
+        if (!(deparenthesized instanceof JetDotQualifiedExpression)) return null;
+
+        JetDotQualifiedExpression qualifiedExpression = (JetDotQualifiedExpression) deparenthesized;
+        JetExpression selector = qualifiedExpression.getSelectorExpression();
+        if (selector instanceof JetCallExpression && !((JetCallExpression) selector).getValueArguments().isEmpty()) return null;
+
+        ResolvedCall<?> resolvedCall = getResolvedCall(qualifiedExpression, bindingContext);
+        if (resolvedCall == null) return null;
+
+        CallableDescriptor descriptor = resolvedCall.getResultingDescriptor();
+        JetExpression receiver = qualifiedExpression.getReceiverExpression();
+        if (selector instanceof JetCallExpression && isOptimizableReversed(descriptor) && isProgressionReceiver(receiver, bindingContext)) {
+            return new ProgressionCall(ProgressionCall.Kind.REVERSED, receiver, getReceiverType(descriptor), null);
+        }
+        if (selector instanceof JetSimpleNameExpression && isOptimizableIndices(descriptor)) {
+            return new ProgressionCall(ProgressionCall.Kind.INDICES, receiver, getReceiverType(descriptor), null);
+        }
+        return null;
+    }
+
+    private static boolean isProgressionReceiver(@NotNull JetExpression receiver, @NotNull BindingContext bindingContext) {
+        if (getProgressionCall(receiver, bindingContext) != null) return true;
+
+        JetType type = bindingContext.get(BindingContext.EXPRESSION_TYPE, receiver);
+        return type != null && (isRange(type) || isProgression(type));
+    }
+
+    @NotNull
+    private static JetType getReceiverType(@NotNull CallableDescriptor descriptor) {
+        ReceiverParameterDescriptor receiverParameter = descriptor.getExtensionReceiverParameter();
+        assert receiverParameter != null : "Extension receiver expected: " + descriptor;
+        return receiverParameter.getType();
+    }
+
     @Nullable
     private static PrimitiveType getPrimitiveRangeElementType(JetType rangeType) {
         return getPrimitiveRangeOrProgressionElementType(rangeType, RANGE_TO_ELEMENT_TYPE);
@@ -134,6 +217,74 @@ public class RangeCodegenUtil {
         return false;
     }
 
+    public static boolean isOptimizableDownTo(@NotNull CallableDescriptor downTo) {
+        if (!"downTo".equals(downTo.getName().asString()) || !isBuiltInsPackageMember(downTo)) return false;
+
+        ReceiverParameterDescriptor receiver = downTo.getExtensionReceiverParameter();
+        return receiver != null && isPrimitiveNumberClassDescriptor(receiver.getType().getConstructor().getDeclarationDescriptor());
+    }
+
+    public static boolean isOptimizableStep(@NotNull CallableDescriptor step) {
+        return "step".equals(step.getName().asString()) && isBuiltInsPackageMember(step) && hasRangeOrProgressionReceiver(step);
+    }
+
+    public static boolean isOptimizableReversed(@NotNull CallableDescriptor reversed) {
+        return "reversed".equals(reversed.getName().asString()) && isBuiltInsPackageMember(reversed) &&
+               reversed.getValueParameters().isEmpty() && hasRangeOrProgressionReceiver(reversed);
+    }
+
+    public static boolean isOptimizableIndices(@NotNull CallableDescriptor indices) {
+        if (!"indices".equals(indices.getName().asString()) || !isBuiltInsPackageMember(indices)) return false;
+
+        ReceiverParameterDescriptor receiver = indices.getExtensionReceiverParameter();
+        if (receiver == null) return false;
+
+        JetType type = receiver.getType();
+        KotlinBuiltIns builtIns = KotlinBuiltIns.getInstance();
+        return builtIns.isArray(type) || builtIns.isPrimitiveArray(type) ||
+               type.getConstructor().getDeclarationDescriptor() == builtIns.getCollection();
+    }
+
+    private static boolean hasRangeOrProgressionReceiver(@NotNull CallableDescriptor descriptor) {
+        ReceiverParameterDescriptor receiver = descriptor.getExtensionReceiverParameter();
+        return receiver != null && (isRange(receiver.getType()) || isProgression(receiver.getType()));
+    }
+
+    // Standard library functions on ranges are declared in the same package as the built-ins
+    private static boolean isBuiltInsPackageMember(@NotNull CallableDescriptor descriptor) {
+        DeclarationDescriptor container = descriptor.getContainingDeclaration();
+        return container instanceof PackageFragmentDescriptor &&
+               ((PackageFragmentDescriptor) container).getFqName().equals(BUILT_INS_PACKAGE_FQ_NAME);
+    }
+
+    public static class ProgressionCall {
+        public enum Kind {
+            RANGE_TO,
+            DOWN_TO,
+            STEP,
+            REVERSED,
+            INDICES
+        }
+
+        public final Kind kind;
+        public final JetExpression receiver;
+        // Declared type of the receiver for STEP, REVERSED and INDICES, the receiver expression itself may have a less specific type
+        public final JetType receiverType;
+        public final JetExpression argument;
+
+        private ProgressionCall(
+                @NotNull Kind kind,
+                @NotNull JetExpression receiver,
+                @Nullable JetType receiverType,
+                @Nullable JetExpression argument
+        ) {
+            this.kind = kind;
+            this.receiver = receiver;
+            this.receiverType = receiverType;
+            this.argument = argument;
+        }
+    }
+
     public static class BinaryCall {
         public final JetExpression left;
         public final JetExpression op;
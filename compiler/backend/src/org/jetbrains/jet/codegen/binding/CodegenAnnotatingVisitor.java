@@ -29,6 +29,7 @@ import org.jetbrains.jet.codegen.SamCodegenUtil;
 import org.jetbrains.jet.codegen.SamType;
 import org.jetbrains.jet.codegen.state.GenerationState;
 import org.jetbrains.jet.codegen.when.SwitchCodegenUtil;
+import org.jetbrains.jet.codegen.when.WhenByClassesMapping;
 import org.jetbrains.jet.codegen.when.WhenByEnumsMapping;
 import org.jetbrains.jet.lang.cfg.WhenChecker;
 import org.jetbrains.jet.lang.descriptors.*;
@@ -499,6 +500,10 @@ class CodegenAnnotatingVisitor extends JetVisitorVoid {
     @Override
     public void visitWhenExpression(@NotNull JetWhenExpression expression) {
         super.visitWhenExpression(expression);
+        if (SwitchCodegenUtil.isWhenByFinalClasses(expression, bindingContext)) {
+            recordMappingForWhenByClasses(expression);
+            return;
+        }
         if (!isWhenWithEnums(expression)) return;
 
         String currentClassName = getCurrentTopLevelClassOrPackagePartInternalName(expression.getContainingJetFile());
@@ -531,6 +536,28 @@ class CodegenAnnotatingVisitor extends JetVisitorVoid {
         bindingTrace.record(MAPPING_FOR_WHEN_BY_ENUM, expression, mapping);
     }
 
+    private void recordMappingForWhenByClasses(@NotNull JetWhenExpression expression) {
+        String currentClassName = getCurrentTopLevelClassOrPackagePartInternalName(expression.getContainingJetFile());
+
+        List<WhenByClassesMapping> mappings = bindingContext.get(MAPPINGS_FOR_WHENS_BY_CLASSES_IN_CLASS_FILE, currentClassName);
+        if (mappings == null) {
+            mappings = new ArrayList<WhenByClassesMapping>(1);
+            bindingTrace.record(MAPPINGS_FOR_WHENS_BY_CLASSES_IN_CLASS_FILE, currentClassName, mappings);
+        }
+
+        WhenByClassesMapping mapping = new WhenByClassesMapping(currentClassName, mappings.size());
+
+        for (JetWhenEntry entry : expression.getEntries()) {
+            for (ClassDescriptor classDescriptor : SwitchCodegenUtil.getClassesFromEntry(entry, bindingContext)) {
+                mapping.putFirstTime(classDescriptor);
+            }
+        }
+
+        mappings.add(mapping);
+
+        bindingTrace.record(MAPPING_FOR_WHEN_BY_CLASSES, expression, mapping);
+    }
+
     private boolean isWhenWithEnums(@NotNull JetWhenExpression expression) {
         return WhenChecker.isWhenByEnum(expression, bindingContext) &&
                SwitchCodegenUtil.checkAllItemsAreConstantsSatisfying(
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.codegen.SamType;
 import org.jetbrains.jet.codegen.state.GenerationState;
+import org.jetbrains.jet.codegen.when.WhenByClassesMapping;
 import org.jetbrains.jet.codegen.when.WhenByEnumsMapping;
 import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.descriptors.impl.ClassDescriptorImpl;
@@ -66,6 +67,12 @@ public class CodegenBinding {
     public static final WritableSlice<String, List<WhenByEnumsMapping>> MAPPINGS_FOR_WHENS_BY_ENUM_IN_CLASS_FILE =
             Slices.<String, List<WhenByEnumsMapping>>sliceBuilder().build();
 
+    public static final WritableSlice<JetWhenExpression, WhenByClassesMapping> MAPPING_FOR_WHEN_BY_CLASSES = Slices.
+            <JetWhenExpression, WhenByClassesMapping>sliceBuilder().build();
+
+    public static final WritableSlice<String, List<WhenByClassesMapping>> MAPPINGS_FOR_WHENS_BY_CLASSES_IN_CLASS_FILE =
+            Slices.<String, List<WhenByClassesMapping>>sliceBuilder().build();
+
     static {
         BasicWritableSlice.initSliceDebugNames(CodegenBinding.class);
     }
@@ -34,7 +34,7 @@ public class ConstructorContext extends MethodContext {
             @NotNull CodegenContext parent,
             @Nullable MutableClosure closure
     ) {
-        super(contextDescriptor, kind, parent, closure, false);
+        super(contextDescriptor, kind, parent, closure, false, false);
     }
 
     @Override
@@ -31,6 +31,7 @@ import org.jetbrains.org.objectweb.asm.Type;
 
 public class MethodContext extends CodegenContext<CallableMemberDescriptor> {
     private final boolean isInliningLambda;
+    private final boolean isInlinedIntoCallSite;
     private Label methodStartLabel;
 
     protected MethodContext(
@@ -38,11 +39,13 @@ public class MethodContext extends CodegenContext<CallableMemberDescriptor> {
             @NotNull OwnerKind contextKind,
             @NotNull CodegenContext parentContext,
             @Nullable MutableClosure closure,
-            boolean isInliningLambda
+            boolean isInliningLambda,
+            boolean isInlinedIntoCallSite
     ) {
         super(JvmCodegenUtil.getDirectMember(contextDescriptor), contextKind, parentContext, closure,
               parentContext.hasThisDescriptor() ? parentContext.getThisDescriptor() : null, null);
         this.isInliningLambda = isInliningLambda;
+        this.isInlinedIntoCallSite = isInlinedIntoCallSite;
     }
 
     @NotNull
@@ -113,4 +116,12 @@ public class MethodContext extends CodegenContext<CallableMemberDescriptor> {
         return isInliningLambda;
     }
 
+    /**
+     * @return true if this is an inlined lambda whose body ends up only in the method of the call site,
+     * i.e. the inline function doesn't regenerate it into an anonymous object
+     */
+    public boolean isInlinedIntoCallSite() {
+        return isInlinedIntoCallSite;
+    }
+
 }
@@ -206,7 +206,7 @@ public class InlineCodegen implements CallGenerator {
 
     private InlineResult inlineCall(MethodNode node) {
         reifiedTypeInliner.reifyInstructions(node.instructions);
-        generateClosuresBodies();
+        generateClosuresBodies(!InlineCodegenUtil.hasAnonymousObjectConstructorCalls(node));
 
         //through generation captured parameters will be added to invocationParamBuilder
         putClosureParametersOnStack();
@@ -257,19 +257,20 @@ public class InlineCodegen implements CallGenerator {
         return result;
     }
 
-    private void generateClosuresBodies() {
+    private void generateClosuresBodies(boolean isInlinedIntoCallSite) {
         for (LambdaInfo info : expressionMap.values()) {
-            info.setNode(generateLambdaBody(info));
+            info.setNode(generateLambdaBody(info, isInlinedIntoCallSite));
         }
     }
 
-    private MethodNode generateLambdaBody(LambdaInfo info) {
+    private MethodNode generateLambdaBody(LambdaInfo info, boolean isInlinedIntoCallSite) {
         JetFunctionLiteral declaration = info.getFunctionLiteral();
         FunctionDescriptor descriptor = info.getFunctionDescriptor();
 
         MethodContext parentContext = codegen.getContext();
 
-        MethodContext context = parentContext.intoClosure(descriptor, codegen, typeMapper).intoInlinedLambda(descriptor);
+        MethodContext context =
+                parentContext.intoClosure(descriptor, codegen, typeMapper).intoInlinedLambda(descriptor, isInlinedIntoCallSite);
 
         JvmMethodSignature jvmMethodSignature = typeMapper.mapSignature(descriptor);
         Method asmMethod = jvmMethodSignature.getAsmMethod();
@@ -236,6 +236,16 @@ public class InlineCodegenUtil {
         return JvmAbi.INSTANCE_FIELD.equals(fieldName) && isAnonymousClass(internalName);
     }
 
+    // Lambdas passed to an inline function may be regenerated into other classes only as a part of anonymous objects
+    public static boolean hasAnonymousObjectConstructorCalls(@NotNull MethodNode node) {
+        for (AbstractInsnNode insn = node.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() == Opcodes.NEW && isAnonymousClass(((TypeInsnNode) insn).desc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public static boolean isAnonymousClass(String internalName) {
         String shortName = getLastNamePart(internalName);
         int index = shortName.lastIndexOf("$");
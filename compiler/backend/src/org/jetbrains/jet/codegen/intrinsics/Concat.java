@@ -27,8 +27,6 @@ import org.jetbrains.org.objectweb.asm.commons.InstructionAdapter;
 
 import java.util.List;
 
-import static org.jetbrains.jet.codegen.AsmUtil.genInvokeAppendMethod;
-import static org.jetbrains.jet.codegen.AsmUtil.genStringBuilderConstructor;
 import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.JAVA_STRING_TYPE;
 
 public class Concat extends IntrinsicMethod {
@@ -44,20 +42,16 @@ public class Concat extends IntrinsicMethod {
     ) {
         if (receiver == StackValue.none()) {
             // LHS + RHS
-            genStringBuilderConstructor(v);
-            codegen.invokeAppend(arguments.get(0));
-            codegen.invokeAppend(arguments.get(1));
+            codegen.genStringConcatenation(arguments);
         }
         else {
             // LHS.plus(RHS)
             receiver.put(AsmTypeConstants.OBJECT_TYPE, v);
-            genStringBuilderConstructor(v);
-            v.swap();
-            genInvokeAppendMethod(v, returnType);
-            codegen.invokeAppend(arguments.get(0));
+            v.invokestatic("java/lang/String", "valueOf", "(Ljava/lang/Object;)Ljava/lang/String;", false);
+            codegen.genStringConcatenation(arguments);
+            v.invokevirtual("java/lang/String", "concat", "(Ljava/lang/String;)Ljava/lang/String;", false);
         }
 
-        v.invokevirtual("java/lang/StringBuilder", "toString", "()Ljava/lang/String;", false);
         return JAVA_STRING_TYPE;
     }
 }
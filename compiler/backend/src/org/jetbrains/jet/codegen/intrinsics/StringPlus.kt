@@ -35,14 +35,14 @@ public class StringPlus : LazyIntrinsicMethod() {
     ): StackValue {
         return StackValue.operation(JAVA_STRING_TYPE) {
             if (receiver == StackValue.none()) {
-                codegen.gen(arguments.get(0)).put(JAVA_STRING_TYPE, it)
-                codegen.gen(arguments.get(1)).put(OBJECT_TYPE, it)
+                // LHS + RHS, "null" is appended for a null on either side
+                codegen.genStringConcatenation(arguments)
             }
             else {
                 receiver.put(JAVA_STRING_TYPE, it)
                 codegen.gen(arguments.get(0)).put(OBJECT_TYPE, it)
+                it.invokestatic(IntrinsicMethods.INTRINSICS_CLASS_NAME, "stringPlus", "(Ljava/lang/String;Ljava/lang/Object;)Ljava/lang/String;", false)
             }
-            it.invokestatic(IntrinsicMethods.INTRINSICS_CLASS_NAME, "stringPlus", "(Ljava/lang/String;Ljava/lang/Object;)Ljava/lang/String;", false)
         }
     }
 }
@@ -21,6 +21,8 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.codegen.inline.InlineCodegenUtil;
 import org.jetbrains.jet.codegen.optimization.boxing.RedundantBoxingMethodTransformer;
 import org.jetbrains.jet.codegen.optimization.boxing.RedundantNullCheckMethodTransformer;
+import org.jetbrains.jet.codegen.optimization.capturedVars.CapturedVarsOptimizationMethodTransformer;
+import org.jetbrains.jet.codegen.optimization.constantFolding.ConstantFoldingMethodTransformer;
 import org.jetbrains.jet.codegen.optimization.transformer.MethodTransformer;
 import org.jetbrains.org.objectweb.asm.MethodVisitor;
 import org.jetbrains.org.objectweb.asm.Opcodes;
@@ -35,7 +37,9 @@ import java.util.List;
 public class OptimizationMethodVisitor extends MethodVisitor {
     private static final int MEMORY_LIMIT_BY_METHOD_MB = 50;
     private static final MethodTransformer[] TRANSFORMERS = new MethodTransformer[]{
+            new CapturedVarsOptimizationMethodTransformer(),
             new RedundantNullCheckMethodTransformer(), new RedundantBoxingMethodTransformer(),
+            new ConstantFoldingMethodTransformer(),
             new RedundantGotoMethodTransformer(), new StoreStackBeforeInlineMethodTransformer()
     };
 
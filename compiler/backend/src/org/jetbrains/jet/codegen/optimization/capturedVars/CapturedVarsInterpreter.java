@@ -0,0 +1,238 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.optimization.capturedVars;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.codegen.StackValue;
+import org.jetbrains.jet.codegen.optimization.common.OptimizationBasicInterpreter;
+import org.jetbrains.org.objectweb.asm.Opcodes;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.*;
+import org.jetbrains.org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+
+import java.util.*;
+
+public class CapturedVarsInterpreter extends OptimizationBasicInterpreter {
+    private static final Map<String, Type> REF_TYPE_TO_ELEMENT_TYPE = new HashMap<String, Type>();
+
+    static {
+        for (Type type : new Type[] {
+                Type.BOOLEAN_TYPE, Type.CHAR_TYPE, Type.BYTE_TYPE, Type.SHORT_TYPE, Type.INT_TYPE,
+                Type.LONG_TYPE, Type.FLOAT_TYPE, Type.DOUBLE_TYPE, Type.getObjectType("java/lang/Object")
+        }) {
+            REF_TYPE_TO_ELEMENT_TYPE.put(StackValue.sharedTypeForType(type).getInternalName(), StackValue.refType(type));
+        }
+    }
+
+    private final Map<AbstractInsnNode, SharedRefValue> refs = new LinkedHashMap<AbstractInsnNode, SharedRefValue>();
+
+    @NotNull
+    public Collection<SharedRefValue> getRefs() {
+        return refs.values();
+    }
+
+    public static boolean isRefType(@NotNull String internalName) {
+        return REF_TYPE_TO_ELEMENT_TYPE.containsKey(internalName);
+    }
+
+    @Override
+    public BasicValue newOperation(@NotNull AbstractInsnNode insn) throws AnalyzerException {
+        if (insn.getOpcode() == Opcodes.NEW) {
+            TypeInsnNode newInsn = (TypeInsnNode) insn;
+            Type elementType = REF_TYPE_TO_ELEMENT_TYPE.get(newInsn.desc);
+            if (elementType != null) {
+                SharedRefValue value = refs.get(insn);
+                if (value == null) {
+                    value = new SharedRefValue(newInsn, elementType);
+                    refs.put(insn, value);
+                }
+                return value;
+            }
+        }
+
+        return super.newOperation(insn);
+    }
+
+    @Override
+    public BasicValue copyOperation(@NotNull AbstractInsnNode insn, @NotNull BasicValue value) throws AnalyzerException {
+        if (value instanceof SharedRefValue) {
+            SharedRefValue ref = (SharedRefValue) value;
+            switch (insn.getOpcode()) {
+                case Opcodes.ALOAD:
+                case Opcodes.ASTORE:
+                    ref.getInsnsToRemove().add(insn);
+                    ref.getVariables().add(((VarInsnNode) insn).var);
+                    break;
+                case Opcodes.DUP:
+                    ref.getInsnsToRemove().add(insn);
+                    break;
+                default:
+                    ref.markAsUnsafeToRemove();
+            }
+            return value;
+        }
+
+        markUsed(value);
+        return super.copyOperation(insn, value);
+    }
+
+    @Override
+    public BasicValue unaryOperation(@NotNull AbstractInsnNode insn, @NotNull BasicValue value) throws AnalyzerException {
+        if (value instanceof SharedRefValue && insn.getOpcode() == Opcodes.GETFIELD && isElementField((FieldInsnNode) insn)) {
+            ((SharedRefValue) value).getGetFieldInsns().add(insn);
+        }
+        else {
+            markUsed(value);
+        }
+        return super.unaryOperation(insn, value);
+    }
+
+    @Override
+    public BasicValue binaryOperation(
+            @NotNull AbstractInsnNode insn,
+            @NotNull BasicValue value1,
+            @NotNull BasicValue value2
+    ) throws AnalyzerException {
+        if (value1 instanceof SharedRefValue && insn.getOpcode() == Opcodes.PUTFIELD && isElementField((FieldInsnNode) insn)) {
+            ((SharedRefValue) value1).getPutFieldInsns().add(insn);
+        }
+        else {
+            markUsed(value1);
+        }
+        markUsed(value2);
+        return super.binaryOperation(insn, value1, value2);
+    }
+
+    @Override
+    public BasicValue ternaryOperation(
+            @NotNull AbstractInsnNode insn,
+            @NotNull BasicValue value1,
+            @NotNull BasicValue value2,
+            @NotNull BasicValue value3
+    ) throws AnalyzerException {
+        markUsed(value1);
+        markUsed(value2);
+        markUsed(value3);
+        return super.ternaryOperation(insn, value1, value2, value3);
+    }
+
+    @Override
+    public BasicValue naryOperation(@NotNull AbstractInsnNode insn, @NotNull List<? extends BasicValue> values) throws AnalyzerException {
+        for (int i = 0; i < values.size(); i++) {
+            BasicValue value = values.get(i);
+            if (i == 0 && value instanceof SharedRefValue && isRefConstructorCall(insn)) {
+                ((SharedRefValue) value).getInitInsns().add(insn);
+            }
+            else {
+                markUsed(value);
+            }
+        }
+        return super.naryOperation(insn, values);
+    }
+
+    @Override
+    public void returnOperation(
+            @NotNull AbstractInsnNode insn,
+            @NotNull BasicValue value,
+            @NotNull BasicValue expected
+    ) throws AnalyzerException {
+        markUsed(value);
+        super.returnOperation(insn, value, expected);
+    }
+
+    @NotNull
+    @Override
+    public BasicValue merge(@NotNull BasicValue v, @NotNull BasicValue w) {
+        if (v == w) return v;
+
+        Set<SharedRefValue> mergedRefs = new HashSet<SharedRefValue>();
+        collectRefs(v, mergedRefs);
+        collectRefs(w, mergedRefs);
+        if (mergedRefs.isEmpty()) {
+            return super.merge(v, w);
+        }
+
+        return new MergedSharedRefsValue(mergedRefs);
+    }
+
+    /**
+     * Stack manipulations which don't go through the interpreter, the instruction's frame is the one before its execution
+     */
+    public void processStackInstruction(@NotNull AbstractInsnNode insn, @NotNull List<BasicValue> stackTop) {
+        // stackTop is ordered from the top of the stack
+        switch (insn.getOpcode()) {
+            case Opcodes.POP:
+                if (stackTop.get(0) instanceof SharedRefValue) {
+                    ((SharedRefValue) stackTop.get(0)).getInsnsToRemove().add(insn);
+                    return;
+                }
+                break;
+            case Opcodes.DUP_X1:
+            case Opcodes.DUP2_X1:
+                int underIndex = insn.getOpcode() == Opcodes.DUP_X1 || stackTop.get(0).getSize() == 2 ? 1 : 2;
+                if (underIndex < stackTop.size() && stackTop.get(underIndex) instanceof SharedRefValue &&
+                    !containsRefs(stackTop.subList(0, underIndex))) {
+                    ((SharedRefValue) stackTop.get(underIndex)).getDupUnderInsns().add(insn);
+                    return;
+                }
+                break;
+        }
+
+        for (BasicValue value : stackTop) {
+            markUsed(value);
+        }
+    }
+
+    private static boolean containsRefs(@NotNull List<BasicValue> values) {
+        for (BasicValue value : values) {
+            if (value instanceof SharedRefValue || value instanceof MergedSharedRefsValue) return true;
+        }
+        return false;
+    }
+
+    private static void markUsed(@Nullable BasicValue value) {
+        if (value instanceof SharedRefValue) {
+            ((SharedRefValue) value).markAsUnsafeToRemove();
+        }
+        else if (value instanceof MergedSharedRefsValue) {
+            for (SharedRefValue ref : ((MergedSharedRefsValue) value).getRefs()) {
+                ref.markAsUnsafeToRemove();
+            }
+        }
+    }
+
+    private static void collectRefs(@NotNull BasicValue value, @NotNull Set<SharedRefValue> result) {
+        if (value instanceof SharedRefValue) {
+            result.add((SharedRefValue) value);
+        }
+        else if (value instanceof MergedSharedRefsValue) {
+            result.addAll(((MergedSharedRefsValue) value).getRefs());
+        }
+    }
+
+    private static boolean isElementField(@NotNull FieldInsnNode insn) {
+        return isRefType(insn.owner) && "element".equals(insn.name);
+    }
+
+    private static boolean isRefConstructorCall(@NotNull AbstractInsnNode insn) {
+        if (insn.getOpcode() != Opcodes.INVOKESPECIAL) return false;
+        MethodInsnNode methodInsn = (MethodInsnNode) insn;
+        return isRefType(methodInsn.owner) && "<init>".equals(methodInsn.name) && "()V".equals(methodInsn.desc);
+    }
+}
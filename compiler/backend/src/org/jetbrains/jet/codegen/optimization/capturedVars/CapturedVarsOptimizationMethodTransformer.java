@@ -0,0 +1,178 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.optimization.capturedVars;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.codegen.optimization.transformer.MethodTransformer;
+import org.jetbrains.org.objectweb.asm.Opcodes;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.*;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+import org.jetbrains.org.objectweb.asm.tree.analysis.Frame;
+
+import java.util.*;
+
+/**
+ * Variables captured in lambdas are wrapped in kotlin.jvm.internal.Ref.
+ * When all the lambdas which capture a variable are inlined, the Ref doesn't escape the method anymore,
+ * so it's replaced with a plain local variable holding its element
+ */
+public class CapturedVarsOptimizationMethodTransformer extends MethodTransformer {
+    @Override
+    public void transform(@NotNull String internalClassName, @NotNull MethodNode node) {
+        if (!hasRefCreation(node)) return;
+
+        CapturedVarsInterpreter interpreter = new CapturedVarsInterpreter();
+        Frame<BasicValue>[] frames = analyze(internalClassName, node, interpreter);
+        interpretStackInstructions(interpreter, node, frames);
+
+        List<SharedRefValue> refsToRemove = new ArrayList<SharedRefValue>();
+        Map<Integer, Integer> refsCountByVariable = new HashMap<Integer, Integer>();
+        for (SharedRefValue ref : interpreter.getRefs()) {
+            for (Integer variable : ref.getVariables()) {
+                Integer count = refsCountByVariable.get(variable);
+                refsCountByVariable.put(variable, count == null ? 1 : count + 1);
+            }
+            if (ref.isSafeToRemove() && ref.getInitInsns().size() == 1) {
+                refsToRemove.add(ref);
+            }
+        }
+
+        for (SharedRefValue ref : refsToRemove) {
+            int index = node.maxLocals;
+            node.maxLocals += ref.getElementType().getSize();
+
+            adaptLocalVariableTable(node, ref, index, refsCountByVariable);
+            replaceRefWithVariable(node, ref, index);
+        }
+    }
+
+    private static boolean hasRefCreation(@NotNull MethodNode node) {
+        for (AbstractInsnNode insn = node.instructions.getFirst(); insn != null; insn = insn.getNext()) {
+            if (insn.getOpcode() == Opcodes.NEW && CapturedVarsInterpreter.isRefType(((TypeInsnNode) insn).desc)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void interpretStackInstructions(
+            @NotNull CapturedVarsInterpreter interpreter,
+            @NotNull MethodNode node,
+            @NotNull Frame<BasicValue>[] frames
+    ) {
+        for (int i = 0; i < node.instructions.size(); i++) {
+            AbstractInsnNode insn = node.instructions.get(i);
+            Frame<BasicValue> frame = frames[i];
+            if (frame == null) continue;
+
+            int words = getStackWordsUsedByInstruction(insn.getOpcode());
+            if (words == 0) continue;
+
+            List<BasicValue> stackTop = new ArrayList<BasicValue>(words);
+            for (int j = frame.getStackSize() - 1; j >= 0 && words > 0; j--) {
+                BasicValue value = frame.getStack(j);
+                stackTop.add(value);
+                words -= value.getSize();
+            }
+            interpreter.processStackInstruction(insn, stackTop);
+        }
+    }
+
+    // Only for stack manipulations which aren't passed to the interpreter as a whole
+    private static int getStackWordsUsedByInstruction(int opcode) {
+        switch (opcode) {
+            case Opcodes.POP:
+                return 1;
+            case Opcodes.POP2:
+            case Opcodes.DUP2:
+            case Opcodes.DUP_X1:
+            case Opcodes.SWAP:
+                return 2;
+            case Opcodes.DUP_X2:
+            case Opcodes.DUP2_X1:
+                return 3;
+            case Opcodes.DUP2_X2:
+                return 4;
+            default:
+                return 0;
+        }
+    }
+
+    private static void adaptLocalVariableTable(
+            @NotNull MethodNode node,
+            @NotNull SharedRefValue ref,
+            int index,
+            @NotNull Map<Integer, Integer> refsCountByVariable
+    ) {
+        if (node.localVariables == null) return;
+
+        String refDescriptor = ref.getType().getDescriptor();
+        for (LocalVariableNode localVariable : node.localVariables) {
+            // A variable slot shared by several Refs can't be attributed to one of them
+            if (localVariable.desc.equals(refDescriptor) &&
+                ref.getVariables().contains(localVariable.index) &&
+                refsCountByVariable.get(localVariable.index) == 1) {
+                localVariable.index = index;
+                localVariable.desc = ref.getElementType().getDescriptor();
+            }
+        }
+    }
+
+    private static void replaceRefWithVariable(@NotNull MethodNode node, @NotNull SharedRefValue ref, int index) {
+        InsnList instructions = node.instructions;
+        Type elementType = ref.getElementType();
+
+        // Ref constructor initializes the element with the default value
+        TypeInsnNode newInsn = ref.getNewInsn();
+        instructions.insertBefore(newInsn, new InsnNode(getDefaultValueOpcode(elementType)));
+        instructions.insertBefore(newInsn, new VarInsnNode(elementType.getOpcode(Opcodes.ISTORE), index));
+        instructions.remove(newInsn);
+
+        for (AbstractInsnNode insn : ref.getInitInsns()) {
+            instructions.remove(insn);
+        }
+        for (AbstractInsnNode insn : ref.getInsnsToRemove()) {
+            instructions.remove(insn);
+        }
+        for (AbstractInsnNode insn : ref.getGetFieldInsns()) {
+            instructions.set(insn, new VarInsnNode(elementType.getOpcode(Opcodes.ILOAD), index));
+        }
+        for (AbstractInsnNode insn : ref.getPutFieldInsns()) {
+            instructions.set(insn, new VarInsnNode(elementType.getOpcode(Opcodes.ISTORE), index));
+        }
+        for (AbstractInsnNode insn : ref.getDupUnderInsns()) {
+            instructions.set(insn, new InsnNode(insn.getOpcode() == Opcodes.DUP_X1 ? Opcodes.DUP : Opcodes.DUP2));
+        }
+    }
+
+    private static int getDefaultValueOpcode(@NotNull Type type) {
+        switch (type.getSort()) {
+            case Type.LONG:
+                return Opcodes.LCONST_0;
+            case Type.FLOAT:
+                return Opcodes.FCONST_0;
+            case Type.DOUBLE:
+                return Opcodes.DCONST_0;
+            case Type.OBJECT:
+            case Type.ARRAY:
+                return Opcodes.ACONST_NULL;
+            default:
+                return Opcodes.ICONST_0;
+        }
+    }
+}
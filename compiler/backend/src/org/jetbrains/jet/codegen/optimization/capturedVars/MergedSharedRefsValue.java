@@ -0,0 +1,50 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.optimization.capturedVars;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+
+import java.util.Set;
+
+/**
+ * A result of merging a SharedRefValue with another value at a join point (e.g. a variable slot reused after its scope ends).
+ * It doesn't prevent the optimization by itself, but any use of it does
+ */
+public class MergedSharedRefsValue extends BasicValue {
+    private final Set<SharedRefValue> refs;
+
+    public MergedSharedRefsValue(@NotNull Set<SharedRefValue> refs) {
+        super(null);
+        this.refs = refs;
+    }
+
+    @NotNull
+    public Set<SharedRefValue> getRefs() {
+        return refs;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MergedSharedRefsValue && refs.equals(((MergedSharedRefsValue) o).refs);
+    }
+
+    @Override
+    public int hashCode() {
+        return refs.hashCode();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.optimization.capturedVars;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.AbstractInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.TypeInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A kotlin.jvm.internal.Ref instance created by a NEW instruction.
+ * While analyzing, all the instructions which touch the instance are recorded,
+ * the instance is safe to remove if it's only stored to local variables, loaded from them and its "element" is read and written
+ */
+public class SharedRefValue extends BasicValue {
+    private final TypeInsnNode newInsn;
+    private final Type elementType;
+
+    private final Set<AbstractInsnNode> initInsns = new LinkedHashSet<AbstractInsnNode>();
+    private final Set<AbstractInsnNode> getFieldInsns = new LinkedHashSet<AbstractInsnNode>();
+    private final Set<AbstractInsnNode> putFieldInsns = new LinkedHashSet<AbstractInsnNode>();
+    // ALOAD, ASTORE, DUP and POP of the instance itself
+    private final Set<AbstractInsnNode> insnsToRemove = new LinkedHashSet<AbstractInsnNode>();
+    // DUP_X1 and DUP2_X1 which put the top of the stack under the instance
+    private final Set<AbstractInsnNode> dupUnderInsns = new LinkedHashSet<AbstractInsnNode>();
+    private final Set<Integer> variables = new HashSet<Integer>();
+
+    private boolean isSafeToRemove = true;
+
+    public SharedRefValue(@NotNull TypeInsnNode newInsn, @NotNull Type elementType) {
+        super(Type.getObjectType(newInsn.desc));
+        this.newInsn = newInsn;
+        this.elementType = elementType;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(this);
+    }
+
+    @NotNull
+    public TypeInsnNode getNewInsn() {
+        return newInsn;
+    }
+
+    @NotNull
+    public Type getElementType() {
+        return elementType;
+    }
+
+    public boolean isSafeToRemove() {
+        return isSafeToRemove;
+    }
+
+    public void markAsUnsafeToRemove() {
+        isSafeToRemove = false;
+    }
+
+    @NotNull
+    public Set<AbstractInsnNode> getInitInsns() {
+        return initInsns;
+    }
+
+    @NotNull
+    public Set<AbstractInsnNode> getGetFieldInsns() {
+        return getFieldInsns;
+    }
+
+    @NotNull
+    public Set<AbstractInsnNode> getPutFieldInsns() {
+        return putFieldInsns;
+    }
+
+    @NotNull
+    public Set<AbstractInsnNode> getInsnsToRemove() {
+        return insnsToRemove;
+    }
+
+    @NotNull
+    public Set<AbstractInsnNode> getDupUnderInsns() {
+        return dupUnderInsns;
+    }
+
+    @NotNull
+    public Set<Integer> getVariables() {
+        return variables;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.jet.codegen.optimization.constantFolding;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.codegen.optimization.common.OptimizationBasicInterpreter;
+import org.jetbrains.org.objectweb.asm.Opcodes;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.AbstractInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.IincInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.IntInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.LdcInsnNode;
+import org.jetbrains.org.objectweb.asm.tree.analysis.AnalyzerException;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+
+/**
+ * Tracks primitive constants through the operand stack and local variables.
+ * Values are evaluated with the JVM semantics, operations which may throw (integer division by zero) are never evaluated
+ */
+public class ConstantFoldingInterpreter extends OptimizationBasicInterpreter {
+    // A value which is the result of merging a constant with a different value. It must not be equal to the constant,
+    // otherwise Frame.merge wouldn't notice the change, because BasicValue.equals only compares types
+    private static class MergedValue extends BasicValue {
+        public MergedValue(@NotNull Type type) {
+            super(type);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return !(o instanceof ConstantValue) && super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode();
+        }
+    }
+
+    @Override
+    public BasicValue newOperation(@NotNull AbstractInsnNode insn) throws AnalyzerException {
+        Object value = getPushedConstant(insn);
+        if (value != null) {
+            return new ConstantValue(getConstantType(value), value);
+        }
+        return super.newOperation(insn);
+    }
+
+    @Override
+    public BasicValue unaryOperation(@NotNull AbstractInsnNode insn, @NotNull BasicValue value) throws AnalyzerException {
+        if (value instanceof ConstantValue) {
+            Object result = evaluateUnary(insn, ((ConstantValue) value).getValue());
+            if (result != null) {
+                return new ConstantValue(getConstantType(result), result);
+            }
+        }
+        return super.unaryOperation(insn, value);
+    }
+
+    @Override
+    public BasicValue binaryOperation(
+            @NotNull AbstractInsnNode insn, @NotNull BasicValue value1, @NotNull BasicValue value2
+    ) throws AnalyzerException {
+        if (value1 instanceof ConstantValue && value2 instanceof ConstantValue) {
+            Object result = evaluateBinary(insn.getOpcode(), ((ConstantValue) value1).getValue(), ((ConstantValue) value2).getValue());
+            if (result != null) {
+                return new ConstantValue(getConstantType(result), result);
+            }
+        }
+        return super.binaryOperation(insn, value1, value2);
+    }
+
+    @NotNull
+    @Override
+    public BasicValue merge(@NotNull BasicValue v, @NotNull BasicValue w) {
+        if (v instanceof ConstantValue || w instanceof ConstantValue) {
+            if (v.equals(w)) return v;
+
+            BasicValue merged = super.merge(withoutConstant(v), withoutConstant(w));
+            return v instanceof ConstantValue && merged.getType() != null ? new MergedValue(merged.getType()) : merged;
+        }
+        return super.merge(v, w);
+    }
+
+    @NotNull
+    private BasicValue withoutConstant(@NotNull BasicValue value) {
+        return value instanceof ConstantValue ? newValue(value.getType()) : value;
+    }
+
+    @Nullable
+    public static Object getPushedConstant(@NotNull AbstractInsnNode insn) {
+        int opcode = insn.getOpcode();
+        switch (opcode) {
+            case Opcodes.ICONST_M1:
+            case Opcodes.ICONST_0:
+            case Opcodes.ICONST_1:
+            case Opcodes.ICONST_2:
+            case Opcodes.ICONST_3:
+            case Opcodes.ICONST_4:
+            case Opcodes.ICONST_5:
+                return opcode - Opcodes.ICONST_0;
+            case Opcodes.LCONST_0:
+            case Opcodes.LCONST_1:
+                return (long) (opcode - Opcodes.LCONST_0);
+            case Opcodes.FCONST_0:
+            case Opcodes.FCONST_1:
+            case Opcodes.FCONST_2:
+                return (float) (opcode - Opcodes.FCONST_0);
+            case Opcodes.DCONST_0:
+            case Opcodes.DCONST_1:
+                return (double) (opcode - Opcodes.DCONST_0);
+            case Opcodes.BIPUSH:
+            case Opcodes.SIPUSH:
+                return ((IntInsnNode) insn).operand;
+            case Opcodes.LDC:
+                Object cst = ((LdcInsnNode) insn).cst;
+                return cst instanceof Integer || cst instanceof Long || cst instanceof Float || cst instanceof Double ? cst : null;
+            default:
+                return null;
+        }
+    }
+
+    @NotNull
+    public static Type getConstantType(@NotNull Object value) {
+        if (value instanceof Integer) return Type.INT_TYPE;
+        if (value instanceof Long) return Type.LONG_TYPE;
+        if (value instanceof Float) return Type.FLOAT_TYPE;
+        if (value instanceof Double) return Type.DOUBLE_TYPE;
+        throw new IllegalArgumentException("Not a primitive constant: " + value);
+    }
+
+    @Nullable
+    public static Object evaluateUnary(@NotNull AbstractInsnNode insn, @NotNull Object value) {
+        switch (insn.getOpcode()) {
+            case Opcodes.INEG: return -(Integer) value;
+            case Opcodes.LNEG: return -(Long) value;
+            case Opcodes.FNEG: return -(Float) value;
+            case Opcodes.DNEG: return -(Double) value;
+            case Opcodes.IINC: return (Integer) value + ((IincInsnNode) insn).incr;
+            case Opcodes.I2L: return (long) (Integer) value;
+            case Opcodes.I2F: return (float) (Integer) value;
+            case Opcodes.I2D: return (double) (Integer) value;
+            case Opcodes.L2I: return (int) (long) (Long) value;
+            case Opcodes.L2F: return (float) (Long) value;
+            case Opcodes.L2D: return (double) (Long) value;
+            case Opcodes.F2I: return (int) (float) (Float) value;
+            case Opcodes.F2L: return (long) (float) (Float) value;
+            case Opcodes.F2D: return (double) (Float) value;
+            case Opcodes.D2I: return (int) (double) (Double) value;
+            case Opcodes.D2L: return (long) (double) (Double) value;
+            case Opcodes.D2F: return (float) (double) (Double) value;
+            case Opcodes.I2B: return (int) (byte) (int) (Integer) value;
+            case Opcodes.I2C: return (int) (char) (int) (Integer) value;
+            case Opcodes.I2S: return (int) (short) (int) (Integer) value;
+            default: return null;
+        }
+    }
+
+    @Nullable
+    public static Object evaluateBinary(int opcode, @NotNull Object value1, @NotNull Object value2) {
+        switch (opcode) {
+            case Opcodes.IADD: return (Integer) value1 + (Integer) value2;
+            case Opcodes.ISUB: return (Integer) value1 - (Integer) value2;
+            case Opcodes.IMUL: return (Integer) value1 * (Integer) value2;
+            case Opcodes.IDIV: return (Integer) value2 == 0 ? null : (Integer) value1 / (Integer) value2;
+            case Opcodes.IREM: return (Integer) value2 == 0 ? null : (Integer) value1 % (Integer) value2;
+            case Opcodes.ISHL: return (Integer) value1 << (Integer) value2;
+            case Opcodes.ISHR: return (Integer) value1 >> (Integer) value2;
+            case Opcodes.IUSHR: return (Integer) value1 >>> (Integer) value2;
+            case Opcodes.IAND: return (Integer) value1 & (Integer) value2;
+            case Opcodes.IOR: return (Integer) value1 | (Integer) value2;
+            case Opcodes.IXOR: return (Integer) value1 ^ (Integer) value2;
+
+            case Opcodes.LADD: return (Long) value1 + (Long) value2;
+            case Opcodes.LSUB: return (Long) value1 - (Long) value2;
+            case Opcodes.LMUL: return (Long) value1 * (Long) value2;
+            case Opcodes.LDIV: return (Long) value2 == 0 ? null : (Long) value1 / (Long) value2;
+            case Opcodes.LREM: return (Long) value2 == 0 ? null : (Long) value1 % (Long) value2;
+            case Opcodes.LSHL: return (Long) value1 << (Integer) value2;
+            case Opcodes.LSHR: return (Long) value1 >> (Integer) value2;
+            case Opcodes.LUSHR: return (Long) value1 >>> (Integer) value2;
+            case Opcodes.LAND: return (Long) value1 & (Long) value2;
+            case Opcodes.LOR: return (Long) value1 | (Long) value2;
+            case Opcodes.LXOR: return (Long) value1 ^ (Long) value2;
+            case Opcodes.LCMP: return compare((Long) value1, (Long) value2);
+
+            case Opcodes.FADD: return (Float) value1 + (Float) value2;
+            case Opcodes.FSUB: return (Float) value1 - (Float) value2;
+            case Opcodes.FMUL: return (Float) value1 * (Float) value2;
+            case Opcodes.FDIV: return (Float) value1 / (Float) value2;
+            case Opcodes.FREM: return (Float) value1 % (Float) value2;
+            case Opcodes.FCMPL: return compare((Float) value1, (Float) value2, -1);
+            case Opcodes.FCMPG: return compare((Float) value1, (Float) value2, 1);
+
+            case Opcodes.DADD: return (Double) value1 + (Double) value2;
+            case Opcodes.DSUB: return (Double) value1 - (Double) value2;
+            case Opcodes.DMUL: return (Double) value1 * (Double) value2;
+            case Opcodes.DDIV: return (Double) value1 / (Double) value2;
+            case Opcodes.DREM: return (Double) value1 % (Double) value2;
+            case Opcodes.DCMPL: return compare((Double) value1, (Double) value2, -1);
+            case Opcodes.DCMPG: return compare((Double) value1, (Double) value2, 1);
+
+            default: return null;
+        }
+    }
+
+    private static int compare(long a, long b) {
+        return a < b ? -1 : a == b ? 0 : 1;
+    }
+
+    // Unlike Double.compare, 0.0 is equal to -0.0 here, and the result for NaN depends on the instruction
+    private static int compare(double a, double b, int resultForNaN) {
+        if (Double.isNaN(a) || Double.isNaN(b)) return resultForNaN;
+        return a < b ? -1 : a == b ? 0 : 1;
+    }
+}
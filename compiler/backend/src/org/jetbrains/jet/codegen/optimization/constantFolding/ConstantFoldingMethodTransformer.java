@@ -0,0 +1,411 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.jet.codegen.optimization.constantFolding;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.codegen.inline.InlineCodegenUtil;
+import org.jetbrains.jet.codegen.optimization.common.OptimizationBasicInterpreter;
+import org.jetbrains.jet.codegen.optimization.transformer.MethodTransformer;
+import org.jetbrains.org.objectweb.asm.Opcodes;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.*;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+import org.jetbrains.org.objectweb.asm.tree.analysis.Frame;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Folds arithmetic, comparisons, conditional jumps and switches on constants in inlined code, where arguments of the inline function
+ * are often constant, and removes the branches which became dead. The code outside of inlined functions is left as is:
+ * compile-time constants there are already evaluated by the frontend.
+ *
+ * A folded instruction is replaced with POPs of its operands followed by the result, after that constant pushes and loads
+ * immediately followed by POPs are removed. So constants propagate to the folded instruction from local variables,
+ * but the variables themselves stay intact
+ */
+public class ConstantFoldingMethodTransformer extends MethodTransformer {
+    @Override
+    public void transform(@NotNull String internalClassName, @NotNull MethodNode node) {
+        boolean[] isInlined = findInlinedCode(node);
+        if (isInlined == null) return;
+
+        Frame<BasicValue>[] frames = analyze(internalClassName, node, new ConstantFoldingInterpreter());
+        AbstractInsnNode[] insns = node.instructions.toArray();
+
+        Set<AbstractInsnNode> reachable = new HashSet<AbstractInsnNode>();
+        List<AbstractInsnNode> pops = new ArrayList<AbstractInsnNode>();
+        boolean changed = false;
+        for (int i = 0; i < insns.length; i++) {
+            if (frames[i] == null) continue;
+            reachable.add(insns[i]);
+            if (isInlined[i]) {
+                changed |= fold(node.instructions, insns[i], frames[i], reachable, pops);
+            }
+        }
+        if (!changed) return;
+
+        removeUnusedPushes(node.instructions, pops);
+        reachable.addAll(pops);
+        removeUnreachableCode(internalClassName, node, reachable);
+    }
+
+    // Returns null if there's no inlined code in the method or the inline markers are broken
+    @Nullable
+    private static boolean[] findInlinedCode(@NotNull MethodNode node) {
+        AbstractInsnNode[] insns = node.instructions.toArray();
+        boolean[] result = new boolean[insns.length];
+        boolean hasInlinedCode = false;
+        int depth = 0;
+        for (int i = 0; i < insns.length; i++) {
+            if (isInlineMarker(insns[i], InlineCodegenUtil.INLINE_MARKER_BEFORE_METHOD_NAME)) {
+                depth++;
+                hasInlinedCode = true;
+            }
+            else if (isInlineMarker(insns[i], InlineCodegenUtil.INLINE_MARKER_AFTER_METHOD_NAME)) {
+                depth--;
+                if (depth < 0) return null;
+            }
+            else {
+                result[i] = depth > 0;
+            }
+        }
+        return hasInlinedCode && depth == 0 ? result : null;
+    }
+
+    private static boolean isInlineMarker(@NotNull AbstractInsnNode insn, @NotNull String name) {
+        return insn.getOpcode() == Opcodes.INVOKESTATIC &&
+               InlineCodegenUtil.INLINE_MARKER_CLASS_NAME.equals(((MethodInsnNode) insn).owner) &&
+               name.equals(((MethodInsnNode) insn).name);
+    }
+
+    private static boolean fold(
+            @NotNull InsnList insnList,
+            @NotNull AbstractInsnNode insn,
+            @NotNull Frame<BasicValue> frame,
+            @NotNull Set<AbstractInsnNode> reachable,
+            @NotNull List<AbstractInsnNode> pops
+    ) {
+        int opcode = insn.getOpcode();
+        int stackSize = frame.getStackSize();
+
+        if (isFoldableBinaryOperation(opcode)) {
+            Object value1 = getConstant(frame.getStack(stackSize - 2));
+            Object value2 = getConstant(frame.getStack(stackSize - 1));
+            if (value1 == null || value2 == null) return false;
+
+            Object result = ConstantFoldingInterpreter.evaluateBinary(opcode, value1, value2);
+            if (result == null) return false;
+
+            insertPops(insnList, insn, pops, value2, value1);
+            replace(insnList, insn, createPushInsn(result), reachable);
+            return true;
+        }
+
+        if (opcode >= Opcodes.INEG && opcode <= Opcodes.DNEG) {
+            Object value = getConstant(frame.getStack(stackSize - 1));
+            if (value == null) return false;
+
+            Object result = ConstantFoldingInterpreter.evaluateUnary(insn, value);
+            assert result != null : "Negation of a constant should be evaluated: " + value;
+
+            insertPops(insnList, insn, pops, value);
+            replace(insnList, insn, createPushInsn(result), reachable);
+            return true;
+        }
+
+        if (opcode >= Opcodes.IFEQ && opcode <= Opcodes.IFLE) {
+            Object value = getConstant(frame.getStack(stackSize - 1));
+            if (value == null) return false;
+
+            insertPops(insnList, insn, pops, value);
+            jumpIf(insnList, (JumpInsnNode) insn, isConditionTrue(opcode - Opcodes.IFEQ, (Integer) value, 0), reachable);
+            return true;
+        }
+
+        if (opcode >= Opcodes.IF_ICMPEQ && opcode <= Opcodes.IF_ICMPLE) {
+            Object value1 = getConstant(frame.getStack(stackSize - 2));
+            Object value2 = getConstant(frame.getStack(stackSize - 1));
+            if (value1 == null || value2 == null) return false;
+
+            insertPops(insnList, insn, pops, value2, value1);
+            boolean isTaken = isConditionTrue(opcode - Opcodes.IF_ICMPEQ, (Integer) value1, (Integer) value2);
+            jumpIf(insnList, (JumpInsnNode) insn, isTaken, reachable);
+            return true;
+        }
+
+        if (opcode == Opcodes.TABLESWITCH || opcode == Opcodes.LOOKUPSWITCH) {
+            Object value = getConstant(frame.getStack(stackSize - 1));
+            if (value == null) return false;
+
+            insertPops(insnList, insn, pops, value);
+            replace(insnList, insn, new JumpInsnNode(Opcodes.GOTO, getSwitchTarget(insn, (Integer) value)), reachable);
+            return true;
+        }
+
+        return false;
+    }
+
+    // Integer division and remainder are not folded by design: they're evaluated only if the divisor is not zero, see evaluateBinary
+    private static boolean isFoldableBinaryOperation(int opcode) {
+        return (opcode >= Opcodes.IADD && opcode <= Opcodes.DREM) ||
+               (opcode >= Opcodes.ISHL && opcode <= Opcodes.LXOR) ||
+               (opcode >= Opcodes.LCMP && opcode <= Opcodes.DCMPG);
+    }
+
+    @Nullable
+    private static Object getConstant(@Nullable BasicValue value) {
+        return value instanceof ConstantValue ? ((ConstantValue) value).getValue() : null;
+    }
+
+    // Condition index is the offset of the opcode from IFEQ or IF_ICMPEQ: EQ, NE, LT, GE, GT, LE
+    private static boolean isConditionTrue(int condition, int value1, int value2) {
+        switch (condition) {
+            case 0: return value1 == value2;
+            case 1: return value1 != value2;
+            case 2: return value1 < value2;
+            case 3: return value1 >= value2;
+            case 4: return value1 > value2;
+            case 5: return value1 <= value2;
+            default: throw new IllegalArgumentException("Unknown condition: " + condition);
+        }
+    }
+
+    @NotNull
+    private static LabelNode getSwitchTarget(@NotNull AbstractInsnNode insn, int value) {
+        if (insn instanceof TableSwitchInsnNode) {
+            TableSwitchInsnNode tableSwitch = (TableSwitchInsnNode) insn;
+            return value >= tableSwitch.min && value <= tableSwitch.max
+                   ? tableSwitch.labels.get(value - tableSwitch.min)
+                   : tableSwitch.dflt;
+        }
+
+        LookupSwitchInsnNode lookupSwitch = (LookupSwitchInsnNode) insn;
+        int index = lookupSwitch.keys.indexOf(value);
+        return index >= 0 ? lookupSwitch.labels.get(index) : lookupSwitch.dflt;
+    }
+
+    private static void jumpIf(
+            @NotNull InsnList insnList,
+            @NotNull JumpInsnNode insn,
+            boolean isTaken,
+            @NotNull Set<AbstractInsnNode> reachable
+    ) {
+        if (isTaken) {
+            replace(insnList, insn, new JumpInsnNode(Opcodes.GOTO, insn.label), reachable);
+        }
+        else {
+            insnList.remove(insn);
+        }
+    }
+
+    // Values are given from the top of the stack
+    private static void insertPops(
+            @NotNull InsnList insnList,
+            @NotNull AbstractInsnNode insn,
+            @NotNull List<AbstractInsnNode> pops,
+            @NotNull Object... values
+    ) {
+        for (Object value : values) {
+            insertPop(insnList, insn, ConstantFoldingInterpreter.getConstantType(value), pops);
+        }
+    }
+
+    private static void insertPop(
+            @NotNull InsnList insnList,
+            @NotNull AbstractInsnNode insn,
+            @NotNull Type type,
+            @NotNull List<AbstractInsnNode> pops
+    ) {
+        AbstractInsnNode pop = new InsnNode(type.getSize() == 2 ? Opcodes.POP2 : Opcodes.POP);
+        insnList.insertBefore(insn, pop);
+        pops.add(pop);
+    }
+
+    private static void replace(
+            @NotNull InsnList insnList,
+            @NotNull AbstractInsnNode insn,
+            @NotNull AbstractInsnNode newInsn,
+            @NotNull Set<AbstractInsnNode> reachable
+    ) {
+        insnList.set(insn, newInsn);
+        reachable.add(newInsn);
+    }
+
+    @NotNull
+    private static AbstractInsnNode createPushInsn(@NotNull Object value) {
+        if (value instanceof Integer) {
+            int i = (Integer) value;
+            if (i >= -1 && i <= 5) return new InsnNode(Opcodes.ICONST_0 + i);
+            if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) return new IntInsnNode(Opcodes.BIPUSH, i);
+            if (i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) return new IntInsnNode(Opcodes.SIPUSH, i);
+        }
+        else if (value instanceof Long) {
+            long l = (Long) value;
+            if (l == 0L || l == 1L) return new InsnNode(Opcodes.LCONST_0 + (int) l);
+        }
+        else if (value instanceof Float) {
+            float f = (Float) value;
+            // Bits are compared to tell 0.0 from -0.0
+            if (Float.floatToIntBits(f) == Float.floatToIntBits(0f) || f == 1f || f == 2f) return new InsnNode(Opcodes.FCONST_0 + (int) f);
+        }
+        else if (value instanceof Double) {
+            double d = (Double) value;
+            if (Double.doubleToLongBits(d) == Double.doubleToLongBits(0.0) || d == 1.0) return new InsnNode(Opcodes.DCONST_0 + (int) d);
+        }
+        return new LdcInsnNode(value);
+    }
+
+    /**
+     * Removes side effect free instructions immediately followed by the POPs inserted by folding, repeatedly.
+     * Pushes and loads are removed along with the POP, the others are replaced with POPs of their own operands
+     */
+    private static void removeUnusedPushes(@NotNull InsnList insnList, @NotNull List<AbstractInsnNode> pops) {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (AbstractInsnNode pop : new ArrayList<AbstractInsnNode>(pops)) {
+                AbstractInsnNode previous = pop.getPrevious();
+                if (previous == null) continue;
+
+                Type[] operands = getPureOperandTypes(previous, pop.getOpcode() == Opcodes.POP ? 1 : 2);
+                if (operands == null) continue;
+
+                for (int i = operands.length - 1; i >= 0; i--) {
+                    insertPop(insnList, previous, operands[i], pops);
+                }
+                insnList.remove(previous);
+                insnList.remove(pop);
+                pops.remove(pop);
+                changed = true;
+            }
+        }
+    }
+
+    // Returns types of the operands (from the bottom of the stack) of an instruction which has no side effects
+    // and pushes a value of the given size, or null if it's not such an instruction
+    @Nullable
+    private static Type[] getPureOperandTypes(@NotNull AbstractInsnNode insn, int resultSize) {
+        int opcode = insn.getOpcode();
+        Object constant = ConstantFoldingInterpreter.getPushedConstant(insn);
+        Type result;
+        Type[] operands;
+        if (constant != null) {
+            result = ConstantFoldingInterpreter.getConstantType(constant);
+            operands = new Type[0];
+        }
+        else if (opcode >= Opcodes.ILOAD && opcode <= Opcodes.ALOAD) {
+            result = opcode == Opcodes.LLOAD || opcode == Opcodes.DLOAD ? Type.LONG_TYPE : Type.INT_TYPE;
+            operands = new Type[0];
+        }
+        else if (opcode == Opcodes.ACONST_NULL || opcode == Opcodes.DUP) {
+            result = Type.INT_TYPE;
+            operands = new Type[0];
+        }
+        else if (isFoldableBinaryOperation(opcode) && opcode != Opcodes.IDIV && opcode != Opcodes.IREM &&
+                 opcode != Opcodes.LDIV && opcode != Opcodes.LREM) {
+            Type type = getOperationType(opcode);
+            boolean isShift = opcode >= Opcodes.ISHL && opcode <= Opcodes.LUSHR;
+            boolean isComparison = opcode >= Opcodes.LCMP;
+            result = isComparison ? Type.INT_TYPE : type;
+            operands = new Type[] {type, isShift ? Type.INT_TYPE : type};
+        }
+        else if (opcode >= Opcodes.INEG && opcode <= Opcodes.DNEG) {
+            result = getOperationType(opcode);
+            operands = new Type[] {result};
+        }
+        else if (opcode >= Opcodes.I2L && opcode <= Opcodes.I2S) {
+            result = getConversionResultType(opcode);
+            operands = new Type[] {getConversionOperandType(opcode)};
+        }
+        else {
+            return null;
+        }
+        return result.getSize() == resultSize ? operands : null;
+    }
+
+    @NotNull
+    private static Type getOperationType(int opcode) {
+        if (opcode >= Opcodes.LCMP) {
+            return opcode == Opcodes.LCMP ? Type.LONG_TYPE : opcode <= Opcodes.FCMPG ? Type.FLOAT_TYPE : Type.DOUBLE_TYPE;
+        }
+        if (opcode >= Opcodes.ISHL) {
+            // ISHL, LSHL, ISHR, LSHR, IUSHR, LUSHR, IAND, LAND, IOR, LOR, IXOR, LXOR
+            return (opcode - Opcodes.ISHL) % 2 == 0 ? Type.INT_TYPE : Type.LONG_TYPE;
+        }
+        // IADD, LADD, FADD, DADD, ISUB, ... up to DNEG
+        switch ((opcode - Opcodes.IADD) % 4) {
+            case 0: return Type.INT_TYPE;
+            case 1: return Type.LONG_TYPE;
+            case 2: return Type.FLOAT_TYPE;
+            default: return Type.DOUBLE_TYPE;
+        }
+    }
+
+    @NotNull
+    private static Type getConversionOperandType(int opcode) {
+        if (opcode <= Opcodes.I2D || opcode >= Opcodes.I2B) return Type.INT_TYPE;
+        if (opcode <= Opcodes.L2D) return Type.LONG_TYPE;
+        if (opcode <= Opcodes.F2D) return Type.FLOAT_TYPE;
+        return Type.DOUBLE_TYPE;
+    }
+
+    @NotNull
+    private static Type getConversionResultType(int opcode) {
+        switch (opcode) {
+            case Opcodes.I2L: case Opcodes.F2L: case Opcodes.D2L: return Type.LONG_TYPE;
+            case Opcodes.I2F: case Opcodes.L2F: case Opcodes.D2F: return Type.FLOAT_TYPE;
+            case Opcodes.I2D: case Opcodes.L2D: case Opcodes.F2D: return Type.DOUBLE_TYPE;
+            default: return Type.INT_TYPE;
+        }
+    }
+
+    /**
+     * Removes the instructions which were reachable before folding and aren't reachable anymore, and the exception table entries
+     * which don't cover any instructions after that. The code which was dead before is left as is
+     */
+    private static void removeUnreachableCode(
+            @NotNull String internalClassName,
+            @NotNull MethodNode node,
+            @NotNull Set<AbstractInsnNode> wasReachable
+    ) {
+        Frame<BasicValue>[] frames = analyze(internalClassName, node, new OptimizationBasicInterpreter());
+        AbstractInsnNode[] insns = node.instructions.toArray();
+        for (int i = 0; i < insns.length; i++) {
+            if (frames[i] == null && !(insns[i] instanceof LabelNode) && wasReachable.contains(insns[i])) {
+                node.instructions.remove(insns[i]);
+            }
+        }
+
+        for (Iterator<TryCatchBlockNode> iterator = node.tryCatchBlocks.iterator(); iterator.hasNext(); ) {
+            TryCatchBlockNode block = iterator.next();
+            if (isEmptyRange(block.start, block.end)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static boolean isEmptyRange(@NotNull LabelNode start, @NotNull LabelNode end) {
+        for (AbstractInsnNode insn = start; insn != null && insn != end; insn = insn.getNext()) {
+            if (insn.getOpcode() >= 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jetbrains.jet.codegen.optimization.constantFolding;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.org.objectweb.asm.Type;
+import org.jetbrains.org.objectweb.asm.tree.analysis.BasicValue;
+
+/**
+ * A primitive value known at compile time: an Integer (for all int-like types), a Long, a Float or a Double.
+ * Unlike BasicValue, which is equal to any value of the same type, it's only equal to the same constant
+ */
+public class ConstantValue extends BasicValue {
+    private final Object value;
+
+    public ConstantValue(@NotNull Type type, @NotNull Object value) {
+        super(type);
+        this.value = value;
+    }
+
+    @NotNull
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        // Float and Double equals() compare bits, so that NaNs are equal and -0.0 is not equal to 0.0, which is exactly what we need
+        return this == o || o instanceof ConstantValue && value.equals(((ConstantValue) o).value);
+    }
+
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getType().getDescriptor() + " " + value;
+    }
+}
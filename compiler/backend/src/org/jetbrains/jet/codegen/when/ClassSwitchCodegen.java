@@ -0,0 +1,79 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.when;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.codegen.ExpressionCodegen;
+import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
+import org.jetbrains.jet.lang.psi.JetWhenEntry;
+import org.jetbrains.jet.lang.psi.JetWhenExpression;
+import org.jetbrains.jet.lang.resolve.constants.CompileTimeConstant;
+import org.jetbrains.org.objectweb.asm.Label;
+import org.jetbrains.org.objectweb.asm.Type;
+
+import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.OBJECT_TYPE;
+
+/**
+ * Dispatches 'when' with only is-checks against final classes through a table from the exact class of the subject
+ * to the index of the entry (see kotlin.jvm.internal.ClassSwitchMapping), instead of checking instanceof entry by entry
+ */
+public class ClassSwitchCodegen extends SwitchCodegen {
+    private final WhenByClassesMapping mapping;
+
+    public ClassSwitchCodegen(
+            @NotNull JetWhenExpression expression,
+            boolean isStatement,
+            @NotNull ExpressionCodegen codegen,
+            @NotNull WhenByClassesMapping mapping
+    ) {
+        super(expression, isStatement, codegen);
+        this.mapping = mapping;
+    }
+
+    @Override
+    protected void generateSubject() {
+        codegen.getState().getMappingsClassesForWhenByEnum().generateMappingsClassForExpression(expression);
+
+        v.getstatic(
+                mapping.getMappingsClassInternalName(),
+                mapping.getFieldName(),
+                MappingClassesForWhenByEnumCodegen.CLASS_SWITCH_MAPPING_TYPE.getDescriptor()
+        );
+
+        super.generateSubject();
+
+        // null subject isn't mapped to any entry and goes to the default label
+        v.invokevirtual(
+                MappingClassesForWhenByEnumCodegen.CLASS_SWITCH_MAPPING_TYPE.getInternalName(),
+                "indexOf",
+                Type.getMethodDescriptor(Type.INT_TYPE, OBJECT_TYPE),
+                false
+        );
+    }
+
+    @Override
+    protected void processEntry(@NotNull JetWhenEntry entry, @NotNull Label entryLabel) {
+        for (ClassDescriptor classDescriptor : SwitchCodegenUtil.getClassesFromEntry(entry, bindingContext)) {
+            putTransitionOnce(mapping.getIndexByClass(classDescriptor), entryLabel);
+        }
+    }
+
+    @Override
+    protected void processConstant(@NotNull CompileTimeConstant constant, @NotNull Label entryLabel) {
+        throw new IllegalStateException("when by classes should not contain constants: " + constant);
+    }
+}
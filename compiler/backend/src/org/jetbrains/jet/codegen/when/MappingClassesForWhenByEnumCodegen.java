@@ -20,6 +20,7 @@ import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.jet.codegen.ClassBuilder;
 import org.jetbrains.jet.codegen.state.GenerationState;
+import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
 import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.jet.lang.resolve.constants.EnumValue;
 import org.jetbrains.jet.lang.resolve.java.diagnostics.JvmDeclarationOrigin;
@@ -30,18 +31,25 @@ import org.jetbrains.org.objectweb.asm.commons.InstructionAdapter;
 import java.util.List;
 import java.util.Map;
 
+import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.JAVA_CLASS_TYPE;
 import static org.jetbrains.jet.lang.resolve.java.AsmTypeConstants.OBJECT_TYPE;
 import static org.jetbrains.org.objectweb.asm.Opcodes.*;
 
 public class MappingClassesForWhenByEnumCodegen {
     public static final String MAPPINGS_FIELD_DESCRIPTOR = Type.getDescriptor(int[].class);
+    public static final Type CLASS_SWITCH_MAPPING_TYPE = Type.getObjectType("kotlin/jvm/internal/ClassSwitchMapping");
     private final GenerationState state;
 
     public MappingClassesForWhenByEnumCodegen(@NotNull GenerationState state) {
         this.state = state;
     }
 
-    public void generate(@NotNull List<WhenByEnumsMapping> mappings, @NotNull Type mappingsClass, @NotNull JetFile srcFile) {
+    public void generate(
+            @NotNull List<WhenByEnumsMapping> mappings,
+            @NotNull List<WhenByClassesMapping> classesMappings,
+            @NotNull Type mappingsClass,
+            @NotNull JetFile srcFile
+    ) {
         ClassBuilder cb = state.getFactory().newVisitor(JvmDeclarationOrigin.NO_ORIGIN, mappingsClass, srcFile);
         cb.defineClass(
                 srcFile,
@@ -53,13 +61,17 @@ public class MappingClassesForWhenByEnumCodegen {
                 ArrayUtil.EMPTY_STRING_ARRAY
         );
 
-        generateFields(cb, mappings);
-        generateInitialization(cb, mappings);
+        generateFields(cb, mappings, classesMappings);
+        generateInitialization(cb, mappings, classesMappings);
 
         cb.done();
     }
 
-    private static void generateFields(@NotNull ClassBuilder cb, @NotNull List<WhenByEnumsMapping> mappings) {
+    private static void generateFields(
+            @NotNull ClassBuilder cb,
+            @NotNull List<WhenByEnumsMapping> mappings,
+            @NotNull List<WhenByClassesMapping> classesMappings
+    ) {
         for (WhenByEnumsMapping mapping : mappings) {
             cb.newField(
                     JvmDeclarationOrigin.NO_ORIGIN,
@@ -69,9 +81,23 @@ public class MappingClassesForWhenByEnumCodegen {
                     null, null
             );
         }
+
+        for (WhenByClassesMapping mapping : classesMappings) {
+            cb.newField(
+                    JvmDeclarationOrigin.NO_ORIGIN,
+                    ACC_STATIC | ACC_PUBLIC | ACC_FINAL | ACC_SYNTHETIC,
+                    mapping.getFieldName(),
+                    CLASS_SWITCH_MAPPING_TYPE.getDescriptor(),
+                    null, null
+            );
+        }
     }
 
-    private void generateInitialization(@NotNull ClassBuilder cb, @NotNull List<WhenByEnumsMapping> mappings) {
+    private void generateInitialization(
+            @NotNull ClassBuilder cb,
+            @NotNull List<WhenByEnumsMapping> mappings,
+            @NotNull List<WhenByClassesMapping> classesMappings
+    ) {
         MethodVisitor mv = cb.newMethod(
                 JvmDeclarationOrigin.NO_ORIGIN,
                 ACC_STATIC | ACC_SYNTHETIC, "<clinit>", "()V", null, ArrayUtil.EMPTY_STRING_ARRAY
@@ -85,6 +111,10 @@ public class MappingClassesForWhenByEnumCodegen {
             generateInitializationForMapping(cb, v, mapping);
         }
 
+        for (WhenByClassesMapping mapping : classesMappings) {
+            generateInitializationForMapping(cb, v, mapping);
+        }
+
         v.areturn(Type.VOID_TYPE);
 
         mv.visitMaxs(-1, -1);
@@ -115,4 +145,32 @@ public class MappingClassesForWhenByEnumCodegen {
             v.astore(Type.INT_TYPE);
         }
     }
+
+    private void generateInitializationForMapping(
+            @NotNull ClassBuilder cb,
+            @NotNull InstructionAdapter v,
+            @NotNull WhenByClassesMapping mapping
+    ) {
+        List<ClassDescriptor> classes = mapping.getClasses();
+
+        v.anew(CLASS_SWITCH_MAPPING_TYPE);
+        v.dup();
+
+        v.iconst(classes.size());
+        v.newarray(JAVA_CLASS_TYPE);
+        for (int i = 0; i < classes.size(); i++) {
+            v.dup();
+            v.iconst(i);
+            v.aconst(state.getTypeMapper().mapClass(classes.get(i)));
+            v.astore(JAVA_CLASS_TYPE);
+        }
+
+        v.invokespecial(
+                CLASS_SWITCH_MAPPING_TYPE.getInternalName(),
+                "<init>",
+                Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType("[" + JAVA_CLASS_TYPE.getDescriptor())),
+                false
+        );
+        v.putstatic(cb.getThisName(), mapping.getFieldName(), CLASS_SWITCH_MAPPING_TYPE.getDescriptor());
+    }
 }
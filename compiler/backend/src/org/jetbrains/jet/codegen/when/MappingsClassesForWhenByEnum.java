@@ -20,8 +20,10 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.jet.codegen.binding.CodegenBinding;
 import org.jetbrains.jet.codegen.state.GenerationState;
 import org.jetbrains.jet.lang.psi.JetWhenExpression;
+import org.jetbrains.jet.lang.resolve.BindingContext;
 import org.jetbrains.org.objectweb.asm.Type;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,23 +38,40 @@ public class MappingsClassesForWhenByEnum {
         this.mappingsCodegen = new MappingClassesForWhenByEnumCodegen(state);
     }
 
+    /**
+     * Generates the class with mappings for all whens by enums and by final classes in the class file containing expression
+     */
     public void generateMappingsClassForExpression(@NotNull JetWhenExpression expression) {
-        WhenByEnumsMapping mapping = state.getBindingContext().get(CodegenBinding.MAPPING_FOR_WHEN_BY_ENUM, expression);
+        BindingContext bindingContext = state.getBindingContext();
+        WhenByEnumsMapping enumsMapping = bindingContext.get(CodegenBinding.MAPPING_FOR_WHEN_BY_ENUM, expression);
+        WhenByClassesMapping classesMapping = bindingContext.get(CodegenBinding.MAPPING_FOR_WHEN_BY_CLASSES, expression);
 
-        assert mapping != null : "mapping class should not be requested for non enum when";
+        assert enumsMapping != null || classesMapping != null : "mapping class should not be requested for when without mappings";
 
-        if (!generatedMappingClasses.contains(mapping.getMappingsClassInternalName())) {
-            List<WhenByEnumsMapping> mappings = state.getBindingContext().get(
-                    CodegenBinding.MAPPINGS_FOR_WHENS_BY_ENUM_IN_CLASS_FILE,
-                    mapping.getOuterClassInternalNameForExpression()
-            );
+        String mappingsClassInternalName =
+                enumsMapping != null ? enumsMapping.getMappingsClassInternalName() : classesMapping.getMappingsClassInternalName();
+
+        if (!generatedMappingClasses.contains(mappingsClassInternalName)) {
+            String outerClassInternalName = enumsMapping != null
+                                            ? enumsMapping.getOuterClassInternalNameForExpression()
+                                            : classesMapping.getOuterClassInternalNameForExpression();
 
-            assert mappings != null : "guaranteed by usage contract of EnumSwitchCodegen";
+            List<WhenByEnumsMapping> enumsMappings =
+                    bindingContext.get(CodegenBinding.MAPPINGS_FOR_WHENS_BY_ENUM_IN_CLASS_FILE, outerClassInternalName);
+            List<WhenByClassesMapping> classesMappings =
+                    bindingContext.get(CodegenBinding.MAPPINGS_FOR_WHENS_BY_CLASSES_IN_CLASS_FILE, outerClassInternalName);
 
-            Type mappingsClassType = Type.getObjectType(mapping.getMappingsClassInternalName());
+            assert enumsMappings != null || classesMappings != null : "guaranteed by usage contract of switch codegens";
 
-            mappingsCodegen.generate(mappings, mappingsClassType, expression.getContainingJetFile());
-            generatedMappingClasses.add(mapping.getMappingsClassInternalName());
+            Type mappingsClassType = Type.getObjectType(mappingsClassInternalName);
+
+            mappingsCodegen.generate(
+                    enumsMappings != null ? enumsMappings : Collections.<WhenByEnumsMapping>emptyList(),
+                    classesMappings != null ? classesMappings : Collections.<WhenByClassesMapping>emptyList(),
+                    mappingsClassType,
+                    expression.getContainingJetFile()
+            );
+            generatedMappingClasses.add(mappingsClassInternalName);
         }
     }
 }
@@ -92,16 +92,13 @@ abstract public class SwitchCodegen {
 
     /**
      * Sets up transitionsTable and maybe something else needed in a special case
-     * Behaviour may be changed by overriding processConstant
+     * Behaviour may be changed by overriding processEntry or processConstant
      */
     private void prepareConfiguration() {
         for (JetWhenEntry entry : expression.getEntries()) {
             Label entryLabel = new Label();
 
-            for (CompileTimeConstant constant : SwitchCodegenUtil.getConstantsFromEntry(entry, bindingContext)) {
-                if (constant instanceof NullValue) continue;
-                processConstant(constant, entryLabel);
-            }
+            processEntry(entry, entryLabel);
 
             if (entry.isElse()) {
                 elseLabel = entryLabel;
@@ -111,6 +108,16 @@ abstract public class SwitchCodegen {
         }
     }
 
+    /**
+     * Puts transitions to entryLabel for all the values matched by entry
+     */
+    protected void processEntry(@NotNull JetWhenEntry entry, @NotNull Label entryLabel) {
+        for (CompileTimeConstant constant : SwitchCodegenUtil.getConstantsFromEntry(entry, bindingContext)) {
+            if (constant instanceof NullValue) continue;
+            processConstant(constant, entryLabel);
+        }
+    }
+
     abstract protected void processConstant(
             @NotNull CompileTimeConstant constant,
             @NotNull Label entryLabel
@@ -16,23 +16,37 @@
 
 package org.jetbrains.jet.codegen.when;
 
+import com.intellij.psi.PsiElement;
 import kotlin.Function1;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jet.codegen.ExpressionCodegen;
 import org.jetbrains.jet.codegen.binding.CodegenBinding;
+import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
+import org.jetbrains.jet.lang.descriptors.ClassKind;
+import org.jetbrains.jet.lang.descriptors.ClassifierDescriptor;
+import org.jetbrains.jet.lang.descriptors.Modality;
 import org.jetbrains.jet.lang.psi.*;
 import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.DescriptorToSourceUtils;
+import org.jetbrains.jet.lang.resolve.DescriptorUtils;
 import org.jetbrains.jet.lang.resolve.constants.CompileTimeConstant;
 import org.jetbrains.jet.lang.resolve.constants.IntegerValueConstant;
 import org.jetbrains.jet.lang.resolve.constants.NullValue;
 import org.jetbrains.jet.lang.resolve.constants.StringValue;
+import org.jetbrains.jet.lang.types.JetType;
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
 import org.jetbrains.org.objectweb.asm.Type;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 public class SwitchCodegenUtil {
+    /**
+     * instanceof against a final class is a single comparison once compiled by the VM,
+     * so the lookup in ClassSwitchMapping only pays off for long chains of them
+     */
+    public static final int MIN_CLASSES_FOR_SWITCH_BY_CLASSES = 8;
+
     public static boolean checkAllItemsAreConstantsSatisfying(
             @NotNull JetWhenExpression expression,
             @NotNull BindingContext bindingContext,
@@ -98,6 +112,80 @@ public class SwitchCodegenUtil {
         return result;
     }
 
+    /**
+     * @return true if all conditions of the when are is-checks against final classes (see getFinalClassFromIsCheck)
+     *         declared in the same file as the when, and there are enough different classes to be worth the lookup in ClassSwitchMapping
+     */
+    public static boolean isWhenByFinalClasses(@NotNull JetWhenExpression expression, @NotNull BindingContext bindingContext) {
+        if (expression.getSubjectExpression() == null) return false;
+
+        Set<ClassDescriptor> classes = new HashSet<ClassDescriptor>();
+        for (JetWhenEntry entry : expression.getEntries()) {
+            for (JetWhenCondition condition : entry.getConditions()) {
+                if (!(condition instanceof JetWhenConditionIsPattern)) return false;
+
+                ClassDescriptor classDescriptor = getFinalClassFromIsCheck((JetWhenConditionIsPattern) condition, bindingContext);
+                if (classDescriptor == null) return false;
+
+                // All classes of the mapping are loaded at once in the static initializer of $WhenMappings, so a class missing
+                // at runtime would make every when using the mapping fail with NoClassDefFoundError, and not only its own branch.
+                // Classes from the same file are always compiled and shipped together with the when, classes from other files may be not.
+                // This only depends on the declarations, so incremental and full builds make the same choice
+                if (!isDeclaredInFile(classDescriptor, expression.getContainingJetFile())) return false;
+
+                classes.add(classDescriptor);
+            }
+        }
+
+        return classes.size() >= MIN_CLASSES_FOR_SWITCH_BY_CLASSES;
+    }
+
+    @NotNull
+    public static List<ClassDescriptor> getClassesFromEntry(@NotNull JetWhenEntry entry, @NotNull BindingContext bindingContext) {
+        List<ClassDescriptor> result = new ArrayList<ClassDescriptor>();
+        for (JetWhenCondition condition : entry.getConditions()) {
+            if (!(condition instanceof JetWhenConditionIsPattern)) continue;
+
+            ClassDescriptor classDescriptor = getFinalClassFromIsCheck((JetWhenConditionIsPattern) condition, bindingContext);
+            assert classDescriptor != null : "guaranteed by isWhenByFinalClasses";
+            result.add(classDescriptor);
+        }
+        return result;
+    }
+
+    private static boolean isDeclaredInFile(@NotNull ClassDescriptor classDescriptor, @NotNull JetFile file) {
+        PsiElement declaration = DescriptorToSourceUtils.descriptorToDeclaration(classDescriptor);
+        return declaration instanceof JetClassOrObject && file.equals(((JetClassOrObject) declaration).getContainingJetFile());
+    }
+
+    /**
+     * Returns the class checked by the condition if the check is equivalent to comparing the exact class of the subject with it
+     */
+    @Nullable
+    private static ClassDescriptor getFinalClassFromIsCheck(
+            @NotNull JetWhenConditionIsPattern condition,
+            @NotNull BindingContext bindingContext
+    ) {
+        if (condition.isNegated()) return null;
+
+        JetType type = bindingContext.get(BindingContext.TYPE, condition.getTypeReference());
+        if (type == null || type.isNullable()) return null;
+
+        ClassifierDescriptor classifier = type.getConstructor().getDeclarationDescriptor();
+        if (!(classifier instanceof ClassDescriptor)) return null;
+
+        ClassDescriptor classDescriptor = (ClassDescriptor) classifier;
+        if (classDescriptor.getModality() != Modality.FINAL) return null;
+        if (classDescriptor.getKind() != ClassKind.CLASS && classDescriptor.getKind() != ClassKind.OBJECT) return null;
+
+        // Built-ins may be mapped to primitive types or to non-final Java classes,
+        // and local classes are copied to other classes when their containing function is inlined
+        if (DescriptorUtils.getContainingModule(classDescriptor) == KotlinBuiltIns.getInstance().getBuiltInsModule()) return null;
+        if (DescriptorUtils.isLocal(classDescriptor)) return null;
+
+        return classDescriptor;
+    }
+
     @Nullable
     public static SwitchCodegen buildAppropriateSwitchCodegenIfPossible(
             @NotNull JetWhenExpression expression,
@@ -105,6 +193,12 @@ public class SwitchCodegenUtil {
             @NotNull ExpressionCodegen codegen
     ) {
         BindingContext bindingContext = codegen.getBindingContext();
+
+        WhenByClassesMapping classesMapping = bindingContext.get(CodegenBinding.MAPPING_FOR_WHEN_BY_CLASSES, expression);
+        if (classesMapping != null && codegen.expressionType(expression.getSubjectExpression()).getSort() == Type.OBJECT) {
+            return new ClassSwitchCodegen(expression, isStatement, codegen, classesMapping);
+        }
+
         if (!isThereConstantEntriesButNulls(expression, bindingContext)) {
             return null;
         }
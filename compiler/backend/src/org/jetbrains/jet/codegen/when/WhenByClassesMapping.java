@@ -0,0 +1,77 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.when;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class WhenByClassesMapping {
+    private static final String MAPPING_FIELD_PREFIX = "$ClassSwitchMapping$";
+
+    private final Map<ClassDescriptor, Integer> map = new HashMap<ClassDescriptor, Integer>();
+    private final List<ClassDescriptor> classes = new ArrayList<ClassDescriptor>();
+    private final String outerClassInternalNameForExpression;
+    private final String mappingsClassInternalName;
+    private final int fieldNumber;
+
+    public WhenByClassesMapping(@NotNull String outerClassInternalNameForExpression, int fieldNumber) {
+        this.outerClassInternalNameForExpression = outerClassInternalNameForExpression;
+        this.mappingsClassInternalName = outerClassInternalNameForExpression + WhenByEnumsMapping.MAPPINGS_CLASS_NAME_POSTFIX;
+        this.fieldNumber = fieldNumber;
+    }
+
+    public int getIndexByClass(@NotNull ClassDescriptor classDescriptor) {
+        Integer result = map.get(classDescriptor);
+        assert result != null : "class " + classDescriptor + " has no mapping";
+        return result;
+    }
+
+    public void putFirstTime(@NotNull ClassDescriptor classDescriptor) {
+        if (!map.containsKey(classDescriptor)) {
+            map.put(classDescriptor, classes.size());
+            classes.add(classDescriptor);
+        }
+    }
+
+    /**
+     * Classes in the order of their indices
+     */
+    @NotNull
+    public List<ClassDescriptor> getClasses() {
+        return classes;
+    }
+
+    @NotNull
+    public String getFieldName() {
+        return MAPPING_FIELD_PREFIX + fieldNumber;
+    }
+
+    @NotNull
+    public String getOuterClassInternalNameForExpression() {
+        return outerClassInternalNameForExpression;
+    }
+
+    @NotNull
+    public String getMappingsClassInternalName() {
+        return mappingsClassInternalName;
+    }
+}
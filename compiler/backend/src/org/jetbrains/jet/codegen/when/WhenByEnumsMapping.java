@@ -25,7 +25,7 @@ import java.util.Map;
 
 public class WhenByEnumsMapping {
     private static final String MAPPING_ARRAY_FIELD_PREFIX = "$EnumSwitchMapping$";
-    private static final String MAPPINGS_CLASS_NAME_POSTFIX = "$WhenMappings";
+    /* package */ static final String MAPPINGS_CLASS_NAME_POSTFIX = "$WhenMappings";
 
     private final Map<EnumValue, Integer> map = new HashMap<EnumValue, Integer>();
     private final ClassDescriptor enumClassDescriptor;
@@ -30,6 +30,7 @@ import org.jetbrains.jet.descriptors.serialization.ProtoBuf
 import java.io.ByteArrayOutputStream
 import java.io.DataOutputStream
 import org.jetbrains.jet.lang.types.lang.BuiltInsSerializationUtil
+import org.jetbrains.jet.lang.types.lang.BuiltInsPackedFile
 import org.jetbrains.jet.descriptors.serialization.NameSerializationUtil
 import org.jetbrains.jet.lang.resolve.DescriptorUtils
 import com.intellij.openapi.Disposable
@@ -45,7 +46,6 @@ import org.jetbrains.jet.context.GlobalContext
 import org.jetbrains.jet.analyzer.ModuleInfo
 import org.jetbrains.jet.lang.resolve.java.JvmPlatformParameters
 import org.jetbrains.jet.analyzer.ModuleContent
-import org.jetbrains.jet.lang.resolve.kotlin.DeserializedResolverUtils
 import org.jetbrains.jet.lang.resolve.scopes.DescriptorKindFilter
 
 public class BuiltInsSerializer(val out: PrintStream?) {
@@ -113,13 +113,12 @@ public class BuiltInsSerializer(val out: PrintStream?) {
         val serializer = DescriptorSerializer.createTopLevel(SerializerExtension.DEFAULT)
 
         val classNames = ArrayList<Name>()
+        val classProtos = ArrayList<ProtoBuf.Class>()
         val classifierDescriptors = DescriptorSerializer.sort(packageView.getMemberScope().getDescriptors(DescriptorKindFilter.CLASSIFIERS))
 
         ClassSerializationUtil.serializeClasses(classifierDescriptors, serializer, object : ClassSerializationUtil.Sink {
             override fun writeClass(classDescriptor: ClassDescriptor, classProto: ProtoBuf.Class) {
-                val stream = ByteArrayOutputStream()
-                classProto.writeTo(stream)
-                write(destDir, getFileName(classDescriptor), stream)
+                classProtos.add(classProto)
 
                 if (DescriptorUtils.isTopLevelDeclaration(classDescriptor)) {
                     classNames.add(classDescriptor.getName())
@@ -127,28 +126,62 @@ public class BuiltInsSerializer(val out: PrintStream?) {
             }
         })
 
-        val classNamesStream = ByteArrayOutputStream()
-        writeClassNames(serializer, classNames, classNamesStream)
-        write(destDir, BuiltInsSerializationUtil.getClassNamesFilePath(fqName), classNamesStream)
-
-        val packageStream = ByteArrayOutputStream()
         val fragments = module.getPackageFragmentProvider().getPackageFragments(fqName)
         val packageProto = serializer.packageProto(fragments).build() ?: error("Package fragments not serialized: $fragments")
-        packageProto.writeTo(packageStream)
-        write(destDir, BuiltInsSerializationUtil.getPackageFilePath(fqName), packageStream)
 
-        val nameStream = ByteArrayOutputStream()
-        NameSerializationUtil.serializeNameTable(nameStream, serializer.getNameTable())
-        write(destDir, BuiltInsSerializationUtil.getNameTableFilePath(fqName), nameStream)
+        val stream = ByteArrayOutputStream()
+        writePackedFile(serializer, packageProto, classNames, classProtos, stream)
+        write(destDir, BuiltInsSerializationUtil.getPackedFilePath(fqName), stream)
     }
 
-    fun writeClassNames(serializer: DescriptorSerializer, classNames: List<Name>, stream: ByteArrayOutputStream) {
+    // See BuiltInsPackedFile for the layout
+    fun writePackedFile(
+            serializer: DescriptorSerializer,
+            packageProto: ProtoBuf.Package,
+            classNames: List<Name>,
+            classProtos: List<ProtoBuf.Class>,
+            stream: ByteArrayOutputStream
+    ) {
         val nameTable = serializer.getNameTable()
+        val classNameIndices = classNames.map { nameTable.getSimpleNameIndex(it) }
+
+        // The name table is written after everything else is serialized, because serialization may add names to it
+        val nameTableStream = ByteArrayOutputStream()
+        NameSerializationUtil.serializeNameTable(nameTableStream, nameTable)
+
+        val classesStream = ByteArrayOutputStream()
+        val offsets = IntArray(classProtos.size())
+        val sizes = IntArray(classProtos.size())
+        for ((i, classProto) in classProtos.withIndices()) {
+            offsets[i] = classesStream.size()
+            classProto.writeTo(classesStream)
+            sizes[i] = classesStream.size() - offsets[i]
+        }
+
         DataOutputStream(stream) use { output ->
-            output.writeInt(classNames.size())
-            for (className in classNames) {
-                output.writeInt(nameTable.getSimpleNameIndex(className))
+            output.writeInt(BuiltInsPackedFile.MAGIC)
+            output.writeInt(BuiltInsPackedFile.VERSION)
+
+            output.writeInt(nameTableStream.size())
+            nameTableStream.writeTo(output)
+
+            val packageBytes = packageProto.toByteArray()
+            output.writeInt(packageBytes.size)
+            output.write(packageBytes)
+
+            output.writeInt(classNameIndices.size())
+            for (index in classNameIndices) {
+                output.writeInt(index)
             }
+
+            output.writeInt(classProtos.size())
+            for ((i, classProto) in classProtos.withIndices()) {
+                output.writeInt(classProto.getFqName())
+                output.writeInt(offsets[i])
+                output.writeInt(sizes[i])
+            }
+
+            classesStream.writeTo(output)
         }
     }
 
@@ -159,8 +192,4 @@ public class BuiltInsSerializer(val out: PrintStream?) {
         file.getParentFile()?.mkdirs()
         file.writeBytes(stream.toByteArray())
     }
-
-    fun getFileName(classDescriptor: ClassDescriptor): String {
-        return BuiltInsSerializationUtil.getClassMetadataPath(DeserializedResolverUtils.getClassId(classDescriptor))!!
-    }
 }
@@ -28,8 +28,8 @@ fun main(args: Array<String>) {
 Usage: ... <destination dir> (<source dir>)+
 
 Analyzes Kotlin sources found in the given source directories and serializes
-found top-level declarations to <destination dir> (files such as
-.kotlin_class_names, .kotlin_name_table, .kotlin_package, *.kotlin_class)"""
+found top-level declarations to <destination dir> (one .kotlin_builtins file
+per package)"""
         )
         return
     }
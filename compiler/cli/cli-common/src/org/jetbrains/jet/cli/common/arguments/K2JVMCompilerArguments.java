@@ -66,6 +66,16 @@ public class K2JVMCompilerArguments extends CommonCompilerArguments {
     @Argument(value = "Xno-optimize", description = "Disable optimizations")
     public boolean noOptimize;
 
+    @Argument(value = "Xpreload-headers", description = "Read Kotlin package headers on the classpath in parallel before analysis")
+    public boolean preloadHeaders;
+
+    @Argument(value = "Xlight-class-cache", description = "Keep light classes of Kotlin sources in the given directory across compilations")
+    @ValueDescription("<path>")
+    public String lightClassCache;
+
+    @Argument(value = "Xskip-unchanged-outputs", description = "Don't rewrite output files which already have the same contents")
+    public boolean skipUnchangedOutputs;
+
     @Override
     @NotNull
     public String executableScriptFileName() {
@@ -29,6 +29,8 @@ import java.util.Collection;
 public class OutputMessageUtil {
     private static final String SOURCE_FILES_PREFIX = "Sources:";
     private static final String OUTPUT_FILES_PREFIX = "Output:";
+    // An output file which already had the same contents and wasn't rewritten
+    private static final String UNCHANGED_OUTPUT_FILES_PREFIX = "Unchanged output:";
 
     @NotNull
     public static String renderException(@NotNull Throwable e) {
@@ -39,7 +41,12 @@ public class OutputMessageUtil {
 
     @NotNull
     public static String formatOutputMessage(Collection<File> sourceFiles, File outputFile) {
-        return OUTPUT_FILES_PREFIX + "\n" + outputFile.getPath() + "\n" +
+        return formatOutputMessage(sourceFiles, outputFile, true);
+    }
+
+    @NotNull
+    public static String formatOutputMessage(Collection<File> sourceFiles, File outputFile, boolean changed) {
+        return (changed ? OUTPUT_FILES_PREFIX : UNCHANGED_OUTPUT_FILES_PREFIX) + "\n" + outputFile.getPath() + "\n" +
                SOURCE_FILES_PREFIX + "\n" + StringUtil.join(sourceFiles, "\n");
     }
 
@@ -50,20 +57,21 @@ public class OutputMessageUtil {
         // Must have at least one line per prefix
         if (strings.length <= 2) return null;
 
-        if (!OUTPUT_FILES_PREFIX.equals(strings[0])) return null;
+        boolean changed = OUTPUT_FILES_PREFIX.equals(strings[0]);
+        if (!changed && !UNCHANGED_OUTPUT_FILES_PREFIX.equals(strings[0])) return null;
 
         if (SOURCE_FILES_PREFIX.equals(strings[1])) {
             // Output:
             // Sources:
             // ...
-            return new Output(parseSourceFiles(strings, 2), null);
+            return new Output(parseSourceFiles(strings, 2), null, changed);
         }
         else {
             File outputFile = new File(strings[1]);
 
             if (!SOURCE_FILES_PREFIX.equals(strings[2])) return null;
 
-            return new Output(parseSourceFiles(strings, 3), outputFile);
+            return new Output(parseSourceFiles(strings, 3), outputFile, changed);
         }
     }
 
@@ -80,10 +88,16 @@ public class OutputMessageUtil {
         public final Collection<File> sourceFiles;
         @Nullable
         public final File outputFile;
+        public final boolean changed;
 
         public Output(@NotNull Collection<File> sourceFiles, @Nullable File outputFile) {
+            this(sourceFiles, outputFile, true);
+        }
+
+        public Output(@NotNull Collection<File> sourceFiles, @Nullable File outputFile, boolean changed) {
             this.sourceFiles = sourceFiles;
             this.outputFile = outputFile;
+            this.changed = changed;
         }
     }
 }
@@ -23,6 +23,7 @@ import org.jetbrains.jet.cli.common.messages.CompilerMessageSeverity
 import org.jetbrains.jet.cli.common.messages.MessageCollector
 import java.io.File
 import com.intellij.openapi.util.io.FileUtil
+import java.util.Arrays
 
 public fun OutputFileCollection.writeAll(outputDir: File, report: (sources: List<File>, output: File) -> Unit) {
     for (file in asList()) {
@@ -33,6 +34,26 @@ public fun OutputFileCollection.writeAll(outputDir: File, report: (sources: List
     }
 }
 
+/**
+ * Doesn't rewrite the files which already have the same contents, so that their timestamps are kept
+ */
+public fun OutputFileCollection.writeAllIfChanged(outputDir: File, report: (sources: List<File>, output: File, changed: Boolean) -> Unit) {
+    for (file in asList()) {
+        val output = File(outputDir, file.relativePath)
+        val bytes = file.asByteArray()
+        val changed = !hasContents(output, bytes)
+        report(file.sourceFiles, output, changed)
+        if (changed) {
+            FileUtil.writeToFile(output, bytes)
+        }
+    }
+}
+
+// The length is compared first, so that the files which have changed in size aren't read
+private fun hasContents(file: File, bytes: ByteArray): Boolean {
+    return file.isFile() && file.length() == bytes.size.toLong() && Arrays.equals(file.readBytes(), bytes)
+}
+
 private val REPORT_NOTHING = { (sources: List<File>, output: File) -> }
 
 public fun OutputFileCollection.writeAllTo(outputDir: File) {
@@ -43,4 +64,10 @@ public fun OutputFileCollection.writeAll(outputDir: File, messageCollector: Mess
     writeAll(outputDir) { sources, output ->
         messageCollector.report(CompilerMessageSeverity.OUTPUT, OutputMessageUtil.formatOutputMessage(sources, output), CompilerMessageLocation.NO_LOCATION)
     }
+}
+
+public fun OutputFileCollection.writeAllIfChanged(outputDir: File, messageCollector: MessageCollector) {
+    writeAllIfChanged(outputDir) { sources, output, changed ->
+        messageCollector.report(CompilerMessageSeverity.OUTPUT, OutputMessageUtil.formatOutputMessage(sources, output, changed), CompilerMessageLocation.NO_LOCATION)
+    }
 }
\ No newline at end of file
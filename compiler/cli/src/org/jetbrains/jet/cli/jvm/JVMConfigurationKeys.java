@@ -40,6 +40,12 @@ public class JVMConfigurationKeys {
             CompilerConfigurationKey.create("disable inline");
     public static final CompilerConfigurationKey<Boolean> DISABLE_OPTIMIZATION =
             CompilerConfigurationKey.create("disable optimization");
+    public static final CompilerConfigurationKey<Boolean> PRELOAD_PACKAGE_HEADERS =
+            CompilerConfigurationKey.create("preload package headers");
+    public static final CompilerConfigurationKey<File> LIGHT_CLASS_CACHE_DIRECTORY =
+            CompilerConfigurationKey.create("light class cache directory");
+    public static final CompilerConfigurationKey<Boolean> SKIP_UNCHANGED_OUTPUTS =
+            CompilerConfigurationKey.create("skip unchanged outputs");
 
     public static final CompilerConfigurationKey<IncrementalCacheProvider> INCREMENTAL_CACHE_PROVIDER =
             CompilerConfigurationKey.create("incremental cache provider");
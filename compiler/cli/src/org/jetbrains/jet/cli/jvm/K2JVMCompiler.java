@@ -173,6 +173,11 @@ public class K2JVMCompiler extends CLICompiler<K2JVMCompilerArguments> {
         configuration.put(JVMConfigurationKeys.DISABLE_PARAM_ASSERTIONS, arguments.noParamAssertions);
         configuration.put(JVMConfigurationKeys.DISABLE_INLINE, arguments.noInline);
         configuration.put(JVMConfigurationKeys.DISABLE_OPTIMIZATION, arguments.noOptimize);
+        configuration.put(JVMConfigurationKeys.PRELOAD_PACKAGE_HEADERS, arguments.preloadHeaders);
+        if (arguments.lightClassCache != null) {
+            configuration.put(JVMConfigurationKeys.LIGHT_CLASS_CACHE_DIRECTORY, new File(arguments.lightClassCache));
+        }
+        configuration.put(JVMConfigurationKeys.SKIP_UNCHANGED_OUTPUTS, arguments.skipUnchangedOutputs);
     }
 
     /**
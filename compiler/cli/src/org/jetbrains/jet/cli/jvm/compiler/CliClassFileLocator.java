@@ -0,0 +1,76 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.cli.jvm.compiler;
+
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.ClassFileLocator;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.List;
+
+public class CliClassFileLocator implements ClassFileLocator {
+    @NotNull
+    private final ClassPath classPath;
+
+    public CliClassFileLocator(@NotNull ClassPath classPath) {
+        this.classPath = classPath;
+    }
+
+    @Nullable
+    @Override
+    public VirtualFile findClassFile(@NotNull ClassId classId) {
+        List<Name> packageSegments = classId.getPackageFqName().pathSegments();
+        List<Name> classSegments = classId.getRelativeClassName().pathSegments();
+        StringBuilder classFileName = new StringBuilder();
+        for (Name segment : classSegments) {
+            if (classFileName.length() > 0) classFileName.append('$');
+            classFileName.append(segment.asString());
+        }
+        classFileName.append(".class");
+        String sourceFileName = classSegments.get(0).asString() + ".java";
+
+        for (VirtualFile root : classPath) {
+            VirtualFile packageDir = findPackageDirectory(root, packageSegments);
+            if (packageDir == null) continue;
+
+            VirtualFile classFile = packageDir.findChild(classFileName.toString());
+            if (classFile != null && classFile.isValid()) {
+                return classFile;
+            }
+
+            // Same order as in CoreJavaFileManager: if a Java source file comes first, the class is loaded from PSI
+            if (packageDir.findChild(sourceFileName) != null) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static VirtualFile findPackageDirectory(@NotNull VirtualFile root, @NotNull List<Name> packageSegments) {
+        VirtualFile current = root;
+        for (Name segment : packageSegments) {
+            current = current.findChild(segment.asString());
+            if (current == null) return null;
+        }
+        return current;
+    }
+}
@@ -32,6 +32,7 @@ import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.TestOnly;
 import org.jetbrains.jet.asJava.KotlinLightClassForExplicitDeclaration;
 import org.jetbrains.jet.asJava.LightClassConstructionContext;
+import org.jetbrains.jet.asJava.LightClassStubCache;
 import org.jetbrains.jet.asJava.LightClassGenerationSupport;
 import org.jetbrains.jet.lang.descriptors.ClassDescriptor;
 import org.jetbrains.jet.lang.descriptors.DeclarationDescriptor;
@@ -74,6 +75,7 @@ public class CliLightClassGenerationSupport extends LightClassGenerationSupport
 
     private BindingTrace trace;
     private ModuleDescriptorImpl module;
+    private LightClassStubCache stubCache;
 
     public CliLightClassGenerationSupport() {
     }
@@ -116,6 +118,16 @@ public class CliLightClassGenerationSupport extends LightClassGenerationSupport
         this.module = module;
     }
 
+    @Nullable
+    @Override
+    public LightClassStubCache getStubCache() {
+        return stubCache;
+    }
+
+    public void setStubCache(@Nullable LightClassStubCache stubCache) {
+        this.stubCache = stubCache;
+    }
+
     @TestOnly
     public void newBindingTrace() {
         trace = null;
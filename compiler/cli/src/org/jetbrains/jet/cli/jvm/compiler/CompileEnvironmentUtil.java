@@ -257,11 +257,15 @@ public class CompileEnvironmentUtil {
             boolean includeRuntime,
             @Nullable FqName mainClass,
             @NotNull ClassFileFactory outputFiles,
+            boolean skipUnchanged,
             @NotNull MessageCollector messageCollector
     ) {
         if (jar != null) {
             writeToJar(jar, includeRuntime, mainClass, outputFiles);
         }
+        else if (skipUnchanged) {
+            OutputUtilsPackage.writeAllIfChanged(outputFiles, outputDir == null ? new File(".") : outputDir, messageCollector);
+        }
         else {
             OutputUtilsPackage.writeAll(outputFiles, outputDir == null ? new File(".") : outputDir, messageCollector);
         }
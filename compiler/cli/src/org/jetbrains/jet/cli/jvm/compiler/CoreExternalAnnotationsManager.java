@@ -17,33 +17,175 @@
 package org.jetbrains.jet.cli.jvm.compiler;
 
 import com.intellij.codeInsight.BaseExternalAnnotationsManager;
+import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
+import com.intellij.psi.util.PsiFormatUtil;
+import com.intellij.util.ArrayUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.resolver.ExternalAnnotationsIndex;
+import org.jetbrains.jet.lang.resolve.java.resolver.IndexedExternalAnnotationsManager;
+import org.jetbrains.jet.lang.resolve.name.FqName;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Annotations roots which contain an index compiled by {@link ExternalAnnotationsIndexCompiler} are queried through the index,
+ * the rest of them are handled by {@link BaseExternalAnnotationsManager}, which parses annotations.xml files.
+ * Lookups by external names (for elements loaded from class files, which have no PSI) read annotations.xml files themselves,
+ * one package at a time
+ */
+public class CoreExternalAnnotationsManager extends BaseExternalAnnotationsManager implements IndexedExternalAnnotationsManager {
+    private static final Logger LOG = Logger.getInstance(CoreExternalAnnotationsManager.class);
 
-public class CoreExternalAnnotationsManager extends BaseExternalAnnotationsManager {
     static {
         // This is an ugly workaround for JDOM 1.1 used from application started from Ant 1.8 without forking
         System.setProperty("javax.xml.parsers.SAXParserFactory", "com.sun.org.apache.xerces.internal.jaxp.SAXParserFactoryImpl");
     }
 
     private final List<VirtualFile> externalAnnotationsRoots = new ArrayList<VirtualFile>();
+    private final List<ExternalAnnotationsIndex> indices = new ArrayList<ExternalAnnotationsIndex>();
+
+    private final ConcurrentMap<String, PsiAnnotation[]> indexedAnnotations = new ConcurrentHashMap<String, PsiAnnotation[]>();
+
+    private final ConcurrentMap<FqName, ExternalAnnotationsIndex.Builder> xmlItemsByPackage =
+            new ConcurrentHashMap<FqName, ExternalAnnotationsIndex.Builder>();
+    private final ConcurrentMap<String, PsiAnnotation[]> xmlAnnotations = new ConcurrentHashMap<String, PsiAnnotation[]>();
+
+    private final PsiManager psiManager;
 
     public CoreExternalAnnotationsManager(@NotNull PsiManager psiManager) {
         super(psiManager);
+        this.psiManager = psiManager;
     }
 
     public void addExternalAnnotationsRoot(VirtualFile externalAnnotationsRoot) {
-        externalAnnotationsRoots.add(externalAnnotationsRoot);
+        ExternalAnnotationsIndex index = ExternalAnnotationsIndex.load(externalAnnotationsRoot);
+        if (index != null) {
+            indices.add(index);
+        }
+        else {
+            externalAnnotationsRoots.add(externalAnnotationsRoot);
+        }
     }
 
     @Override
     protected boolean hasAnyAnnotationsRoots() {
-        return true;
+        return !externalAnnotationsRoots.isEmpty();
+    }
+
+    @Override
+    public boolean isFullyIndexed() {
+        return externalAnnotationsRoots.isEmpty();
+    }
+
+    @NotNull
+    @Override
+    public PsiAnnotation[] findExternalAnnotationsByName(@NotNull FqName packageFqName, @NotNull String externalName) {
+        PsiAnnotation[] indexed = findIndexedAnnotations(externalName);
+        PsiAnnotation[] fromXml = hasAnyAnnotationsRoots() ? findXmlAnnotations(packageFqName, externalName) : PsiAnnotation.EMPTY_ARRAY;
+        if (fromXml.length == 0) return indexed;
+        return indexed.length == 0 ? fromXml : ArrayUtil.mergeArrays(indexed, fromXml);
+    }
+
+    @NotNull
+    private PsiAnnotation[] findIndexedAnnotations(@NotNull String externalName) {
+        if (indices.isEmpty()) return PsiAnnotation.EMPTY_ARRAY;
+
+        PsiAnnotation[] cached = indexedAnnotations.get(externalName);
+        if (cached != null) return cached;
+
+        List<ExternalAnnotationsIndex.AnnotationData> annotations = new ArrayList<ExternalAnnotationsIndex.AnnotationData>();
+        for (ExternalAnnotationsIndex index : indices) {
+            annotations.addAll(index.findAnnotations(externalName));
+        }
+
+        PsiAnnotation[] result = createAnnotations(annotations);
+        indexedAnnotations.putIfAbsent(externalName, result);
+        return result;
+    }
+
+    @NotNull
+    private PsiAnnotation[] findXmlAnnotations(@NotNull FqName packageFqName, @NotNull String externalName) {
+        PsiAnnotation[] cached = xmlAnnotations.get(externalName);
+        if (cached != null) return cached;
+
+        PsiAnnotation[] result = createAnnotations(getXmlItems(packageFqName).findAnnotations(externalName));
+        xmlAnnotations.putIfAbsent(externalName, result);
+        return result;
+    }
+
+    // All roots are read into one builder, so that the first declaration of an annotation wins, as in BaseExternalAnnotationsManager
+    @NotNull
+    private ExternalAnnotationsIndex.Builder getXmlItems(@NotNull FqName packageFqName) {
+        ExternalAnnotationsIndex.Builder cached = xmlItemsByPackage.get(packageFqName);
+        if (cached != null) return cached;
+
+        String relativePath = packageFqName.isRoot()
+                              ? ExternalAnnotationsIndexCompiler.ANNOTATIONS_XML
+                              : packageFqName.asString().replace('.', '/') + "/" + ExternalAnnotationsIndexCompiler.ANNOTATIONS_XML;
+        ExternalAnnotationsIndex.Builder builder = new ExternalAnnotationsIndex.Builder();
+        for (VirtualFile root : externalAnnotationsRoots) {
+            VirtualFile file = root.findFileByRelativePath(relativePath);
+            if (file == null) continue;
+
+            try {
+                ExternalAnnotationsIndexCompiler.readAnnotationsXml(file.getInputStream(), file.getPath(), builder);
+            }
+            catch (IOException e) {
+                LOG.warn("Could not read external annotations from " + file, e);
+            }
+        }
+
+        ExternalAnnotationsIndex.Builder existing = xmlItemsByPackage.putIfAbsent(packageFqName, builder);
+        return existing != null ? existing : builder;
+    }
+
+    @NotNull
+    private PsiAnnotation[] createAnnotations(@NotNull List<ExternalAnnotationsIndex.AnnotationData> annotations) {
+        if (annotations.isEmpty()) return PsiAnnotation.EMPTY_ARRAY;
+
+        PsiElementFactory factory = JavaPsiFacade.getElementFactory(psiManager.getProject());
+        PsiAnnotation[] result = new PsiAnnotation[annotations.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = factory.createAnnotationFromText(annotations.get(i).getText(), null);
+        }
+        return result;
+    }
+
+    @Nullable
+    @Override
+    public PsiAnnotation findExternalAnnotation(@NotNull PsiModifierListOwner listOwner, @NotNull String annotationFQN) {
+        for (PsiAnnotation annotation : findIndexedAnnotations(listOwner)) {
+            if (annotationFQN.equals(annotation.getQualifiedName())) {
+                return annotation;
+            }
+        }
+        return hasAnyAnnotationsRoots() ? super.findExternalAnnotation(listOwner, annotationFQN) : null;
+    }
+
+    @Nullable
+    @Override
+    public PsiAnnotation[] findExternalAnnotations(@NotNull PsiModifierListOwner listOwner) {
+        PsiAnnotation[] indexed = findIndexedAnnotations(listOwner);
+        PsiAnnotation[] fromXml = hasAnyAnnotationsRoots() ? super.findExternalAnnotations(listOwner) : null;
+        if (fromXml == null || fromXml.length == 0) {
+            return indexed.length == 0 ? fromXml : indexed;
+        }
+        return indexed.length == 0 ? fromXml : ArrayUtil.mergeArrays(indexed, fromXml);
+    }
+
+    @NotNull
+    private PsiAnnotation[] findIndexedAnnotations(@NotNull PsiModifierListOwner listOwner) {
+        if (indices.isEmpty()) return PsiAnnotation.EMPTY_ARRAY;
+
+        String externalName = PsiFormatUtil.getExternalName(listOwner, false, Integer.MAX_VALUE);
+        return externalName == null ? PsiAnnotation.EMPTY_ARRAY : findIndexedAnnotations(externalName);
     }
 
     @NotNull
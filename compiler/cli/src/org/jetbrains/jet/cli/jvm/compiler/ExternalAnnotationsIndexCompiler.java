@@ -0,0 +1,141 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.cli.jvm.compiler;
+
+import com.intellij.openapi.util.JDOMUtil;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.java.resolver.ExternalAnnotationsIndex;
+
+import java.io.*;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Compiles annotations.xml files of an external annotations root (a directory or a jar) into {@link ExternalAnnotationsIndex},
+ * which should then be put to the root of the same annotations root, see {@link ExternalAnnotationsIndex#INDEX_FILE_NAME}
+ */
+public class ExternalAnnotationsIndexCompiler {
+    public static final String ANNOTATIONS_XML = "annotations.xml";
+
+    private final ExternalAnnotationsIndex.Builder builder = new ExternalAnnotationsIndex.Builder();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: ... <annotations root (directory or jar)> <destination index file>");
+            return;
+        }
+
+        ExternalAnnotationsIndexCompiler compiler = new ExternalAnnotationsIndexCompiler();
+        compiler.addRoot(new File(args[0]));
+        compiler.writeIndex(new File(args[1]));
+        System.out.println(compiler.builder.getItemCount() + " items written to " + args[1]);
+    }
+
+    public void writeIndex(@NotNull File destination) throws IOException {
+        OutputStream output = new BufferedOutputStream(new FileOutputStream(destination));
+        try {
+            builder.writeTo(output);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+    public void addRoot(@NotNull File root) throws IOException {
+        if (root.isDirectory()) {
+            addDirectory(root);
+            return;
+        }
+
+        ZipFile zipFile = new ZipFile(root);
+        try {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.getName().endsWith("/" + ANNOTATIONS_XML) || entry.getName().equals(ANNOTATIONS_XML)) {
+                    readAnnotationsXml(zipFile.getInputStream(entry), root + "!/" + entry.getName(), builder);
+                }
+            }
+        }
+        finally {
+            zipFile.close();
+        }
+    }
+
+    private void addDirectory(@NotNull File directory) throws IOException {
+        File[] children = directory.listFiles();
+        if (children == null) return;
+
+        for (File child : children) {
+            if (child.isDirectory()) {
+                addDirectory(child);
+            }
+            else if (child.getName().equals(ANNOTATIONS_XML)) {
+                readAnnotationsXml(new FileInputStream(child), child.getPath(), builder);
+            }
+        }
+    }
+
+    /**
+     * Adds all items of the given annotations.xml file to the builder and closes the stream.
+     * Mirrors BaseExternalAnnotationsManager, which reads the same files when they're looked up by PSI elements
+     */
+    @SuppressWarnings("unchecked")
+    public static void readAnnotationsXml(
+            @NotNull InputStream stream,
+            @NotNull String path,
+            @NotNull ExternalAnnotationsIndex.Builder builder
+    ) throws IOException {
+        Document document;
+        try {
+            document = JDOMUtil.loadDocument(stream);
+        }
+        catch (JDOMException e) {
+            throw new IOException("Malformed annotations file: " + path, e);
+        }
+        finally {
+            stream.close();
+        }
+
+        for (Element item : (List<Element>) document.getRootElement().getChildren("item")) {
+            String externalName = item.getAttributeValue("name");
+            if (externalName == null) continue;
+
+            for (Element annotation : (List<Element>) item.getChildren("annotation")) {
+                String fqName = annotation.getAttributeValue("name");
+                if (fqName == null) continue;
+
+                List<Element> arguments = (List<Element>) annotation.getChildren();
+                String[] names = new String[arguments.size()];
+                String[] values = new String[arguments.size()];
+                for (int i = 0; i < arguments.size(); i++) {
+                    String name = arguments.get(i).getAttributeValue("name");
+                    String value = arguments.get(i).getAttributeValue("val");
+                    names[i] = name == null ? "" : name;
+                    values[i] = value == null ? "" : value;
+                }
+
+                builder.addAnnotation(externalName, new ExternalAnnotationsIndex.AnnotationData(fqName, names, values));
+            }
+        }
+    }
+}
@@ -43,7 +43,9 @@ import org.jetbrains.jet.OperationModeProvider;
 import org.jetbrains.jet.asJava.JavaElementFinder;
 import org.jetbrains.jet.asJava.KotlinLightClassForPackage;
 import org.jetbrains.jet.asJava.LightClassGenerationSupport;
+import org.jetbrains.jet.asJava.LightClassStubCache;
 import org.jetbrains.jet.cli.common.CLIConfigurationKeys;
+import org.jetbrains.jet.cli.common.KotlinVersion;
 import org.jetbrains.jet.cli.common.messages.CompilerMessageLocation;
 import org.jetbrains.jet.cli.common.messages.CompilerMessageSeverity;
 import org.jetbrains.jet.cli.common.messages.MessageCollector;
@@ -54,7 +56,9 @@ import org.jetbrains.jet.lang.parsing.JetParserDefinition;
 import org.jetbrains.jet.lang.parsing.JetScriptDefinitionProvider;
 import org.jetbrains.jet.lang.psi.JetFile;
 import org.jetbrains.jet.lang.resolve.DiagnosticsWithSuppression;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.ClassFileLocator;
 import org.jetbrains.jet.lang.resolve.kotlin.KotlinBinaryClassCache;
+import org.jetbrains.jet.lang.resolve.kotlin.KotlinPackageHeaderPreloader;
 import org.jetbrains.jet.lang.resolve.kotlin.VirtualFileFinderFactory;
 import org.jetbrains.jet.lang.resolve.lazy.declarations.CliDeclarationProviderFactoryService;
 import org.jetbrains.jet.lang.resolve.lazy.declarations.DeclarationProviderFactoryService;
@@ -220,6 +224,19 @@ public class JetCoreEnvironment {
                 configuration.getList(CommonConfigurationKeys.SCRIPT_DEFINITIONS_KEY));
 
         project.registerService(VirtualFileFinderFactory.class, new CliVirtualFileFinderFactory(classPath));
+        project.registerService(ClassFileLocator.class, new CliClassFileLocator(classPath));
+
+        if (configuration.get(JVMConfigurationKeys.PRELOAD_PACKAGE_HEADERS, false)) {
+            KotlinPackageHeaderPreloader.preload(classPath, Runtime.getRuntime().availableProcessors());
+        }
+
+        File lightClassCacheDirectory = configuration.get(JVMConfigurationKeys.LIGHT_CLASS_CACHE_DIRECTORY);
+        if (lightClassCacheDirectory != null) {
+            String fingerprint = LightClassStubCache.computeFingerprint(
+                    sourceFiles, configuration.getList(JVMConfigurationKeys.CLASSPATH_KEY),
+                    configuration.getList(JVMConfigurationKeys.ANNOTATIONS_PATH_KEY), KotlinVersion.VERSION);
+            CliLightClassGenerationSupport.getInstanceForCli(project).setStubCache(new LightClassStubCache(lightClassCacheDirectory, fingerprint));
+        }
     }
 
     // made public for Upsource
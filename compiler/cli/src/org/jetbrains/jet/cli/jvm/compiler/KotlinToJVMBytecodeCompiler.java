@@ -97,7 +97,8 @@ public class KotlinToJVMBytecodeCompiler {
             @Nullable FqName mainClass
     ) {
         MessageCollector messageCollector = configuration.get(CLIConfigurationKeys.MESSAGE_COLLECTOR_KEY, MessageCollector.NONE);
-        CompileEnvironmentUtil.writeOutputToDirOrJar(jarPath, outputDir, jarRuntime, mainClass, outputFiles, messageCollector);
+        boolean skipUnchanged = configuration.get(JVMConfigurationKeys.SKIP_UNCHANGED_OUTPUTS, false);
+        CompileEnvironmentUtil.writeOutputToDirOrJar(jarPath, outputDir, jarRuntime, mainClass, outputFiles, skipUnchanged, messageCollector);
     }
 
     public static boolean compileModules(
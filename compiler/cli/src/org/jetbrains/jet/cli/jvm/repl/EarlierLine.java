@@ -21,6 +21,7 @@ import org.jetbrains.org.objectweb.asm.Type;
 import org.jetbrains.jet.lang.descriptors.ScriptDescriptor;
 
 public class EarlierLine {
+    private final int lineNumber;
     @NotNull
     private final String code;
     @NotNull
@@ -32,7 +33,8 @@ public class EarlierLine {
     @NotNull
     private final Type classType;
 
-    public EarlierLine(@NotNull String code, @NotNull ScriptDescriptor scriptDescriptor, @NotNull Class<?> scriptClass, @NotNull Object scriptInstance, @NotNull Type classType) {
+    public EarlierLine(int lineNumber, @NotNull String code, @NotNull ScriptDescriptor scriptDescriptor, @NotNull Class<?> scriptClass, @NotNull Object scriptInstance, @NotNull Type classType) {
+        this.lineNumber = lineNumber;
         this.code = code;
         this.scriptDescriptor = scriptDescriptor;
         this.scriptClass = scriptClass;
@@ -40,6 +42,10 @@ public class EarlierLine {
         this.classType = classType;
     }
 
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
     @NotNull
     public String getCode() {
         return code;
@@ -23,11 +23,15 @@ import org.jetbrains.org.objectweb.asm.ClassReader;
 import org.jetbrains.org.objectweb.asm.util.TraceClassVisitor;
 
 import java.io.PrintWriter;
+import java.lang.ref.SoftReference;
 import java.util.Map;
 
 public class ReplClassLoader extends ClassLoader {
 
-    private Map<JvmClassName, byte[]> classes = Maps.newLinkedHashMap();
+    // Bytes of the classes which are not defined yet
+    private final Map<JvmClassName, byte[]> classes = Maps.newHashMap();
+    // Bytes of all classes, in the order they were added, only needed to dump them: the ones of defined classes may be collected
+    private final Map<JvmClassName, SoftReference<byte[]>> classesToDump = Maps.newLinkedHashMap();
 
     public ReplClassLoader(@NotNull ClassLoader parent) {
         super(parent);
@@ -38,7 +42,7 @@ public class ReplClassLoader extends ClassLoader {
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
-        byte[] classBytes = classes.get(JvmClassName.byFqNameWithoutInnerClasses(name));
+        byte[] classBytes = classes.remove(JvmClassName.byFqNameWithoutInnerClasses(name));
         if (classBytes != null) {
             return defineClass(name, classBytes, 0, classBytes.length);
         }
@@ -48,15 +52,22 @@ public class ReplClassLoader extends ClassLoader {
     }
 
     public void addClass(@NotNull JvmClassName className, @NotNull byte[] bytes) {
-        byte[] oldBytes = classes.put(className, bytes);
-        if (oldBytes != null) {
+        if (classesToDump.containsKey(className)) {
             throw new IllegalStateException("Rewrite at key " + className);
         }
+        classes.put(className, bytes);
+        classesToDump.put(className, new SoftReference<byte[]>(bytes));
     }
 
     public void dumpClasses(@NotNull PrintWriter writer) {
-        for (byte[] classBytes : classes.values()) {
-            new ClassReader(classBytes).accept(new TraceClassVisitor(writer), 0);
+        for (Map.Entry<JvmClassName, SoftReference<byte[]>> entry : classesToDump.entrySet()) {
+            byte[] classBytes = entry.getValue().get();
+            if (classBytes != null) {
+                new ClassReader(classBytes).accept(new TraceClassVisitor(writer), 0);
+            }
+            else {
+                writer.println("// " + entry.getKey().getInternalName() + ": bytecode is not kept after the class is loaded");
+            }
         }
     }
 
@@ -19,6 +19,8 @@ package org.jetbrains.jet.cli.jvm.repl;
 import com.google.common.base.Predicates;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.intellij.openapi.Disposable;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.Pair;
@@ -42,20 +44,23 @@ import org.jetbrains.jet.codegen.KotlinCodegenFacade;
 import org.jetbrains.jet.codegen.state.GenerationState;
 import org.jetbrains.jet.config.CompilerConfiguration;
 import org.jetbrains.jet.di.InjectorForTopDownAnalyzerForJvm;
-import org.jetbrains.jet.lang.descriptors.ScriptDescriptor;
+import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.descriptors.impl.CompositePackageFragmentProvider;
 import org.jetbrains.jet.lang.descriptors.impl.ModuleDescriptorImpl;
 import org.jetbrains.jet.lang.descriptors.impl.PackageLikeBuilderDummy;
 import org.jetbrains.jet.lang.parsing.JetParserDefinition;
-import org.jetbrains.jet.lang.psi.JetFile;
-import org.jetbrains.jet.lang.psi.JetScript;
+import org.jetbrains.jet.lang.psi.*;
 import org.jetbrains.jet.lang.resolve.*;
+import org.jetbrains.jet.lang.resolve.calls.callUtil.CallUtilPackage;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
 import org.jetbrains.jet.lang.resolve.java.JvmClassName;
 import org.jetbrains.jet.lang.resolve.java.TopDownAnalyzerFacadeForJVM;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 import org.jetbrains.jet.lang.resolve.scopes.JetScope;
 import org.jetbrains.jet.lang.resolve.scopes.WritableScope;
 import org.jetbrains.jet.lang.resolve.scopes.WritableScopeImpl;
+import org.jetbrains.jet.lang.resolve.scopes.receivers.ReceiverValue;
+import org.jetbrains.jet.lang.resolve.scopes.receivers.ThisReceiver;
 import org.jetbrains.jet.lang.types.JetType;
 import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
 import org.jetbrains.jet.plugin.JetLanguage;
@@ -71,10 +76,7 @@ import java.lang.reflect.Field;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import static org.jetbrains.jet.codegen.AsmUtil.asmTypeByFqNameWithoutInnerClasses;
 import static org.jetbrains.jet.codegen.binding.CodegenBinding.registerClassNameForScript;
@@ -85,7 +87,8 @@ public class ReplInterpreter {
 
     @Nullable
     private JetScope lastLineScope;
-    private final List<EarlierLine> earlierLines = Lists.newArrayList();
+    // Both the script descriptor and its class descriptor are mapped, because declarations of a line can be contained in either
+    private final Map<DeclarationDescriptor, EarlierLine> earlierLines = Maps.newHashMap();
     private final List<String> previousIncompleteLines = Lists.newArrayList();
     private final ReplClassLoader classLoader;
 
@@ -246,9 +249,10 @@ public class ReplInterpreter {
             return LineResult.error(errorCollector.getString());
         }
 
+        List<EarlierLine> usedEarlierLines = collectUsedEarlierLines(psiFile);
         List<Pair<ScriptDescriptor, Type>> earlierScripts = Lists.newArrayList();
 
-        for (EarlierLine earlierLine : earlierLines) {
+        for (EarlierLine earlierLine : usedEarlierLines) {
             earlierScripts.add(Pair.create(earlierLine.getScriptDescriptor(), earlierLine.getClassType()));
         }
 
@@ -264,12 +268,12 @@ public class ReplInterpreter {
         try {
             Class<?> scriptClass = classLoader.loadClass(scriptFqName.asString());
 
-            Class<?>[] constructorParams = new Class<?>[earlierLines.size()];
-            Object[] constructorArgs = new Object[earlierLines.size()];
+            Class<?>[] constructorParams = new Class<?>[usedEarlierLines.size()];
+            Object[] constructorArgs = new Object[usedEarlierLines.size()];
 
-            for (int i = 0; i < earlierLines.size(); ++i) {
-                constructorParams[i] = earlierLines.get(i).getScriptClass();
-                constructorArgs[i] = earlierLines.get(i).getScriptInstance();
+            for (int i = 0; i < usedEarlierLines.size(); ++i) {
+                constructorParams[i] = usedEarlierLines.get(i).getScriptClass();
+                constructorArgs[i] = usedEarlierLines.get(i).getScriptInstance();
             }
 
             Constructor<?> scriptInstanceConstructor = scriptClass.getConstructor(constructorParams);
@@ -284,7 +288,15 @@ public class ReplInterpreter {
             rvField.setAccessible(true);
             Object rv = rvField.get(scriptInstance);
 
-            earlierLines.add(new EarlierLine(line, scriptDescriptor, scriptClass, scriptInstance, scriptClassType));
+            // A line without declarations can't be referenced from later lines, so its script instance is not kept
+            if (!psiFile.getScript().getDeclarations().isEmpty()) {
+                EarlierLine earlierLine = new EarlierLine(lineNumber, line, scriptDescriptor, scriptClass, scriptInstance, scriptClassType);
+                earlierLines.put(scriptDescriptor, earlierLine);
+                earlierLines.put(scriptDescriptor.getClassDescriptor(), earlierLine);
+            }
+            // Later lines map types declared in this line without passing it to their constructors,
+            // so its class name is registered once in the session trace
+            registerClassNameForScript(trace, psiFile.getScript(), scriptClassType);
 
             JetType returnType = scriptDescriptor.getScriptCodeDescriptor().getReturnType();
             return LineResult.successful(rv, returnType != null && KotlinBuiltIns.getInstance().isUnit(returnType));
@@ -297,6 +309,80 @@ public class ReplInterpreter {
         }
     }
 
+    /**
+     * Only the earlier lines whose declarations are referenced from the new line are passed to its script class,
+     * so that compiling and instantiating a line doesn't get slower as the session grows.
+     */
+    @NotNull
+    private List<EarlierLine> collectUsedEarlierLines(@NotNull JetFile psiFile) {
+        final BindingContext bindingContext = trace.getBindingContext();
+        final Set<EarlierLine> usedLines = Sets.newHashSet();
+
+        psiFile.accept(new JetTreeVisitorVoid() {
+            @Override
+            public void visitJetElement(@NotNull JetElement element) {
+                if (element instanceof JetReferenceExpression) {
+                    addLineOf(bindingContext.get(BindingContext.REFERENCE_TARGET, (JetReferenceExpression) element));
+                }
+                addLineOf(CallUtilPackage.getResolvedCall(element, bindingContext));
+                if (element instanceof JetExpression) {
+                    JetExpression expression = (JetExpression) element;
+                    addLineOf(bindingContext.get(BindingContext.LOOP_RANGE_ITERATOR_RESOLVED_CALL, expression));
+                    addLineOf(bindingContext.get(BindingContext.LOOP_RANGE_HAS_NEXT_RESOLVED_CALL, expression));
+                    addLineOf(bindingContext.get(BindingContext.LOOP_RANGE_NEXT_RESOLVED_CALL, expression));
+                    addLineOf(bindingContext.get(BindingContext.INDEXED_LVALUE_GET, expression));
+                    addLineOf(bindingContext.get(BindingContext.INDEXED_LVALUE_SET, expression));
+                }
+                if (element instanceof JetMultiDeclarationEntry) {
+                    addLineOf(bindingContext.get(BindingContext.COMPONENT_RESOLVED_CALL, (JetMultiDeclarationEntry) element));
+                }
+                if (element instanceof JetProperty && ((JetProperty) element).getDelegateExpression() != null) {
+                    VariableDescriptor variable = bindingContext.get(BindingContext.VARIABLE, element);
+                    if (variable instanceof PropertyDescriptor) {
+                        PropertyDescriptor property = (PropertyDescriptor) variable;
+                        addLineOf(bindingContext.get(BindingContext.DELEGATED_PROPERTY_PD_RESOLVED_CALL, property));
+                        for (PropertyAccessorDescriptor accessor : property.getAccessors()) {
+                            addLineOf(bindingContext.get(BindingContext.DELEGATED_PROPERTY_RESOLVED_CALL, accessor));
+                        }
+                    }
+                }
+                super.visitJetElement(element);
+            }
+
+            private void addLineOf(@Nullable ResolvedCall<?> resolvedCall) {
+                if (resolvedCall == null) return;
+                addLineOf(resolvedCall.getCandidateDescriptor());
+                addLineOf(resolvedCall.getDispatchReceiver());
+                addLineOf(resolvedCall.getExtensionReceiver());
+            }
+
+            private void addLineOf(@NotNull ReceiverValue receiver) {
+                if (receiver instanceof ThisReceiver) {
+                    addLineOf(((ThisReceiver) receiver).getDeclarationDescriptor());
+                }
+            }
+
+            private void addLineOf(@Nullable DeclarationDescriptor descriptor) {
+                for (DeclarationDescriptor current = descriptor; current != null; current = current.getContainingDeclaration()) {
+                    EarlierLine earlierLine = earlierLines.get(current);
+                    if (earlierLine != null) {
+                        usedLines.add(earlierLine);
+                        return;
+                    }
+                }
+            }
+        });
+
+        List<EarlierLine> result = Lists.newArrayList(usedLines);
+        Collections.sort(result, new Comparator<EarlierLine>() {
+            @Override
+            public int compare(@NotNull EarlierLine line1, @NotNull EarlierLine line2) {
+                return line1.getLineNumber() - line2.getLineNumber();
+            }
+        });
+        return result;
+    }
+
     @NotNull
     private static String renderStackTrace(@NotNull Throwable cause) {
         StackTraceElement[] oldTrace = cause.getStackTrace();
@@ -110,6 +110,8 @@ public class InjectorForJavaDescriptorResolver {
         this.javaClassFinder.setProject(project);
         this.javaClassFinder.setScope(globalSearchScope);
 
+        psiBasedExternalAnnotationResolver.setProject(project);
+
         traceBasedExternalSignatureResolver.setExternalAnnotationResolver(psiBasedExternalAnnotationResolver);
         traceBasedExternalSignatureResolver.setProject(project);
         traceBasedExternalSignatureResolver.setTrace(bindingTrace);
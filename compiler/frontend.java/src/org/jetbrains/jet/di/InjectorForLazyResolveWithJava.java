@@ -207,6 +207,8 @@ public class InjectorForLazyResolveWithJava {
         javaClassFinder.setProject(project);
         javaClassFinder.setScope(moduleContentScope);
 
+        psiBasedExternalAnnotationResolver.setProject(project);
+
         traceBasedExternalSignatureResolver.setExternalAnnotationResolver(psiBasedExternalAnnotationResolver);
         traceBasedExternalSignatureResolver.setProject(project);
         traceBasedExternalSignatureResolver.setTrace(bindingTrace);
@@ -248,6 +248,8 @@ public class InjectorForTopDownAnalyzerForJvm {
         javaClassFinder.setProject(project);
         javaClassFinder.setScope(globalSearchScope);
 
+        psiBasedExternalAnnotationResolver.setProject(project);
+
         traceBasedExternalSignatureResolver.setExternalAnnotationResolver(psiBasedExternalAnnotationResolver);
         traceBasedExternalSignatureResolver.setProject(project);
         traceBasedExternalSignatureResolver.setTrace(bindingTrace);
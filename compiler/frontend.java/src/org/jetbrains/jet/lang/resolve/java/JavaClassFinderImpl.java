@@ -28,6 +28,8 @@ import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaPackage;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaClassImpl;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaPackageImpl;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.ClassFileLocator;
 import org.jetbrains.jet.lang.resolve.name.ClassId;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 import org.jetbrains.jet.lang.resolve.name.FqNameUnsafe;
@@ -35,6 +37,8 @@ import org.jetbrains.jet.plugin.JetFileType;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
+import java.util.HashMap;
+import java.util.Map;
 
 public class JavaClassFinderImpl implements JavaClassFinder {
     private Project project;
@@ -43,6 +47,11 @@ public class JavaClassFinderImpl implements JavaClassFinder {
     private GlobalSearchScope javaSearchScope;
     private JavaPsiFacadeKotlinHacks javaFacade;
 
+    // Classes loaded directly from class files are cached, so that each of them is read only once
+    // and the same JavaClass instance is returned for the same class, as the resolver expects
+    private ClassFileLocator classFileLocator;
+    private final Map<ClassId, BinaryJavaClass> binaryClasses = new HashMap<ClassId, BinaryJavaClass>();
+
     @Inject
     public void setProject(@NotNull Project project) {
         this.project = project;
@@ -69,11 +78,17 @@ public class JavaClassFinderImpl implements JavaClassFinder {
             }
         };
         javaFacade = new JavaPsiFacadeKotlinHacks(project);
+        classFileLocator = ClassFileLocator.SERVICE.getInstance(project);
     }
 
     @Nullable
     @Override
     public JavaClass findClass(@NotNull ClassId classId) {
+        if (classFileLocator != null) {
+            BinaryJavaClass binaryClass = findBinaryClass(classId);
+            if (binaryClass != null) return binaryClass;
+        }
+
         FqNameUnsafe fqName = classId.asSingleFqName();
 
         PsiClass psiClass = javaFacade.findClass(fqName.asString(), javaSearchScope);
@@ -92,6 +107,18 @@ public class JavaClassFinderImpl implements JavaClassFinder {
         return javaClass;
     }
 
+    @Nullable
+    private synchronized BinaryJavaClass findBinaryClass(@NotNull ClassId classId) {
+        if (binaryClasses.containsKey(classId)) {
+            return binaryClasses.get(classId);
+        }
+
+        VirtualFile file = classFileLocator.findClassFile(classId);
+        BinaryJavaClass result = file != null && javaSearchScope.contains(file) ? BinaryJavaClass.create(file, classId, this) : null;
+        binaryClasses.put(classId, result);
+        return result;
+    }
+
     @Nullable
     @Override
     public JavaPackage findPackage(@NotNull FqName fqName) {
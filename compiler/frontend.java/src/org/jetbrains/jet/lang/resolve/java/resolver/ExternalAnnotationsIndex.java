@@ -0,0 +1,346 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.resolver;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * External annotations of one annotations root compiled into a binary index by {@link Builder}.
+ * Items are looked up by their external name (see {@link com.intellij.psi.util.PsiFormatUtil#getExternalName}),
+ * exactly as in annotations.xml files, so the answers are the same as the ones of the XML-based lookup.
+ *
+ * The layout is (all numbers are big-endian ints):
+ *   MAGIC, VERSION,
+ *   number of strings, offset of each string, the end of the last string, UTF-8 bytes of all strings,
+ *   number of items, (external name string index, offset of annotations) of each item, sorted by external name bytes,
+ *   annotations of each item: number of annotations, then (fqName string index, number of arguments,
+ *   (name string index, value string index) of each argument) of each annotation.
+ */
+public class ExternalAnnotationsIndex {
+    private static final Logger LOG = Logger.getInstance(ExternalAnnotationsIndex.class);
+
+    public static final String INDEX_FILE_NAME = "annotations.kotlin_index";
+
+    private static final int MAGIC = 0x4B454149; // "KEAI"
+    private static final int VERSION = 1;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer buffer;
+
+    private final int stringCount;
+    private final int stringOffsetsStart;
+    private final int stringDataStart;
+    private final String[] strings;
+
+    private final int itemCount;
+    private final int itemsStart;
+    private final int annotationsStart;
+
+    private ExternalAnnotationsIndex(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) throw new IllegalStateException("Not an external annotations index");
+        int version = buffer.getInt(4);
+        if (version != VERSION) throw new IllegalStateException("Unsupported external annotations index version: " + version);
+
+        stringCount = buffer.getInt(8);
+        stringOffsetsStart = 12;
+        stringDataStart = stringOffsetsStart + 4 * (stringCount + 1);
+        strings = new String[stringCount];
+
+        int itemCountPosition = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * stringCount);
+        itemCount = buffer.getInt(itemCountPosition);
+        itemsStart = itemCountPosition + 4;
+        annotationsStart = itemsStart + 8 * itemCount;
+    }
+
+    /**
+     * @return the index stored in the given annotations root, or null if there's none
+     */
+    @Nullable
+    public static ExternalAnnotationsIndex load(@NotNull VirtualFile annotationsRoot) {
+        VirtualFile indexFile = annotationsRoot.findChild(INDEX_FILE_NAME);
+        if (indexFile == null) return null;
+
+        try {
+            if (indexFile.isInLocalFileSystem()) {
+                RandomAccessFile file = new RandomAccessFile(VfsUtilCore.virtualToIoFile(indexFile), "r");
+                try {
+                    FileChannel channel = file.getChannel();
+                    return new ExternalAnnotationsIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+                finally {
+                    file.close();
+                }
+            }
+            // An entry of a jar can't be mapped, so it's read at once
+            return new ExternalAnnotationsIndex(ByteBuffer.wrap(indexFile.contentsToByteArray()));
+        }
+        catch (IOException e) {
+            LOG.warn("Could not read external annotations index " + indexFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return annotations of the item with the given external name in the order they're declared, empty list if there's no such item
+     */
+    @NotNull
+    public List<AnnotationData> findAnnotations(@NotNull String externalName) {
+        int item = findItem(externalName.getBytes(UTF_8));
+        if (item < 0) return Collections.emptyList();
+
+        int position = annotationsStart + buffer.getInt(itemsStart + 8 * item + 4);
+        int annotationCount = buffer.getInt(position);
+        position += 4;
+
+        List<AnnotationData> result = new ArrayList<AnnotationData>(annotationCount);
+        for (int i = 0; i < annotationCount; i++) {
+            String fqName = getString(buffer.getInt(position));
+            int argumentCount = buffer.getInt(position + 4);
+            position += 8;
+
+            String[] names = new String[argumentCount];
+            String[] values = new String[argumentCount];
+            for (int j = 0; j < argumentCount; j++) {
+                names[j] = getString(buffer.getInt(position));
+                values[j] = getString(buffer.getInt(position + 4));
+                position += 8;
+            }
+            result.add(new AnnotationData(fqName, names, values));
+        }
+        return result;
+    }
+
+    private int findItem(@NotNull byte[] key) {
+        int low = 0;
+        int high = itemCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareStringBytes(buffer.getInt(itemsStart + 8 * middle), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            }
+            else if (comparison > 0) {
+                high = middle - 1;
+            }
+            else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Compares bytes of the string from the index with the key without decoding the string
+    private int compareStringBytes(int index, @NotNull byte[] key) {
+        int start = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * index);
+        int length = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * (index + 1)) - start;
+
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int difference = (buffer.get(start + i) & 0xFF) - (key[i] & 0xFF);
+            if (difference != 0) return difference;
+        }
+        return length - key.length;
+    }
+
+    @NotNull
+    private synchronized String getString(int index) {
+        String result = strings[index];
+        if (result == null) {
+            int start = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * index);
+            int end = stringDataStart + buffer.getInt(stringOffsetsStart + 4 * (index + 1));
+            byte[] bytes = new byte[end - start];
+            ByteBuffer duplicate = buffer.duplicate();
+            duplicate.position(start);
+            duplicate.get(bytes);
+            result = new String(bytes, UTF_8);
+            strings[index] = result;
+        }
+        return result;
+    }
+
+    public static class AnnotationData {
+        private final String fqName;
+        private final String[] argumentNames;
+        private final String[] argumentValues;
+
+        public AnnotationData(@NotNull String fqName, @NotNull String[] argumentNames, @NotNull String[] argumentValues) {
+            this.fqName = fqName;
+            this.argumentNames = argumentNames;
+            this.argumentValues = argumentValues;
+        }
+
+        @NotNull
+        public String getFqName() {
+            return fqName;
+        }
+
+        /**
+         * @return the text of the annotation, built the same way BaseExternalAnnotationsManager builds it from annotations.xml
+         */
+        @NotNull
+        public String getText() {
+            StringBuilder sb = new StringBuilder("@").append(fqName);
+            if (argumentNames.length > 0) {
+                sb.append('(');
+                for (int i = 0; i < argumentNames.length; i++) {
+                    if (i > 0) sb.append(',');
+                    if (!argumentNames[i].isEmpty()) {
+                        sb.append(argumentNames[i]).append('=');
+                    }
+                    sb.append(argumentValues[i]);
+                }
+                sb.append(')');
+            }
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            return getText();
+        }
+    }
+
+    /**
+     * Collects items of an annotations root and writes them in the index format.
+     * An argument without a name (i.e. the 'value' one written in the short form) is added with an empty name.
+     */
+    public static class Builder {
+        private final Map<String, List<AnnotationData>> items = new HashMap<String, List<AnnotationData>>();
+
+        public void addAnnotation(@NotNull String externalName, @NotNull AnnotationData annotation) {
+            List<AnnotationData> annotations = items.get(externalName);
+            if (annotations == null) {
+                annotations = new ArrayList<AnnotationData>(1);
+                items.put(externalName, annotations);
+            }
+            for (AnnotationData existing : annotations) {
+                // The first declaration wins, as in the XML-based lookup
+                if (existing.fqName.equals(annotation.fqName)) return;
+            }
+            annotations.add(annotation);
+        }
+
+        /**
+         * @return annotations added for the given external name so far, i.e. the same as the written index would give
+         */
+        @NotNull
+        public List<AnnotationData> findAnnotations(@NotNull String externalName) {
+            List<AnnotationData> annotations = items.get(externalName);
+            return annotations == null ? Collections.<AnnotationData>emptyList() : annotations;
+        }
+
+        public int getItemCount() {
+            return items.size();
+        }
+
+        public void writeTo(@NotNull OutputStream stream) throws IOException {
+            List<String> strings = new ArrayList<String>();
+            Map<String, Integer> stringIndices = new HashMap<String, Integer>();
+
+            List<byte[]> keys = new ArrayList<byte[]>(items.size());
+            Map<byte[], String> keyToName = new IdentityHashMap<byte[], String>();
+            for (String externalName : items.keySet()) {
+                byte[] key = externalName.getBytes(UTF_8);
+                keys.add(key);
+                keyToName.put(key, externalName);
+            }
+            Collections.sort(keys, new Comparator<byte[]>() {
+                @Override
+                public int compare(@NotNull byte[] o1, @NotNull byte[] o2) {
+                    int common = Math.min(o1.length, o2.length);
+                    for (int i = 0; i < common; i++) {
+                        int difference = (o1[i] & 0xFF) - (o2[i] & 0xFF);
+                        if (difference != 0) return difference;
+                    }
+                    return o1.length - o2.length;
+                }
+            });
+
+            ByteArrayOutputStream annotationsBytes = new ByteArrayOutputStream();
+            DataOutputStream annotationsOutput = new DataOutputStream(annotationsBytes);
+            int[] itemNames = new int[keys.size()];
+            int[] itemOffsets = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                String externalName = keyToName.get(keys.get(i));
+                itemNames[i] = stringIndex(externalName, strings, stringIndices);
+                itemOffsets[i] = annotationsOutput.size();
+
+                List<AnnotationData> annotations = items.get(externalName);
+                annotationsOutput.writeInt(annotations.size());
+                for (AnnotationData annotation : annotations) {
+                    annotationsOutput.writeInt(stringIndex(annotation.fqName, strings, stringIndices));
+                    annotationsOutput.writeInt(annotation.argumentNames.length);
+                    for (int j = 0; j < annotation.argumentNames.length; j++) {
+                        annotationsOutput.writeInt(stringIndex(annotation.argumentNames[j], strings, stringIndices));
+                        annotationsOutput.writeInt(stringIndex(annotation.argumentValues[j], strings, stringIndices));
+                    }
+                }
+            }
+            annotationsOutput.flush();
+
+            DataOutputStream output = new DataOutputStream(stream);
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+
+            List<byte[]> stringBytes = new ArrayList<byte[]>(strings.size());
+            for (String string : strings) {
+                stringBytes.add(string.getBytes(UTF_8));
+            }
+            output.writeInt(strings.size());
+            int offset = 0;
+            for (byte[] bytes : stringBytes) {
+                output.writeInt(offset);
+                offset += bytes.length;
+            }
+            output.writeInt(offset);
+            for (byte[] bytes : stringBytes) {
+                output.write(bytes);
+            }
+
+            output.writeInt(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                output.writeInt(itemNames[i]);
+                output.writeInt(itemOffsets[i]);
+            }
+            annotationsBytes.writeTo(output);
+            output.flush();
+        }
+
+        private static int stringIndex(@NotNull String string, @NotNull List<String> strings, @NotNull Map<String, Integer> stringIndices) {
+            Integer index = stringIndices.get(string);
+            if (index == null) {
+                index = strings.size();
+                strings.add(string);
+                stringIndices.put(string, index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.resolver;
+
+import com.intellij.psi.PsiAnnotation;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+/**
+ * An external annotations manager which can find annotations by the external name of an element, without its PSI.
+ * See {@link ExternalAnnotationsIndex}.
+ */
+public interface IndexedExternalAnnotationsManager {
+    /**
+     * @return true if all external annotations roots are indexed, i.e. no annotations.xml files are parsed to find annotations
+     */
+    boolean isFullyIndexed();
+
+    /**
+     * Finds annotations in all annotations roots, the indexed ones and the ones with annotations.xml files.
+     *
+     * @param packageFqName the package of the class declaring the element, only annotations.xml files of this package are read
+     * @param externalName the name of an element as in annotations.xml files,
+     *                     see {@link com.intellij.psi.util.PsiFormatUtil#getExternalName}
+     */
+    @NotNull
+    PsiAnnotation[] findExternalAnnotationsByName(@NotNull FqName packageFqName, @NotNull String externalName);
+}
@@ -26,7 +26,7 @@ import org.jetbrains.jet.lang.resolve.java.sources.JavaSourceElement
 
 private class JavaSourceElementImpl(override val javaElement: JavaElement) : PsiSourceElement, JavaSourceElement {
     override val psi: PsiElement?
-        get() = (javaElement as JavaElementImpl<*>).getPsi()
+        get() = (javaElement as? JavaElementImpl<*>)?.getPsi()
 }
 
 public class JavaSourceElementFactoryImpl : JavaSourceElementFactory {
@@ -17,6 +17,7 @@
 package org.jetbrains.jet.lang.resolve.java.resolver;
 
 import com.intellij.codeInsight.ExternalAnnotationsManager;
+import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiModifierListOwner;
 import org.jetbrains.annotations.NotNull;
@@ -26,22 +27,44 @@ import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotationOwner;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaAnnotationImpl;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaAnnotationOwnerImpl;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaElementCollectionFromPsiArrayUtil;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaExternalNames;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 
+import javax.inject.Inject;
 import java.util.Collection;
 import java.util.Collections;
 
 public class PsiBasedExternalAnnotationResolver implements ExternalAnnotationResolver {
+    private Project project;
+
+    @Inject
+    public void setProject(@NotNull Project project) {
+        this.project = project;
+    }
+
     @Nullable
     @Override
     public JavaAnnotation findExternalAnnotation(@NotNull JavaAnnotationOwner owner, @NotNull FqName fqName) {
-        PsiAnnotation psiAnnotation = findExternalAnnotation(((JavaAnnotationOwnerImpl) owner).getPsi(), fqName);
-        return psiAnnotation == null ? null : new JavaAnnotationImpl(psiAnnotation);
+        if (owner instanceof JavaAnnotationOwnerImpl) {
+            PsiAnnotation psiAnnotation = findExternalAnnotation(((JavaAnnotationOwnerImpl) owner).getPsi(), fqName);
+            return psiAnnotation == null ? null : new JavaAnnotationImpl(psiAnnotation);
+        }
+
+        for (PsiAnnotation annotation : findExternalAnnotationsByName(owner)) {
+            if (fqName.asString().equals(annotation.getQualifiedName())) {
+                return new JavaAnnotationImpl(annotation);
+            }
+        }
+        return null;
     }
 
     @NotNull
     @Override
     public Collection<JavaAnnotation> findExternalAnnotations(@NotNull JavaAnnotationOwner owner) {
+        if (!(owner instanceof JavaAnnotationOwnerImpl)) {
+            return JavaElementCollectionFromPsiArrayUtil.annotations(findExternalAnnotationsByName(owner));
+        }
+
         PsiModifierListOwner psiOwner = ((JavaAnnotationOwnerImpl) owner).getPsi();
         PsiAnnotation[] annotations = ExternalAnnotationsManager.getInstance(psiOwner.getProject()).findExternalAnnotations(psiOwner);
         return annotations == null
@@ -53,4 +76,17 @@ public class PsiBasedExternalAnnotationResolver implements ExternalAnnotationRes
     public static PsiAnnotation findExternalAnnotation(@NotNull PsiModifierListOwner owner, @NotNull FqName fqName) {
         return ExternalAnnotationsManager.getInstance(owner.getProject()).findExternalAnnotation(owner, fqName.asString());
     }
+
+    // Elements loaded from class files have no PSI, so their annotations are found by their external names
+    @NotNull
+    private PsiAnnotation[] findExternalAnnotationsByName(@NotNull JavaAnnotationOwner owner) {
+        ExternalAnnotationsManager manager = ExternalAnnotationsManager.getInstance(project);
+        if (!(manager instanceof IndexedExternalAnnotationsManager)) return PsiAnnotation.EMPTY_ARRAY;
+
+        FqName packageFqName = BinaryJavaExternalNames.getPackageFqName(owner);
+        String externalName = BinaryJavaExternalNames.getExternalName(owner);
+        if (packageFqName == null || externalName == null) return PsiAnnotation.EMPTY_ARRAY;
+
+        return ((IndexedExternalAnnotationsManager) manager).findExternalAnnotationsByName(packageFqName, externalName);
+    }
 }
@@ -171,6 +171,16 @@ public class PsiBasedMethodSignatureChecker implements MethodSignatureChecker {
         // This optimization speed things up because hasRawTypesInHierarchicalSignature() is very expensive
         if (superFunctions.isEmpty() && (signatureErrors.isEmpty() || !reportSignatureErrors)) return;
 
+        if (!(method instanceof JavaMethodImpl)) {
+            // Methods loaded from class files have no PSI to build the hierarchical signature from, so only their own signature is checked
+            if (reportSignatureErrors && !signatureErrors.isEmpty() &&
+                !RawTypesCheck.hasRawTypesInSignature(method) &&
+                !containsErrorType(superFunctions, descriptor)) {
+                externalSignatureResolver.reportSignatureErrors(descriptor, signatureErrors);
+            }
+            return;
+        }
+
         JavaMethodImpl methodWithPsi = (JavaMethodImpl) method;
         if (!RawTypesCheck.hasRawTypesInHierarchicalSignature(methodWithPsi) &&
             isMethodReturnTypeCompatible(methodWithPsi) &&
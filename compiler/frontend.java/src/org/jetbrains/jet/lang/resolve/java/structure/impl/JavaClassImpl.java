@@ -183,8 +183,12 @@ public class JavaClassImpl extends JavaClassifierImpl<PsiClass> implements JavaC
     private static PsiSubstitutor createPsiSubstitutor(@NotNull JavaTypeSubstitutor substitutor) {
         Map<PsiTypeParameter, PsiType> substMap = new HashMap<PsiTypeParameter, PsiType>();
         for (Map.Entry<JavaTypeParameter, JavaType> entry : substitutor.getSubstitutionMap().entrySet()) {
+            // A Java source class may be substituted with types loaded from class files (see BinaryJavaClass),
+            // those have no PSI, so the corresponding type parameters are treated as raw
+            if (!(entry.getKey() instanceof JavaTypeParameterImpl)) continue;
+
             PsiTypeParameter key = ((JavaTypeParameterImpl) entry.getKey()).getPsi();
-            if (entry.getValue() == null) {
+            if (!(entry.getValue() instanceof JavaTypeImpl)) {
                 substMap.put(key, null);
             }
             else {
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotationArgument;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.org.objectweb.asm.AnnotationVisitor;
+import org.jetbrains.org.objectweb.asm.Type;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.jetbrains.org.objectweb.asm.Opcodes.ASM5;
+
+public class BinaryJavaAnnotation implements JavaAnnotation {
+    private final ClassifierResolutionContext context;
+    private final String internalName;
+    private final List<JavaAnnotationArgument> arguments = new ArrayList<JavaAnnotationArgument>(1);
+
+    private ClassId classId;
+
+    private BinaryJavaAnnotation(@NotNull ClassifierResolutionContext context, @NotNull String desc) {
+        this.context = context;
+        this.internalName = Type.getType(desc).getInternalName();
+    }
+
+    /**
+     * Creates an annotation, adds it to the given collection and returns the visitor which will fill in its arguments
+     */
+    @NotNull
+    /* package */ static AnnotationVisitor addAnnotation(
+            @NotNull Collection<JavaAnnotation> annotations,
+            @NotNull String desc,
+            @NotNull ClassifierResolutionContext context
+    ) {
+        BinaryJavaAnnotation annotation = new BinaryJavaAnnotation(context, desc);
+        annotations.add(annotation);
+        return new ArgumentsVisitor(context, annotation.arguments);
+    }
+
+    @Nullable
+    /* package */ static JavaAnnotation findAnnotation(@NotNull Collection<JavaAnnotation> annotations, @NotNull FqName fqName) {
+        for (JavaAnnotation annotation : annotations) {
+            ClassId classId = annotation.getClassId();
+            if (classId != null && classId.asSingleFqName().asString().equals(fqName.asString())) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    @Override
+    public JavaAnnotationArgument findArgument(@NotNull Name name) {
+        // Unlike PSI, default values of annotation parameters are not taken into account here
+        for (JavaAnnotationArgument argument : arguments) {
+            if (name.equals(argument.getName())) {
+                return argument;
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaAnnotationArgument> getArguments() {
+        return arguments;
+    }
+
+    @NotNull
+    @Override
+    public ClassId getClassId() {
+        if (classId == null) {
+            classId = context.mapInternalNameToClassId(internalName);
+        }
+        return classId;
+    }
+
+    @Nullable
+    @Override
+    public JavaClass resolve() {
+        return context.resolveClass(internalName);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + internalName;
+    }
+
+    private static class ArgumentsVisitor extends AnnotationVisitor {
+        private final ClassifierResolutionContext context;
+        private final List<JavaAnnotationArgument> arguments;
+
+        public ArgumentsVisitor(@NotNull ClassifierResolutionContext context, @NotNull List<JavaAnnotationArgument> arguments) {
+            super(ASM5);
+            this.context = context;
+            this.arguments = arguments;
+        }
+
+        @Override
+        public void visit(String name, @NotNull Object value) {
+            arguments.add(createArgument(name == null ? null : Name.identifier(name), value));
+        }
+
+        @NotNull
+        private JavaAnnotationArgument createArgument(@Nullable Name name, @NotNull Object value) {
+            if (value instanceof Type) {
+                return new BinaryJavaClassObjectAnnotationArgument(name, context, ((Type) value).getDescriptor());
+            }
+            if (value.getClass().isArray()) {
+                // ASM reports arrays of primitive values as a single value
+                int length = Array.getLength(value);
+                List<JavaAnnotationArgument> elements = new ArrayList<JavaAnnotationArgument>(length);
+                for (int i = 0; i < length; i++) {
+                    elements.add(new BinaryJavaLiteralAnnotationArgument(null, Array.get(value, i)));
+                }
+                return new BinaryJavaArrayAnnotationArgument(name, elements);
+            }
+            return new BinaryJavaLiteralAnnotationArgument(name, value);
+        }
+
+        @Override
+        public void visitEnum(String name, @NotNull String desc, @NotNull String value) {
+            arguments.add(new BinaryJavaEnumValueAnnotationArgument(
+                    name == null ? null : Name.identifier(name), context, Type.getType(desc).getInternalName(), Name.identifier(value)
+            ));
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, @NotNull String desc) {
+            BinaryJavaAnnotation annotation = new BinaryJavaAnnotation(context, desc);
+            arguments.add(new BinaryJavaAnnotationAsAnnotationArgument(name == null ? null : Name.identifier(name), annotation));
+            return new ArgumentsVisitor(context, annotation.arguments);
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            List<JavaAnnotationArgument> elements = new ArrayList<JavaAnnotationArgument>();
+            arguments.add(new BinaryJavaArrayAnnotationArgument(name == null ? null : Name.identifier(name), elements));
+            return new ArgumentsVisitor(context, elements);
+        }
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.descriptors.Visibility;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.org.objectweb.asm.*;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.jetbrains.org.objectweb.asm.ClassReader.*;
+import static org.jetbrains.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Java class loaded directly from a class file, without building PSI for it.
+ * Declarations are read eagerly with a single pass of ASM over the class file,
+ * while generic signatures, types and classifiers referenced from them are resolved lazily.
+ */
+public class BinaryJavaClass implements JavaClass {
+    private static final Logger LOG = Logger.getInstance(BinaryJavaClass.class);
+
+    private static final String JAVA_LANG_OBJECT = "java/lang/Object";
+    private static final ClassId JAVA_LANG_ANNOTATION_ANNOTATION = ClassId.topLevel(new FqName("java.lang.annotation.Annotation"));
+
+    private final VirtualFile file;
+    private final ClassId classId;
+    private final ClassifierResolutionContext.InnerClasses innerClasses = new ClassifierResolutionContext.InnerClasses();
+    private final ClassifierResolutionContext context;
+
+    private String internalName;
+    private int access;
+    private String signature;
+    private String superName;
+    private String[] interfaces;
+
+    private final List<JavaAnnotation> annotations = new ArrayList<JavaAnnotation>(1);
+    private final List<JavaMethod> methods = new ArrayList<JavaMethod>();
+    private final List<JavaConstructor> constructors = new ArrayList<JavaConstructor>(1);
+    private final List<JavaField> fields = new ArrayList<JavaField>();
+    private final List<Name> nestedClassNames = new ArrayList<Name>(0);
+
+    private List<JavaTypeParameter> typeParameters;
+    private List<JavaClassifierType> supertypes;
+    private Map<String, String[]> parameterNames;
+
+    private BinaryJavaClass(@NotNull VirtualFile file, @NotNull ClassId classId, @NotNull JavaClassFinder finder) {
+        this.file = file;
+        this.classId = classId;
+        this.context = new ClassifierResolutionContext(finder, innerClasses, this, null);
+    }
+
+    /**
+     * @return the class read from the given file, or null if the file could not be read
+     */
+    @Nullable
+    public static BinaryJavaClass create(@NotNull VirtualFile file, @NotNull ClassId classId, @NotNull JavaClassFinder finder) {
+        byte[] contents;
+        try {
+            contents = file.contentsToByteArray();
+        }
+        catch (IOException e) {
+            LOG.warn("Could not read class file: " + file, e);
+            return null;
+        }
+
+        BinaryJavaClass javaClass = new BinaryJavaClass(file, classId, finder);
+        new ClassReader(contents).accept(javaClass.new DeclarationsVisitor(), SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+        return javaClass;
+    }
+
+    private class DeclarationsVisitor extends ClassVisitor {
+        public DeclarationsVisitor() {
+            super(ASM5);
+        }
+
+        @Override
+        public void visit(int version, int access, @NotNull String name, String signature, String superName, String[] interfaces) {
+            BinaryJavaClass.this.internalName = name;
+            BinaryJavaClass.this.access = access;
+            BinaryJavaClass.this.signature = signature;
+            BinaryJavaClass.this.superName = superName;
+            BinaryJavaClass.this.interfaces = interfaces;
+        }
+
+        @Override
+        public void visitInnerClass(@NotNull String name, String outerName, String innerName, int access) {
+            if (outerName == null || innerName == null) return;
+
+            innerClasses.add(name, outerName, innerName, access);
+
+            if (name.equals(internalName)) {
+                // Nested classes have their modifiers (e.g. 'static' or 'private') only in the InnerClasses attribute
+                BinaryJavaClass.this.access = access;
+            }
+            else if (outerName.equals(internalName) && (access & ACC_SYNTHETIC) == 0) {
+                nestedClassNames.add(Name.identifier(innerName));
+            }
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
+            return BinaryJavaAnnotation.addAnnotation(annotations, desc, context);
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, @NotNull String name, @NotNull String desc, String signature, Object value) {
+            if ((access & ACC_SYNTHETIC) != 0) return null;
+
+            BinaryJavaField field = new BinaryJavaField(BinaryJavaClass.this, Name.identifier(name), access, desc, signature, value);
+            fields.add(field);
+            return field.createVisitor();
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, @NotNull String name, @NotNull String desc, String signature, String[] exceptions) {
+            if ((access & ACC_SYNTHETIC) != 0 || "<clinit>".equals(name)) return null;
+
+            // values() and valueOf() of enums are created by the resolver, as it is done for enums in Java sources
+            if (isEnum() && isEnumValuesOrValueOf(name, desc)) return null;
+
+            BinaryJavaMethodBase method;
+            if ("<init>".equals(name)) {
+                BinaryJavaConstructor constructor = new BinaryJavaConstructor(BinaryJavaClass.this, getName(), access, desc, signature);
+                constructors.add(constructor);
+                method = constructor;
+            }
+            else {
+                BinaryJavaMethod javaMethod = new BinaryJavaMethod(BinaryJavaClass.this, Name.identifier(name), access, desc, signature);
+                methods.add(javaMethod);
+                method = javaMethod;
+            }
+            return method.createVisitor();
+        }
+
+        private boolean isEnumValuesOrValueOf(@NotNull String name, @NotNull String desc) {
+            return ("values".equals(name) && desc.equals("()[L" + internalName + ";")) ||
+                   ("valueOf".equals(name) && desc.equals("(Ljava/lang/String;)L" + internalName + ";"));
+        }
+    }
+
+    @NotNull
+    public VirtualFile getVirtualFile() {
+        return file;
+    }
+
+    @NotNull
+    public ClassId getClassId() {
+        return classId;
+    }
+
+    @NotNull
+    /* package */ ClassifierResolutionContext getContext() {
+        return context;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaClass> getInnerClasses() {
+        if (nestedClassNames.isEmpty()) return Collections.emptyList();
+
+        List<JavaClass> result = new ArrayList<JavaClass>(nestedClassNames.size());
+        for (Name name : nestedClassNames) {
+            JavaClass nestedClass = context.getFinder().findClass(classId.createNestedClassId(name));
+            if (nestedClass != null) {
+                result.add(nestedClass);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public FqName getFqName() {
+        return classId.asSingleFqName().toSafe();
+    }
+
+    @NotNull
+    @Override
+    public Name getName() {
+        return classId.getRelativeClassName().shortName();
+    }
+
+    @Override
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    @Override
+    public boolean isAnnotationType() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    @Override
+    public boolean isEnum() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    @Nullable
+    @Override
+    public JavaClass getOuterClass() {
+        return classId.isTopLevelClass() ? null : context.getFinder().findClass(classId.getOuterClassId());
+    }
+
+    @NotNull
+    @Override
+    public List<JavaTypeParameter> getTypeParameters() {
+        parseSignature();
+        return typeParameters;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaClassifierType> getSupertypes() {
+        parseSignature();
+        return supertypes;
+    }
+
+    private void parseSignature() {
+        if (supertypes != null) return;
+
+        if (signature != null) {
+            try {
+                BinarySignatureParser parser = new BinarySignatureParser(context, signature);
+                List<JavaTypeParameter> typeParameters = parser.parseTypeParameters(this);
+                List<JavaClassifierType> superTypes = new ArrayList<JavaClassifierType>(2);
+                while (!parser.atEnd()) {
+                    superTypes.add((JavaClassifierType) parser.parseType());
+                }
+
+                this.typeParameters = typeParameters;
+                this.supertypes = computeSupertypes(superTypes.get(0), superTypes.subList(1, superTypes.size()));
+                return;
+            }
+            catch (IllegalArgumentException e) {
+                // Malformed generic signature (e.g. produced by an obfuscator), fall back to the header
+            }
+        }
+
+        typeParameters = Collections.emptyList();
+
+        JavaClassifierType superClass =
+                superName == null ? null : BinaryJavaClassifierType.classType(context, superName, Collections.<JavaType>emptyList(), null);
+        List<JavaClassifierType> superInterfaces = new ArrayList<JavaClassifierType>(interfaces.length);
+        for (String superInterface : interfaces) {
+            superInterfaces.add(BinaryJavaClassifierType.classType(context, superInterface, Collections.<JavaType>emptyList(), null));
+        }
+        supertypes = computeSupertypes(superClass, superInterfaces);
+    }
+
+    // Mimics PsiClass.getSuperTypes(): interfaces extend java.lang.Object only if they have no superinterfaces,
+    // and java.lang.annotation.Annotation is not mentioned as a supertype of annotation types
+    @NotNull
+    private List<JavaClassifierType> computeSupertypes(
+            @Nullable JavaClassifierType superClass,
+            @NotNull List<JavaClassifierType> superInterfaces
+    ) {
+        if (JAVA_LANG_OBJECT.equals(internalName)) return Collections.emptyList();
+
+        List<JavaClassifierType> result = new ArrayList<JavaClassifierType>(superInterfaces.size() + 1);
+        if (!isInterface() && superClass != null) {
+            result.add(superClass);
+        }
+        for (JavaClassifierType superInterface : superInterfaces) {
+            if (isAnnotationType() && superInterface instanceof BinaryJavaClassifierType &&
+                ((BinaryJavaClassifierType) superInterface).isClassType(JAVA_LANG_ANNOTATION_ANNOTATION)) {
+                continue;
+            }
+            result.add(superInterface);
+        }
+        if (result.isEmpty()) {
+            result.add(BinaryJavaClassifierType.classType(context, JAVA_LANG_OBJECT, Collections.<JavaType>emptyList(), null));
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaMethod> getMethods() {
+        return methods;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaField> getFields() {
+        return fields;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaConstructor> getConstructors() {
+        return constructors;
+    }
+
+    @NotNull
+    @Override
+    public JavaClassifierType getDefaultType() {
+        List<JavaTypeParameter> typeParameters = getTypeParameters();
+        List<JavaType> typeArguments = new ArrayList<JavaType>(typeParameters.size());
+        for (JavaTypeParameter typeParameter : typeParameters) {
+            typeArguments.add(typeParameter.getType());
+        }
+
+        JavaClass outerClass = isStatic() ? null : getOuterClass();
+        return BinaryJavaClassifierType.resolved(this, classId, typeArguments, outerClass == null ? null : outerClass.getDefaultType());
+    }
+
+    @NotNull
+    @Override
+    public OriginKind getOriginKind() {
+        return OriginKind.COMPILED;
+    }
+
+    @NotNull
+    @Override
+    public JavaType createImmediateType(@NotNull JavaTypeSubstitutor substitutor) {
+        List<JavaTypeParameter> typeParameters = getTypeParameters();
+        List<JavaType> typeArguments = new ArrayList<JavaType>(typeParameters.size());
+        for (JavaTypeParameter typeParameter : typeParameters) {
+            JavaType argument = substitutor.substitute(typeParameter);
+            if (argument == null) {
+                // Raw type
+                typeArguments = Collections.emptyList();
+                break;
+            }
+            typeArguments.add(argument);
+        }
+
+        JavaClass outerClass = isStatic() ? null : getOuterClass();
+        JavaType outerType = outerClass == null ? null : outerClass.createImmediateType(substitutor);
+        return BinaryJavaClassifierType.resolved(
+                this, classId, typeArguments, outerType instanceof JavaClassifierType ? (JavaClassifierType) outerType : null
+        );
+    }
+
+    @Override
+    public boolean isAbstract() {
+        return BinaryJavaModifiers.isAbstract(access);
+    }
+
+    @Override
+    public boolean isStatic() {
+        return BinaryJavaModifiers.isStatic(access);
+    }
+
+    @Override
+    public boolean isFinal() {
+        return BinaryJavaModifiers.isFinal(access);
+    }
+
+    @NotNull
+    @Override
+    public Visibility getVisibility() {
+        return BinaryJavaModifiers.getVisibility(access);
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaAnnotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Nullable
+    @Override
+    public JavaAnnotation findAnnotation(@NotNull FqName fqName) {
+        return BinaryJavaAnnotation.findAnnotation(annotations, fqName);
+    }
+
+    /**
+     * Parameter names are stored in the local variable tables, which are skipped when declarations are read,
+     * so they are read with a separate pass over the class file when any of them is requested
+     */
+    @Nullable
+    /* package */ String getParameterName(@NotNull BinaryJavaMethodBase method, int indexInDesc) {
+        if (parameterNames == null) {
+            parameterNames = readParameterNames();
+        }
+        String[] names = parameterNames.get(method.getName().asString() + method.getDesc());
+        return names == null || indexInDesc >= names.length ? null : names[indexInDesc];
+    }
+
+    @NotNull
+    private Map<String, String[]> readParameterNames() {
+        final Map<String, String[]> result = new HashMap<String, String[]>();
+
+        byte[] contents;
+        try {
+            contents = file.contentsToByteArray();
+        }
+        catch (IOException e) {
+            LOG.warn("Could not read class file: " + file, e);
+            return result;
+        }
+
+        new ClassReader(contents).accept(new ClassVisitor(ASM5) {
+            @Override
+            public MethodVisitor visitMethod(int access, @NotNull String name, @NotNull String desc, String signature, String[] exceptions) {
+                if ((access & ACC_SYNTHETIC) != 0) return null;
+
+                Type[] argumentTypes = Type.getArgumentTypes(desc);
+                if (argumentTypes.length == 0) return null;
+
+                final String[] names = new String[argumentTypes.length];
+                final int[] slots = new int[argumentTypes.length];
+                int slot = (access & ACC_STATIC) != 0 ? 0 : 1;
+                for (int i = 0; i < argumentTypes.length; i++) {
+                    slots[i] = slot;
+                    slot += argumentTypes[i].getSize();
+                }
+                result.put(name + desc, names);
+
+                return new MethodVisitor(ASM5) {
+                    @Override
+                    public void visitLocalVariable(
+                            @NotNull String name, @NotNull String desc, String signature, Label start, Label end, int index
+                    ) {
+                        for (int i = 0; i < slots.length; i++) {
+                            if (slots[i] == index) {
+                                if (names[i] == null) {
+                                    names[i] = name;
+                                }
+                                return;
+                            }
+                        }
+                    }
+                };
+            }
+        }, SKIP_FRAMES);
+
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + classId;
+    }
+}
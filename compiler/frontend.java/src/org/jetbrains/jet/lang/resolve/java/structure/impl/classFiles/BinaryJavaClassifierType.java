@@ -0,0 +1,236 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaTypeSubstitutorImpl;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+
+import java.util.*;
+
+/**
+ * A class type or a type variable read from a class file.
+ * The classifier is looked up lazily on the first request, because most of the types in library signatures are never resolved.
+ */
+public class BinaryJavaClassifierType implements JavaClassifierType {
+    private final ClassifierResolutionContext context;
+    private final ClassId classId;
+    private final String typeVariableName;
+    private final List<JavaType> typeArguments;
+    private final JavaClassifierType outerType;
+
+    private JavaClassifier classifier;
+    private boolean classifierResolved;
+
+    private BinaryJavaClassifierType(
+            @Nullable ClassifierResolutionContext context,
+            @Nullable ClassId classId,
+            @Nullable String typeVariableName,
+            @NotNull List<JavaType> typeArguments,
+            @Nullable JavaClassifierType outerType
+    ) {
+        this.context = context;
+        this.classId = classId;
+        this.typeVariableName = typeVariableName;
+        this.typeArguments = typeArguments;
+        this.outerType = outerType;
+    }
+
+    @NotNull
+    /* package */ static BinaryJavaClassifierType classType(
+            @NotNull ClassifierResolutionContext context,
+            @NotNull String internalName,
+            @NotNull List<JavaType> typeArguments,
+            @Nullable JavaClassifierType outerType
+    ) {
+        return new BinaryJavaClassifierType(context, context.mapInternalNameToClassId(internalName), null, typeArguments, outerType);
+    }
+
+    @NotNull
+    /* package */ static BinaryJavaClassifierType typeVariable(@NotNull ClassifierResolutionContext context, @NotNull String name) {
+        return new BinaryJavaClassifierType(context, null, name, Collections.<JavaType>emptyList(), null);
+    }
+
+    @NotNull
+    /* package */ static BinaryJavaClassifierType resolved(
+            @NotNull JavaClassifier classifier,
+            @Nullable ClassId classId,
+            @NotNull List<JavaType> typeArguments,
+            @Nullable JavaClassifierType outerType
+    ) {
+        BinaryJavaClassifierType type = new BinaryJavaClassifierType(
+                null, classId, classifier instanceof JavaTypeParameter ? classifier.getName().asString() : null, typeArguments, outerType
+        );
+        type.classifier = classifier;
+        type.classifierResolved = true;
+        return type;
+    }
+
+    @Nullable
+    @Override
+    public JavaClassifier getClassifier() {
+        if (!classifierResolved) {
+            assert context != null : "Unresolved type should have a context: " + this;
+            classifier = classId != null
+                         ? context.getFinder().findClass(classId)
+                         : context.resolveTypeParameter(typeVariableName);
+            classifierResolved = true;
+        }
+        return classifier;
+    }
+
+    @Nullable
+    /* package */ ClassId getClassId() {
+        return classId;
+    }
+
+    @Nullable
+    /* package */ JavaClassifierType getOuterType() {
+        return outerType;
+    }
+
+    /* package */ boolean isClassType(@NotNull ClassId id) {
+        return id.equals(classId) && typeArguments.isEmpty();
+    }
+
+    @NotNull
+    @Override
+    public JavaTypeSubstitutor getSubstitutor() {
+        JavaClassifier classifier = getClassifier();
+        if (!(classifier instanceof JavaClass)) return JavaTypeSubstitutor.EMPTY;
+
+        Map<JavaTypeParameter, JavaType> substitutionMap = new HashMap<JavaTypeParameter, JavaType>();
+
+        List<JavaTypeParameter> typeParameters = ((JavaClass) classifier).getTypeParameters();
+        if (typeArguments.size() == typeParameters.size()) {
+            for (int i = 0; i < typeParameters.size(); i++) {
+                substitutionMap.put(typeParameters.get(i), typeArguments.get(i));
+            }
+        }
+        else {
+            // Raw type
+            for (JavaTypeParameter typeParameter : typeParameters) {
+                substitutionMap.put(typeParameter, null);
+            }
+        }
+
+        if (outerType != null) {
+            substitutionMap.putAll(outerType.getSubstitutor().getSubstitutionMap());
+        }
+
+        return substitutionMap.isEmpty() ? JavaTypeSubstitutor.EMPTY : new JavaTypeSubstitutorImpl(substitutionMap);
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaClassifierType> getSupertypes() {
+        JavaClassifier classifier = getClassifier();
+        if (classifier instanceof JavaTypeParameter) {
+            Collection<JavaClassifierType> bounds = ((JavaTypeParameter) classifier).getUpperBounds();
+            if (!bounds.isEmpty()) return bounds;
+
+            JavaType objectType = ((JavaTypeParameter) classifier).getTypeProvider().createJavaLangObjectType();
+            return Collections.singletonList((JavaClassifierType) objectType);
+        }
+        if (!(classifier instanceof JavaClass)) return Collections.emptyList();
+
+        Collection<JavaClassifierType> supertypes = ((JavaClass) classifier).getSupertypes();
+        if (supertypes.isEmpty()) return Collections.emptyList();
+
+        JavaTypeSubstitutor substitutor = getSubstitutor();
+        List<JavaClassifierType> result = new ArrayList<JavaClassifierType>(supertypes.size());
+        for (JavaClassifierType supertype : supertypes) {
+            JavaType substituted = substitutor.substitute(supertype);
+            if (substituted instanceof JavaClassifierType) {
+                result.add((JavaClassifierType) substituted);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    @Override
+    public String getPresentableText() {
+        StringBuilder sb = new StringBuilder();
+        if (typeVariableName != null) {
+            sb.append(typeVariableName);
+        }
+        else if (classId != null) {
+            sb.append(classId.getRelativeClassName().shortName().asString());
+        }
+        else {
+            sb.append(classifier == null ? "<unresolved>" : classifier.getName().asString());
+        }
+
+        if (!typeArguments.isEmpty()) {
+            sb.append('<');
+            for (Iterator<JavaType> iterator = typeArguments.iterator(); iterator.hasNext(); ) {
+                sb.append(iterator.next());
+                if (iterator.hasNext()) sb.append(", ");
+            }
+            sb.append('>');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean isRaw() {
+        if (!typeArguments.isEmpty()) return false;
+        JavaClassifier classifier = getClassifier();
+        return classifier instanceof JavaClass && !((JavaClass) classifier).getTypeParameters().isEmpty();
+    }
+
+    @NotNull
+    @Override
+    public List<JavaType> getTypeArguments() {
+        return typeArguments;
+    }
+
+    @NotNull
+    @Override
+    public JavaArrayType createArrayType() {
+        return new BinaryJavaArrayType(this);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = classId != null ? classId.hashCode() : typeVariableName != null ? typeVariableName.hashCode() : 0;
+        return 31 * result + typeArguments.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof BinaryJavaClassifierType)) return false;
+
+        BinaryJavaClassifierType other = (BinaryJavaClassifierType) obj;
+        if (!typeArguments.equals(other.typeArguments)) return false;
+        if (outerType == null ? other.outerType != null : !outerType.equals(other.outerType)) return false;
+
+        if (classId != null || other.classId != null) {
+            return classId != null && classId.equals(other.classId);
+        }
+        return getClassifier() != null && getClassifier().equals(other.getClassifier());
+    }
+
+    @Override
+    public String toString() {
+        return getPresentableText();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+import java.util.List;
+
+/**
+ * Builds names of elements loaded from class files in the format of annotations.xml files,
+ * i.e. the same as {@link com.intellij.psi.util.PsiFormatUtil#getExternalName} builds for the corresponding PSI
+ */
+public class BinaryJavaExternalNames {
+    private BinaryJavaExternalNames() {
+    }
+
+    @Nullable
+    public static String getExternalName(@NotNull JavaAnnotationOwner owner) {
+        if (owner instanceof BinaryJavaClass) {
+            return ((BinaryJavaClass) owner).getFqName().asString();
+        }
+        if (owner instanceof BinaryJavaField) {
+            BinaryJavaField field = (BinaryJavaField) owner;
+            return field.getContainingClass().getFqName().asString() + " " + field.getName().asString();
+        }
+        if (owner instanceof BinaryJavaMethodBase) {
+            return getMethodExternalName((BinaryJavaMethodBase) owner);
+        }
+        if (owner instanceof BinaryJavaValueParameter) {
+            BinaryJavaValueParameter parameter = (BinaryJavaValueParameter) owner;
+            return getMethodExternalName(parameter.getMethod()) + " " + parameter.getIndex();
+        }
+        return null;
+    }
+
+    /**
+     * @return the package of the class declaring the element, i.e. the package whose annotations.xml file describes the element
+     */
+    @Nullable
+    public static FqName getPackageFqName(@NotNull JavaAnnotationOwner owner) {
+        BinaryJavaClass containingClass;
+        if (owner instanceof BinaryJavaClass) {
+            containingClass = (BinaryJavaClass) owner;
+        }
+        else if (owner instanceof BinaryJavaMember) {
+            containingClass = ((BinaryJavaMember) owner).getContainingClass();
+        }
+        else if (owner instanceof BinaryJavaValueParameter) {
+            containingClass = ((BinaryJavaValueParameter) owner).getMethod().getContainingClass();
+        }
+        else {
+            return null;
+        }
+        return containingClass.getClassId().getPackageFqName();
+    }
+
+    @NotNull
+    private static String getMethodExternalName(@NotNull BinaryJavaMethodBase method) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(method.getContainingClass().getFqName().asString()).append(' ');
+        if (method instanceof BinaryJavaMethod) {
+            appendType(sb, ((BinaryJavaMethod) method).getReturnType());
+            sb.append(' ').append(method.getName().asString());
+        }
+        else {
+            sb.append(method.getContainingClass().getName().asString());
+        }
+
+        sb.append('(');
+        List<JavaValueParameter> parameters = method.getValueParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) sb.append(", ");
+            JavaValueParameter parameter = parameters.get(i);
+            JavaType type = parameter.getType();
+            if (parameter.isVararg() && type instanceof JavaArrayType) {
+                appendType(sb, ((JavaArrayType) type).getComponentType());
+                sb.append("...");
+            }
+            else {
+                appendType(sb, type);
+            }
+        }
+        sb.append(')');
+        return sb.toString();
+    }
+
+    // The same as PsiType.getCanonicalText()
+    private static void appendType(@NotNull StringBuilder sb, @Nullable JavaType type) {
+        if (type instanceof JavaPrimitiveType) {
+            sb.append(((JavaPrimitiveType) type).getCanonicalText());
+        }
+        else if (type instanceof JavaArrayType) {
+            appendType(sb, ((JavaArrayType) type).getComponentType());
+            sb.append("[]");
+        }
+        else if (type instanceof JavaWildcardType) {
+            JavaWildcardType wildcardType = (JavaWildcardType) type;
+            sb.append('?');
+            if (wildcardType.getBound() != null) {
+                sb.append(wildcardType.isExtends() ? " extends " : " super ");
+                appendType(sb, wildcardType.getBound());
+            }
+        }
+        else if (type instanceof BinaryJavaClassifierType) {
+            appendClassifierType(sb, (BinaryJavaClassifierType) type);
+        }
+        else if (type != null) {
+            sb.append(type);
+        }
+    }
+
+    private static void appendClassifierType(@NotNull StringBuilder sb, @NotNull BinaryJavaClassifierType type) {
+        ClassId classId = type.getClassId();
+        if (classId == null) {
+            // Type variable
+            sb.append(type.getPresentableText());
+            return;
+        }
+
+        JavaClassifierType outerType = type.getOuterType();
+        if (outerType != null && !outerType.getTypeArguments().isEmpty()) {
+            appendType(sb, outerType);
+            sb.append('.').append(classId.getRelativeClassName().shortName().asString());
+        }
+        else {
+            sb.append(classId.asSingleFqName().asString());
+        }
+
+        List<JavaType> typeArguments = type.getTypeArguments();
+        if (!typeArguments.isEmpty()) {
+            sb.append('<');
+            for (int i = 0; i < typeArguments.size(); i++) {
+                if (i > 0) sb.append(',');
+                appendType(sb, typeArguments.get(i));
+            }
+            sb.append('>');
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaField;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.org.objectweb.asm.AnnotationVisitor;
+import org.jetbrains.org.objectweb.asm.FieldVisitor;
+
+import static org.jetbrains.org.objectweb.asm.Opcodes.ACC_ENUM;
+import static org.jetbrains.org.objectweb.asm.Opcodes.ASM5;
+
+public class BinaryJavaField extends BinaryJavaMember implements JavaField {
+    private final String desc;
+    private final String signature;
+    private final Object constantValue;
+
+    private JavaType type;
+
+    /* package */ BinaryJavaField(
+            @NotNull BinaryJavaClass containingClass,
+            @NotNull Name name,
+            int access,
+            @NotNull String desc,
+            @Nullable String signature,
+            @Nullable Object constantValue
+    ) {
+        super(containingClass, name, access);
+        this.desc = desc;
+        this.signature = signature;
+        this.constantValue = constantValue == null ? null : convertConstantValue(desc, constantValue);
+    }
+
+    // ConstantValue attribute stores booleans, chars, bytes and shorts as ints
+    @NotNull
+    private static Object convertConstantValue(@NotNull String desc, @NotNull Object value) {
+        if (!(value instanceof Integer)) return value;
+        int intValue = (Integer) value;
+        switch (desc.charAt(0)) {
+            case 'Z': return intValue != 0;
+            case 'C': return (char) intValue;
+            case 'B': return (byte) intValue;
+            case 'S': return (short) intValue;
+            default: return value;
+        }
+    }
+
+    @Override
+    public boolean isEnumEntry() {
+        return (access & ACC_ENUM) != 0;
+    }
+
+    @NotNull
+    @Override
+    public JavaType getType() {
+        if (type == null) {
+            ClassifierResolutionContext context = getContainingClass().getContext();
+            JavaType result = null;
+            if (signature != null) {
+                try {
+                    result = new BinarySignatureParser(context, signature).parseType();
+                }
+                catch (IllegalArgumentException e) {
+                    // Malformed generic signature, fall back to the descriptor
+                }
+            }
+            type = result != null ? result : new BinarySignatureParser(context, desc).parseType();
+        }
+        return type;
+    }
+
+    /**
+     * @return the value of the ConstantValue attribute of this field, converted to the type of the field
+     */
+    @Nullable
+    public Object getConstantValue() {
+        return isFinal() ? constantValue : null;
+    }
+
+    @NotNull
+    /* package */ FieldVisitor createVisitor() {
+        return new FieldVisitor(ASM5) {
+            @Override
+            public AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
+                return BinaryJavaAnnotation.addAnnotation(annotations, desc, getContainingClass().getContext());
+            }
+        };
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameter;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameterListOwner;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaValueParameter;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.org.objectweb.asm.AnnotationVisitor;
+import org.jetbrains.org.objectweb.asm.MethodVisitor;
+import org.jetbrains.org.objectweb.asm.Type;
+
+import java.util.*;
+
+import static org.jetbrains.org.objectweb.asm.Opcodes.ACC_VARARGS;
+import static org.jetbrains.org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * Common part of methods and constructors read from class files.
+ * The generic signature (or the descriptor, if there's no signature) is parsed on the first request of any of the types.
+ */
+public abstract class BinaryJavaMethodBase extends BinaryJavaMember implements JavaTypeParameterListOwner {
+    private final String desc;
+    private final String signature;
+    private final ClassifierResolutionContext context;
+
+    private List<List<JavaAnnotation>> parameterAnnotations = null;
+
+    private List<JavaTypeParameter> typeParameters;
+    private List<JavaValueParameter> valueParameters;
+    private JavaType returnType;
+    private int syntheticParameterCount;
+
+    protected BinaryJavaMethodBase(
+            @NotNull BinaryJavaClass containingClass,
+            @NotNull Name name,
+            int access,
+            @NotNull String desc,
+            @Nullable String signature
+    ) {
+        super(containingClass, name, access);
+        this.desc = desc;
+        this.signature = signature;
+        this.context = containingClass.getContext().createChildContext(this);
+    }
+
+    @NotNull
+    public String getDesc() {
+        return desc;
+    }
+
+    /**
+     * @return the number of parameters which are present in the descriptor, but are not declared in the source code,
+     * e.g. the outer instance of an inner class constructor
+     */
+    protected int getSyntheticParameterCountInDesc() {
+        return 0;
+    }
+
+    @NotNull
+    public List<JavaTypeParameter> getTypeParameters() {
+        parseSignature();
+        return typeParameters;
+    }
+
+    @NotNull
+    public List<JavaValueParameter> getValueParameters() {
+        parseSignature();
+        return valueParameters;
+    }
+
+    @NotNull
+    protected JavaType getReturnTypeInternal() {
+        parseSignature();
+        return returnType;
+    }
+
+    /**
+     * @return the number of leading parameters in the descriptor which have no corresponding value parameters
+     */
+    public int getSyntheticParameterCount() {
+        parseSignature();
+        return syntheticParameterCount;
+    }
+
+    /* package */ int getIndexInDesc(@NotNull BinaryJavaValueParameter parameter) {
+        return getSyntheticParameterCount() + parameter.getIndex();
+    }
+
+    private void parseSignature() {
+        if (valueParameters != null) return;
+
+        List<JavaType> parameterTypes = null;
+        if (signature != null) {
+            try {
+                parameterTypes = parseMethodSignature(signature);
+            }
+            catch (IllegalArgumentException e) {
+                // Malformed generic signature (e.g. produced by an obfuscator), fall back to the descriptor
+                parameterTypes = null;
+            }
+        }
+
+        int descParameterCount = Type.getArgumentTypes(desc).length;
+        if (parameterTypes == null) {
+            parameterTypes = parseMethodSignature(desc);
+            syntheticParameterCount = Math.min(getSyntheticParameterCountInDesc(), parameterTypes.size());
+            parameterTypes = parameterTypes.subList(syntheticParameterCount, parameterTypes.size());
+        }
+        else {
+            syntheticParameterCount = Math.max(descParameterCount - parameterTypes.size(), 0);
+        }
+
+        List<JavaValueParameter> result = new ArrayList<JavaValueParameter>(parameterTypes.size());
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            boolean isVararg = (access & ACC_VARARGS) != 0 && i == parameterTypes.size() - 1;
+            result.add(new BinaryJavaValueParameter(this, i, parameterTypes.get(i), isVararg, getParameterAnnotations(syntheticParameterCount + i)));
+        }
+        valueParameters = result;
+    }
+
+    @NotNull
+    private List<JavaType> parseMethodSignature(@NotNull String signature) {
+        BinarySignatureParser parser = new BinarySignatureParser(context, signature);
+        List<JavaTypeParameter> typeParameters = parser.parseTypeParameters(this);
+
+        parser.expect('(');
+        List<JavaType> parameterTypes = new ArrayList<JavaType>();
+        while (!parser.at(')')) {
+            parameterTypes.add(parser.parseType());
+        }
+        parser.expect(')');
+
+        JavaType returnType = parser.parseType();
+
+        this.typeParameters = typeParameters;
+        this.returnType = returnType;
+        return parameterTypes;
+    }
+
+    @NotNull
+    private Collection<JavaAnnotation> getParameterAnnotations(int indexInDesc) {
+        if (parameterAnnotations == null || indexInDesc >= parameterAnnotations.size()) return Collections.emptyList();
+        List<JavaAnnotation> annotations = parameterAnnotations.get(indexInDesc);
+        return annotations == null ? Collections.<JavaAnnotation>emptyList() : annotations;
+    }
+
+    @NotNull
+    /* package */ MethodVisitor createVisitor() {
+        return new MethodVisitor(ASM5) {
+            @Override
+            public AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
+                return BinaryJavaAnnotation.addAnnotation(annotations, desc, getContainingClass().getContext());
+            }
+
+            @Override
+            public AnnotationVisitor visitParameterAnnotation(int parameter, @NotNull String desc, boolean visible) {
+                // ASM reports these for parameters which are present in the descriptor, but not in the annotations attribute
+                if ("Ljava/lang/Synthetic;".equals(desc)) return null;
+
+                if (parameterAnnotations == null) {
+                    parameterAnnotations = new ArrayList<List<JavaAnnotation>>();
+                }
+                while (parameterAnnotations.size() <= parameter) {
+                    parameterAnnotations.add(null);
+                }
+                List<JavaAnnotation> annotations = parameterAnnotations.get(parameter);
+                if (annotations == null) {
+                    annotations = new ArrayList<JavaAnnotation>(1);
+                    parameterAnnotations.set(parameter, annotations);
+                }
+                return BinaryJavaAnnotation.addAnnotation(annotations, desc, getContainingClass().getContext());
+            }
+
+            @Override
+            public AnnotationVisitor visitAnnotationDefault() {
+                onAnnotationDefault();
+                return null;
+            }
+        };
+    }
+
+    protected void onAnnotationDefault() {
+    }
+}
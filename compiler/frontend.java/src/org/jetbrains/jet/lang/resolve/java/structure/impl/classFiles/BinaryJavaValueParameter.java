@@ -0,0 +1,94 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaAnnotation;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaValueParameter;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.Collection;
+
+public class BinaryJavaValueParameter implements JavaValueParameter {
+    private final BinaryJavaMethodBase method;
+    private final int index;
+    private final JavaType type;
+    private final boolean isVararg;
+    private final Collection<JavaAnnotation> annotations;
+
+    /* package */ BinaryJavaValueParameter(
+            @NotNull BinaryJavaMethodBase method,
+            int index,
+            @NotNull JavaType type,
+            boolean isVararg,
+            @NotNull Collection<JavaAnnotation> annotations
+    ) {
+        this.method = method;
+        this.index = index;
+        this.type = type;
+        this.isVararg = isVararg;
+        this.annotations = annotations;
+    }
+
+    @NotNull
+    public BinaryJavaMethodBase getMethod() {
+        return method;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    @Nullable
+    @Override
+    public Name getName() {
+        String name = method.getContainingClass().getParameterName(method, method.getIndexInDesc(this));
+        return name == null ? null : Name.identifier(name);
+    }
+
+    @NotNull
+    @Override
+    public JavaType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean isVararg() {
+        return isVararg;
+    }
+
+    @NotNull
+    @Override
+    public Collection<JavaAnnotation> getAnnotations() {
+        return annotations;
+    }
+
+    @Nullable
+    @Override
+    public JavaAnnotation findAnnotation(@NotNull FqName fqName) {
+        return BinaryJavaAnnotation.findAnnotation(annotations, fqName);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + ": " + method + "#" + index;
+    }
+}
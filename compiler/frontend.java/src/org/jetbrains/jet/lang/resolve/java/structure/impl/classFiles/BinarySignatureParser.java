@@ -0,0 +1,202 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClassifierType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaType;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameter;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameterListOwner;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.text.CharacterIterator;
+import java.text.StringCharacterIterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses generic signatures and descriptors (JVMS 4.3, 4.7.9.1) into {@link JavaType}s.
+ * Classifiers in the resulting types are not resolved until they are requested.
+ */
+/* package */ class BinarySignatureParser {
+    private static final ClassId JAVA_LANG_OBJECT = ClassId.topLevel(new FqName("java.lang.Object"));
+
+    private final ClassifierResolutionContext context;
+    private final String signature;
+    private final CharacterIterator iterator;
+
+    /* package */ BinarySignatureParser(@NotNull ClassifierResolutionContext context, @NotNull String signature) {
+        this.context = context;
+        this.signature = signature;
+        this.iterator = new StringCharacterIterator(signature);
+    }
+
+    public boolean atEnd() {
+        return iterator.current() == CharacterIterator.DONE;
+    }
+
+    public boolean at(char c) {
+        return iterator.current() == c;
+    }
+
+    public void expect(char c) {
+        if (iterator.current() != c) {
+            throw new IllegalArgumentException("'" + c + "' expected at " + iterator.getIndex() + ": " + this);
+        }
+        iterator.next();
+    }
+
+    /**
+     * Parses the optional type parameter list at the beginning of a class or method signature.
+     * Type parameter bounds are created within the given context, so they can refer to each other.
+     */
+    @NotNull
+    public List<JavaTypeParameter> parseTypeParameters(@NotNull JavaTypeParameterListOwner owner) {
+        if (!at('<')) return Collections.emptyList();
+        iterator.next();
+
+        List<JavaTypeParameter> result = new ArrayList<JavaTypeParameter>(1);
+        while (!at('>')) {
+            StringBuilder name = new StringBuilder();
+            while (!at(':')) {
+                name.append(iterator.current());
+                iterator.next();
+            }
+
+            List<JavaClassifierType> bounds = new ArrayList<JavaClassifierType>(1);
+            while (at(':')) {
+                iterator.next();
+                // Class bound may be empty if there are interface bounds
+                if (at(':')) continue;
+
+                JavaType bound = parseType();
+                if (bound instanceof BinaryJavaClassifierType && ((BinaryJavaClassifierType) bound).isClassType(JAVA_LANG_OBJECT)) {
+                    // Like PSI, we don't consider java.lang.Object an explicit bound
+                    continue;
+                }
+                if (bound instanceof JavaClassifierType) {
+                    bounds.add((JavaClassifierType) bound);
+                }
+            }
+
+            result.add(new BinaryJavaTypeParameter(Name.identifier(name.toString()), result.size(), owner, bounds, context));
+        }
+        iterator.next();
+        return result;
+    }
+
+    @NotNull
+    public JavaType parseType() {
+        char c = iterator.current();
+        switch (c) {
+            case 'L':
+                return parseClassType();
+            case 'T':
+                iterator.next();
+                return BinaryJavaClassifierType.typeVariable(context, readUntil(';'));
+            case '[':
+                iterator.next();
+                return new BinaryJavaArrayType(parseType());
+            default:
+                iterator.next();
+                return BinaryJavaPrimitiveType.byDescriptor(c);
+        }
+    }
+
+    @NotNull
+    private JavaClassifierType parseClassType() {
+        expect('L');
+
+        StringBuilder internalName = new StringBuilder();
+        List<JavaType> typeArguments = Collections.emptyList();
+        JavaClassifierType outerType = null;
+        while (true) {
+            char c = iterator.current();
+            if (c == ';') {
+                iterator.next();
+                return BinaryJavaClassifierType.classType(context, internalName.toString(), typeArguments, outerType);
+            }
+            else if (c == '<') {
+                typeArguments = parseTypeArguments();
+            }
+            else if (c == '.') {
+                // Inner class of a generic class, e.g. LOuter<TT;>.Inner;
+                outerType = BinaryJavaClassifierType.classType(context, internalName.toString(), typeArguments, outerType);
+                typeArguments = Collections.emptyList();
+                internalName.append('$');
+                iterator.next();
+            }
+            else if (c == CharacterIterator.DONE) {
+                throw new IllegalArgumentException("Unterminated class type: " + this);
+            }
+            else {
+                internalName.append(c);
+                iterator.next();
+            }
+        }
+    }
+
+    @NotNull
+    private List<JavaType> parseTypeArguments() {
+        expect('<');
+        BinaryJavaTypeProvider typeProvider = new BinaryJavaTypeProvider(context);
+        List<JavaType> result = new ArrayList<JavaType>(1);
+        while (!at('>')) {
+            switch (iterator.current()) {
+                case '*':
+                    iterator.next();
+                    result.add(typeProvider.createUnboundedWildcard());
+                    break;
+                case '+':
+                    iterator.next();
+                    result.add(typeProvider.createUpperBoundWildcard(parseType()));
+                    break;
+                case '-':
+                    iterator.next();
+                    result.add(typeProvider.createLowerBoundWildcard(parseType()));
+                    break;
+                default:
+                    result.add(parseType());
+            }
+        }
+        iterator.next();
+        return result;
+    }
+
+    @NotNull
+    private String readUntil(char terminator) {
+        StringBuilder sb = new StringBuilder();
+        while (!at(terminator)) {
+            if (atEnd()) {
+                throw new IllegalArgumentException("'" + terminator + "' expected: " + this);
+            }
+            sb.append(iterator.current());
+            iterator.next();
+        }
+        iterator.next();
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return signature;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import com.intellij.openapi.components.ServiceManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+
+/**
+ * Finds class files of Java library classes, so that they can be loaded by {@link BinaryJavaClass} without building PSI.
+ * This service is registered only where all binary roots are known upfront (i.e. in the command line compiler),
+ * everywhere else Java classes are loaded through PSI.
+ */
+public interface ClassFileLocator {
+    /**
+     * @return the class file for the given class, or null if there's no such class file
+     * or the class is declared in a Java source file which comes earlier than any class file in the class path
+     */
+    @Nullable
+    VirtualFile findClassFile(@NotNull ClassId classId);
+
+    class SERVICE {
+        @Nullable
+        public static ClassFileLocator getInstance(@NotNull Project project) {
+            return ServiceManager.getService(project, ClassFileLocator.class);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameter;
+import org.jetbrains.jet.lang.resolve.java.structure.JavaTypeParameterListOwner;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.lang.resolve.name.Name;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves class names and type variables mentioned in a class file.
+ * Each class has its own context, each method or constructor has a child context of its class.
+ */
+/* package */ class ClassifierResolutionContext {
+    private final JavaClassFinder finder;
+    private final InnerClasses innerClasses;
+    private final JavaTypeParameterListOwner typeParameterOwner;
+    private final ClassifierResolutionContext parent;
+
+    /* package */ ClassifierResolutionContext(
+            @NotNull JavaClassFinder finder,
+            @NotNull InnerClasses innerClasses,
+            @Nullable JavaTypeParameterListOwner typeParameterOwner,
+            @Nullable ClassifierResolutionContext parent
+    ) {
+        this.finder = finder;
+        this.innerClasses = innerClasses;
+        this.typeParameterOwner = typeParameterOwner;
+        this.parent = parent;
+    }
+
+    @NotNull
+    public ClassifierResolutionContext createChildContext(@NotNull JavaTypeParameterListOwner owner) {
+        return new ClassifierResolutionContext(finder, innerClasses, owner, this);
+    }
+
+    @NotNull
+    public JavaClassFinder getFinder() {
+        return finder;
+    }
+
+    @Nullable
+    public JavaClass resolveClass(@NotNull String internalName) {
+        return finder.findClass(mapInternalNameToClassId(internalName));
+    }
+
+    @NotNull
+    public ClassId mapInternalNameToClassId(@NotNull String internalName) {
+        OuterAndInnerName outerAndInner = innerClasses.get(internalName);
+        if (outerAndInner != null) {
+            return mapInternalNameToClassId(outerAndInner.outerInternalName)
+                    .createNestedClassId(Name.identifier(outerAndInner.innerSimpleName));
+        }
+
+        // Class files are required to list all nested classes they refer to in the InnerClasses attribute,
+        // but some compilers omit the ones mentioned only in generic signatures, so we fall back to splitting the name by '$'
+        int lastSlash = internalName.lastIndexOf('/');
+        FqName packageFqName = lastSlash < 0 ? FqName.ROOT : new FqName(internalName.substring(0, lastSlash).replace('/', '.'));
+        String[] names = internalName.substring(lastSlash + 1).split("\\$");
+        for (String name : names) {
+            if (name.isEmpty() || Character.isDigit(name.charAt(0))) {
+                return ClassId.topLevel(new FqName(internalName.replace('/', '.')));
+            }
+        }
+
+        ClassId result = new ClassId(packageFqName, Name.identifier(names[0]));
+        for (int i = 1; i < names.length; i++) {
+            result = result.createNestedClassId(Name.identifier(names[i]));
+        }
+        return result;
+    }
+
+    @Nullable
+    public JavaTypeParameter resolveTypeParameter(@NotNull String name) {
+        if (typeParameterOwner != null) {
+            for (JavaTypeParameter typeParameter : typeParameterOwner.getTypeParameters()) {
+                if (typeParameter.getName().asString().equals(name)) {
+                    return typeParameter;
+                }
+            }
+
+            if (typeParameterOwner instanceof JavaClass) {
+                JavaTypeParameter fromOuter = resolveTypeParameterOfOuterClass((JavaClass) typeParameterOwner, name);
+                if (fromOuter != null) return fromOuter;
+            }
+        }
+
+        return parent == null ? null : parent.resolveTypeParameter(name);
+    }
+
+    @Nullable
+    private static JavaTypeParameter resolveTypeParameterOfOuterClass(@NotNull JavaClass javaClass, @NotNull String name) {
+        JavaClass current = javaClass;
+        while (!current.isStatic()) {
+            current = current.getOuterClass();
+            if (current == null) return null;
+
+            for (JavaTypeParameter typeParameter : current.getTypeParameters()) {
+                if (typeParameter.getName().asString().equals(name)) {
+                    return typeParameter;
+                }
+            }
+        }
+        return null;
+    }
+
+    /* package */ static class OuterAndInnerName {
+        public final String outerInternalName;
+        public final String innerSimpleName;
+        public final int access;
+
+        private OuterAndInnerName(@NotNull String outerInternalName, @NotNull String innerSimpleName, int access) {
+            this.outerInternalName = outerInternalName;
+            this.innerSimpleName = innerSimpleName;
+            this.access = access;
+        }
+    }
+
+    /* package */ static class InnerClasses {
+        private Map<String, OuterAndInnerName> map = null;
+
+        public void add(@NotNull String name, @NotNull String outerName, @NotNull String innerName, int access) {
+            if (map == null) {
+                map = new HashMap<String, OuterAndInnerName>();
+            }
+            map.put(name, new OuterAndInnerName(outerName, innerName, access));
+        }
+
+        @Nullable
+        public OuterAndInnerName get(@NotNull String name) {
+            return map == null ? null : map.get(name);
+        }
+    }
+}
@@ -16,7 +16,6 @@
 
 package org.jetbrains.jet.lang.resolve.kotlin;
 
-import com.intellij.openapi.util.Ref;
 import kotlin.Function3;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -87,34 +86,10 @@ public abstract class FileBasedKotlinClass implements KotlinJvmBinaryClass {
             @NotNull byte[] fileContents,
             @NotNull Function3<ClassId, KotlinClassHeader, InnerClassesInfo, T> factory
     ) {
-        final ReadKotlinClassHeaderAnnotationVisitor readHeaderVisitor = new ReadKotlinClassHeaderAnnotationVisitor();
-        final Ref<String> classNameRef = Ref.create();
-        final InnerClassesInfo innerClasses = new InnerClassesInfo();
-        new ClassReader(fileContents).accept(new ClassVisitor(ASM5) {
-            @Override
-            public void visit(int version, int access, @NotNull String name, String signature, String superName, String[] interfaces) {
-                classNameRef.set(name);
-            }
-
-            @Override
-            public void visitInnerClass(@NotNull String name, String outerName, String innerName, int access) {
-                if (outerName != null && innerName != null) {
-                    innerClasses.add(name, outerName, innerName);
-                }
-            }
-
-            @Override
-            public org.jetbrains.org.objectweb.asm.AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
-                return convertAnnotationVisitor(readHeaderVisitor, desc, innerClasses);
-            }
-
-            @Override
-            public void visitEnd() {
-                readHeaderVisitor.visitEnd();
-            }
-        }, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
-
-        String className = classNameRef.get();
+        // Only the constant pool and the class attributes are read here, most of the class files on the classpath are not Kotlin ones
+        ReadKotlinClassHeaderAnnotationVisitor readHeaderVisitor = new ReadKotlinClassHeaderAnnotationVisitor();
+        InnerClassesInfo innerClasses = new InnerClassesInfo();
+        String className = KotlinClassHeaderReader.read(fileContents, readHeaderVisitor, innerClasses);
         if (className == null) return null;
 
         KotlinClassHeader header = readHeaderVisitor.createHeader();
@@ -152,7 +127,7 @@ public abstract class FileBasedKotlinClass implements KotlinJvmBinaryClass {
     }
 
     @Nullable
-    private static org.jetbrains.org.objectweb.asm.AnnotationVisitor convertAnnotationVisitor(
+    /* package */ static org.jetbrains.org.objectweb.asm.AnnotationVisitor convertAnnotationVisitor(
             @NotNull AnnotationVisitor visitor, @NotNull String desc, @NotNull InnerClassesInfo innerClasses
     ) {
         AnnotationArgumentVisitor v = visitor.visitAnnotation(resolveNameByDesc(desc, innerClasses));
@@ -250,7 +225,7 @@ public abstract class FileBasedKotlinClass implements KotlinJvmBinaryClass {
     }
 
     @NotNull
-    private static ClassId resolveNameByDesc(@NotNull String desc, @NotNull InnerClassesInfo innerClasses) {
+    /* package */ static ClassId resolveNameByDesc(@NotNull String desc, @NotNull InnerClassesInfo innerClasses) {
         assert desc.startsWith("L") && desc.endsWith(";") : "Not a JVM descriptor: " + desc;
         String name = desc.substring(1, desc.length() - 1);
         return resolveNameByInternalName(name, innerClasses);
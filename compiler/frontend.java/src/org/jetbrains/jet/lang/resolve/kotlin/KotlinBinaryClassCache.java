@@ -23,6 +23,10 @@ import com.intellij.openapi.components.ServiceManager;
 import com.intellij.openapi.vfs.VirtualFile;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeader;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class KotlinBinaryClassCache implements Disposable {
     private static class RequestCache {
@@ -39,6 +43,16 @@ public final class KotlinBinaryClassCache implements Disposable {
         }
     }
 
+    private static class PreloadedClass {
+        final long modificationStamp;
+        final VirtualFileKotlinClass virtualFileKotlinClass;
+
+        PreloadedClass(long modificationStamp, VirtualFileKotlinClass virtualFileKotlinClass) {
+            this.modificationStamp = modificationStamp;
+            this.virtualFileKotlinClass = virtualFileKotlinClass;
+        }
+    }
+
     private final ThreadLocal<RequestCache> cache =
             new ThreadLocal<RequestCache>() {
                 @Override
@@ -47,6 +61,9 @@ public final class KotlinBinaryClassCache implements Disposable {
                 }
             };
 
+    // Unlike the thread-local cache above, this is shared by all threads: classes are put here ahead of time by KotlinPackageHeaderPreloader
+    private final ConcurrentMap<VirtualFile, PreloadedClass> preloadedClasses = new ConcurrentHashMap<VirtualFile, PreloadedClass>();
+
     @Nullable
     public static KotlinJvmBinaryClass getKotlinBinaryClass(@NotNull VirtualFile file) {
         if (file.getFileType() != JavaClassFileType.INSTANCE) return null;
@@ -58,6 +75,11 @@ public final class KotlinBinaryClassCache implements Disposable {
             return requestCache.virtualFileKotlinClass;
         }
         else {
+            PreloadedClass preloaded = service.preloadedClasses.get(file);
+            if (preloaded != null && preloaded.modificationStamp == file.getModificationStamp()) {
+                return requestCache.cache(file, preloaded.virtualFileKotlinClass);
+            }
+
             ApplicationManager.getApplication().assertReadAccessAllowed();
 
             //noinspection deprecation
@@ -66,11 +88,29 @@ public final class KotlinBinaryClassCache implements Disposable {
         }
     }
 
+    // Reads the class and, for a package facade, its package data, may be called on any thread
+    /* package */ static void preload(@NotNull VirtualFile file) {
+        long modificationStamp = file.getModificationStamp();
+
+        //noinspection deprecation
+        VirtualFileKotlinClass aClass = VirtualFileKotlinClass.OBJECT$.create(file);
+        if (aClass == null) return;
+
+        KotlinClassHeader header = aClass.getClassHeader();
+        if (header.getIsCompatibleAbiVersion() && header.getKind() == KotlinClassHeader.Kind.PACKAGE_FACADE) {
+            header.getPackageData();
+        }
+
+        KotlinBinaryClassCache service = ServiceManager.getService(KotlinBinaryClassCache.class);
+        service.preloadedClasses.put(file, new PreloadedClass(modificationStamp, aClass));
+    }
+
     @Override
     public void dispose() {
         // This is only relevant for tests. We create a new instance of Application for each test, and so a new instance of this service is
         // also created for each test. However all tests share the same event dispatch thread, which would collect all instances of this
         // thread-local if they're not removed properly. Each instance would transitively retain VFS resulting in OutOfMemoryError
         cache.remove();
+        preloadedClasses.clear();
     }
 }
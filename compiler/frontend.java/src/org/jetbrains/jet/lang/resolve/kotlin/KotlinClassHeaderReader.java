@@ -0,0 +1,410 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.kotlin;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import com.intellij.openapi.util.Ref;
+import org.jetbrains.jet.lang.resolve.name.Name;
+import org.jetbrains.org.objectweb.asm.ClassReader;
+import org.jetbrains.org.objectweb.asm.ClassVisitor;
+import org.jetbrains.org.objectweb.asm.Type;
+
+import static org.jetbrains.jet.lang.resolve.kotlin.KotlinJvmBinaryClass.*;
+import static org.jetbrains.org.objectweb.asm.ClassReader.*;
+import static org.jetbrains.org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * Reads the name, the InnerClasses attribute and the Kotlin header annotations of a class file without ClassReader.
+ * Only the constant pool and the class-level attributes are decoded: fields and methods are skipped by their lengths,
+ * and if there are no Kotlin annotation names in the constant pool, nothing after it is looked at.
+ *
+ * Annotation arguments are reported only in the form needed by the header visitor, e.g. primitive arrays are reported
+ * element by element via visitArray, so this is not a replacement for ClassReader in general.
+ *
+ * Only the constant pool tags listed below are known. If there's any other tag (e.g. of a newer class file version), the size
+ * of its entry is unknown and so is everything after it, and the class file is read with ClassReader instead.
+ */
+/* package */ final class KotlinClassHeaderReader {
+    private static final int CONSTANT_UTF8 = 1;
+    private static final int CONSTANT_INTEGER = 3;
+    private static final int CONSTANT_FLOAT = 4;
+    private static final int CONSTANT_LONG = 5;
+    private static final int CONSTANT_DOUBLE = 6;
+    private static final int CONSTANT_CLASS = 7;
+    private static final int CONSTANT_STRING = 8;
+    private static final int CONSTANT_FIELDREF = 9;
+    private static final int CONSTANT_METHODREF = 10;
+    private static final int CONSTANT_INTERFACE_METHODREF = 11;
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+    private static final int CONSTANT_METHOD_HANDLE = 15;
+    private static final int CONSTANT_METHOD_TYPE = 16;
+    private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+
+    // Descriptors of all annotations which could make up a Kotlin header (see ReadKotlinClassHeaderAnnotationVisitor),
+    // including the old ones, which are needed to report incompatible ABI versions
+    private static final byte[][] HEADER_ANNOTATION_PREFIXES = {"Lkotlin/".getBytes(), "Ljet/".getBytes()};
+
+    private final byte[] b;
+    private final int[] items;
+    private final String[] strings;
+    // The offset right after the constant pool, or -1 if there's an unknown tag in it
+    private final int header;
+    private boolean hasHeaderAnnotationNames;
+
+    private KotlinClassHeaderReader(@NotNull byte[] b) {
+        this.b = b;
+
+        int count = readUnsignedShort(8);
+        items = new int[count];
+        strings = new String[count];
+
+        int index = 10;
+        for (int i = 1; i < count; i++) {
+            items[i] = index + 1;
+            int size;
+            switch (b[index]) {
+                case CONSTANT_UTF8:
+                    size = 3 + readUnsignedShort(index + 1);
+                    if (!hasHeaderAnnotationNames && hasHeaderAnnotationPrefix(index + 3, size - 3)) {
+                        hasHeaderAnnotationNames = true;
+                    }
+                    break;
+                case CONSTANT_LONG:
+                case CONSTANT_DOUBLE:
+                    size = 9;
+                    i++;
+                    break;
+                case CONSTANT_METHOD_HANDLE:
+                    size = 4;
+                    break;
+                case CONSTANT_CLASS:
+                case CONSTANT_STRING:
+                case CONSTANT_METHOD_TYPE:
+                    size = 3;
+                    break;
+                case CONSTANT_INTEGER:
+                case CONSTANT_FLOAT:
+                case CONSTANT_FIELDREF:
+                case CONSTANT_METHODREF:
+                case CONSTANT_INTERFACE_METHODREF:
+                case CONSTANT_NAME_AND_TYPE:
+                case CONSTANT_INVOKE_DYNAMIC:
+                    size = 5;
+                    break;
+                default:
+                    size = -1;
+                    break;
+            }
+            if (size < 0) {
+                index = -1;
+                break;
+            }
+            index += size;
+        }
+        header = index;
+    }
+
+    /**
+     * Reports the Kotlin header annotations of the class to the visitor and fills innerClasses
+     *
+     * @return the internal name of the class, or null if it's known without reading further that there are no Kotlin header
+     * annotations in it, in which case neither the visitor nor innerClasses are touched
+     */
+    @Nullable
+    public static String read(
+            @NotNull byte[] classFile,
+            @NotNull AnnotationVisitor visitor,
+            @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses
+    ) {
+        KotlinClassHeaderReader reader = new KotlinClassHeaderReader(classFile);
+        if (reader.header < 0) return readWithClassReader(classFile, visitor, innerClasses);
+        if (!reader.hasHeaderAnnotationNames) return null;
+
+        return reader.readClass(visitor, innerClasses);
+    }
+
+    @Nullable
+    private static String readWithClassReader(
+            @NotNull byte[] classFile,
+            @NotNull final AnnotationVisitor visitor,
+            @NotNull final FileBasedKotlinClass.InnerClassesInfo innerClasses
+    ) {
+        final Ref<String> classNameRef = Ref.create();
+        new ClassReader(classFile).accept(new ClassVisitor(ASM5) {
+            @Override
+            public void visit(int version, int access, @NotNull String name, String signature, String superName, String[] interfaces) {
+                classNameRef.set(name);
+            }
+
+            @Override
+            public void visitInnerClass(@NotNull String name, String outerName, String innerName, int access) {
+                if (outerName != null && innerName != null) {
+                    innerClasses.add(name, outerName, innerName);
+                }
+            }
+
+            @Override
+            public org.jetbrains.org.objectweb.asm.AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
+                return FileBasedKotlinClass.convertAnnotationVisitor(visitor, desc, innerClasses);
+            }
+
+            @Override
+            public void visitEnd() {
+                visitor.visitEnd();
+            }
+        }, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+        return classNameRef.get();
+    }
+
+    @Nullable
+    private String readClass(@NotNull AnnotationVisitor visitor, @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses) {
+        String className = readClassName(header + 2);
+
+        int index = header + 6;
+        index += 2 + 2 * readUnsignedShort(index); // interfaces
+        index = skipMembers(index); // fields
+        index = skipMembers(index); // methods
+
+        int visibleAnnotations = 0;
+        int invisibleAnnotations = 0;
+        for (int i = readUnsignedShort(index), attribute = index + 2; i > 0; i--) {
+            String name = readUtf8(attribute);
+            if ("RuntimeVisibleAnnotations".equals(name)) {
+                visibleAnnotations = attribute + 6;
+            }
+            else if ("RuntimeInvisibleAnnotations".equals(name)) {
+                invisibleAnnotations = attribute + 6;
+            }
+            else if ("InnerClasses".equals(name)) {
+                readInnerClasses(attribute + 6, innerClasses);
+            }
+            attribute += 6 + readInt(attribute + 2);
+        }
+
+        // Annotations are reported in the same order as ClassReader does it
+        if (visibleAnnotations != 0) readAnnotations(visibleAnnotations, visitor, innerClasses);
+        if (invisibleAnnotations != 0) readAnnotations(invisibleAnnotations, visitor, innerClasses);
+        visitor.visitEnd();
+
+        return className;
+    }
+
+    private int skipMembers(int index) {
+        for (int i = readUnsignedShort(index); i > 0; i--) {
+            int attributeCount = readUnsignedShort(index + 8);
+            index += 10;
+            for (int j = 0; j < attributeCount; j++) {
+                index += 6 + readInt(index + 2);
+            }
+        }
+        return index + 2;
+    }
+
+    private void readInnerClasses(int index, @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses) {
+        for (int i = readUnsignedShort(index), entry = index + 2; i > 0; i--, entry += 8) {
+            String name = readClassName(entry);
+            String outerName = readClassName(entry + 2);
+            String innerName = readUtf8(entry + 4);
+            if (name != null && outerName != null && innerName != null) {
+                innerClasses.add(name, outerName, innerName);
+            }
+        }
+    }
+
+    private void readAnnotations(int index, @NotNull AnnotationVisitor visitor, @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses) {
+        for (int i = readUnsignedShort(index), annotation = index + 2; i > 0; i--) {
+            int descIndex = items[readUnsignedShort(annotation)];
+            AnnotationArgumentVisitor argumentVisitor =
+                    hasHeaderAnnotationPrefix(descIndex + 2, readUnsignedShort(descIndex))
+                    ? visitor.visitAnnotation(FileBasedKotlinClass.resolveNameByDesc(readUtf8(annotation), innerClasses))
+                    : null;
+            annotation = readArguments(annotation + 2, argumentVisitor, innerClasses);
+        }
+    }
+
+    // Returns the index right after the arguments, visitor may be null in which case the arguments are only skipped
+    private int readArguments(int index, @Nullable AnnotationArgumentVisitor visitor, @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses) {
+        int count = readUnsignedShort(index);
+        index += 2;
+        for (int i = 0; i < count; i++) {
+            Name name = visitor == null ? null : Name.identifier(readUtf8(index));
+            index += 2;
+            char tag = (char) b[index];
+            switch (tag) {
+                case 'e':
+                    if (visitor != null) {
+                        visitor.visitEnum(name, FileBasedKotlinClass.resolveNameByDesc(readUtf8(index + 1), innerClasses),
+                                          Name.identifier(readUtf8(index + 3)));
+                    }
+                    index += 5;
+                    break;
+                case '@':
+                    index = readArguments(index + 3, null, innerClasses);
+                    break;
+                case '[':
+                    AnnotationArrayArgumentVisitor arrayVisitor = visitor == null ? null : visitor.visitArray(name);
+                    index = readArrayElements(index + 1, arrayVisitor, innerClasses);
+                    break;
+                default:
+                    if (visitor != null) {
+                        visitor.visit(name, readConstant(tag, index + 1));
+                    }
+                    index += 3;
+                    break;
+            }
+        }
+        if (visitor != null) {
+            visitor.visitEnd();
+        }
+        return index;
+    }
+
+    private int readArrayElements(
+            int index,
+            @Nullable AnnotationArrayArgumentVisitor visitor,
+            @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses
+    ) {
+        int count = readUnsignedShort(index);
+        index += 2;
+        for (int i = 0; i < count; i++) {
+            char tag = (char) b[index];
+            switch (tag) {
+                case 'e':
+                    if (visitor != null) {
+                        visitor.visitEnum(FileBasedKotlinClass.resolveNameByDesc(readUtf8(index + 1), innerClasses),
+                                          Name.identifier(readUtf8(index + 3)));
+                    }
+                    index += 5;
+                    break;
+                case '@':
+                    index = readArguments(index + 3, null, innerClasses);
+                    break;
+                case '[':
+                    index = readArrayElements(index + 1, null, innerClasses);
+                    break;
+                default:
+                    if (visitor != null) {
+                        visitor.visit(readConstant(tag, index + 1));
+                    }
+                    index += 3;
+                    break;
+            }
+        }
+        if (visitor != null) {
+            visitor.visitEnd();
+        }
+        return index;
+    }
+
+    // Values are boxed the same way ClassReader does it
+    @NotNull
+    private Object readConstant(char tag, int index) {
+        int item = items[readUnsignedShort(index)];
+        switch (tag) {
+            case 'B':
+                return (byte) readInt(item);
+            case 'C':
+                return (char) readInt(item);
+            case 'S':
+                return (short) readInt(item);
+            case 'Z':
+                return readInt(item) != 0;
+            case 'I':
+                return readInt(item);
+            case 'J':
+                return readLong(item);
+            case 'F':
+                return Float.intBitsToFloat(readInt(item));
+            case 'D':
+                return Double.longBitsToDouble(readLong(item));
+            case 's':
+                return readUtf8(index);
+            case 'c':
+                return Type.getType(readUtf8(index));
+            default:
+                throw new IllegalStateException("Unknown annotation argument tag: " + tag);
+        }
+    }
+
+    private boolean hasHeaderAnnotationPrefix(int start, int length) {
+        for (byte[] prefix : HEADER_ANNOTATION_PREFIXES) {
+            if (length < prefix.length) continue;
+
+            int i = 0;
+            while (i < prefix.length && b[start + i] == prefix[i]) i++;
+            if (i == prefix.length) return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private String readClassName(int index) {
+        int classIndex = readUnsignedShort(index);
+        return classIndex == 0 ? null : readUtf8(items[classIndex]);
+    }
+
+    // Reads the Utf8 constant whose index is stored at the given offset, decoded strings are cached
+    @Nullable
+    private String readUtf8(int index) {
+        int utf8Index = readUnsignedShort(index);
+        if (utf8Index == 0) return null;
+
+        String result = strings[utf8Index];
+        if (result == null) {
+            int item = items[utf8Index];
+            result = decodeUtf8(item + 2, readUnsignedShort(item));
+            strings[utf8Index] = result;
+        }
+        return result;
+    }
+
+    // Class files use modified UTF-8 (JVMS 4.4.7): no four-byte forms and zero is encoded in two bytes
+    @NotNull
+    private String decodeUtf8(int start, int length) {
+        char[] chars = new char[length];
+        int count = 0;
+        int end = start + length;
+        int index = start;
+        while (index < end) {
+            int c = b[index++] & 0xFF;
+            if (c < 0x80) {
+                chars[count++] = (char) c;
+            }
+            else if (c < 0xE0) {
+                chars[count++] = (char) (((c & 0x1F) << 6) | (b[index++] & 0x3F));
+            }
+            else {
+                chars[count++] = (char) (((c & 0x0F) << 12) | ((b[index++] & 0x3F) << 6) | (b[index++] & 0x3F));
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    private int readUnsignedShort(int index) {
+        return ((b[index] & 0xFF) << 8) | (b[index + 1] & 0xFF);
+    }
+
+    private int readInt(int index) {
+        return ((b[index] & 0xFF) << 24) | ((b[index + 1] & 0xFF) << 16) | ((b[index + 2] & 0xFF) << 8) | (b[index + 3] & 0xFF);
+    }
+
+    private long readLong(int index) {
+        return ((long) readInt(index) << 32) | (readInt(index + 4) & 0xFFFFFFFFL);
+    }
+}
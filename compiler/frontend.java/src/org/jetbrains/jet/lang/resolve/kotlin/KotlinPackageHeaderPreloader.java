@@ -0,0 +1,127 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.lang.resolve.kotlin;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtilCore;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileVisitor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.lang.resolve.java.PackageClassUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads headers and package data of all Kotlin package facades in the given classpath roots on a thread pool,
+ * one task per root, so that the first-touch cost of each library is not paid by the analysis later.
+ * The results are stored in {@link KotlinBinaryClassCache}, where they're found by the lazy package fragment providers.
+ * JDK roots are skipped: they contain no Kotlin classes, but are by far the largest roots on a usual classpath.
+ */
+public final class KotlinPackageHeaderPreloader {
+    private static final Logger LOG = Logger.getInstance(KotlinPackageHeaderPreloader.class);
+
+    private static final String PACKAGE_FACADE_FILE_SUFFIX = PackageClassUtils.PACKAGE_CLASS_NAME_SUFFIX + ".class";
+    private static final String JAR_SEPARATOR = "!/";
+
+    private KotlinPackageHeaderPreloader() {
+    }
+
+    public static void preload(@NotNull Iterable<VirtualFile> roots, int threadCount) {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            Set<String> bootClassPath = getBootClassPath();
+            for (final VirtualFile root : roots) {
+                if (isJdkRoot(root, bootClassPath)) continue;
+
+                futures.add(executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        preloadRoot(root);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                }
+                catch (ExecutionException e) {
+                    // Not fatal: whatever wasn't preloaded will be read on demand
+                    LOG.warn("Could not preload Kotlin package headers", e.getCause());
+                }
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /* package */ static boolean isJdkRoot(@NotNull VirtualFile root, @NotNull Set<String> bootClassPath) {
+        String path = FileUtil.toSystemIndependentName(StringUtil.trimEnd(root.getPath(), JAR_SEPARATOR));
+        if (bootClassPath.contains(path)) return true;
+
+        String javaHome = System.getProperty("java.home");
+        if (javaHome != null) {
+            // java.home is the jre directory of a JDK, whose own jars (e.g. tools.jar) are in the parent directory
+            File home = new File(javaHome);
+            File jdkHome = "jre".equals(home.getName()) && home.getParentFile() != null ? home.getParentFile() : home;
+            if (FileUtil.isAncestor(jdkHome.getPath(), path, false)) return true;
+        }
+
+        // A JDK other than the one the compiler runs on, e.g. given explicitly on the classpath
+        return root.findFileByRelativePath("java/lang/Object.class") != null;
+    }
+
+    @NotNull
+    private static Set<String> getBootClassPath() {
+        Set<String> result = new HashSet<String>();
+        String bootClassPath = System.getProperty("sun.boot.class.path");
+        if (bootClassPath != null) {
+            for (String path : StringUtil.split(bootClassPath, File.pathSeparator)) {
+                result.add(FileUtil.toSystemIndependentName(new File(path).getAbsolutePath()));
+            }
+        }
+        return result;
+    }
+
+    private static void preloadRoot(@NotNull VirtualFile root) {
+        VfsUtilCore.visitChildrenRecursively(root, new VirtualFileVisitor() {
+            @Override
+            public boolean visitFile(@NotNull VirtualFile file) {
+                if (!file.isDirectory() && file.getName().endsWith(PACKAGE_FACADE_FILE_SUFFIX)) {
+                    KotlinBinaryClassCache.preload(file);
+                }
+                return true;
+            }
+        });
+    }
+}
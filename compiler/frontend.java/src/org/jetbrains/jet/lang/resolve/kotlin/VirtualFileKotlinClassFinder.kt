@@ -18,6 +18,7 @@ package org.jetbrains.jet.lang.resolve.kotlin
 
 import org.jetbrains.jet.lang.resolve.java.structure.JavaClass
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaClassImpl
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaClass
 import org.jetbrains.kotlin.util.sure
 import org.jetbrains.jet.lang.resolve.name.ClassId
 
@@ -28,6 +29,10 @@ public abstract class VirtualFileKotlinClassFinder : VirtualFileFinder {
     }
 
     override fun findKotlinClass(javaClass: JavaClass): KotlinJvmBinaryClass? {
+        if (javaClass is BinaryJavaClass) {
+            return KotlinBinaryClassCache.getKotlinBinaryClass(javaClass.getVirtualFile())
+        }
+
         var file = (javaClass as JavaClassImpl).getPsi().getContainingFile()!!.getVirtualFile() ?: return null
         if (javaClass.getOuterClass() != null) {
             // For nested classes we get a file of the containing class, to get the actual class file for A.B.C,
@@ -75,6 +75,13 @@ public class CallResolver {
     @NotNull
     private TaskPrioritizer taskPrioritizer;
 
+    private final CallShapeCache callShapeCache = new CallShapeCache();
+
+    @NotNull
+    public CallShapeCache getCallShapeCache() {
+        return callShapeCache;
+    }
+
     @Inject
     public void setExpressionTypingServices(@NotNull ExpressionTypingServices expressionTypingServices) {
         this.expressionTypingServices = expressionTypingServices;
@@ -422,11 +429,20 @@ public class CallResolver {
         if (context.checkArguments == CheckValueArgumentsMode.ENABLED) {
             argumentTypeResolver.analyzeArgumentsAndRecordTypes(context);
         }
+
+        CallShapeCache.Key callShape = callShapeCache.createKey(context, callTransformer);
+        if (callShape != null) {
+            OverloadResolutionResultsImpl<F> memoizedResults = resolveMemoizedCandidate(callShape, prioritizedTasks, callTransformer);
+            if (memoizedResults != null) return memoizedResults;
+        }
+
         Collection<ResolvedCall<F>> allCandidates = Lists.newArrayList();
         OverloadResolutionResultsImpl<F> successfulResults = null;
+        int successfulTaskIndex = -1;
         TemporaryBindingTrace traceForFirstNonemptyCandidateSet = null;
         OverloadResolutionResultsImpl<F> resultsForFirstNonemptyCandidateSet = null;
-        for (ResolutionTask<D, F> task : prioritizedTasks) {
+        for (int taskIndex = 0; taskIndex < prioritizedTasks.size(); taskIndex++) {
+            ResolutionTask<D, F> task = prioritizedTasks.get(taskIndex);
             if (task.getCandidates().isEmpty()) continue;
 
             TemporaryBindingTrace taskTrace =
@@ -441,6 +457,7 @@ public class CallResolver {
             if (results.isSuccess() || results.isAmbiguity()) {
                 taskTrace.commit();
                 successfulResults = results;
+                successfulTaskIndex = taskIndex;
             }
             if (results.getResultCode() == INCOMPLETE_TYPE_INFERENCE) {
                 results.setTrace(taskTrace);
@@ -470,6 +487,32 @@ public class CallResolver {
             results = resultsForFirstNonemptyCandidateSet;
         }
         results.setAllCandidates(context.collectAllCandidates ? allCandidates : null);
+
+        if (callShape != null && results.isSuccess()) {
+            callShapeCache.recordWinner(callShape, successfulTaskIndex, results.getResultingCall());
+        }
+        return results;
+    }
+
+    @Nullable
+    private <D extends CallableDescriptor, F extends D> OverloadResolutionResultsImpl<F> resolveMemoizedCandidate(
+            @NotNull CallShapeCache.Key callShape,
+            @NotNull List<ResolutionTask<D, F>> prioritizedTasks,
+            @NotNull CallTransformer<D, F> callTransformer
+    ) {
+        ResolutionTask<D, F> memoizedTask = callShapeCache.getMemoizedTask(callShape, prioritizedTasks);
+        if (memoizedTask == null) return null;
+
+        TemporaryBindingTrace taskTrace = TemporaryBindingTrace.create(
+                memoizedTask.trace, "trace to resolve a memoized candidate for", memoizedTask.call.getCalleeExpression());
+        OverloadResolutionResultsImpl<F> results = performResolution(memoizedTask.replaceBindingTrace(taskTrace), callTransformer);
+        if (!results.isSuccess()) {
+            // The shape is not as stable as it looked (e.g. the candidate depends on something not in the key), fall back to full resolution
+            callShapeCache.forget(callShape);
+            return null;
+        }
+        taskTrace.commit();
+        results.setAllCandidates(null);
         return results;
     }
 
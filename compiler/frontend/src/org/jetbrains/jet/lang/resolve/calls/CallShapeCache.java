@@ -0,0 +1,253 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.calls;
+
+import com.google.common.collect.Lists;
+import com.intellij.lang.ASTNode;
+import com.intellij.psi.PsiFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.descriptors.CallableDescriptor;
+import org.jetbrains.jet.lang.psi.*;
+import org.jetbrains.jet.lang.resolve.BindingContext;
+import org.jetbrains.jet.lang.resolve.calls.context.BasicCallResolutionContext;
+import org.jetbrains.jet.lang.resolve.calls.context.CheckValueArgumentsMode;
+import org.jetbrains.jet.lang.resolve.calls.context.ContextDependency;
+import org.jetbrains.jet.lang.resolve.calls.model.ResolvedCall;
+import org.jetbrains.jet.lang.resolve.calls.model.VariableAsFunctionResolvedCall;
+import org.jetbrains.jet.lang.resolve.calls.smartcasts.DataFlowInfo;
+import org.jetbrains.jet.lang.resolve.calls.tasks.ExplicitReceiverKind;
+import org.jetbrains.jet.lang.resolve.calls.tasks.ResolutionCandidate;
+import org.jetbrains.jet.lang.resolve.calls.tasks.ResolutionTask;
+import org.jetbrains.jet.lang.resolve.scopes.JetScope;
+import org.jetbrains.jet.lang.resolve.scopes.WritableScope;
+import org.jetbrains.jet.lang.resolve.scopes.receivers.ReceiverValue;
+import org.jetbrains.jet.lang.types.JetType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Remembers which candidate won overload resolution for a given call shape
+ * (callee name, receiver type, argument types, expected type, scope and data flow info),
+ * so that the next call with the same shape checks only that candidate.
+ * A block scope is one {@link WritableScope} shared by all statements of the block, so its modification count
+ * is a part of the shape: a local declaration between two calls may change the winner.
+ *
+ * Only calls without function literals, type arguments, named or spread arguments,
+ * and with arguments whose types are known before resolution (constants, references, 'this') are memoized.
+ * The cache lives as long as the {@link CallResolver} that owns it, i.e. one analysis session,
+ * but it only holds the winners for the file being resolved: keys refer to the scopes of that file,
+ * which can't be hit from other files, and would otherwise be kept alive for the whole session.
+ */
+public class CallShapeCache {
+    private final Map<Key, Winner> winners = new HashMap<Key, Winner>();
+    private PsiFile currentFile;
+
+    private int hits;
+    private int misses;
+
+    @Nullable
+    public Key createKey(@NotNull BasicCallResolutionContext context, @NotNull CallTransformer<?, ?> callTransformer) {
+        Call call = context.call;
+        if (context.checkArguments != CheckValueArgumentsMode.ENABLED) return null;
+        if (context.contextDependency != ContextDependency.INDEPENDENT) return null;
+        if (context.collectAllCandidates) return null;
+        if (CallResolverUtil.isInvokeCallOnVariable(call)) return null;
+        if (!call.getFunctionLiteralArguments().isEmpty() || !call.getTypeArguments().isEmpty()) return null;
+
+        JetExpression calleeExpression = call.getCalleeExpression();
+        if (!(calleeExpression instanceof JetSimpleNameExpression)) return null;
+        String calleeName = ((JetSimpleNameExpression) calleeExpression).getReferencedName();
+
+        PsiFile file = call.getCallElement().getContainingFile();
+        if (file != currentFile) {
+            winners.clear();
+            currentFile = file;
+        }
+
+        JetType receiverType = null;
+        ReceiverValue explicitReceiver = call.getExplicitReceiver();
+        if (explicitReceiver.exists()) {
+            receiverType = explicitReceiver.getType();
+            if (!isCacheableType(receiverType)) return null;
+        }
+
+        List<JetType> argumentTypes = Lists.newArrayList();
+        for (ValueArgument argument : call.getValueArguments()) {
+            if (argument.isNamed() || argument.getSpreadElement() != null || argument.isExternal()) return null;
+
+            JetExpression expression = ArgumentTypeResolver.deparenthesizeArgument(argument.getArgumentExpression());
+            if (!(expression instanceof JetConstantExpression
+                  || expression instanceof JetStringTemplateExpression
+                  || expression instanceof JetSimpleNameExpression
+                  || expression instanceof JetThisExpression)) {
+                return null;
+            }
+            JetType type = context.trace.get(BindingContext.EXPRESSION_TYPE, expression);
+            if (type == null || !isCacheableType(type)) return null;
+            argumentTypes.add(type);
+        }
+
+        JetScope scope = context.scope;
+        int scopeModificationCount = scope instanceof WritableScope ? ((WritableScope) scope).getModificationCount() : 0;
+
+        ASTNode operationNode = call.getCallOperationNode();
+        return new Key(calleeName, callTransformer, receiverType, operationNode == null ? null : operationNode.getElementType().toString(),
+                       argumentTypes, context.expectedType, scope, scopeModificationCount, context.dataFlowInfo);
+    }
+
+    private static boolean isCacheableType(@NotNull JetType type) {
+        return !type.isError() && type.getConstructor().isDenotable();
+    }
+
+    /**
+     * @return the task consisting of the memoized winner only, or null if there is no winner for this key
+     */
+    @Nullable
+    public <D extends CallableDescriptor, F extends D> ResolutionTask<D, F> getMemoizedTask(
+            @NotNull Key key,
+            @NotNull List<ResolutionTask<D, F>> prioritizedTasks
+    ) {
+        Winner winner = winners.get(key);
+        if (winner == null || winner.taskIndex >= prioritizedTasks.size()) {
+            misses++;
+            return null;
+        }
+
+        ResolutionTask<D, F> task = prioritizedTasks.get(winner.taskIndex);
+        for (ResolutionCandidate<D> candidate : task.getCandidates()) {
+            if (candidate.getDescriptor().getOriginal() == winner.descriptor
+                && candidate.getExplicitReceiverKind() == winner.explicitReceiverKind) {
+                hits++;
+                return task.replaceCandidates(Collections.singletonList(candidate));
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    public void recordWinner(@NotNull Key key, int taskIndex, @NotNull ResolvedCall<?> resultingCall) {
+        if (resultingCall instanceof VariableAsFunctionResolvedCall) return;
+        winners.put(key, new Winner(taskIndex, resultingCall.getCandidateDescriptor().getOriginal(), resultingCall.getExplicitReceiverKind()));
+    }
+
+    public void forget(@NotNull Key key) {
+        winners.remove(key);
+    }
+
+    public int getHitCount() {
+        return hits;
+    }
+
+    public int getMissCount() {
+        return misses;
+    }
+
+    public double getHitRate() {
+        int total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CallShapeCache: " + winners.size() + " shapes, " + hits + " hits, " + misses + " misses";
+    }
+
+    public static final class Key {
+        private final String calleeName;
+        private final CallTransformer<?, ?> callTransformer;
+        private final JetType receiverType;
+        private final String callOperation;
+        private final List<JetType> argumentTypes;
+        private final JetType expectedType;
+        private final JetScope scope;
+        private final int scopeModificationCount;
+        private final DataFlowInfo dataFlowInfo;
+        private final int hashCode;
+
+        private Key(
+                @NotNull String calleeName,
+                @NotNull CallTransformer<?, ?> callTransformer,
+                @Nullable JetType receiverType,
+                @Nullable String callOperation,
+                @NotNull List<JetType> argumentTypes,
+                @NotNull JetType expectedType,
+                @NotNull JetScope scope,
+                int scopeModificationCount,
+                @NotNull DataFlowInfo dataFlowInfo
+        ) {
+            this.calleeName = calleeName;
+            this.callTransformer = callTransformer;
+            this.receiverType = receiverType;
+            this.callOperation = callOperation;
+            this.argumentTypes = argumentTypes;
+            this.expectedType = expectedType;
+            this.scope = scope;
+            this.scopeModificationCount = scopeModificationCount;
+            this.dataFlowInfo = dataFlowInfo;
+
+            int result = calleeName.hashCode();
+            result = 31 * result + System.identityHashCode(callTransformer);
+            result = 31 * result + (receiverType != null ? receiverType.hashCode() : 0);
+            result = 31 * result + (callOperation != null ? callOperation.hashCode() : 0);
+            result = 31 * result + argumentTypes.hashCode();
+            result = 31 * result + expectedType.hashCode();
+            result = 31 * result + System.identityHashCode(scope);
+            result = 31 * result + scopeModificationCount;
+            result = 31 * result + System.identityHashCode(dataFlowInfo);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            Key key = (Key) o;
+            return hashCode == key.hashCode
+                   && scope == key.scope
+                   && scopeModificationCount == key.scopeModificationCount
+                   && dataFlowInfo == key.dataFlowInfo
+                   && callTransformer == key.callTransformer
+                   && calleeName.equals(key.calleeName)
+                   && (receiverType != null ? receiverType.equals(key.receiverType) : key.receiverType == null)
+                   && (callOperation != null ? callOperation.equals(key.callOperation) : key.callOperation == null)
+                   && argumentTypes.equals(key.argumentTypes)
+                   && expectedType.equals(key.expectedType);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Winner {
+        private final int taskIndex;
+        private final CallableDescriptor descriptor;
+        private final ExplicitReceiverKind explicitReceiverKind;
+
+        private Winner(int taskIndex, @NotNull CallableDescriptor descriptor, @NotNull ExplicitReceiverKind explicitReceiverKind) {
+            this.taskIndex = taskIndex;
+            this.descriptor = descriptor;
+            this.explicitReceiverKind = explicitReceiverKind;
+        }
+    }
+}
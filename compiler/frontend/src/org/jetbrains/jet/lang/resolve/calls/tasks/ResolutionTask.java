@@ -139,6 +139,21 @@ public class ResolutionTask<D extends CallableDescriptor, F extends D> extends C
         return new ResolutionTask<D, F>(newContext, tracing, lazyCandidates);
     }
 
+    public ResolutionTask<D, F> replaceCandidates(@NotNull final Collection<ResolutionCandidate<D>> candidates) {
+        ResolutionTask<D, F> newTask = new ResolutionTask<D, F>(
+                new Function0<Collection<ResolutionCandidate<D>>>() {
+                    @Override
+                    public Collection<ResolutionCandidate<D>> invoke() {
+                        return candidates;
+                    }
+                },
+                tracing, trace, scope, call, expectedType, dataFlowInfo, contextDependency, checkArguments,
+                resolutionResultsCache, dataFlowInfoForArguments, callResolverExtension, Lists.<MutableResolvedCall<F>>newArrayList(),
+                isAnnotationContext, collectAllCandidates);
+        newTask.setCheckingStrategy(checkingStrategy);
+        return newTask;
+    }
+
     public ResolutionTask<D, F> replaceCall(@NotNull Call newCall) {
         return new ResolutionTask<D, F>(
                 lazyCandidates, tracing, trace, scope, newCall, expectedType, dataFlowInfo, contextDependency, checkArguments,
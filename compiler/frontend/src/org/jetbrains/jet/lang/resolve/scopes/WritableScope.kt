@@ -29,6 +29,11 @@ public trait WritableScope : JetScope {
 
     public fun changeLockLevel(lockLevel: LockLevel): WritableScope
 
+    /**
+     * Number of declarations and imports added to this scope so far, so that callers can tell whether the scope has changed
+     */
+    public fun getModificationCount(): Int
+
     public fun addLabeledDeclaration(descriptor: DeclarationDescriptor)
 
     public fun addVariableDescriptor(variableDescriptor: VariableDescriptor)
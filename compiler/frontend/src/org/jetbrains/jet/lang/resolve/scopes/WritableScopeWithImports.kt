@@ -38,6 +38,8 @@ public abstract class WritableScopeWithImports(override val workerScope: JetScop
 
     private var lockLevel: WritableScope.LockLevel = WritableScope.LockLevel.WRITING
 
+    private var modificationCount = 0
+
     override fun changeLockLevel(lockLevel: WritableScope.LockLevel): WritableScope {
         if (lockLevel.ordinal() < this.lockLevel.ordinal()) {
             throw IllegalStateException("cannot lower lock level from " + this.lockLevel + " to " + lockLevel + " at " + toString())
@@ -52,10 +54,14 @@ public abstract class WritableScopeWithImports(override val workerScope: JetScop
         }
     }
 
+    override fun getModificationCount(): Int = modificationCount
+
+    // Every write to the scope is checked here first
     protected fun checkMayWrite() {
         if (lockLevel != WritableScope.LockLevel.WRITING && lockLevel != WritableScope.LockLevel.BOTH) {
             throw IllegalStateException("cannot write with lock level " + lockLevel + " at " + toString())
         }
+        modificationCount++
     }
 
     protected fun checkMayNotWrite() {
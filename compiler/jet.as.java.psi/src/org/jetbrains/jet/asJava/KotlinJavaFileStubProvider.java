@@ -60,6 +60,7 @@ import org.jetbrains.org.objectweb.asm.Type;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static org.jetbrains.jet.lang.resolve.DescriptorToSourceUtils.descriptorToDeclaration;
@@ -100,6 +101,11 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
                         return new KotlinPackageLightClassData(javaFileStub, extraDiagnostics);
                     }
 
+                    @Override
+                    public boolean needsCodegenBinding() {
+                        return false;
+                    }
+
                     @NotNull
                     @Override
                     public FqName getPackageFqName() {
@@ -125,6 +131,12 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
                         state.getFactory().asList();
                     }
 
+                    @NotNull
+                    @Override
+                    public String getCacheId() {
+                        return "package " + packageFqName;
+                    }
+
                     @Override
                     public String toString() {
                         return StubGenerationStrategy.class.getName() + " for package class";
@@ -192,6 +204,12 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
                         );
                     }
 
+                    @Override
+                    public boolean needsCodegenBinding() {
+                        // Names of the classes are predicted from their ASM types
+                        return true;
+                    }
+
                     @NotNull
                     private FqName predictClassFqName(BindingContext bindingContext, ClassDescriptor classDescriptor) {
                         Type asmType = CodegenBinding.getAsmType(bindingContext, classDescriptor);
@@ -256,6 +274,12 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
                         state.getFactory().asList();
                     }
 
+                    @NotNull
+                    @Override
+                    public String getCacheId() {
+                        return "class at " + classOrObject.getTextRange().getStartOffset();
+                    }
+
                     @Override
                     public String toString() {
                         return StubGenerationStrategy.class.getName() + " for explicit class " + classOrObject.getName();
@@ -290,33 +314,31 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
 
         LightClassConstructionContext context = stubGenerationStrategy.getContext(files);
 
+        LightClassStubCache stubCache = LightClassGenerationSupport.getInstance(project).getStubCache();
+        List<JetFile> sortedFiles = stubCache != null ? LightClassStubCache.sortFiles(files) : null;
+        String cacheKey = stubCache != null ? stubCache.computeKey(stubGenerationStrategy.getCacheId(), sortedFiles) : null;
+
         PsiJavaFileStub javaFileStub = createJavaFileStub(packageFqName, getRepresentativeVirtualFile(files));
         BindingContext bindingContext;
         BindingTraceContext forExtraDiagnostics = new BindingTraceContext();
+
+        // The cache is checked before codegen is prepared, which is most of the work of generating stubs
+        if (cacheKey != null) {
+            if (stubCache.load(cacheKey, javaFileStub, sortedFiles)) {
+                bindingContext = stubGenerationStrategy.needsCodegenBinding()
+                                 ? prepareCodegen(context, files, new Stack<StubElement>(), forExtraDiagnostics).getBindingContext()
+                                 : context.getBindingContext();
+                return createResult(javaFileStub, bindingContext, forExtraDiagnostics.getBindingContext().getDiagnostics());
+            }
+            javaFileStub = createJavaFileStub(packageFqName, getRepresentativeVirtualFile(files));
+        }
+
         try {
             Stack<StubElement> stubStack = new Stack<StubElement>();
             stubStack.push(javaFileStub);
 
-            GenerationState state = new GenerationState(
-                    project,
-                    new KotlinLightClassBuilderFactory(stubStack),
-                    Progress.DEAF,
-                    context.getModule(),
-                    context.getBindingContext(),
-                    Lists.newArrayList(files),
-                    /*disable not-null assertions*/false, false,
-                    /*generateClassFilter=*/stubGenerationStrategy.getGenerateClassFilter(),
-                    /*disableInline=*/false,
-                    /*disableOptimization=*/false,
-                    null,
-                    null,
-                    forExtraDiagnostics,
-                    null
-            );
-            KotlinCodegenFacade.prepareForCompilation(state);
-
+            GenerationState state = prepareCodegen(context, files, stubStack, forExtraDiagnostics);
             bindingContext = state.getBindingContext();
-
             stubGenerationStrategy.generate(state, files);
 
             StubElement pop = stubStack.pop();
@@ -333,6 +355,46 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
         }
 
         Diagnostics extraDiagnostics = forExtraDiagnostics.getBindingContext().getDiagnostics();
+        if (cacheKey != null && extraDiagnostics.isEmpty()) {
+            // Diagnostics are not stored in the cache, so stubs generated with diagnostics are not cached either
+            stubCache.save(cacheKey, javaFileStub, sortedFiles);
+        }
+        return createResult(javaFileStub, bindingContext, extraDiagnostics);
+    }
+
+    @NotNull
+    private GenerationState prepareCodegen(
+            @NotNull LightClassConstructionContext context,
+            @NotNull Collection<JetFile> files,
+            @NotNull Stack<StubElement> stubStack,
+            @NotNull BindingTraceContext forExtraDiagnostics
+    ) {
+        GenerationState state = new GenerationState(
+                project,
+                new KotlinLightClassBuilderFactory(stubStack),
+                Progress.DEAF,
+                context.getModule(),
+                context.getBindingContext(),
+                Lists.newArrayList(files),
+                /*disable not-null assertions*/false, false,
+                /*generateClassFilter=*/stubGenerationStrategy.getGenerateClassFilter(),
+                /*disableInline=*/false,
+                /*disableOptimization=*/false,
+                null,
+                null,
+                forExtraDiagnostics,
+                null
+        );
+        KotlinCodegenFacade.prepareForCompilation(state);
+        return state;
+    }
+
+    @NotNull
+    private Result<T> createResult(
+            @NotNull PsiJavaFileStub javaFileStub,
+            @NotNull BindingContext bindingContext,
+            @NotNull Diagnostics extraDiagnostics
+    ) {
         return Result.create(
                 stubGenerationStrategy.createLightClassData(javaFileStub, bindingContext, extraDiagnostics),
                 local ? PsiModificationTracker.MODIFICATION_COUNT : PsiModificationTracker.OUT_OF_CODE_BLOCK_MODIFICATION_COUNT
@@ -397,9 +459,16 @@ public class KotlinJavaFileStubProvider<T extends WithFileStubAndExtraDiagnostic
         @NotNull Collection<JetFile> getFiles();
         @NotNull FqName getPackageFqName();
 
+        // Identifies the generated data among all data generated from the same files, see LightClassStubCache
+        @NotNull String getCacheId();
+
         @NotNull LightClassConstructionContext getContext(@NotNull Collection<JetFile> files);
         @NotNull T createLightClassData(PsiJavaFileStub javaFileStub, BindingContext bindingContext, Diagnostics extraDiagnostics);
 
+        // Whether createLightClassData needs what codegen records in the binding context (see CodegenBinding),
+        // in which case codegen is prepared for stubs loaded from the cache as well
+        boolean needsCodegenBinding();
+
         GenerationState.GenerateClassFilter getGenerateClassFilter();
         void generate(@NotNull GenerationState state, @NotNull Collection<JetFile> files);
     }
@@ -76,6 +76,12 @@ public abstract class LightClassGenerationSupport {
     @Nullable
     public abstract PsiClass getPsiClass(@NotNull JetClassOrObject classOrObject);
 
+    // Light class stubs are kept across compilations only if the environment provides a cache for them
+    @Nullable
+    public LightClassStubCache getStubCache() {
+        return null;
+    }
+
     public final class KotlinLightPackageClassInfo {
         private final Collection<JetFile> files;
         private final GlobalSearchScope scope;
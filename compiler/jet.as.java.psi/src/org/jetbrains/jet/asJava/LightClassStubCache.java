@@ -0,0 +1,435 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.asJava;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.TextRange;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.impl.java.stubs.JavaStubElementTypes;
+import com.intellij.psi.impl.java.stubs.PsiJavaFileStub;
+import com.intellij.psi.stubs.*;
+import com.intellij.psi.util.PsiTreeUtil;
+import com.intellij.util.io.AbstractStringEnumerator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.psi.JetDeclarationWithBody;
+import org.jetbrains.jet.lang.psi.JetExpression;
+import org.jetbrains.jet.lang.psi.JetFile;
+import org.jetbrains.jet.lang.psi.JetNamedFunction;
+import org.jetbrains.jet.lang.psi.JetPropertyAccessor;
+
+import java.io.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Keeps light class stubs generated by {@link KotlinJavaFileStubProvider} on disk, so that they're not generated again by the next
+ * compilation of the same sources.
+ *
+ * A stub depends not only on the text of the files it's generated from, but also on declarations in other files and on the classpath
+ * (e.g. inferred return types and supertypes), so each entry is keyed by the text of its own files and the fingerprint of the whole
+ * environment, see {@link #computeFingerprint}. Stubs are stored with the serializers of the Java stub element types, origin elements
+ * are stored as text ranges in the files of the entry.
+ */
+public class LightClassStubCache {
+    private static final Logger LOG = Logger.getInstance(LightClassStubCache.class);
+
+    private static final int VERSION = 1;
+    private static final String ENTRY_EXTENSION = ".stubs";
+    private static final String TEMP_EXTENSION = ".stubs.tmp";
+    private static final long UNUSED_ENTRY_LIFETIME_MS = 7L * 24 * 60 * 60 * 1000;
+
+    // Stub types which can be produced from class files by StubBuildingVisitor, stubs of other types are never cached
+    private static final IStubElementType[] STUB_TYPES = {
+            JavaStubElementTypes.CLASS,
+            JavaStubElementTypes.ANONYMOUS_CLASS,
+            JavaStubElementTypes.ENUM_CONSTANT_INITIALIZER,
+            JavaStubElementTypes.MODIFIER_LIST,
+            JavaStubElementTypes.ANNOTATION,
+            JavaStubElementTypes.ANNOTATION_METHOD,
+            JavaStubElementTypes.METHOD,
+            JavaStubElementTypes.FIELD,
+            JavaStubElementTypes.ENUM_CONSTANT,
+            JavaStubElementTypes.PARAMETER_LIST,
+            JavaStubElementTypes.PARAMETER,
+            JavaStubElementTypes.TYPE_PARAMETER_LIST,
+            JavaStubElementTypes.TYPE_PARAMETER,
+            JavaStubElementTypes.EXTENDS_LIST,
+            JavaStubElementTypes.IMPLEMENTS_LIST,
+            JavaStubElementTypes.EXTENDS_BOUND_LIST,
+            JavaStubElementTypes.THROWS_LIST
+    };
+
+    private final File directory;
+    private final String fingerprint;
+
+    public LightClassStubCache(@NotNull File directory, @NotNull String fingerprint) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+        deleteUnusedEntries();
+    }
+
+    /**
+     * @param id identifies the light class data among all data generated from the same files
+     * @param files files sorted with {@link #sortFiles}
+     */
+    @NotNull
+    /* package */ String computeKey(@NotNull String id, @NotNull List<JetFile> files) {
+        MessageDigest digest = createDigest();
+        update(digest, fingerprint);
+        update(digest, id);
+        for (JetFile file : files) {
+            update(digest, getPath(file));
+            update(digest, file.getText());
+        }
+        return toHexString(digest.digest());
+    }
+
+    /**
+     * Adds cached stubs to the given file stub
+     *
+     * @return false if there's no entry for the key or it can't be read, in which case some stubs may have been added already,
+     * so the file stub should be thrown away
+     */
+    /* package */ boolean load(@NotNull String key, @NotNull PsiJavaFileStub fileStub, @NotNull List<JetFile> files) {
+        File entry = new File(directory, key + ENTRY_EXTENSION);
+        if (!entry.isFile()) return false;
+
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(entry)));
+            try {
+                if (input.readInt() != VERSION) return false;
+
+                StringTable strings = new StringTable();
+                for (int i = input.readInt(); i > 0; i--) {
+                    strings.enumerate(input.readUTF());
+                }
+
+                byte[] stubData = new byte[input.readInt()];
+                input.readFully(stubData);
+
+                // Origins are resolved before any stubs are created, the entry is useless if one of them is not found
+                Map<Integer, PsiElement> origins = new HashMap<Integer, PsiElement>();
+                for (int i = input.readInt(); i > 0; i--) {
+                    int stubIndex = input.readInt();
+                    PsiElement origin = findOrigin(files.get(input.readInt()), input.readInt(), input.readInt(), input.readUTF());
+                    if (origin == null) return false;
+                    origins.put(stubIndex, origin);
+                }
+
+                List<StubElement> stubs = new ArrayList<StubElement>();
+                StubInputStream stubInput = new StubInputStream(new ByteArrayInputStream(stubData), strings);
+                for (int i = stubInput.readInt(); i > 0; i--) {
+                    readStub(stubInput, fileStub, stubs);
+                }
+
+                for (Map.Entry<Integer, PsiElement> origin : origins.entrySet()) {
+                    if (origin.getKey() >= stubs.size()) throw new IOException("Origin of an unknown stub: " + origin.getKey());
+                    ((StubBase) stubs.get(origin.getKey())).putUserData(ClsWrapperStubPsiFactory.ORIGIN_ELEMENT, origin.getValue());
+                }
+            }
+            finally {
+                input.close();
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Could not read light class stubs from " + entry, e);
+            return false;
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        entry.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /* package */ void save(@NotNull String key, @NotNull PsiJavaFileStub fileStub, @NotNull List<JetFile> files) {
+        try {
+            StringTable strings = new StringTable();
+            List<StubElement> stubs = new ArrayList<StubElement>();
+            ByteArrayOutputStream stubData = new ByteArrayOutputStream();
+            StubOutputStream stubOutput = new StubOutputStream(stubData, strings);
+            List<StubElement> children = fileStub.getChildrenStubs();
+            stubOutput.writeInt(children.size());
+            for (StubElement child : children) {
+                if (!writeStub(stubOutput, child, stubs)) return;
+            }
+            stubOutput.close();
+
+            ByteArrayOutputStream origins = new ByteArrayOutputStream();
+            DataOutputStream originOutput = new DataOutputStream(origins);
+            int originCount = 0;
+            for (int i = 0; i < stubs.size(); i++) {
+                PsiElement origin = ((StubBase) stubs.get(i)).getUserData(ClsWrapperStubPsiFactory.ORIGIN_ELEMENT);
+                if (origin == null) continue;
+
+                int fileIndex = files.indexOf(origin.getContainingFile());
+                if (fileIndex < 0) return;
+
+                TextRange range = origin.getTextRange();
+                originOutput.writeInt(i);
+                originOutput.writeInt(fileIndex);
+                originOutput.writeInt(range.getStartOffset());
+                originOutput.writeInt(range.getEndOffset());
+                originOutput.writeUTF(origin.getClass().getName());
+                originCount++;
+            }
+
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                LOG.warn("Could not create light class stub cache directory: " + directory);
+                return;
+            }
+
+            // Written to a temporary file first, so that concurrent compilations never see a partially written entry
+            File temp = File.createTempFile(key, TEMP_EXTENSION, directory);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+            try {
+                output.writeInt(VERSION);
+                output.writeInt(strings.strings.size());
+                for (String string : strings.strings) {
+                    output.writeUTF(string);
+                }
+                output.writeInt(stubData.size());
+                stubData.writeTo(output);
+                output.writeInt(originCount);
+                origins.writeTo(output);
+            }
+            finally {
+                output.close();
+            }
+
+            if (!temp.renameTo(new File(directory, key + ENTRY_EXTENSION))) {
+                //noinspection ResultOfMethodCallIgnored
+                temp.delete();
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Could not write light class stubs to " + directory, e);
+        }
+    }
+
+    // Returns false if the stub or one of its children can't be serialized
+    private static boolean writeStub(@NotNull StubOutputStream output, @NotNull StubElement stub, @NotNull List<StubElement> stubs)
+            throws IOException {
+        int typeIndex = Arrays.asList(STUB_TYPES).indexOf(stub.getStubType());
+        if (typeIndex < 0) return false;
+
+        stubs.add(stub);
+        output.writeInt(typeIndex);
+        //noinspection unchecked
+        STUB_TYPES[typeIndex].serialize(stub, output);
+
+        List<StubElement> children = stub.getChildrenStubs();
+        output.writeInt(children.size());
+        for (StubElement child : children) {
+            if (!writeStub(output, child, stubs)) return false;
+        }
+        return true;
+    }
+
+    private static void readStub(@NotNull StubInputStream input, @NotNull StubElement parent, @NotNull List<StubElement> stubs)
+            throws IOException {
+        int typeIndex = input.readInt();
+        if (typeIndex < 0 || typeIndex >= STUB_TYPES.length) throw new IOException("Unknown stub type: " + typeIndex);
+
+        //noinspection unchecked
+        StubElement stub = STUB_TYPES[typeIndex].deserialize(input, parent);
+        stubs.add(stub);
+        for (int i = input.readInt(); i > 0; i--) {
+            readStub(input, stub, stubs);
+        }
+    }
+
+    @Nullable
+    private static PsiElement findOrigin(@NotNull JetFile file, int startOffset, int endOffset, @NotNull String className) {
+        PsiElement element = file.findElementAt(startOffset);
+        while (element != null) {
+            TextRange range = element.getTextRange();
+            if (range.getStartOffset() < startOffset || range.getEndOffset() > endOffset) break;
+            if (range.getEndOffset() == endOffset && element.getClass().getName().equals(className)) return element;
+            element = element.getParent();
+        }
+
+        // Empty files have no leaf elements
+        return startOffset == 0 && endOffset == file.getTextLength() && file.getClass().getName().equals(className) ? file : null;
+    }
+
+    // Only files written by the cache are deleted, the directory may be shared with other files
+    private void deleteUnusedEntries() {
+        File[] entries = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(@NotNull File dir, @NotNull String name) {
+                return name.endsWith(ENTRY_EXTENSION) || name.endsWith(TEMP_EXTENSION);
+            }
+        });
+        if (entries == null) return;
+
+        long now = System.currentTimeMillis();
+        for (File entry : entries) {
+            if (entry.isFile() && now - entry.lastModified() > UNUSED_ENTRY_LIFETIME_MS) {
+                //noinspection ResultOfMethodCallIgnored
+                entry.delete();
+            }
+        }
+    }
+
+    @NotNull
+    /* package */ static List<JetFile> sortFiles(@NotNull Collection<JetFile> files) {
+        List<JetFile> result = new ArrayList<JetFile>(files);
+        Collections.sort(result, new Comparator<JetFile>() {
+            @Override
+            public int compare(@NotNull JetFile file1, @NotNull JetFile file2) {
+                return getPath(file1).compareTo(getPath(file2));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Light classes of a file can change only if the file itself, a declaration it refers to, the classpath, the external annotations
+     * or the compiler changes, so the bodies of functions and accessors whose return types don't depend on them are not included
+     * into the fingerprint
+     */
+    @NotNull
+    public static String computeFingerprint(
+            @NotNull Collection<JetFile> sources,
+            @NotNull Collection<File> classpath,
+            @NotNull Collection<File> annotationsPath,
+            @NotNull String compilerVersion
+    ) {
+        MessageDigest digest = createDigest();
+        update(digest, compilerVersion);
+        for (JetFile file : sortFiles(sources)) {
+            update(digest, getPath(file));
+
+            String text = file.getText();
+            int start = 0;
+            for (JetDeclarationWithBody declaration : PsiTreeUtil.findChildrenOfType(file, JetDeclarationWithBody.class)) {
+                if (!(declaration instanceof JetNamedFunction || declaration instanceof JetPropertyAccessor)) continue;
+                if (!declaration.hasBlockBody() && !declaration.hasDeclaredReturnType()) continue;
+
+                JetExpression body = declaration.getBodyExpression();
+                if (body == null) continue;
+
+                // Declarations are visited in the order of their offsets, nested ones are skipped along with the enclosing body
+                TextRange range = body.getTextRange();
+                if (range.getStartOffset() < start) continue;
+
+                update(digest, text.substring(start, range.getStartOffset()));
+                start = range.getEndOffset();
+            }
+            update(digest, text.substring(start));
+        }
+
+        for (File root : classpath) {
+            updateWithStamp(digest, root);
+        }
+        // Separates the classpath from the annotations path, so that moving a root from one to the other changes the fingerprint
+        update(digest, "");
+        for (File root : annotationsPath) {
+            updateWithStamp(digest, root);
+        }
+        return toHexString(digest.digest());
+    }
+
+    // Only the root itself is looked at, not the files under a directory root: a directory's modification time changes when files
+    // are added to it or removed from it (which is what a rebuild of its classes does), but not when a file in it is rewritten
+    private static void updateWithStamp(@NotNull MessageDigest digest, @NotNull File root) {
+        update(digest, root.getAbsolutePath() + ":" + root.length() + ":" + root.lastModified());
+    }
+
+    @NotNull
+    private static String getPath(@NotNull JetFile file) {
+        VirtualFile virtualFile = file.getVirtualFile();
+        return virtualFile != null ? virtualFile.getPath() : file.getName();
+    }
+
+    @NotNull
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(@NotNull MessageDigest digest, @NotNull String string) {
+        try {
+            digest.update(string.getBytes("UTF-8"));
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        // Separates consecutive strings, so that ("ab", "c") and ("a", "bc") are not the same
+        digest.update((byte) 0);
+    }
+
+    @NotNull
+    private static String toHexString(@NotNull byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    // Names written by the stub serializers are kept in a table at the start of each entry
+    private static class StringTable implements AbstractStringEnumerator {
+        private final List<String> strings = new ArrayList<String>();
+        private final Map<String, Integer> ids = new HashMap<String, Integer>();
+
+        @Override
+        public int enumerate(@Nullable String value) {
+            // Zero is reserved for null by the stub streams
+            if (value == null) return 0;
+
+            Integer id = ids.get(value);
+            if (id == null) {
+                strings.add(value);
+                id = strings.size();
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        @Nullable
+        @Override
+        public String valueOf(int id) {
+            return id == 0 ? null : strings.get(id - 1);
+        }
+
+        @Override
+        public void markCorrupted() {
+        }
+
+        @Override
+        public boolean isDirty() {
+            return false;
+        }
+
+        @Override
+        public void force() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
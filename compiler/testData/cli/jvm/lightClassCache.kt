@@ -0,0 +1,7 @@
+open class Base {
+    fun foo(): String = "OK"
+}
+
+fun main(args: Array<String>) {
+    println(Derived().foo())
+}
@@ -0,0 +1,3 @@
+fun main(args: Array<String>) {
+    println(listOf(1, 2, 3).map { it * 2 }.joinToString())
+}
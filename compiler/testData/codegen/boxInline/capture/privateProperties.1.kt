@@ -0,0 +1,38 @@
+import test.*
+
+class Counter {
+    private var count = 0
+
+    var total = 0
+        private set
+
+    fun add(values: IntArray) {
+        forEachValue(values) {
+            count++
+            total += it
+        }
+    }
+
+    fun countLater(): Later<Int> = later { count }
+
+    fun addLater(value: Int): Later<Unit> = later { total += value }
+
+    fun current(): Int = call { call { count } }
+}
+
+fun box(): String {
+    val counter = Counter()
+    counter.add(intArray(1, 2, 3))
+    if (counter.current() != 3) return "fail 1: ${counter.current()}"
+    if (counter.total != 6) return "fail 2: ${counter.total}"
+
+    val countLater = counter.countLater()
+    val addLater = counter.addLater(4)
+    counter.add(intArray(5))
+    if (countLater.get() != 4) return "fail 3: ${countLater.get()}"
+
+    addLater.get()
+    if (counter.total != 15) return "fail 4: ${counter.total}"
+
+    return "OK"
+}
@@ -0,0 +1,20 @@
+package test
+
+import kotlin.InlineOption.*
+
+inline fun <T> call(f: () -> T): T = f()
+
+inline fun forEachValue(values: IntArray, f: (Int) -> Unit) {
+    for (value in values) {
+        f(value)
+    }
+}
+
+trait Later<T> {
+    fun get(): T
+}
+
+inline fun <T> later(inlineOptions(ONLY_LOCAL_RETURN) f: () -> T): Later<T> =
+        object : Later<T> {
+            override fun get(): T = f()
+        }
@@ -0,0 +1,37 @@
+// The classes are declared in another file, so the when must not depend on whether that file is compiled together with it
+class Dispatcher {
+    fun dispatch(x: Any): Int {
+        return when (x) {
+            is A1 -> 1
+            is A2 -> 2
+            is A3 -> 3
+            is A4 -> 4
+            is A5 -> 5
+            is A6 -> 6
+            is A7 -> 7
+            is A8 -> 8
+            else -> 0
+        }
+    }
+}
+
+fun box(): String {
+    val dispatcher = Dispatcher()
+    if (dispatcher.dispatch(A1()) != 1) return "Fail A1"
+    if (dispatcher.dispatch(A2()) != 2) return "Fail A2"
+    if (dispatcher.dispatch(A3()) != 3) return "Fail A3"
+    if (dispatcher.dispatch(A4()) != 4) return "Fail A4"
+    if (dispatcher.dispatch(A5()) != 5) return "Fail A5"
+    if (dispatcher.dispatch(A6()) != 6) return "Fail A6"
+    if (dispatcher.dispatch(A7()) != 7) return "Fail A7"
+    if (dispatcher.dispatch(A8()) != 8) return "Fail A8"
+    if (dispatcher.dispatch("") != 0) return "Fail else"
+
+    try {
+        Class.forName("Dispatcher\$WhenMappings", false, dispatcher.javaClass.getClassLoader())
+        return "Fail: the when by classes from another file was compiled to a class switch"
+    }
+    catch (e: ClassNotFoundException) {
+        return "OK"
+    }
+}
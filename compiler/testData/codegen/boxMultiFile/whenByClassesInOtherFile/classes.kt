@@ -0,0 +1,8 @@
+class A1
+class A2
+class A3
+class A4
+class A5
+class A6
+class A7
+class A8
@@ -0,0 +1,48 @@
+import kotlin.reflect.IllegalAccessException
+import kotlin.reflect.KMutableMemberProperty
+import kotlin.reflect.jvm.accessible
+
+class A {
+    private var value = 0
+
+    fun ref(): KMutableMemberProperty<A, Int> = ::value
+}
+
+fun box(): String {
+    val a = A()
+    val p1 = a.ref()
+    val p2 = a.ref()
+    if (p1 identityEquals p2) return "Fail: each reference should create a new property instance"
+    if (p1 != p2) return "Fail: instances of the same property should be equal"
+
+    p1.accessible = true
+    if (!p1.accessible) return "Fail: setAccessible(true) had no effect"
+    if (p2.accessible) return "Fail: making one property instance accessible made another one accessible"
+
+    p1.set(a, 1)
+    if (p1.get(a) != 1) return "Fail: ${p1.get(a)}"
+
+    try {
+        p2.set(a, 2)
+        return "Fail: private property is accessible through another instance"
+    } catch(e: IllegalAccessException) { }
+
+    p2.accessible = true
+    p1.accessible = false
+    if (p1.accessible) return "Fail: setAccessible(false) had no effect"
+    p2.set(a, 3)
+    if (p2.get(a) != 3) return "Fail: ${p2.get(a)}"
+
+    try {
+        p1.get(a)
+        return "Fail: making another instance accessible made this one accessible again"
+    } catch(e: IllegalAccessException) { }
+
+    val p3 = a.ref()
+    try {
+        p3.get(a)
+        return "Fail: a new property instance is accessible"
+    } catch(e: IllegalAccessException) { }
+
+    return "OK"
+}
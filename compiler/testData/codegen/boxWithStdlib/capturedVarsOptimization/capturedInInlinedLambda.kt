@@ -0,0 +1,61 @@
+fun box(): String {
+    val list = listOf(1, 2, 3)
+
+    var sum = 0
+    var product = 1L
+    var average = 0.0
+    var first = ' '
+    var found = false
+    var last: String? = null
+    var count = 0
+    list.forEach {
+        sum += it
+        product *= it
+        average += it.toDouble() / list.size()
+        if (first == ' ') first = 'a' + it
+        if (it == 2) found = true
+        last = "#$it"
+        count++
+    }
+
+    if (sum != 6) return "Fail sum: $sum"
+    if (product != 6L) return "Fail product: $product"
+    if (average != 2.0) return "Fail average: $average"
+    if (first != 'b') return "Fail first: $first"
+    if (!found) return "Fail found"
+    if (last != "#3") return "Fail last: $last"
+    if (count != 3) return "Fail count: $count"
+
+    var total = 0
+    for (i in 1..3) {
+        var inner = 0
+        list.forEach { inner += it * i }
+        total += inner
+    }
+    if (total != 36) return "Fail loop: $total"
+
+    var nested = 0
+    list.forEach { x ->
+        list.forEach { y ->
+            nested += x * y
+        }
+    }
+    if (nested != 36) return "Fail nested: $nested"
+
+    var prefix = 0
+    var postfix = 0
+    list.forEach {
+        val a = ++prefix
+        val b = postfix++
+        if (a != b + 1) prefix = -100
+    }
+    if (prefix != 3 || postfix != 3) return "Fail increments: $prefix $postfix"
+
+    var escaped = 0
+    list.forEach { escaped += it }
+    val lambda = { escaped }
+    escaped = 10
+    if (lambda() != 10) return "Fail escaped: ${lambda()}"
+
+    return "OK"
+}
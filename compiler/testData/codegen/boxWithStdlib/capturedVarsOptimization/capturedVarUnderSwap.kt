@@ -0,0 +1,33 @@
+class Decorator(val prefix: String) {
+    fun String.decorate(): String = prefix + this
+
+    // A safe call of a member extension puts the dispatch receiver on top of the extension receiver and swaps them,
+    // here with the Ref of the captured variable and its element below on the stack
+    fun decorateAll(list: List<String?>): String {
+        var result = ""
+        list.forEach {
+            result += it?.decorate() ?: "-"
+        }
+        return result
+    }
+
+    fun decorateLast(list: List<String?>): String? {
+        var last: String? = null
+        list.forEach {
+            last = it?.decorate()
+        }
+        return last
+    }
+}
+
+fun box(): String {
+    val decorator = Decorator("#")
+
+    val all = decorator.decorateAll(listOf("a", null, "b"))
+    if (all != "#a-#b") return "Fail all: $all"
+
+    val last = decorator.decorateLast(listOf("a", "b"))
+    if (last != "#b") return "Fail last: $last"
+
+    return "OK"
+}
@@ -0,0 +1,57 @@
+import kotlin.test.assertEquals
+
+inline fun <T> id(x: T, block: (T) -> T): T = block(x)
+
+inline fun divide(x: Int, y: Int): Int = x / y
+
+inline fun select(x: Int): String =
+        when (x) {
+            0 -> "zero"
+            1 -> "one"
+            100 -> "hundred"
+            else -> "other"
+        }
+
+fun box(): String {
+    assertEquals(Int.MIN_VALUE, id(Int.MAX_VALUE) { it + 1 })
+    assertEquals(-7 % 3, id(-7) { it % 3 })
+    assertEquals(-7 / 2, id(-7) { it / 2 })
+    assertEquals(-1 ushr 28, id(-1) { it ushr 28 })
+    assertEquals(1 shl 33, id(1) { it shl 33 })
+    assertEquals(-1L shr 63, id(-1L) { it shr 63 })
+    assertEquals(Long.MAX_VALUE + 1L, id(Long.MAX_VALUE) { it + 1L })
+    assertEquals(0x0F0F and 0x00FF, id(0x0F0F) { it and 0x00FF })
+
+    assertEquals(-0.0, id(0.0) { -it })
+    assertEquals(-0.0f, id(0.0f) { -it })
+    assertEquals(1.0 / 3.0, id(1.0) { it / 3.0 })
+    assertEquals(5.5f % 2.0f, id(5.5f) { it % 2.0f })
+    assertEquals(true, id(Double.NaN) { it }.isNaN())
+    assertEquals(false, id(Double.NaN) { it } < 1.0)
+    assertEquals(false, id(Double.NaN) { it } > 1.0)
+    assertEquals(false, id(Float.NaN) { it } == Float.NaN)
+    assertEquals(true, id(3.0) { it } > 2.0)
+    assertEquals(true, id(5L) { it } > 3L)
+
+    assertEquals("zero", select(0))
+    assertEquals("one", select(1))
+    assertEquals("hundred", select(100))
+    assertEquals("other", select(42))
+    assertEquals("other", select(-1))
+
+    assertEquals(2, divide(5, 2))
+    try {
+        divide(1, 0)
+        return "Fail: division by zero should throw"
+    }
+    catch (e: ArithmeticException) {
+    }
+
+    var sum = 0
+    for (i in 1..3) {
+        sum += id(i) { it * 2 }
+    }
+    assertEquals(12, sum)
+
+    return "OK"
+}
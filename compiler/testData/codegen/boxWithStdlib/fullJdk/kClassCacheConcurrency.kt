@@ -0,0 +1,41 @@
+import java.util.concurrent.*
+import kotlin.reflect.KClass
+import kotlin.reflect.jvm.*
+
+val CLASSES = array<Class<*>>(
+        javaClass<String>(), javaClass<Thread>(), javaClass<java.util.ArrayList<*>>(), javaClass<java.util.HashMap<*, *>>(),
+        javaClass<java.util.LinkedList<*>>(), javaClass<java.util.TreeSet<*>>(), javaClass<java.io.File>(), javaClass<java.lang.Runnable>(),
+        javaClass<ConcurrentHashMap<*, *>>(), javaClass<CountDownLatch>(), javaClass<Executors>(), javaClass<StringBuilder>()
+)
+
+fun box(): String {
+    val threads = 16
+    val start = CountDownLatch(1)
+    val executor = Executors.newFixedThreadPool(threads)
+    val futures = (1..threads).map {
+        executor.submit(Callable<List<KClass<*>>> {
+            start.await()
+            val result = CLASSES.map { it.kotlin }
+            for (i in 1..1000) {
+                for (j in CLASSES.indices) {
+                    if (CLASSES[j].kotlin !== result[j]) throw AssertionError("Lost KClass of ${CLASSES[j]}")
+                }
+            }
+            result
+        })
+    }
+    start.countDown()
+
+    val results = futures.map { it.get() }
+    executor.shutdown()
+
+    // All threads and all subsequent lookups must see the same instances, i.e. no entry is lost because of a concurrent write
+    for (i in CLASSES.indices) {
+        val expected = CLASSES[i].kotlin
+        for (result in results) {
+            if (result[i] !== expected) return "Fail: different KClass instances for ${CLASSES[i]}"
+        }
+    }
+
+    return "OK"
+}
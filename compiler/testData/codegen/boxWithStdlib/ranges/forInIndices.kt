@@ -0,0 +1,57 @@
+import java.util.ArrayList
+
+fun sumOfIndices(c: Collection<*>): Int {
+    var result = 0
+    for (i in c.indices) {
+        result = result * 10 + i
+    }
+    return result
+}
+
+fun box(): String {
+    val ints = intArray(5, 6, 7)
+    var result = 0
+    for (i in ints.indices) {
+        result = result * 10 + i
+    }
+    if (result != 12) return "Fail int array: $result"
+
+    val strings = array("a", "b")
+    result = 0
+    for (i in strings.indices) {
+        result = result * 10 + i + 1
+    }
+    if (result != 12) return "Fail array: $result"
+
+    for (i in IntArray(0).indices) {
+        return "Fail empty array: $i"
+    }
+
+    val list = arrayListOf("a", "b", "c", "d")
+    if (sumOfIndices(list) != 123) return "Fail list: ${sumOfIndices(list)}"
+    if (sumOfIndices(ArrayList<String>()) != 0) return "Fail empty list"
+    if (sumOfIndices(setOf(1, 2)) != 1) return "Fail set"
+
+    result = 0
+    for (i in list.indices.reversed()) {
+        result = result * 10 + i
+    }
+    if (result != 3210) return "Fail reversed: $result"
+
+    result = 0
+    for (i in list.indices step 2) {
+        result = result * 10 + i
+    }
+    if (result != 2) return "Fail step: $result"
+
+    val any: Any = list
+    if (any is List<*>) {
+        result = 0
+        for (i in any.indices) {
+            result = result * 10 + i
+        }
+        if (result != 123) return "Fail smart cast: $result"
+    }
+
+    return "OK"
+}
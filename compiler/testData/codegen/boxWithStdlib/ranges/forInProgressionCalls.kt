@@ -0,0 +1,73 @@
+import java.util.ArrayList
+
+fun <T> collect(progression: Iterable<T>): List<T> {
+    val result = ArrayList<T>()
+    for (i in progression) {
+        result.add(i)
+    }
+    return result
+}
+
+fun box(): String {
+    val list1 = ArrayList<Int>()
+    for (i in (1..10 step 3).reversed()) {
+        list1.add(i)
+    }
+    if (list1 != listOf(10, 7, 4, 1) || list1 != collect((1..10 step 3).reversed())) return "Fail 1: $list1"
+
+    val list2 = ArrayList<Int>()
+    for (i in (10 downTo 1).reversed() step 4) {
+        list2.add(i)
+    }
+    if (list2 != listOf(1, 5, 9)) return "Fail 2: $list2"
+
+    val range = 1..5
+    val list3 = ArrayList<Int>()
+    for (i in range.reversed()) {
+        list3.add(i)
+    }
+    if (list3 != listOf(5, 4, 3, 2, 1)) return "Fail 3: $list3"
+
+    val progression = 10 downTo 1
+    val list4 = ArrayList<Int>()
+    for (i in progression step 3) {
+        list4.add(i)
+    }
+    if (list4 != listOf(10, 7, 4, 1) || list4 != collect(progression step 3)) return "Fail 4: $list4"
+
+    val list5 = ArrayList<Int>()
+    for (i in (progression step 4).reversed() step 2) {
+        list5.add(i)
+    }
+    if (list5 != collect((progression step 4).reversed() step 2)) return "Fail 5: $list5"
+
+    val list6 = ArrayList<Long>()
+    for (i in (Long.MAX_VALUE - 4 .. Long.MAX_VALUE step 2L).reversed()) {
+        list6.add(i)
+    }
+    if (list6 != listOf(Long.MAX_VALUE, Long.MAX_VALUE - 2, Long.MAX_VALUE - 4)) return "Fail 6: $list6"
+
+    val list7 = ArrayList<Int>()
+    for (i in Int.MIN_VALUE + 2 downTo Int.MIN_VALUE) {
+        list7.add(i)
+    }
+    if (list7 != listOf(Int.MIN_VALUE + 2, Int.MIN_VALUE + 1, Int.MIN_VALUE)) return "Fail 7: $list7"
+
+    val list8 = ArrayList<Char>()
+    for (c in ('a'..'e').reversed() step 2) {
+        list8.add(c)
+    }
+    if (list8 != listOf('e', 'c', 'a')) return "Fail 8: $list8"
+
+    try {
+        for (i in 10 downTo 1 step 0) {
+            return "Fail 9: no exception"
+        }
+        return "Fail 9: no exception"
+    }
+    catch (e: IllegalArgumentException) {
+        if (e.getMessage() != "Step must be positive, was: 0") return "Fail 9: ${e.getMessage()}"
+    }
+
+    return "OK"
+}
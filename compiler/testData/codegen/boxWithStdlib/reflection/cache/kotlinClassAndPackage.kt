@@ -0,0 +1,24 @@
+package test
+
+import kotlin.reflect.jvm.*
+
+class A
+
+fun box(): String {
+    val jClass = javaClass<A>()
+    val kClass = jClass.kotlin
+    if (kClass !== jClass.kotlin) return "Fail: a new KClass for each lookup"
+    if (kClass !== jClass.getField("\$kotlinClass").get(null)) return "Fail: lookup doesn't return the KClass of the class initializer"
+
+    val facade = Class.forName("test.TestPackage")
+    val kPackage = facade.kotlinPackage
+    if (kPackage !== facade.kotlinPackage) return "Fail: a new KPackage for each lookup"
+    if (kPackage !== facade.getField("\$kotlinPackage").get(null)) return "Fail: lookup doesn't return the KPackage of the facade initializer"
+
+    val foreign = javaClass<java.util.ArrayList<*>>().kotlin
+    if (foreign !== javaClass<java.util.ArrayList<*>>().kotlin) return "Fail: a new KClass for each lookup of a Java class"
+    System.gc()
+    if (foreign !== javaClass<java.util.ArrayList<*>>().kotlin) return "Fail: the KClass of a Java class is recreated after GC"
+
+    return "OK"
+}
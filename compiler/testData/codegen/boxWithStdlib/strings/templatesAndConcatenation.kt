@@ -0,0 +1,47 @@
+import kotlin.test.assertEquals
+
+class A(val name: String) {
+    override fun toString() = name
+}
+
+val log = StringBuilder()
+
+fun <T> logged(value: T): T {
+    log.append(value)
+    return value
+}
+
+fun box(): String {
+    val s: String? = null
+    val a: Any? = null
+    val b: Byte = 1
+    val sh: Short = 2
+    val c = 'c'
+    val d = -0.0
+    val f = 1.5f
+    val l = Long.MAX_VALUE
+    val sb: CharSequence = StringBuilder("sb")
+
+    assertEquals("null", "$s")
+    assertEquals("null!", "$s!")
+    assertEquals("nullnull", s + a)
+    assertEquals("x=null", "x=" + a)
+    assertEquals("1 2 c", "$b $sh $c")
+    assertEquals("-0.0/1.5", "$d/$f")
+    assertEquals("9223372036854775807", "$l")
+    assertEquals("[sb]", "[$sb]")
+    assertEquals("ab-c", "${A("a")}${A("b")}-$c")
+    assertEquals("a1b2.0c", "a" + 1 + "b${2.0}" + 'c')
+    assertEquals("true3", "${true}${1 + 2}")
+    assertEquals("(1, 2)", "(" + (b + 0) + ", " + (sh + 0) + ")")
+    assertEquals("x-y-z", "x".plus("-y").plus("-" + "z"))
+
+    val result = "${logged(1)}:${logged("two")}:" + logged(3) + "${logged('4')}"
+    assertEquals("1:two:34", result)
+    assertEquals("1two34", log.toString())
+
+    val arr = intArray(1)
+    assertEquals(true, "$arr".startsWith("[I@"))
+
+    return "OK"
+}
@@ -0,0 +1,64 @@
+import kotlin.test.assertEquals
+
+class A1
+class A2
+class A3
+class A4(val value: Int)
+class A5
+class A6
+class A7
+object A8
+open class B
+class C : B()
+
+fun foo(x: Any?): Int {
+    return when (x) {
+        is A1 -> 1
+        is A2, is A3 -> 23
+        is A4 -> x.value
+        is A5 -> 5
+        is A6 -> 6
+        is A1 -> -1
+        is A7 -> 7
+        is A8 -> 8
+        else -> 0
+    }
+}
+
+fun bar(x: Any?): String {
+    var result = "none"
+    when (x) {
+        is A1 -> result = "A1"
+        is A2 -> result = "A2"
+        is A3 -> result = "A3"
+        is A4 -> result = "A4"
+        is A5 -> result = "A5"
+        is A6 -> result = "A6"
+        is A7 -> result = "A7"
+        is A8 -> result = "A8"
+    }
+    return result
+}
+
+fun box(): String {
+    assertEquals(1, foo(A1()))
+    assertEquals(23, foo(A2()))
+    assertEquals(23, foo(A3()))
+    assertEquals(42, foo(A4(42)))
+    assertEquals(5, foo(A5()))
+    assertEquals(6, foo(A6()))
+    assertEquals(7, foo(A7()))
+    assertEquals(8, foo(A8))
+    assertEquals(0, foo(B()))
+    assertEquals(0, foo(C()))
+    assertEquals(0, foo("A1"))
+    assertEquals(0, foo(null))
+
+    assertEquals("A1", bar(A1()))
+    assertEquals("A5", bar(A5()))
+    assertEquals("A8", bar(A8))
+    assertEquals("none", bar(C()))
+    assertEquals("none", bar(null))
+
+    return "OK"
+}
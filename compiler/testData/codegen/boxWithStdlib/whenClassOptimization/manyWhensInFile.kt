@@ -0,0 +1,54 @@
+import kotlin.test.assertEquals
+
+enum class E { X Y }
+
+class A1
+class A2
+class A3
+class A4
+class A5
+class A6
+class A7
+class A8
+
+fun byEnum(e: E): Int = when (e) {
+    E.X -> 1
+    E.Y -> 2
+}
+
+fun byClass(x: Any): Int = when (x) {
+    is A1 -> 1
+    is A2 -> 2
+    is A3 -> 3
+    is A4 -> 4
+    is A5 -> 5
+    is A6 -> 6
+    is A7 -> 7
+    is A8 -> 8
+    else -> 0
+}
+
+class Holder {
+    fun byClass(x: Any): Int = when (x) {
+        is A8 -> 1
+        is A7 -> 2
+        is A6 -> 3
+        is A5 -> 4
+        is A4 -> 5
+        is A3 -> 6
+        is A2 -> 7
+        is A1 -> 8
+        else -> 0
+    }
+}
+
+fun box(): String {
+    assertEquals(2, byEnum(E.Y))
+    assertEquals(3, byClass(A3()))
+    assertEquals(0, byClass(Holder()))
+    assertEquals(6, Holder().byClass(A3()))
+    assertEquals(8, Holder().byClass(A1()))
+    assertEquals(0, Holder().byClass("A1"))
+
+    return "OK"
+}
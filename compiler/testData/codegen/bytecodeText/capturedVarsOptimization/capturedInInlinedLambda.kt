@@ -0,0 +1,15 @@
+fun test(list: List<Int>): String {
+    var sum = 0
+    var count = 0L
+    var last: String? = null
+    list.forEach {
+        sum += it
+        count++
+        last = it.toString()
+    }
+    return "$sum $count $last"
+}
+
+// 0 IntRef
+// 0 LongRef
+// 0 ObjectRef
@@ -0,0 +1,13 @@
+fun test(lists: List<List<Int>>): Int {
+    var result = 0
+    for (list in lists) {
+        var max = Int.MIN_VALUE
+        list.forEach {
+            if (it > max) max = it
+        }
+        result += max
+    }
+    return result
+}
+
+// 0 IntRef
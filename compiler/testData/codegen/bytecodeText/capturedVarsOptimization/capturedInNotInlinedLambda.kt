@@ -0,0 +1,15 @@
+fun run(f: () -> Unit) = f()
+
+fun test(list: List<Int>): Int {
+    var inlined = 0
+    var notInlined = 0
+    list.forEach {
+        inlined += it
+    }
+    run {
+        notInlined++
+    }
+    return inlined + notInlined
+}
+
+// 1 NEW kotlin/jvm/internal/Ref.IntRef
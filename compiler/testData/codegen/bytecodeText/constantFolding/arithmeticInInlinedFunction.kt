@@ -0,0 +1,14 @@
+inline fun scale(x: Int, factor: Int) = x * factor + 1
+
+inline fun shift(x: Long) = (x shl 4) - x
+
+fun foo(): Int = scale(20, 3)
+
+fun bar(): Long = shift(7L)
+
+// 1 IMUL
+// 1 IADD
+// 1 BIPUSH 61
+// 1 LSHL
+// 1 LSUB
+// 1 LDC 105
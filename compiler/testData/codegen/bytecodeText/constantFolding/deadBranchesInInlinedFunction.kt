@@ -0,0 +1,24 @@
+inline fun check(flag: Boolean, value: Int): String {
+    if (flag) return "on"
+    return if (value > 10) "big" else "small"
+}
+
+inline fun describe(x: Int): String =
+        when (x) {
+            1 -> "one"
+            2 -> "two"
+            else -> "many"
+        }
+
+fun foo() = check(true, 42)
+
+fun bar() = check(false, 42)
+
+fun baz() = describe(2)
+
+// 2 LDC "on"
+// 2 LDC "big"
+// 1 LDC "small"
+// 1 LDC "one"
+// 2 LDC "two"
+// 1 LDC "many"
@@ -0,0 +1,7 @@
+fun foo(): Int {
+    val x = 20
+    val y = 3
+    return x * y
+}
+
+// 1 IMUL
@@ -0,0 +1,30 @@
+inline fun <T> call(f: () -> T): T = f()
+
+inline fun forEachIndex(size: Int, f: (Int) -> Unit) {
+    for (i in 0..size - 1) {
+        f(i)
+    }
+}
+
+class Counter {
+    private var count = 0
+
+    var total = 0
+        private set
+
+    fun add(size: Int) {
+        forEachIndex(size) {
+            count++
+            total += it
+        }
+    }
+
+    fun current(): Int = call { call { count } }
+}
+
+// Inlined lambdas end up in the methods of Counter, so the fields are accessed directly and no synthetic accessors are needed
+// 0 \$b\$
+// 0 INVOKESPECIAL Counter\.set
+// 0 INVOKEVIRTUAL Counter\.get
+// 1 PUTFIELD Counter\.count
+// 1 PUTFIELD Counter\.total
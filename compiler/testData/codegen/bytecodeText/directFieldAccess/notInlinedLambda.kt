@@ -0,0 +1,9 @@
+class Counter {
+    private var count = 0
+
+    fun incrementer(): () -> Unit = { count++ }
+}
+
+// Lambda is a separate class, so the private field is accessed through synthetic accessors
+// 1 INVOKESTATIC Counter\.getCount\$b\$0
+// 1 INVOKESTATIC Counter\.setCount\$b\$0
@@ -0,0 +1,12 @@
+open class Base {
+    open var value = 0
+        private set
+
+    fun reset() {
+        value = 0
+    }
+}
+
+// Private setter can't be overridden, so the field is written directly
+// 0 INVOKESPECIAL Base\.setValue
+// 2 PUTFIELD Base\.value
@@ -0,0 +1,19 @@
+fun test(n: Int, m: Long): Long {
+    var result = 0L
+    for (i in n downTo 0) {
+        result += i
+    }
+    for (i in m downTo 0) {
+        result += i
+    }
+    for (c in 'z' downTo 'a') {
+        result += c.toLong()
+    }
+    return result
+}
+
+// 0 downTo
+// 0 iterator
+// 0 getStart
+// 0 getProgressionFinalElement
+// 1 IINC
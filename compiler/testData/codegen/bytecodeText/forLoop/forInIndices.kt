@@ -0,0 +1,19 @@
+fun test(a: IntArray, b: Array<String>, c: List<String>): Int {
+    var result = 0
+    for (i in a.indices) {
+        result += a[i]
+    }
+    for (i in b.indices) {
+        result += b[i].length
+    }
+    for (i in c.indices) {
+        result += c[i].length
+    }
+    return result
+}
+
+// 0 getIndices
+// 0 iterator
+// 0 getStart
+// 2 ARRAYLENGTH
+// 1 INVOKEINTERFACE java/util/Collection.size
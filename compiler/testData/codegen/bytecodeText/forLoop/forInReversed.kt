@@ -0,0 +1,18 @@
+fun test(a: Int, b: Int, list: List<String>): Int {
+    var result = 0
+    for (i in (a..b).reversed()) {
+        result += i
+    }
+    for (i in (a downTo b).reversed()) {
+        result += i
+    }
+    for (i in list.indices.reversed()) {
+        result += i
+    }
+    return result
+}
+
+// 0 reversed
+// 0 iterator
+// 0 getStart
+// 0 getProgressionFinalElement
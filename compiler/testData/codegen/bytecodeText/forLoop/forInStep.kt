@@ -0,0 +1,19 @@
+fun test(n: Int, s: Int, range: IntRange): Int {
+    var result = 0
+    for (i in 0..n step 2) {
+        result += i
+    }
+    for (i in n downTo 0 step s) {
+        result += i
+    }
+    for (i in range step s) {
+        result += i
+    }
+    return result
+}
+
+// 0 step
+// 0 iterator
+// 0 IntProgression
+// 1 getStart
+// 3 getProgressionFinalElement
@@ -13,4 +13,7 @@ fun box() : String {
     return "OK"
 }
 
-// 1 NEW java/lang/StringBuilder
\ No newline at end of file
+// Constant prefix is evaluated at compile time, so only A() is concatenated to it at runtime
+// 0 NEW java/lang/StringBuilder
+// 1 LDC "12345.06.07"
+// 1 INVOKEVIRTUAL java/lang/String.concat
\ No newline at end of file
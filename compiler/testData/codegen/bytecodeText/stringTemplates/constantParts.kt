@@ -0,0 +1,11 @@
+fun describe(name: String, count: Int) = "Name: ${"<"}$name${">"}, count: $count, ${1 + 1} and ${'x'}"
+
+// Adjacent constant parts are merged, the builder is sized for 26 constant characters and 2 values of 16 characters
+// 1 NEW java/lang/StringBuilder
+// 1 BIPUSH 58
+// 1 INVOKESPECIAL java/lang/StringBuilder.<init> \(I\)V
+// 1 LDC "Name: <"
+// 1 LDC ">, count: "
+// 1 LDC ", 2 and x"
+// 4 INVOKEVIRTUAL java/lang/StringBuilder.append \(Ljava/lang/String;\)Ljava/lang/StringBuilder
+// 1 INVOKEVIRTUAL java/lang/StringBuilder.append \(I\)Ljava/lang/StringBuilder
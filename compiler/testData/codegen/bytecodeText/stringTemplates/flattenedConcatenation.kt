@@ -0,0 +1,8 @@
+fun concatenate(a: String, b: Int, c: Any) = a + " " + b + " " + c + "${a}-$b"
+
+// String concatenations and nested templates are appended to one builder
+// 1 NEW java/lang/StringBuilder
+// 1 INVOKEVIRTUAL java/lang/StringBuilder.toString
+// 5 INVOKEVIRTUAL java/lang/StringBuilder.append \(Ljava/lang/String;\)Ljava/lang/StringBuilder
+// 2 INVOKEVIRTUAL java/lang/StringBuilder.append \(I\)Ljava/lang/StringBuilder
+// 1 INVOKEVIRTUAL java/lang/StringBuilder.append \(Ljava/lang/Object;\)Ljava/lang/StringBuilder
@@ -0,0 +1,13 @@
+fun prefix(x: Int) = "id=$x"
+
+fun suffix(s: String?) = "$s!"
+
+fun plus(a: String, b: Any?) = a + b
+
+fun single(x: Long) = "$x"
+
+// 0 NEW java/lang/StringBuilder
+// 3 INVOKEVIRTUAL java/lang/String.concat
+// 1 INVOKESTATIC java/lang/String.valueOf \(I\)
+// 1 INVOKESTATIC java/lang/String.valueOf \(J\)
+// 3 INVOKESTATIC java/lang/String.valueOf \(Ljava/lang/Object;\)
@@ -0,0 +1,15 @@
+class A1
+class A2
+class A3
+
+fun foo(x: Any): Int {
+    return when (x) {
+        is A1 -> 1
+        is A2 -> 2
+        is A3 -> 3
+        else -> 0
+    }
+}
+
+// 0 TABLESWITCH
+// 3 INSTANCEOF
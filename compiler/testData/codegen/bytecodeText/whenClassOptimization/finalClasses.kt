@@ -0,0 +1,25 @@
+class A1
+class A2
+class A3
+class A4
+class A5
+class A6
+class A7
+object A8
+
+fun foo(x: Any?): Int {
+    return when (x) {
+        is A1 -> 1
+        is A2, is A3 -> 23
+        is A4 -> 4
+        is A5 -> 5
+        is A6 -> 6
+        is A7 -> 7
+        is A8 -> 8
+        else -> 0
+    }
+}
+
+// 1 TABLESWITCH
+// 0 INSTANCEOF
+// 1 INVOKEVIRTUAL kotlin/jvm/internal/ClassSwitchMapping.indexOf
@@ -0,0 +1,14 @@
+package d
+
+class P<A, B>(val first: A, val second: B)
+
+fun <A, B> p(a: A, b: B): P<A, B> = P(a, b)
+fun <T> id(t: T): T = t
+fun <A, B, C> nest(a: A, b: B, c: C): P<A, P<B, C>> = p(a, p(b, c))
+fun <T : Comparable<T>> max(a: T, b: T): T = if (a > b) a else b
+
+fun chain() = id(p(1, p("", p(1.0, p(1L, p('c', p(true, id(nest(1, "", 'c')))))))))
+
+fun chainWithExpectedType(): P<Int, P<String, P<Double, P<Long, Any>>>> = p(1, p("", p(1.0, p(1L, id(p(1, ""))))))
+
+fun chainWithBounds() = p(max(1, 2), p(max("", id("")), p(max(id(1L), id(id(2L))), nest(max('a', 'b'), id(id(id(""))), max(1.0, 2.0)))))
@@ -0,0 +1,19 @@
+package c
+
+fun foo(s: String) = s
+fun foo(a: Any) = a
+fun foo(i: Int) = i
+
+fun test(s: String, a: Any, n: String?) {
+    foo(s)
+    foo(a)
+    foo(s)
+    foo(a)
+    if (a is String) {
+        foo(<!DEBUG_INFO_SMARTCAST!>a<!>)
+    }
+    foo(a)
+    <!NONE_APPLICABLE!>foo<!>(n)
+    foo(s)
+    <!NONE_APPLICABLE!>foo<!>(n)
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.asJava;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.lang.resolve.lazy.KotlinTestWithEnvironment;
+
+import java.io.File;
+import java.io.IOException;
+
+public class LightClassStubCacheTest extends KotlinTestWithEnvironment {
+    private static final long EIGHT_DAYS_MS = 8L * 24 * 60 * 60 * 1000;
+
+    @Override
+    protected JetCoreEnvironment createEnvironment() {
+        return createEnvironmentWithMockJdk(ConfigurationKind.JDK_ONLY);
+    }
+
+    public void testOnlyUnusedEntriesAreDeleted() throws IOException {
+        File directory = JetTestUtils.tmpDirForTest(this);
+        long old = System.currentTimeMillis() - EIGHT_DAYS_MS;
+
+        File unusedEntry = createFile(directory, "0123456789abcdef0123456789abcdef.stubs", old);
+        File unusedTemp = createFile(directory, "0123456789abcdef0123456789abcdef42.stubs.tmp", old);
+        File recentEntry = createFile(directory, "fedcba9876543210fedcba9876543210.stubs", System.currentTimeMillis());
+        File otherFile = createFile(directory, "notes.txt", old);
+        File otherTemp = createFile(directory, "build.tmp", old);
+        File subdirectory = new File(directory, "classes.stubs");
+        assertTrue(subdirectory.mkdir());
+        assertTrue(subdirectory.setLastModified(old));
+
+        new LightClassStubCache(directory, "fingerprint");
+
+        assertFalse(unusedEntry.exists());
+        assertFalse(unusedTemp.exists());
+        assertTrue(recentEntry.exists());
+        assertTrue(otherFile.exists());
+        assertTrue(otherTemp.exists());
+        assertTrue(subdirectory.exists());
+    }
+
+    @NotNull
+    private static File createFile(@NotNull File directory, @NotNull String name, long lastModified) throws IOException {
+        File file = new File(directory, name);
+        assertTrue(file.createNewFile());
+        assertTrue(file.setLastModified(lastModified));
+        return file;
+    }
+}
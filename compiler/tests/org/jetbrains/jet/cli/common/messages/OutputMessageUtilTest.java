@@ -86,6 +86,22 @@ public class OutputMessageUtilTest extends TestCase {
         doTest("/foo/bar.class");
     }
 
+    public void testUnchanged() throws Exception {
+        File outputFile = new File("foo/bar.class");
+        List<File> sourceFiles = Arrays.asList(new File("foo/bar.kt"));
+
+        OutputMessageUtil.Output changed = OutputMessageUtil.parseOutputMessage(OutputMessageUtil.formatOutputMessage(sourceFiles, outputFile));
+        assertNotNull(changed);
+        assertTrue(changed.changed);
+
+        OutputMessageUtil.Output unchanged =
+                OutputMessageUtil.parseOutputMessage(OutputMessageUtil.formatOutputMessage(sourceFiles, outputFile, false));
+        assertNotNull(unchanged);
+        assertFalse(unchanged.changed);
+        assertEquals(sourceFiles, unchanged.sourceFiles);
+        assertEquals(outputFile, unchanged.outputFile);
+    }
+
     public void testWrongStart() throws Exception {
         assertNull(OutputMessageUtil.parseOutputMessage("foo\nOutput:\nfoo"));
     }
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.cli.common.output;
+
+import com.intellij.openapi.util.io.FileUtil;
+import junit.framework.TestCase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.OutputFile;
+import org.jetbrains.jet.SimpleOutputFileCollection;
+import org.jetbrains.jet.cli.common.messages.CompilerMessageLocation;
+import org.jetbrains.jet.cli.common.messages.CompilerMessageSeverity;
+import org.jetbrains.jet.cli.common.messages.MessageCollector;
+import org.jetbrains.jet.cli.common.messages.OutputMessageUtil;
+import org.jetbrains.jet.cli.common.output.outputUtils.OutputUtilsPackage;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OutputUtilsTest extends TestCase {
+    public void testWriteAllIfChanged() throws Exception {
+        File outputDir = JetTestUtils.tmpDirForTest(this);
+        File unchanged = new File(outputDir, "Unchanged.class");
+        File changed = new File(outputDir, "Changed.class");
+        File added = new File(outputDir, "Added.class");
+        FileUtil.writeToFile(unchanged, "same");
+        FileUtil.writeToFile(changed, "old");
+
+        // Whole seconds, because some file systems don't keep milliseconds
+        long longAgo = (System.currentTimeMillis() - 24 * 60 * 60 * 1000) / 1000 * 1000;
+        assertTrue(unchanged.setLastModified(longAgo));
+        assertTrue(changed.setLastModified(longAgo));
+
+        final Map<File, Boolean> reported = new HashMap<File, Boolean>();
+        SimpleOutputFileCollection outputFiles = new SimpleOutputFileCollection(Arrays.<OutputFile>asList(
+                new TestOutputFile("Unchanged.class", "same"),
+                new TestOutputFile("Changed.class", "new"),
+                new TestOutputFile("Added.class", "new")
+        ));
+        OutputUtilsPackage.writeAllIfChanged(outputFiles, outputDir, new MessageCollector() {
+            @Override
+            public void report(
+                    @NotNull CompilerMessageSeverity severity, @NotNull String message, @NotNull CompilerMessageLocation location
+            ) {
+                OutputMessageUtil.Output output = OutputMessageUtil.parseOutputMessage(message);
+                assertNotNull(message, output);
+                reported.put(output.outputFile, output.changed);
+            }
+        });
+
+        assertEquals(Boolean.FALSE, reported.get(unchanged));
+        assertEquals("same", FileUtil.loadFile(unchanged));
+        assertEquals(longAgo, unchanged.lastModified());
+
+        assertEquals(Boolean.TRUE, reported.get(changed));
+        assertEquals("new", FileUtil.loadFile(changed));
+        assertTrue(changed.lastModified() > longAgo);
+
+        assertEquals(Boolean.TRUE, reported.get(added));
+        assertEquals("new", FileUtil.loadFile(added));
+    }
+
+    private static class TestOutputFile implements OutputFile {
+        private final String relativePath;
+        private final String content;
+
+        private TestOutputFile(@NotNull String relativePath, @NotNull String content) {
+            this.relativePath = relativePath;
+            this.content = content;
+        }
+
+        @NotNull
+        @Override
+        public String getRelativePath() {
+            return relativePath;
+        }
+
+        @NotNull
+        @Override
+        public List<File> getSourceFiles() {
+            return Collections.singletonList(new File(relativePath.replace(".class", ".kt")));
+        }
+
+        @NotNull
+        @Override
+        public byte[] asByteArray() {
+            return content.getBytes();
+        }
+
+        @NotNull
+        @Override
+        public String asText() {
+            return content;
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package org.jetbrains.jet.cli.jvm;
 
+import com.intellij.openapi.util.io.FileUtil;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.jet.cli.CliBaseTest;
 import org.jetbrains.jet.lang.resolve.java.PackageClassUtils;
 import org.jetbrains.jet.lang.resolve.name.FqName;
@@ -23,6 +25,12 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 public class K2JvmCliTest extends CliBaseTest {
     @Test
@@ -61,4 +69,63 @@ public class K2JvmCliTest extends CliBaseTest {
     public void conflictingOverloads() throws Exception {
         executeCompilerCompareOutputJVM();
     }
+
+    @Test
+    public void preloadHeaders() throws Exception {
+        executeCompilerCompareOutputJVM();
+
+        Assert.assertTrue(new File(tmpdir.getTmpDir(), PackageClassUtils.getPackageClassName(FqName.ROOT) + ".class").isFile());
+    }
+
+    @Test
+    public void lightClassCache() throws Exception {
+        executeCompilerCompareOutputJVM();
+
+        // Derived.java refers to Base, so the light class for Base must have been generated and cached
+        File cacheDirectory = new File(tmpdir.getTmpDir(), "lightClassCache");
+        File[] entries = cacheDirectory.listFiles();
+        Assert.assertTrue(entries != null && entries.length > 0);
+        Map<String, byte[]> firstOutput = loadClassFiles(tmpdir.getTmpDir());
+
+        // A trailing byte is ignored when an entry is read, but it's lost if the entry is written anew.
+        // So an entry which has the byte and a new timestamp after the second compilation was read from the cache
+        long longAgo = System.currentTimeMillis() - 24 * 60 * 60 * 1000;
+        Map<File, Long> lengths = new HashMap<File, Long>();
+        for (File entry : entries) {
+            FileOutputStream output = new FileOutputStream(entry, true);
+            try {
+                output.write(0);
+            }
+            finally {
+                output.close();
+            }
+            Assert.assertTrue(entry.setLastModified(longAgo));
+            lengths.put(entry, entry.length());
+        }
+
+        executeCompilerCompareOutputJVM();
+
+        File[] entriesAfterSecondCompilation = cacheDirectory.listFiles();
+        Assert.assertNotNull(entriesAfterSecondCompilation);
+        Assert.assertEquals(entries.length, entriesAfterSecondCompilation.length);
+        for (File entry : entries) {
+            Assert.assertEquals("Cache entry was written anew: " + entry, lengths.get(entry).longValue(), entry.length());
+            Assert.assertTrue("Cache entry was not read: " + entry, entry.lastModified() > longAgo);
+        }
+
+        Map<String, byte[]> secondOutput = loadClassFiles(tmpdir.getTmpDir());
+        Assert.assertEquals(firstOutput.keySet(), secondOutput.keySet());
+        for (Map.Entry<String, byte[]> classFile : firstOutput.entrySet()) {
+            Assert.assertArrayEquals(classFile.getKey(), classFile.getValue(), secondOutput.get(classFile.getKey()));
+        }
+    }
+
+    @NotNull
+    private static Map<String, byte[]> loadClassFiles(@NotNull File directory) throws IOException {
+        Map<String, byte[]> result = new TreeMap<String, byte[]>();
+        for (File file : FileUtil.findFilesByMask(Pattern.compile(".*\\.class"), directory)) {
+            result.put(FileUtil.getRelativePath(directory, file), FileUtil.loadFileBytes(file));
+        }
+        return result;
+    }
 }
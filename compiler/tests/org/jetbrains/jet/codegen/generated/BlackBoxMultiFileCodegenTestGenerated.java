@@ -101,4 +101,10 @@ public class BlackBoxMultiFileCodegenTestGenerated extends AbstractBlackBoxCodeg
         String fileName = JetTestUtils.navigationMetadata("compiler/testData/codegen/boxMultiFile/simple/");
         doTestMultiFile(fileName);
     }
+
+    @TestMetadata("whenByClassesInOtherFile")
+    public void testWhenByClassesInOtherFile() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/codegen/boxMultiFile/whenByClassesInOtherFile/");
+        doTestMultiFile(fileName);
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.reflection;
+
+import junit.framework.TestCase;
+import kotlin.reflect.jvm.internal.ClassCache;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ClassCacheTest extends TestCase {
+    private static class Value {
+        private final Class<?> jClass;
+
+        private Value(@NotNull Class<?> jClass) {
+            this.jClass = jClass;
+        }
+    }
+
+    public static class Sample {
+    }
+
+    private static class TestCache extends ClassCache<Value> {
+        @NotNull
+        @Override
+        protected Class<?> getJClass(@NotNull Value value) {
+            return value.jClass;
+        }
+
+        @NotNull
+        @Override
+        protected Value create(@NotNull Class<?> jClass) {
+            return new Value(jClass);
+        }
+    }
+
+    public void testGetReturnsSameValue() {
+        TestCache cache = new TestCache();
+        Value value = cache.get(String.class);
+        assertSame(value, cache.get(String.class));
+        assertNotSame(value, cache.get(Integer.class));
+    }
+
+    public void testPutKeepsExistingValue() {
+        TestCache cache = new TestCache();
+        Value first = new Value(Sample.class);
+        assertSame(first, cache.put(Sample.class, first));
+        assertSame(first, cache.put(Sample.class, new Value(Sample.class)));
+        assertSame(first, cache.get(Sample.class));
+    }
+
+    public void testValueOfBootstrapClassIsNotCollected() {
+        TestCache cache = new TestCache();
+        WeakReference<Value> reference = new WeakReference<Value>(cache.get(String.class));
+        System.gc();
+        // The value is held strongly, so the reference can't be cleared no matter whether GC has run
+        assertNotNull(reference.get());
+        assertSame(reference.get(), cache.get(String.class));
+    }
+
+    public void testSameNameInDifferentClassLoaders() throws Exception {
+        URL location = Sample.class.getProtectionDomain().getCodeSource().getLocation();
+        Class<?> otherSample = Class.forName(Sample.class.getName(), false, new URLClassLoader(new URL[] {location}, null));
+        assertNotSame(Sample.class, otherSample);
+
+        TestCache cache = new TestCache();
+        Value own = cache.get(Sample.class);
+        Value other = cache.get(otherSample);
+        assertNotSame(own, other);
+        assertSame(Sample.class, own.jClass);
+        assertSame(otherSample, other.jClass);
+        assertSame(own, cache.get(Sample.class));
+        assertSame(other, cache.get(otherSample));
+    }
+
+    public void testConcurrentLookupsGiveOneValue() throws Exception {
+        final TestCache cache = new TestCache();
+        final Class<?>[] classes = {Sample.class, String.class, Integer.class, List.class, ArrayList.class, Value.class};
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Value[]>> futures = new ArrayList<Future<Value[]>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Value[]>() {
+                    @Override
+                    public Value[] call() {
+                        Value[] result = new Value[classes.length];
+                        for (int j = 0; j < classes.length; j++) {
+                            result[j] = cache.get(classes[j]);
+                        }
+                        return result;
+                    }
+                }));
+            }
+
+            for (Future<Value[]> future : futures) {
+                Value[] values = future.get();
+                for (int j = 0; j < classes.length; j++) {
+                    assertSame(classes[j].getName(), cache.get(classes[j]), values[j]);
+                }
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.reflection
+
+import java.io.File
+import java.util.ArrayList
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.jar.JarFile
+import kotlin.reflect.jvm.internal.KClassImpl
+import kotlin.reflect.jvm.internal.kClass
+import org.jetbrains.jet.test.util.measure
+import org.jetbrains.jet.test.util.printBenchmarkSink
+
+// Compares the rate at which KClass instances for all java.util classes of the JDK runtime are obtained by several threads
+// through the cache (as Class.kotlin and property references to Java fields do) and by creating a new KClassImpl each time
+fun main(args: Array<String>) {
+    val threads = if (args.isNotEmpty()) args[0].toInt() else Runtime.getRuntime().availableProcessors()
+    val classes = loadClasses(File(System.getProperty("java.home"), "lib/rt.jar"), "java/util/")
+    println("${classes.size} classes, $threads threads")
+
+    val iterations = 20
+    val executor = Executors.newFixedThreadPool(threads)
+    try {
+        val cached = measure(iterations) {
+            runInParallel(executor, threads) { classes.forEach { kClass(it) } }
+        }
+        val created = measure(iterations) {
+            runInParallel(executor, threads) { classes.forEach { KClassImpl(it, false) } }
+        }
+        println("Cached: %.1f ms, %.0f lookups/s".format(cached, classes.size * threads * 1000 / cached))
+        println("Created: %.1f ms, %.0f lookups/s".format(created, classes.size * threads * 1000 / created))
+        printBenchmarkSink()
+    }
+    finally {
+        executor.shutdown()
+    }
+}
+
+private fun loadClasses(jar: File, prefix: String): List<Class<Any?>> {
+    val result = ArrayList<Class<Any?>>()
+    JarFile(jar) use { jarFile ->
+        for (entry in jarFile.entries()) {
+            val name = entry.getName()
+            if (name.startsWith(prefix) && name.endsWith(".class")) {
+                result.add(Class.forName(name.trimTrailing(".class").replace('/', '.'), false, null) as Class<Any?>)
+            }
+        }
+    }
+    return result
+}
+
+private fun runInParallel(executor: ExecutorService, threads: Int, task: () -> Unit) {
+    (1..threads).map { executor.submit(Callable<Unit> { task() }) }.forEach { it.get() }
+}
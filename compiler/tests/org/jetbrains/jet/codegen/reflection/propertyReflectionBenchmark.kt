@@ -0,0 +1,58 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen.reflection
+
+import kotlin.reflect.KMutableMemberProperty
+import kotlin.reflect.jvm.internal.kClassFromKotlin
+import org.jetbrains.jet.test.util.measure
+import org.jetbrains.jet.test.util.printBenchmarkSink
+
+class BenchmarkPoint(var x: Int, var y: Int)
+
+// Compares the rate at which a property of many objects is read and written with plain Java reflection, through a Kotlin property
+// obtained once, and through a Kotlin property obtained on each access, as property references in a loop or in mapping libraries do
+fun main(args: Array<String>) {
+    val points = Array(100000) { BenchmarkPoint(it, -it) }
+    val iterations = 20
+
+    val getter = javaClass<BenchmarkPoint>().getMethod("getX")
+    val setter = javaClass<BenchmarkPoint>().getMethod("setX", Integer.TYPE)
+    val javaTime = measure(iterations) {
+        for (point in points) setter.invoke(point, getter.invoke(point) as Int + 1)
+    }
+
+    val kClass = kClassFromKotlin(javaClass<BenchmarkPoint>())
+    val property = kClass.mutableMemberProperty("x") as KMutableMemberProperty<BenchmarkPoint, Any?>
+    val kotlinTime = measure(iterations) {
+        for (point in points) property.set(point, property.get(point) as Int + 1)
+    }
+
+    val kotlinPerAccessTime = measure(iterations) {
+        for (point in points) {
+            val p = kClass.mutableMemberProperty("x") as KMutableMemberProperty<BenchmarkPoint, Any?>
+            p.set(point, p.get(point) as Int + 1)
+        }
+    }
+
+    if (points[1].x != 1 + 3 * 2 * iterations) throw AssertionError("Unexpected value: ${points[1].x}")
+
+    println("${points.size} objects")
+    println("Java reflection: %.1f ms".format(javaTime))
+    println("Kotlin reflection: %.1f ms".format(kotlinTime))
+    println("Kotlin reflection, property per access: %.1f ms".format(kotlinPerAccessTime))
+    printBenchmarkSink()
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.codegen
+
+import org.jetbrains.jet.test.util.measure
+import org.jetbrains.jet.test.util.printBenchmarkSink
+
+// Compares the code generated for string templates before and after merging of constant parts and sizing of the builder,
+// on a JSON-like template, and the code generated for a template of two parts with and without a builder
+fun main(args: Array<String>) {
+    val count = if (args.isNotEmpty()) args[0].toInt() else 1000000
+    val names = Array(16) { "name$it" }
+
+    val iterations = 20
+    val jsonBefore = measure(iterations) { (0..count - 1).fold(0) { sum, i -> sum + jsonBefore(i, names[i and 15], i * 0.5).length() } }
+    val jsonAfter = measure(iterations) { (0..count - 1).fold(0) { sum, i -> sum + jsonAfter(i, names[i and 15], i * 0.5).length() } }
+    val prefixBefore = measure(iterations) { (0..count - 1).fold(0) { sum, i -> sum + prefixBefore(i).length() } }
+    val prefixAfter = measure(iterations) { (0..count - 1).fold(0) { sum, i -> sum + prefixAfter(i).length() } }
+
+    println("JSON template: %.1f ms before, %.1f ms after".format(jsonBefore, jsonAfter))
+    println("Two-part template: %.1f ms before, %.1f ms after".format(prefixBefore, prefixAfter))
+    printBenchmarkSink()
+}
+
+// "{\"id\": $id, \"name\": \"$name\", \"score\": $score}" used to be generated with one append per literal and escape
+private fun jsonBefore(id: Int, name: String, score: Double): String =
+        StringBuilder().append("{").append("\"").append("id").append("\"").append(": ").append(id)
+                .append(", ").append("\"").append("name").append("\"").append(": ").append("\"").append(name).append("\"")
+                .append(", ").append("\"").append("score").append("\"").append(": ").append(score).append("}").toString()
+
+private fun jsonAfter(id: Int, name: String, score: Double): String =
+        StringBuilder(79).append("{\"id\": ").append(id).append(", \"name\": \"").append(name)
+                .append("\", \"score\": ").append(score).append("}").toString()
+
+private fun prefixBefore(id: Int): String = StringBuilder().append("id=").append(id).toString()
+
+private fun prefixAfter(id: Int): String = ("id=" as java.lang.String).concat(java.lang.String.valueOf(id))
@@ -6215,6 +6215,35 @@ public final class DebugProtoBuf {
      * </pre>
      */
     org.jetbrains.jet.descriptors.serialization.DebugProtoBuf.Class.PrimaryConstructorOrBuilder getPrimaryConstructorOrBuilder();
+
+    // repeated int32 member_index = 14 [packed = true];
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getMemberIndexList();
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndexCount();
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndex(int index);
   }
   /**
    * Protobuf type {@code org.jetbrains.jet.descriptors.serialization.Class}
@@ -6374,6 +6403,27 @@ public final class DebugProtoBuf {
               bitField0_ |= 0x00000010;
               break;
             }
+            case 112: {
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              memberIndex_.add(input.readInt32());
+              break;
+            }
+            case 114: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400) && input.getBytesUntilLimit() > 0) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                memberIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -6397,6 +6447,9 @@ public final class DebugProtoBuf {
         if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
           enumEntry_ = java.util.Collections.unmodifiableList(enumEntry_);
         }
+        if (((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -8094,6 +8147,45 @@ public final class DebugProtoBuf {
       return primaryConstructor_;
     }
 
+    // repeated int32 member_index = 14 [packed = true];
+    public static final int MEMBER_INDEX_FIELD_NUMBER = 14;
+    private java.util.List<java.lang.Integer> memberIndex_;
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getMemberIndexList() {
+      return memberIndex_;
+    }
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndexCount() {
+      return memberIndex_.size();
+    }
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndex(int index) {
+      return memberIndex_.get(index);
+    }
+    private int memberIndexMemoizedSerializedSize = -1;
+
     private void initFields() {
       flags_ = 0;
       extraVisibility_ = "";
@@ -8105,6 +8197,7 @@ public final class DebugProtoBuf {
       member_ = java.util.Collections.emptyList();
       enumEntry_ = java.util.Collections.emptyList();
       primaryConstructor_ = org.jetbrains.jet.descriptors.serialization.DebugProtoBuf.Class.PrimaryConstructor.getDefaultInstance();
+      memberIndex_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -8182,6 +8275,13 @@ public final class DebugProtoBuf {
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeMessage(13, primaryConstructor_);
       }
+      if (getMemberIndexList().size() > 0) {
+        output.writeRawVarint32(114);
+        output.writeRawVarint32(memberIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < memberIndex_.size(); i++) {
+        output.writeInt32NoTag(memberIndex_.get(i));
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -8241,6 +8341,20 @@ public final class DebugProtoBuf {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(13, primaryConstructor_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < memberIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(memberIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getMemberIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        memberIndexMemoizedSerializedSize = dataSize;
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -8402,6 +8516,8 @@ public final class DebugProtoBuf {
           primaryConstructorBuilder_.clear();
         }
         bitField0_ = (bitField0_ & ~0x00000200);
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
         return this;
       }
 
@@ -8495,6 +8611,11 @@ public final class DebugProtoBuf {
         } else {
           result.primaryConstructor_ = primaryConstructorBuilder_.build();
         }
+        if (((bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+          bitField0_ = (bitField0_ & ~0x00000400);
+        }
+        result.memberIndex_ = memberIndex_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -8626,6 +8747,16 @@ public final class DebugProtoBuf {
         if (other.hasPrimaryConstructor()) {
           mergePrimaryConstructor(other.getPrimaryConstructor());
         }
+        if (!other.memberIndex_.isEmpty()) {
+          if (memberIndex_.isEmpty()) {
+            memberIndex_ = other.memberIndex_;
+            bitField0_ = (bitField0_ & ~0x00000400);
+          } else {
+            ensureMemberIndexIsMutable();
+            memberIndex_.addAll(other.memberIndex_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -10080,6 +10211,107 @@ public final class DebugProtoBuf {
         return primaryConstructorBuilder_;
       }
 
+      // repeated int32 member_index = 14 [packed = true];
+      private java.util.List<java.lang.Integer> memberIndex_ = java.util.Collections.emptyList();
+      private void ensureMemberIndexIsMutable() {
+        if (!((bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = new java.util.ArrayList<java.lang.Integer>(memberIndex_);
+          bitField0_ |= 0x00000400;
+         }
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getMemberIndexList() {
+        return java.util.Collections.unmodifiableList(memberIndex_);
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndexCount() {
+        return memberIndex_.size();
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndex(int index) {
+        return memberIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder setMemberIndex(
+          int index, int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addMemberIndex(int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addAllMemberIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureMemberIndexIsMutable();
+        super.addAll(values, memberIndex_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder clearMemberIndex() {
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:org.jetbrains.jet.descriptors.serialization.Class)
     }
 
@@ -10118,6 +10350,35 @@ public final class DebugProtoBuf {
      */
     org.jetbrains.jet.descriptors.serialization.DebugProtoBuf.CallableOrBuilder getMemberOrBuilder(
         int index);
+
+    // repeated int32 member_index = 2 [packed = true];
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getMemberIndexList();
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndexCount();
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndex(int index);
   }
   /**
    * Protobuf type {@code org.jetbrains.jet.descriptors.serialization.Package}
@@ -10178,6 +10439,27 @@ public final class DebugProtoBuf {
               member_.add(input.readMessage(org.jetbrains.jet.descriptors.serialization.DebugProtoBuf.Callable.PARSER, extensionRegistry));
               break;
             }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              memberIndex_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                memberIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -10189,6 +10471,9 @@ public final class DebugProtoBuf {
         if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
           member_ = java.util.Collections.unmodifiableList(member_);
         }
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+        }
         this.unknownFields = unknownFields.build();
         makeExtensionsImmutable();
       }
@@ -10256,8 +10541,48 @@ public final class DebugProtoBuf {
       return member_.get(index);
     }
 
+    // repeated int32 member_index = 2 [packed = true];
+    public static final int MEMBER_INDEX_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> memberIndex_;
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getMemberIndexList() {
+      return memberIndex_;
+    }
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndexCount() {
+      return memberIndex_.size();
+    }
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndex(int index) {
+      return memberIndex_.get(index);
+    }
+    private int memberIndexMemoizedSerializedSize = -1;
+
     private void initFields() {
       member_ = java.util.Collections.emptyList();
+      memberIndex_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -10280,6 +10605,13 @@ public final class DebugProtoBuf {
       for (int i = 0; i < member_.size(); i++) {
         output.writeMessage(1, member_.get(i));
       }
+      if (getMemberIndexList().size() > 0) {
+        output.writeRawVarint32(18);
+        output.writeRawVarint32(memberIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < memberIndex_.size(); i++) {
+        output.writeInt32NoTag(memberIndex_.get(i));
+      }
       getUnknownFields().writeTo(output);
     }
 
@@ -10293,6 +10625,20 @@ public final class DebugProtoBuf {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(1, member_.get(i));
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < memberIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(memberIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getMemberIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        memberIndexMemoizedSerializedSize = dataSize;
+      }
       size += getUnknownFields().getSerializedSize();
       memoizedSerializedSize = size;
       return size;
@@ -10416,6 +10762,8 @@ public final class DebugProtoBuf {
         } else {
           memberBuilder_.clear();
         }
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -10452,6 +10800,11 @@ public final class DebugProtoBuf {
         } else {
           result.member_ = memberBuilder_.build();
         }
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.memberIndex_ = memberIndex_;
         onBuilt();
         return result;
       }
@@ -10493,6 +10846,16 @@ public final class DebugProtoBuf {
             }
           }
         }
+        if (!other.memberIndex_.isEmpty()) {
+          if (memberIndex_.isEmpty()) {
+            memberIndex_ = other.memberIndex_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureMemberIndexIsMutable();
+            memberIndex_.addAll(other.memberIndex_);
+          }
+          onChanged();
+        }
         this.mergeUnknownFields(other.getUnknownFields());
         return this;
       }
@@ -10766,6 +11129,107 @@ public final class DebugProtoBuf {
         return memberBuilder_;
       }
 
+      // repeated int32 member_index = 2 [packed = true];
+      private java.util.List<java.lang.Integer> memberIndex_ = java.util.Collections.emptyList();
+      private void ensureMemberIndexIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = new java.util.ArrayList<java.lang.Integer>(memberIndex_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getMemberIndexList() {
+        return java.util.Collections.unmodifiableList(memberIndex_);
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndexCount() {
+        return memberIndex_.size();
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndex(int index) {
+        return memberIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder setMemberIndex(
+          int index, int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.set(index, value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addMemberIndex(int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.add(value);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addAllMemberIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureMemberIndexIsMutable();
+        super.addAll(values, memberIndex_);
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder clearMemberIndex() {
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        onChanged();
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:org.jetbrains.jet.descriptors.serialization.Package)
     }
 
@@ -14424,7 +14888,7 @@ public final class DebugProtoBuf {
       ".TypeParameter.Variance:\003INV\022F\n\013upper_bo" +
       "und\030\005 \003(\01321.org.jetbrains.jet.descriptor" +
       "s.serialization.Type\"$\n\010Variance\022\006\n\002IN\020\000" +
-      "\022\007\n\003OUT\020\001\022\007\n\003INV\020\002\"\254\006\n\005Class\022\020\n\005flags\030\001 " +
+      "\022\007\n\003OUT\020\001\022\007\n\003INV\020\002\"\306\006\n\005Class\022\020\n\005flags\030\001 " +
       "\001(\005:\0010\022\030\n\020extra_visibility\030\002 \001(\t\022\017\n\007fq_n" +
       "ame\030\003 \002(\005\022T\n\014class_object\030\004 \001(\0132>.org.je" +
       "tbrains.jet.descriptors.serialization.Cl" +
@@ -14437,40 +14901,41 @@ public final class DebugProtoBuf {
       "tors.serialization.Callable\022\022\n\nenum_entr" +
       "y\030\014 \003(\005\022b\n\023primary_constructor\030\r \001(\0132E.o" +
       "rg.jetbrains.jet.descriptors.serializati" +
-      "on.Class.PrimaryConstructor\032O\n\013ClassObje" +
-      "ct\022@\n\004data\030\001 \001(\01322.org.jetbrains.jet.des",
-      "criptors.serialization.Class\032Y\n\022PrimaryC" +
-      "onstructor\022C\n\004data\030\001 \001(\01325.org.jetbrains" +
-      ".jet.descriptors.serialization.Callable\"" +
-      "p\n\004Kind\022\t\n\005CLASS\020\000\022\t\n\005TRAIT\020\001\022\016\n\nENUM_CL" +
-      "ASS\020\002\022\016\n\nENUM_ENTRY\020\003\022\024\n\020ANNOTATION_CLAS" +
-      "S\020\004\022\n\n\006OBJECT\020\005\022\020\n\014CLASS_OBJECT\020\006\"P\n\007Pac" +
-      "kage\022E\n\006member\030\001 \003(\01325.org.jetbrains.jet" +
-      ".descriptors.serialization.Callable\"\220\006\n\010" +
-      "Callable\022\r\n\005flags\030\001 \001(\005\022\030\n\020extra_visibil" +
-      "ity\030\002 \001(\t\022\024\n\014getter_flags\030\t \001(\005\022\024\n\014sette",
-      "r_flags\030\n \001(\005\022R\n\016type_parameter\030\004 \003(\0132:." +
-      "org.jetbrains.jet.descriptors.serializat" +
-      "ion.TypeParameter\022H\n\rreceiver_type\030\005 \001(\013" +
-      "21.org.jetbrains.jet.descriptors.seriali" +
-      "zation.Type\022\014\n\004name\030\006 \002(\005\022]\n\017value_param" +
-      "eter\030\007 \003(\0132D.org.jetbrains.jet.descripto" +
-      "rs.serialization.Callable.ValueParameter" +
-      "\022F\n\013return_type\030\010 \002(\01321.org.jetbrains.je" +
-      "t.descriptors.serialization.Type\032\305\001\n\016Val" +
-      "ueParameter\022\r\n\005flags\030\001 \001(\005\022\014\n\004name\030\002 \002(\005",
-      "\022?\n\004type\030\003 \002(\01321.org.jetbrains.jet.descr" +
-      "iptors.serialization.Type\022N\n\023vararg_elem" +
-      "ent_type\030\004 \001(\01321.org.jetbrains.jet.descr" +
-      "iptors.serialization.Type*\005\010d\020\310\001\"Q\n\nMemb" +
-      "erKind\022\017\n\013DECLARATION\020\000\022\021\n\rFAKE_OVERRIDE" +
-      "\020\001\022\016\n\nDELEGATION\020\002\022\017\n\013SYNTHESIZED\020\003\":\n\014C" +
-      "allableKind\022\007\n\003FUN\020\000\022\007\n\003VAL\020\001\022\007\n\003VAR\020\002\022\017" +
-      "\n\013CONSTRUCTOR\020\003*\005\010d\020\310\001*-\n\010Modality\022\t\n\005FI" +
-      "NAL\020\000\022\010\n\004OPEN\020\001\022\014\n\010ABSTRACT\020\002*M\n\nVisibil" +
-      "ity\022\014\n\010INTERNAL\020\000\022\013\n\007PRIVATE\020\001\022\r\n\tPROTEC",
-      "TED\020\002\022\n\n\006PUBLIC\020\003\022\t\n\005EXTRA\020\004B\022B\rDebugPro" +
-      "toBuf\210\001\000"
+      "on.Class.PrimaryConstructor\022\030\n\014member_in" +
+      "dex\030\016 \003(\005B\002\020\001\032O\n\013ClassObject\022@\n\004data\030\001 \001",
+      "(\01322.org.jetbrains.jet.descriptors.seria" +
+      "lization.Class\032Y\n\022PrimaryConstructor\022C\n\004" +
+      "data\030\001 \001(\01325.org.jetbrains.jet.descripto" +
+      "rs.serialization.Callable\"p\n\004Kind\022\t\n\005CLA" +
+      "SS\020\000\022\t\n\005TRAIT\020\001\022\016\n\nENUM_CLASS\020\002\022\016\n\nENUM_" +
+      "ENTRY\020\003\022\024\n\020ANNOTATION_CLASS\020\004\022\n\n\006OBJECT\020" +
+      "\005\022\020\n\014CLASS_OBJECT\020\006\"j\n\007Package\022E\n\006member" +
+      "\030\001 \003(\01325.org.jetbrains.jet.descriptors.s" +
+      "erialization.Callable\022\030\n\014member_index\030\002 " +
+      "\003(\005B\002\020\001\"\220\006\n\010Callable\022\r\n\005flags\030\001 \001(\005\022\030\n\020e",
+      "xtra_visibility\030\002 \001(\t\022\024\n\014getter_flags\030\t " +
+      "\001(\005\022\024\n\014setter_flags\030\n \001(\005\022R\n\016type_parame" +
+      "ter\030\004 \003(\0132:.org.jetbrains.jet.descriptor" +
+      "s.serialization.TypeParameter\022H\n\rreceive" +
+      "r_type\030\005 \001(\01321.org.jetbrains.jet.descrip" +
+      "tors.serialization.Type\022\014\n\004name\030\006 \002(\005\022]\n" +
+      "\017value_parameter\030\007 \003(\0132D.org.jetbrains.j" +
+      "et.descriptors.serialization.Callable.Va" +
+      "lueParameter\022F\n\013return_type\030\010 \002(\01321.org." +
+      "jetbrains.jet.descriptors.serialization.",
+      "Type\032\305\001\n\016ValueParameter\022\r\n\005flags\030\001 \001(\005\022\014" +
+      "\n\004name\030\002 \002(\005\022?\n\004type\030\003 \002(\01321.org.jetbrai" +
+      "ns.jet.descriptors.serialization.Type\022N\n" +
+      "\023vararg_element_type\030\004 \001(\01321.org.jetbrai" +
+      "ns.jet.descriptors.serialization.Type*\005\010" +
+      "d\020\310\001\"Q\n\nMemberKind\022\017\n\013DECLARATION\020\000\022\021\n\rF" +
+      "AKE_OVERRIDE\020\001\022\016\n\nDELEGATION\020\002\022\017\n\013SYNTHE" +
+      "SIZED\020\003\":\n\014CallableKind\022\007\n\003FUN\020\000\022\007\n\003VAL\020" +
+      "\001\022\007\n\003VAR\020\002\022\017\n\013CONSTRUCTOR\020\003*\005\010d\020\310\001*-\n\010Mo" +
+      "dality\022\t\n\005FINAL\020\000\022\010\n\004OPEN\020\001\022\014\n\010ABSTRACT\020",
+      "\002*M\n\nVisibility\022\014\n\010INTERNAL\020\000\022\013\n\007PRIVATE" +
+      "\020\001\022\r\n\tPROTECTED\020\002\022\n\n\006PUBLIC\020\003\022\t\n\005EXTRA\020\004" +
+      "B\022B\rDebugProtoBuf\210\001\000"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
       new com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner() {
@@ -14524,7 +14989,7 @@ public final class DebugProtoBuf {
           internal_static_org_jetbrains_jet_descriptors_serialization_Class_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_org_jetbrains_jet_descriptors_serialization_Class_descriptor,
-              new java.lang.String[] { "Flags", "ExtraVisibility", "FqName", "ClassObject", "TypeParameter", "Supertype", "NestedClassName", "Member", "EnumEntry", "PrimaryConstructor", });
+              new java.lang.String[] { "Flags", "ExtraVisibility", "FqName", "ClassObject", "TypeParameter", "Supertype", "NestedClassName", "Member", "EnumEntry", "PrimaryConstructor", "MemberIndex", });
           internal_static_org_jetbrains_jet_descriptors_serialization_Class_ClassObject_descriptor =
             internal_static_org_jetbrains_jet_descriptors_serialization_Class_descriptor.getNestedTypes().get(0);
           internal_static_org_jetbrains_jet_descriptors_serialization_Class_ClassObject_fieldAccessorTable = new
@@ -14542,7 +15007,7 @@ public final class DebugProtoBuf {
           internal_static_org_jetbrains_jet_descriptors_serialization_Package_fieldAccessorTable = new
             com.google.protobuf.GeneratedMessage.FieldAccessorTable(
               internal_static_org_jetbrains_jet_descriptors_serialization_Package_descriptor,
-              new java.lang.String[] { "Member", });
+              new java.lang.String[] { "Member", "MemberIndex", });
           internal_static_org_jetbrains_jet_descriptors_serialization_Callable_descriptor =
             getDescriptor().getMessageTypes().get(6);
           internal_static_org_jetbrains_jet_descriptors_serialization_Callable_fieldAccessorTable = new
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.descriptors.serialization
+
+import com.google.protobuf.CodedInputStream
+import com.google.protobuf.CodedOutputStream
+import com.google.protobuf.WireFormat
+import com.intellij.testFramework.UsefulTestCase
+import org.jetbrains.jet.descriptors.serialization.context.DeserializationComponents
+import org.jetbrains.jet.descriptors.serialization.descriptors.AnnotationLoader
+import org.jetbrains.jet.descriptors.serialization.descriptors.ConstantLoader
+import org.jetbrains.jet.descriptors.serialization.descriptors.DeserializedPackageMemberScope
+import org.jetbrains.jet.lang.descriptors.DeclarationDescriptor
+import org.jetbrains.jet.lang.resolve.name.ClassId
+import org.jetbrains.jet.lang.resolve.name.Name
+import org.jetbrains.jet.lang.resolve.scopes.DescriptorKindFilter
+import org.jetbrains.jet.lang.resolve.scopes.JetScope
+import org.jetbrains.jet.lang.types.lang.BuiltInsPackedFile
+import org.jetbrains.jet.lang.types.lang.BuiltInsSerializationUtil
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns
+import org.jetbrains.jet.renderer.DescriptorRenderer
+import org.jetbrains.jet.storage.LockBasedStorageManager
+import java.io.ByteArrayOutputStream
+import java.util.HashSet
+
+public class MemberIndexTest : UsefulTestCase() {
+    private val packedFile = BuiltInsPackedFile.load(
+            javaClass<KotlinBuiltIns>().getClassLoader(),
+            BuiltInsSerializationUtil.getPackedFilePath(KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME)
+    )
+
+    private val proto = packedFile.packageProto
+
+    private val memberNames = proto.getMemberList().map { packedFile.nameResolver.getName(it.getName()) }.toSet()
+
+    fun testIndexIsWrittenPacked() {
+        assertTrue("Built-ins package has no member index", proto.getMemberIndexCount() > 0)
+
+        val tags = HashSet<Int>()
+        val input = CodedInputStream.newInstance(proto.toByteArray())
+        while (true) {
+            val tag = input.readTag()
+            if (tag == 0) break
+            tags.add(tag)
+            input.skipField(tag)
+        }
+        assertTrue(tags.contains(tag(WireFormat.WIRETYPE_LENGTH_DELIMITED)))
+        assertFalse(tags.contains(tag(WireFormat.WIRETYPE_VARINT)))
+    }
+
+    fun testUnpackedIndexIsRead() {
+        val bytes = ByteArrayOutputStream()
+        val output = CodedOutputStream.newInstance(bytes)
+        for (value in proto.getMemberIndexList()) {
+            output.writeInt32(ProtoBuf.Package.MEMBER_INDEX_FIELD_NUMBER, value)
+        }
+        output.flush()
+
+        assertEquals(proto.getMemberIndexList(), ProtoBuf.Package.parseFrom(bytes.toByteArray()).getMemberIndexList())
+    }
+
+    fun testMembersAreFoundByIndex() {
+        val scope = createScope(proto)
+        for (name in memberNames) {
+            val found = scope.getFunctions(name) + scope.getProperties(name)
+            assertEquals(proto.getMemberList().count { packedFile.nameResolver.getName(it.getName()) == name }, found.size())
+            for (descriptor in found) {
+                assertEquals(name, descriptor.getName())
+            }
+        }
+        assertEmpty(scope.getFunctions(Name.identifier("noSuchMember")))
+    }
+
+    fun testIndexIsUsedForLookups() {
+        // An index that puts every member under the first name: if lookups went through grouping by name,
+        // only the members really named so would be found
+        val name = packedFile.nameResolver.getName(proto.getMemberIndex(1))
+        val memberCount = proto.getMemberCount()
+        val index = listOf(1, proto.getMemberIndex(1), 0, memberCount) + (0..memberCount - 1)
+        val scope = createScope(proto.toBuilder().clearMemberIndex().addAllMemberIndex(index).build())
+
+        val found = scope.getFunctions(name) + scope.getProperties(name)
+        assertTrue(found.any { it.getName() != name })
+    }
+
+    fun testBinariesWithoutIndexAreReadTheSame() {
+        val indexed = createScope(proto)
+        val withoutIndex = createScope(proto.toBuilder().clearMemberIndex().build())
+
+        for (name in memberNames) {
+            assertEquals(render(indexed.getFunctions(name)), render(withoutIndex.getFunctions(name)))
+            assertEquals(render(indexed.getProperties(name)), render(withoutIndex.getProperties(name)))
+        }
+
+        val nameFilter: (Name) -> Boolean = { it.asString().startsWith("to") }
+        assertEquals(
+                render(indexed.getDescriptors(DescriptorKindFilter.CALLABLES, nameFilter)),
+                render(withoutIndex.getDescriptors(DescriptorKindFilter.CALLABLES, nameFilter))
+        )
+        assertEquals(render(indexed.getAllDescriptors()), render(withoutIndex.getAllDescriptors()))
+    }
+
+    private fun tag(wireType: Int) = (ProtoBuf.Package.MEMBER_INDEX_FIELD_NUMBER shl 3) or wireType
+
+    private fun render(descriptors: Collection<DeclarationDescriptor>): List<String> =
+            descriptors.map { DescriptorRenderer.FQ_NAMES_IN_TYPES.render(it) }
+
+    private fun createScope(packageProto: ProtoBuf.Package): JetScope {
+        val builtIns = KotlinBuiltIns.getInstance()
+        val module = builtIns.getBuiltInsModule()
+        val components = DeserializationComponents(
+                LockBasedStorageManager(), module,
+                object : ClassDataFinder {
+                    override fun findClassData(classId: ClassId): ClassData? {
+                        val classProto = packedFile.findClass(classId) ?: return null
+                        return ClassData(packedFile.nameResolver, classProto)
+                    }
+                },
+                AnnotationLoader.UNSUPPORTED, ConstantLoader.UNSUPPORTED, module.getPackageFragmentProvider(),
+                FlexibleTypeCapabilitiesDeserializer.ThrowException
+        )
+        return DeserializedPackageMemberScope(
+                builtIns.getBuiltInsPackageFragment(), packageProto, packedFile.nameResolver, components, { packedFile.classNames }
+        )
+    }
+}
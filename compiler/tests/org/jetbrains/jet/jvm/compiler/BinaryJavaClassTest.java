@@ -0,0 +1,320 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jvm.compiler;
+
+import com.intellij.codeInsight.ExternalAnnotationsManager;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.di.InjectorForJavaDescriptorResolverUtil;
+import org.jetbrains.jet.lang.resolve.BindingTraceContext;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.resolver.IndexedExternalAnnotationsManager;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaAnnotationOwnerImpl;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaClassImpl;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaExternalNames;
+import org.jetbrains.jet.lang.resolve.lazy.KotlinTestWithEnvironment;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+import java.util.*;
+
+/**
+ * Compares Java classes read from class files of the JDK with the PSI-based model of the same classes
+ */
+public class BinaryJavaClassTest extends KotlinTestWithEnvironment {
+    private static final String[] CLASSES = {
+            "java.lang.Object",
+            "java.lang.String",
+            "java.lang.Enum",
+            "java.lang.Thread",
+            "java.lang.annotation.Retention",
+            "java.util.AbstractMap",
+            "java.util.ArrayList",
+            "java.util.Collections",
+            "java.util.HashMap",
+            "java.util.Map",
+            "java.util.concurrent.ConcurrentHashMap",
+            "java.util.concurrent.TimeUnit",
+            "javax.swing.JTable"
+    };
+
+    @Override
+    protected JetCoreEnvironment createEnvironment() {
+        return JetTestUtils.createEnvironmentWithFullJdk(myTestRootDisposable);
+    }
+
+    public void testClassesAreTheSameAsInPsi() {
+        List<String> mismatches = new ArrayList<String>();
+        for (String fqName : CLASSES) {
+            List<String> expected = new ArrayList<String>();
+            List<String> actual = new ArrayList<String>();
+            renderClass(findPsiClass(fqName), expected);
+            renderClass(findBinaryClass(fqName), actual);
+            Collections.sort(expected);
+            Collections.sort(actual);
+            if (!expected.equals(actual)) {
+                mismatches.add(fqName + ":\n  expected " + expected + "\n  actual   " + actual);
+            }
+        }
+        assertNoMismatches(mismatches);
+    }
+
+    public void testExternalAnnotationsAreTheSameAsForPsi() {
+        ExternalAnnotationsManager manager = ExternalAnnotationsManager.getInstance(getProject());
+        assertInstanceOf(manager, IndexedExternalAnnotationsManager.class);
+
+        List<String> mismatches = new ArrayList<String>();
+        for (String fqName : CLASSES) {
+            Map<String, JavaAnnotationOwner> psiOwners = new HashMap<String, JavaAnnotationOwner>();
+            Map<String, JavaAnnotationOwner> binaryOwners = new HashMap<String, JavaAnnotationOwner>();
+            collectAnnotationOwners(findPsiClass(fqName), psiOwners);
+            collectAnnotationOwners(findBinaryClass(fqName), binaryOwners);
+            assertEquals(new TreeSet<String>(psiOwners.keySet()), new TreeSet<String>(binaryOwners.keySet()));
+
+            for (Map.Entry<String, JavaAnnotationOwner> entry : binaryOwners.entrySet()) {
+                PsiModifierListOwner psiOwner = ((JavaAnnotationOwnerImpl) psiOwners.get(entry.getKey())).getPsi();
+                String expected = renderAnnotations(manager.findExternalAnnotations(psiOwner));
+
+                FqName packageFqName = BinaryJavaExternalNames.getPackageFqName(entry.getValue());
+                String externalName = BinaryJavaExternalNames.getExternalName(entry.getValue());
+                assertNotNull(packageFqName);
+                assertNotNull(externalName);
+                String actual = renderAnnotations(
+                        ((IndexedExternalAnnotationsManager) manager).findExternalAnnotationsByName(packageFqName, externalName));
+
+                if (!expected.equals(actual)) {
+                    mismatches.add(entry.getKey() + ": expected " + expected + ", actual " + actual);
+                }
+            }
+        }
+        assertNoMismatches(mismatches);
+    }
+
+    @NotNull
+    private JavaClass findPsiClass(@NotNull String fqName) {
+        PsiClass psiClass = JavaPsiFacade.getInstance(getProject()).findClass(fqName, GlobalSearchScope.allScope(getProject()));
+        assertNotNull("Class wasn't found: " + fqName, psiClass);
+        return new JavaClassImpl(psiClass);
+    }
+
+    @NotNull
+    private JavaClass findBinaryClass(@NotNull String fqName) {
+        JavaClassFinder finder =
+                InjectorForJavaDescriptorResolverUtil.create(getProject(), new BindingTraceContext(), false).getJavaClassFinder();
+        JavaClass javaClass = finder.findClass(ClassId.topLevel(new FqName(fqName)));
+        assertInstanceOf(javaClass, BinaryJavaClass.class);
+        return javaClass;
+    }
+
+    private static void renderClass(@NotNull JavaClass javaClass, @NotNull List<String> result) {
+        String prefix = javaClass.getFqName() + " ";
+
+        StringBuilder sb = new StringBuilder(prefix);
+        renderModifiers(javaClass, sb);
+        if (javaClass.isInterface()) sb.append("interface ");
+        if (javaClass.isAnnotationType()) sb.append("annotation ");
+        if (javaClass.isEnum()) sb.append("enum ");
+        sb.append(javaClass.getName());
+        renderTypeParameters(javaClass.getTypeParameters(), sb);
+        sb.append(" : ");
+        List<String> supertypes = new ArrayList<String>();
+        for (JavaClassifierType supertype : javaClass.getSupertypes()) {
+            supertypes.add(renderType(supertype));
+        }
+        Collections.sort(supertypes);
+        sb.append(supertypes);
+        result.add(sb.toString());
+
+        for (JavaField field : javaClass.getFields()) {
+            sb = new StringBuilder(prefix);
+            renderModifiers(field, sb);
+            if (field.isEnumEntry()) sb.append("entry ");
+            sb.append("val ").append(field.getName()).append(": ").append(renderType(field.getType()));
+            result.add(sb.toString());
+        }
+
+        for (JavaMethod method : javaClass.getMethods()) {
+            sb = new StringBuilder(prefix);
+            renderModifiers(method, sb);
+            sb.append("fun ");
+            renderTypeParameters(method.getTypeParameters(), sb);
+            sb.append(method.getName());
+            renderValueParameters(method.getValueParameters(), sb);
+            JavaType returnType = method.getReturnType();
+            sb.append(": ").append(returnType == null ? "<no type>" : renderType(returnType));
+            if (method.hasAnnotationParameterDefaultValue()) sb.append(" = default");
+            result.add(sb.toString());
+        }
+
+        for (JavaConstructor constructor : javaClass.getConstructors()) {
+            sb = new StringBuilder(prefix);
+            renderModifiers(constructor, sb);
+            sb.append("constructor");
+            renderTypeParameters(constructor.getTypeParameters(), sb);
+            renderValueParameters(constructor.getValueParameters(), sb);
+            result.add(sb.toString());
+        }
+
+        for (JavaAnnotation annotation : javaClass.getAnnotations()) {
+            result.add(prefix + "@" + annotation.getClassId());
+        }
+
+        for (JavaClass innerClass : javaClass.getInnerClasses()) {
+            renderClass(innerClass, result);
+        }
+    }
+
+    private static void renderModifiers(@NotNull JavaModifierListOwner owner, @NotNull StringBuilder sb) {
+        sb.append(owner.getVisibility()).append(' ');
+        if (owner.isAbstract()) sb.append("abstract ");
+        if (owner.isStatic()) sb.append("static ");
+        if (owner.isFinal()) sb.append("final ");
+    }
+
+    private static void renderTypeParameters(@NotNull List<JavaTypeParameter> typeParameters, @NotNull StringBuilder sb) {
+        if (typeParameters.isEmpty()) return;
+
+        sb.append('<');
+        for (JavaTypeParameter typeParameter : typeParameters) {
+            if (typeParameter.getIndex() > 0) sb.append(", ");
+            sb.append(typeParameter.getIndex()).append(':').append(typeParameter.getName());
+            for (JavaClassifierType bound : typeParameter.getUpperBounds()) {
+                sb.append(" : ").append(renderType(bound));
+            }
+        }
+        sb.append("> ");
+    }
+
+    // Parameter names are not compared, compiled PSI makes them up
+    private static void renderValueParameters(@NotNull List<JavaValueParameter> parameters, @NotNull StringBuilder sb) {
+        sb.append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) sb.append(", ");
+            JavaValueParameter parameter = parameters.get(i);
+            if (parameter.isVararg()) sb.append("vararg ");
+            sb.append(renderType(parameter.getType()));
+        }
+        sb.append(')');
+    }
+
+    @NotNull
+    private static String renderType(@NotNull JavaType type) {
+        if (type instanceof JavaPrimitiveType) {
+            return ((JavaPrimitiveType) type).getCanonicalText();
+        }
+        if (type instanceof JavaArrayType) {
+            return renderType(((JavaArrayType) type).getComponentType()) + "[]";
+        }
+        if (type instanceof JavaWildcardType) {
+            JavaWildcardType wildcardType = (JavaWildcardType) type;
+            JavaType bound = wildcardType.getBound();
+            return bound == null ? "?" : "?" + (wildcardType.isExtends() ? " extends " : " super ") + renderType(bound);
+        }
+        if (type instanceof JavaClassifierType) {
+            JavaClassifierType classifierType = (JavaClassifierType) type;
+            JavaClassifier classifier = classifierType.getClassifier();
+            StringBuilder sb = new StringBuilder();
+            if (classifier instanceof JavaClass) {
+                sb.append(((JavaClass) classifier).getFqName());
+            }
+            else if (classifier instanceof JavaTypeParameter) {
+                sb.append("T:").append(classifier.getName());
+            }
+            else {
+                sb.append("<unresolved>");
+            }
+            if (classifierType.isRaw()) sb.append(" raw");
+
+            List<JavaType> typeArguments = classifierType.getTypeArguments();
+            if (!typeArguments.isEmpty()) {
+                sb.append('<');
+                for (int i = 0; i < typeArguments.size(); i++) {
+                    if (i > 0) sb.append(", ");
+                    sb.append(renderType(typeArguments.get(i)));
+                }
+                sb.append('>');
+            }
+            return sb.toString();
+        }
+        return "<unknown type " + type + ">";
+    }
+
+    private static void collectAnnotationOwners(@NotNull JavaClass javaClass, @NotNull Map<String, JavaAnnotationOwner> result) {
+        String prefix = javaClass.getFqName() + " ";
+        result.put(prefix, javaClass);
+        for (JavaField field : javaClass.getFields()) {
+            result.put(prefix + field.getName(), field);
+        }
+        for (JavaMethod method : javaClass.getMethods()) {
+            collectMethodAnnotationOwners(method, prefix + method.getName(), result);
+        }
+        for (JavaConstructor constructor : javaClass.getConstructors()) {
+            collectMethodAnnotationOwners(constructor, prefix + "<init>", result);
+        }
+        for (JavaClass innerClass : javaClass.getInnerClasses()) {
+            collectAnnotationOwners(innerClass, result);
+        }
+    }
+
+    private static void collectMethodAnnotationOwners(
+            @NotNull JavaMember method,
+            @NotNull String name,
+            @NotNull Map<String, JavaAnnotationOwner> result
+    ) {
+        List<JavaValueParameter> parameters = method instanceof JavaMethod
+                                              ? ((JavaMethod) method).getValueParameters()
+                                              : ((JavaConstructor) method).getValueParameters();
+        StringBuilder sb = new StringBuilder(name).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(renderType(parameters.get(i).getType()));
+        }
+        String signature = sb.append(')').toString();
+
+        result.put(signature, method);
+        for (int i = 0; i < parameters.size(); i++) {
+            result.put(signature + " " + i, parameters.get(i));
+        }
+    }
+
+    @NotNull
+    private static String renderAnnotations(@Nullable PsiAnnotation[] annotations) {
+        if (annotations == null) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (PsiAnnotation annotation : annotations) {
+            sb.append(annotation.getText()).append(";");
+        }
+        return sb.append("]").toString();
+    }
+
+    private static void assertNoMismatches(@NotNull List<String> mismatches) {
+        if (mismatches.isEmpty()) return;
+
+        StringBuilder sb = new StringBuilder("Class files give different results:\n");
+        for (String mismatch : mismatches) {
+            sb.append(mismatch).append("\n");
+        }
+        fail(sb.toString());
+    }
+}
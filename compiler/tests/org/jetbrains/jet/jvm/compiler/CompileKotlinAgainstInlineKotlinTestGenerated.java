@@ -123,6 +123,12 @@ public class CompileKotlinAgainstInlineKotlinTestGenerated extends AbstractCompi
             doBoxTestWithInlineCheck(fileName);
         }
 
+        @TestMetadata("privateProperties.1.kt")
+        public void testPrivateProperties() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/codegen/boxInline/capture/privateProperties.1.kt");
+            doBoxTestWithInlineCheck(fileName);
+        }
+
         @TestMetadata("simpleCapturingInClass.1.kt")
         public void testSimpleCapturingInClass() throws Exception {
             String fileName = JetTestUtils.navigationMetadata("compiler/testData/codegen/boxInline/capture/simpleCapturingInClass.1.kt");
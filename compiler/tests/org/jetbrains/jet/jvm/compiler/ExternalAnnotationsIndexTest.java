@@ -0,0 +1,206 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.jvm.compiler;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.util.PsiFormatUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.CoreExternalAnnotationsManager;
+import org.jetbrains.jet.cli.jvm.compiler.ExternalAnnotationsIndexCompiler;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.di.InjectorForJavaDescriptorResolverUtil;
+import org.jetbrains.jet.lang.resolve.BindingTraceContext;
+import org.jetbrains.jet.lang.resolve.java.JavaClassFinder;
+import org.jetbrains.jet.lang.resolve.java.resolver.ExternalAnnotationsIndex;
+import org.jetbrains.jet.lang.resolve.java.structure.*;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaClass;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaExternalNames;
+import org.jetbrains.jet.lang.resolve.lazy.KotlinTestWithEnvironment;
+import org.jetbrains.jet.lang.resolve.name.ClassId;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+
+import java.io.File;
+import java.util.*;
+
+public class ExternalAnnotationsIndexTest extends KotlinTestWithEnvironment {
+    private static final String ANNOTATIONS_JAR = "dependencies/annotations/kotlin-jdk-annotations.jar";
+
+    private static final String[] CLASSES_FOR_EXTERNAL_NAMES = {
+            "java.lang.String",                        // constructors, arrays, varargs
+            "java.util.Arrays",                        // generic varargs, arrays of all primitive types
+            "java.util.Collections",                   // generic methods, wildcards, nested generic types
+            "java.util.HashMap",                       // inner (non-static) classes and their constructors
+            "java.util.Map",                           // nested interface used as a type argument
+            "java.util.concurrent.ConcurrentHashMap"
+    };
+
+    @Override
+    protected JetCoreEnvironment createEnvironment() {
+        return JetTestUtils.createEnvironmentWithFullJdk(myTestRootDisposable);
+    }
+
+    public void testIndexGivesSameAnnotationsAsXml() throws Exception {
+        File indexRoot = JetTestUtils.tmpDirForTest(this);
+        ExternalAnnotationsIndexCompiler compiler = new ExternalAnnotationsIndexCompiler();
+        compiler.addRoot(new File(ANNOTATIONS_JAR));
+        compiler.writeIndex(new File(indexRoot, ExternalAnnotationsIndex.INDEX_FILE_NAME));
+
+        VirtualFile xmlRoot = VirtualFileManager.getInstance().findFileByUrl("jar://" + ANNOTATIONS_JAR + "!/");
+        VirtualFile indexVirtualRoot = LocalFileSystem.getInstance().refreshAndFindFileByIoFile(indexRoot);
+        assertNotNull(xmlRoot);
+        assertNotNull(indexVirtualRoot);
+
+        final CoreExternalAnnotationsManager xmlManager = new CoreExternalAnnotationsManager(PsiManager.getInstance(getProject()));
+        xmlManager.addExternalAnnotationsRoot(xmlRoot);
+        final CoreExternalAnnotationsManager indexManager = new CoreExternalAnnotationsManager(PsiManager.getInstance(getProject()));
+        indexManager.addExternalAnnotationsRoot(indexVirtualRoot);
+        assertTrue(indexManager.isFullyIndexed());
+        assertFalse(xmlManager.isFullyIndexed());
+
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(getProject());
+        GlobalSearchScope allScope = GlobalSearchScope.allScope(getProject());
+        final List<String> mismatches = new ArrayList<String>();
+
+        for (FqName classFqName : JdkAnnotationsValidityTest.getAffectedClasses("jar://" + ANNOTATIONS_JAR + "!/")) {
+            PsiClass psiClass = javaPsiFacade.findClass(classFqName.asString(), allScope);
+            if (psiClass == null) continue;
+
+            psiClass.accept(new JavaRecursiveElementVisitor() {
+                @Override
+                public void visitMethod(PsiMethod method) {
+                    super.visitMethod(method);
+                    compare(method);
+                }
+
+                @Override
+                public void visitField(PsiField field) {
+                    super.visitField(field);
+                    compare(field);
+                }
+
+                @Override
+                public void visitParameter(PsiParameter parameter) {
+                    super.visitParameter(parameter);
+                    compare(parameter);
+                }
+
+                private void compare(@NotNull PsiModifierListOwner owner) {
+                    String expected = render(xmlManager.findExternalAnnotations(owner));
+                    String actual = render(indexManager.findExternalAnnotations(owner));
+                    if (!expected.equals(actual)) {
+                        mismatches.add(PsiFormatUtil.getExternalName(owner) + ": expected " + expected + ", actual " + actual);
+                    }
+                }
+            });
+        }
+
+        if (!mismatches.isEmpty()) {
+            StringBuilder builder = new StringBuilder("Index gives different annotations:\n");
+            for (String mismatch : mismatches) {
+                builder.append(mismatch).append("\n");
+            }
+            fail(builder.toString());
+        }
+    }
+
+    public void testBinaryExternalNamesAreTheSameAsPsi() {
+        JavaClassFinder finder =
+                InjectorForJavaDescriptorResolverUtil.create(getProject(), new BindingTraceContext(), false).getJavaClassFinder();
+        JavaPsiFacade javaPsiFacade = JavaPsiFacade.getInstance(getProject());
+        GlobalSearchScope allScope = GlobalSearchScope.allScope(getProject());
+
+        for (String fqName : CLASSES_FOR_EXTERNAL_NAMES) {
+            PsiClass psiClass = javaPsiFacade.findClass(fqName, allScope);
+            assertNotNull("Class wasn't found: " + fqName, psiClass);
+            final Set<String> expected = new TreeSet<String>();
+            expected.add(PsiFormatUtil.getExternalName(psiClass, false, Integer.MAX_VALUE));
+            psiClass.accept(new JavaRecursiveElementVisitor() {
+                @Override
+                public void visitClass(PsiClass aClass) {
+                    super.visitClass(aClass);
+                    expected.add(PsiFormatUtil.getExternalName(aClass, false, Integer.MAX_VALUE));
+                }
+
+                @Override
+                public void visitMethod(PsiMethod method) {
+                    super.visitMethod(method);
+                    expected.add(PsiFormatUtil.getExternalName(method, false, Integer.MAX_VALUE));
+                }
+
+                @Override
+                public void visitField(PsiField field) {
+                    super.visitField(field);
+                    expected.add(PsiFormatUtil.getExternalName(field, false, Integer.MAX_VALUE));
+                }
+
+                @Override
+                public void visitParameter(PsiParameter parameter) {
+                    super.visitParameter(parameter);
+                    expected.add(PsiFormatUtil.getExternalName(parameter, false, Integer.MAX_VALUE));
+                }
+            });
+
+            JavaClass javaClass = finder.findClass(ClassId.topLevel(new FqName(fqName)));
+            assertInstanceOf(javaClass, BinaryJavaClass.class);
+            Set<String> actual = new TreeSet<String>();
+            collectBinaryExternalNames(javaClass, actual);
+
+            assertEquals(fqName, StringUtil.join(expected, "\n"), StringUtil.join(actual, "\n"));
+        }
+    }
+
+    private static void collectBinaryExternalNames(@NotNull JavaClass javaClass, @NotNull Set<String> result) {
+        result.add(BinaryJavaExternalNames.getExternalName(javaClass));
+        for (JavaField field : javaClass.getFields()) {
+            result.add(BinaryJavaExternalNames.getExternalName(field));
+        }
+        for (JavaMethod method : javaClass.getMethods()) {
+            result.add(BinaryJavaExternalNames.getExternalName(method));
+            for (JavaValueParameter parameter : method.getValueParameters()) {
+                result.add(BinaryJavaExternalNames.getExternalName(parameter));
+            }
+        }
+        for (JavaConstructor constructor : javaClass.getConstructors()) {
+            result.add(BinaryJavaExternalNames.getExternalName(constructor));
+            for (JavaValueParameter parameter : constructor.getValueParameters()) {
+                result.add(BinaryJavaExternalNames.getExternalName(parameter));
+            }
+        }
+        for (JavaClass innerClass : javaClass.getInnerClasses()) {
+            collectBinaryExternalNames(innerClass, result);
+        }
+    }
+
+    @NotNull
+    private static String render(@Nullable PsiAnnotation[] annotations) {
+        if (annotations == null) return "[]";
+
+        StringBuilder sb = new StringBuilder("[");
+        for (PsiAnnotation annotation : annotations) {
+            sb.append(annotation.getText()).append(";");
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin;
+
+import com.intellij.openapi.util.Ref;
+import com.intellij.openapi.util.io.FileUtil;
+import junit.framework.TestCase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.codegen.forTestCompile.ForTestCompileRuntime;
+import org.jetbrains.jet.lang.resolve.kotlin.header.KotlinClassHeader;
+import org.jetbrains.jet.lang.resolve.kotlin.header.ReadKotlinClassHeaderAnnotationVisitor;
+import org.jetbrains.org.objectweb.asm.ClassReader;
+import org.jetbrains.org.objectweb.asm.ClassVisitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Pattern;
+
+import static org.jetbrains.org.objectweb.asm.ClassReader.*;
+import static org.jetbrains.org.objectweb.asm.Opcodes.ASM5;
+
+/**
+ * Checks that {@link KotlinClassHeaderReader} gives the same class ids and headers as reading class files with ClassReader,
+ * which is what {@link FileBasedKotlinClass#create} used to do
+ */
+public class KotlinClassHeaderReaderTest extends TestCase {
+    private static final String EXCEPTION = "<exception>";
+    private static final String NO_HEADER = "<no header>";
+
+    public void testKotlinRuntime() throws IOException {
+        int headers = compareAll(loadJar(ForTestCompileRuntime.runtimeJarForTests()));
+        assertTrue("Kotlin runtime should contain Kotlin classes, but " + headers + " headers were found", headers > 100);
+    }
+
+    public void testClassesWithIncompatibleAbiVersion() throws IOException {
+        File root = new File("compiler/testData/cli/jvm/wrongAbiVersionLib/bin");
+        Map<String, byte[]> classFiles = new TreeMap<String, byte[]>();
+        for (File file : FileUtil.findFilesByMask(Pattern.compile(".*\\.class"), root)) {
+            classFiles.put(FileUtil.getRelativePath(root, file), FileUtil.loadFileBytes(file));
+        }
+        assertTrue(compareAll(classFiles) > 0);
+    }
+
+    public void testJavaClasses() throws IOException {
+        assertEquals(0, compareAll(loadJar(JetTestUtils.findMockJdkRtJar())));
+    }
+
+    public void testMalformedClassFiles() throws IOException {
+        byte[] bytes = findKotlinClass();
+
+        Map<String, byte[]> malformed = new LinkedHashMap<String, byte[]>();
+        malformed.put("empty", new byte[0]);
+        malformed.put("only magic", Arrays.copyOf(bytes, 4));
+        malformed.put("truncated constant pool", Arrays.copyOf(bytes, 20));
+        malformed.put("half of a Kotlin class", Arrays.copyOf(bytes, bytes.length / 2));
+
+        // A constant pool of 65535 entries of an unknown tag, which is given to ClassReader, where it runs out of the file
+        byte[] garbage = new byte[100];
+        System.arraycopy(bytes, 0, garbage, 0, 8);
+        garbage[8] = (byte) 0xFF;
+        garbage[9] = (byte) 0xFF;
+        malformed.put("garbage", garbage);
+
+        for (Map.Entry<String, byte[]> entry : malformed.entrySet()) {
+            assertEquals(entry.getKey(), EXCEPTION, readWithClassReader(entry.getValue()));
+            assertEquals(entry.getKey(), EXCEPTION, readWithKotlinClassHeaderReader(entry.getValue()));
+        }
+    }
+
+    public void testUnknownConstantPoolTag() throws IOException {
+        byte[] bytes = findKotlinClass();
+        String expected = readWithKotlinClassHeaderReader(bytes);
+
+        // A CONSTANT_Module entry of Java 9 class files (tag 19, 3 bytes) added to the end of the constant pool
+        int constantPoolEnd = new ClassReader(bytes).header;
+        byte[] withModule = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, withModule, 0, constantPoolEnd);
+        withModule[constantPoolEnd] = 19;
+        System.arraycopy(bytes, constantPoolEnd, withModule, constantPoolEnd + 3, bytes.length - constantPoolEnd);
+        int count = ((bytes[8] & 0xFF) << 8 | (bytes[9] & 0xFF)) + 1;
+        withModule[8] = (byte) (count >> 8);
+        withModule[9] = (byte) count;
+
+        assertEquals(expected, readWithKotlinClassHeaderReader(withModule));
+    }
+
+    @NotNull
+    private static byte[] findKotlinClass() throws IOException {
+        for (byte[] classFile : loadJar(ForTestCompileRuntime.runtimeJarForTests()).values()) {
+            if (!NO_HEADER.equals(readWithClassReader(classFile))) {
+                return classFile;
+            }
+        }
+        throw new AssertionError("No Kotlin classes in the runtime");
+    }
+
+    // Returns the number of Kotlin headers found
+    private static int compareAll(@NotNull Map<String, byte[]> classFiles) {
+        int headers = 0;
+        List<String> mismatches = new ArrayList<String>();
+        for (Map.Entry<String, byte[]> entry : classFiles.entrySet()) {
+            String expected = readWithClassReader(entry.getValue());
+            String actual = readWithKotlinClassHeaderReader(entry.getValue());
+            if (!expected.equals(actual)) {
+                mismatches.add(entry.getKey() + ":\n  expected " + expected + "\n  actual   " + actual);
+            }
+            if (!NO_HEADER.equals(expected)) headers++;
+        }
+
+        if (!mismatches.isEmpty()) {
+            StringBuilder sb = new StringBuilder("KotlinClassHeaderReader gives different results:\n");
+            for (String mismatch : mismatches) {
+                sb.append(mismatch).append("\n");
+            }
+            fail(sb.toString());
+        }
+        return headers;
+    }
+
+    @NotNull
+    private static String readWithKotlinClassHeaderReader(@NotNull byte[] classFile) {
+        try {
+            ReadKotlinClassHeaderAnnotationVisitor visitor = new ReadKotlinClassHeaderAnnotationVisitor();
+            FileBasedKotlinClass.InnerClassesInfo innerClasses = new FileBasedKotlinClass.InnerClassesInfo();
+            String className = KotlinClassHeaderReader.read(classFile, visitor, innerClasses);
+            return render(className, visitor.createHeader(), innerClasses);
+        }
+        catch (RuntimeException e) {
+            return EXCEPTION;
+        }
+    }
+
+    @NotNull
+    private static String readWithClassReader(@NotNull byte[] classFile) {
+        try {
+            final ReadKotlinClassHeaderAnnotationVisitor visitor = new ReadKotlinClassHeaderAnnotationVisitor();
+            final Ref<String> classNameRef = Ref.create();
+            final FileBasedKotlinClass.InnerClassesInfo innerClasses = new FileBasedKotlinClass.InnerClassesInfo();
+            new ClassReader(classFile).accept(new ClassVisitor(ASM5) {
+                @Override
+                public void visit(int version, int access, @NotNull String name, String signature, String superName, String[] interfaces) {
+                    classNameRef.set(name);
+                }
+
+                @Override
+                public void visitInnerClass(@NotNull String name, String outerName, String innerName, int access) {
+                    if (outerName != null && innerName != null) {
+                        innerClasses.add(name, outerName, innerName);
+                    }
+                }
+
+                @Override
+                public org.jetbrains.org.objectweb.asm.AnnotationVisitor visitAnnotation(@NotNull String desc, boolean visible) {
+                    return FileBasedKotlinClass.convertAnnotationVisitor(visitor, desc, innerClasses);
+                }
+
+                @Override
+                public void visitEnd() {
+                    visitor.visitEnd();
+                }
+            }, SKIP_CODE | SKIP_DEBUG | SKIP_FRAMES);
+            return render(classNameRef.get(), visitor.createHeader(), innerClasses);
+        }
+        catch (RuntimeException e) {
+            return EXCEPTION;
+        }
+    }
+
+    @NotNull
+    private static String render(String className, KotlinClassHeader header, @NotNull FileBasedKotlinClass.InnerClassesInfo innerClasses) {
+        if (className == null || header == null) return NO_HEADER;
+
+        return FileBasedKotlinClass.resolveNameByDesc("L" + className + ";", innerClasses) +
+               " kind=" + header.getKind() +
+               " version=" + header.getVersion() +
+               " data=" + Arrays.toString(header.getAnnotationData()) +
+               " syntheticKind=" + header.getSyntheticClassKind();
+    }
+
+    @NotNull
+    private static Map<String, byte[]> loadJar(@NotNull File jar) throws IOException {
+        Map<String, byte[]> result = new TreeMap<String, byte[]>();
+        JarFile jarFile = new JarFile(jar);
+        try {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class")) {
+                    result.put(entry.getName(), FileUtil.loadBytes(jarFile.getInputStream(entry)));
+                }
+            }
+        }
+        finally {
+            jarFile.close();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin;
+
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.jet.ConfigurationKind;
+import org.jetbrains.jet.JetTestUtils;
+import org.jetbrains.jet.cli.jvm.compiler.JetCoreEnvironment;
+import org.jetbrains.jet.codegen.forTestCompile.ForTestCompileRuntime;
+import org.jetbrains.jet.lang.resolve.java.PackageClassUtils;
+import org.jetbrains.jet.lang.resolve.lazy.KotlinTestWithEnvironment;
+import org.jetbrains.jet.lang.resolve.name.FqName;
+import org.jetbrains.jet.utils.PathUtil;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+
+public class KotlinPackageHeaderPreloaderTest extends KotlinTestWithEnvironment {
+    @Override
+    protected JetCoreEnvironment createEnvironment() {
+        return createEnvironmentWithMockJdk(ConfigurationKind.JDK_ONLY);
+    }
+
+    public void testPreloadedHeadersAreReused() throws Exception {
+        VirtualFile root = PathUtil.jarFileOrDirectoryToVirtualFile(ForTestCompileRuntime.runtimeJarForTests());
+        String packageFacadePath = "kotlin/" + PackageClassUtils.getPackageClassName(new FqName("kotlin")) + ".class";
+        VirtualFile packageFacade = root.findFileByRelativePath(packageFacadePath);
+        assertNotNull(packageFacade);
+
+        // Each thread has its own cache of the last read class, so without preloading every new thread reads the file again
+        assertNotSame(readOnNewThread(packageFacade), readOnNewThread(packageFacade));
+
+        KotlinPackageHeaderPreloader.preload(Collections.singletonList(root), 2);
+
+        KotlinJvmBinaryClass first = readOnNewThread(packageFacade);
+        KotlinJvmBinaryClass second = readOnNewThread(packageFacade);
+        assertSame(first, second);
+        assertSame(first.getClassHeader().getPackageData(), second.getClassHeader().getPackageData());
+    }
+
+    public void testJdkRootsAreSkipped() {
+        Set<String> noBootClassPath = Collections.emptySet();
+
+        for (File jdkRoot : PathUtil.getJdkClassesRoots()) {
+            VirtualFile root = PathUtil.jarFileOrDirectoryToVirtualFile(jdkRoot);
+            assertTrue(jdkRoot.getPath(), KotlinPackageHeaderPreloader.isJdkRoot(root, noBootClassPath));
+        }
+        VirtualFile mockJdk = PathUtil.jarFileOrDirectoryToVirtualFile(JetTestUtils.findMockJdkRtJar());
+        assertTrue(KotlinPackageHeaderPreloader.isJdkRoot(mockJdk, noBootClassPath));
+
+        File runtimeJar = ForTestCompileRuntime.runtimeJarForTests();
+        VirtualFile runtime = PathUtil.jarFileOrDirectoryToVirtualFile(runtimeJar);
+        assertFalse(KotlinPackageHeaderPreloader.isJdkRoot(runtime, noBootClassPath));
+
+        Set<String> bootClassPath = Collections.singleton(FileUtil.toSystemIndependentName(runtimeJar.getAbsolutePath()));
+        assertTrue(KotlinPackageHeaderPreloader.isJdkRoot(runtime, bootClassPath));
+    }
+
+    @NotNull
+    private static KotlinJvmBinaryClass readOnNewThread(@NotNull final VirtualFile file) throws Exception {
+        FutureTask<KotlinJvmBinaryClass> task = new FutureTask<KotlinJvmBinaryClass>(new Callable<KotlinJvmBinaryClass>() {
+            @Override
+            public KotlinJvmBinaryClass call() {
+                return KotlinBinaryClassCache.getKotlinBinaryClass(file);
+            }
+        });
+        new Thread(task).start();
+
+        KotlinJvmBinaryClass result = task.get();
+        assertNotNull(result);
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.kotlin
+
+import org.jetbrains.jet.lang.resolve.kotlin.header.ReadKotlinClassHeaderAnnotationVisitor
+import org.jetbrains.jet.test.util.measure
+import org.jetbrains.jet.test.util.printBenchmarkSink
+import org.jetbrains.org.objectweb.asm.AnnotationVisitor
+import org.jetbrains.org.objectweb.asm.ClassReader
+import org.jetbrains.org.objectweb.asm.ClassVisitor
+import org.jetbrains.org.objectweb.asm.Opcodes.ASM5
+import java.io.File
+import java.util.ArrayList
+import java.util.jar.JarFile
+
+// Compares the rate at which Kotlin class headers are read from all class files of the given jars (by default, the JDK runtime
+// and the compiler distribution) by ClassReader, as FileBasedKotlinClass.create used to do it, and by KotlinClassHeaderReader
+fun main(args: Array<String>) {
+    val jars = if (args.isNotEmpty()) args.map { File(it) } else defaultJars()
+    val classFiles = loadClassFiles(jars)
+    println("${classFiles.size} class files from ${jars.size} jars")
+
+    val iterations = 10
+    val asmCount = classFiles.count { readHeaderWithClassReader(it) }
+    val fastCount = classFiles.count { readHeaderFast(it) }
+    if (asmCount != fastCount) throw AssertionError("Kotlin headers found: $asmCount by ClassReader, $fastCount by KotlinClassHeaderReader")
+    println("$fastCount Kotlin headers")
+
+    val asm = measure(iterations) { classFiles.count { readHeaderWithClassReader(it) } }
+    val fast = measure(iterations) { classFiles.count { readHeaderFast(it) } }
+    println("ClassReader: %.1f ms, %.0f classes/s".format(asm, classFiles.size * 1000 / asm))
+    println("KotlinClassHeaderReader: %.1f ms, %.0f classes/s".format(fast, classFiles.size * 1000 / fast))
+
+    printBenchmarkSink()
+}
+
+private fun defaultJars(): List<File> {
+    val result = arrayListOf(File(System.getProperty("java.home"), "lib/rt.jar"))
+    File("dist/kotlinc/lib").listFiles()?.filterTo(result) { it.getName().endsWith(".jar") }
+    return result.filter { it.exists() }
+}
+
+private fun loadClassFiles(jars: List<File>): List<ByteArray> {
+    val result = ArrayList<ByteArray>()
+    for (jar in jars) {
+        JarFile(jar) use { jarFile ->
+            for (entry in jarFile.entries()) {
+                if (entry.getName().endsWith(".class")) {
+                    result.add(jarFile.getInputStream(entry) use { it.readBytes() })
+                }
+            }
+        }
+    }
+    return result
+}
+
+private fun readHeaderFast(bytes: ByteArray): Boolean {
+    val visitor = ReadKotlinClassHeaderAnnotationVisitor()
+    KotlinClassHeaderReader.read(bytes, visitor, FileBasedKotlinClass.InnerClassesInfo()) ?: return false
+    return visitor.createHeader() != null
+}
+
+private fun readHeaderWithClassReader(bytes: ByteArray): Boolean {
+    val visitor = ReadKotlinClassHeaderAnnotationVisitor()
+    val innerClasses = FileBasedKotlinClass.InnerClassesInfo()
+    ClassReader(bytes).accept(object : ClassVisitor(ASM5) {
+        override fun visitInnerClass(name: String, outerName: String?, innerName: String?, access: Int) {
+            if (outerName != null && innerName != null) {
+                innerClasses.add(name, outerName, innerName)
+            }
+        }
+
+        override fun visitAnnotation(desc: String, visible: Boolean): AnnotationVisitor? =
+                FileBasedKotlinClass.convertAnnotationVisitor(visitor, desc, innerClasses)
+
+        override fun visitEnd() {
+            visitor.visitEnd()
+        }
+    }, ClassReader.SKIP_CODE or ClassReader.SKIP_DEBUG or ClassReader.SKIP_FRAMES)
+    return visitor.createHeader() != null
+}
@@ -49,6 +49,12 @@ public class ReplInterpreterTestGenerated extends AbstractReplInterpreterTest {
         doTest(fileName);
     }
 
+    @TestMetadata("earlierLinesUsage.repl")
+    public void testEarlierLinesUsage() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/repl/earlierLinesUsage.repl");
+        doTest(fileName);
+    }
+
     @TestMetadata("empty.repl")
     public void testEmpty() throws Exception {
         String fileName = JetTestUtils.navigationMetadata("compiler/testData/repl/empty.repl");
@@ -61,6 +67,12 @@ public class ReplInterpreterTestGenerated extends AbstractReplInterpreterTest {
         doTest(fileName);
     }
 
+    @TestMetadata("expressionLinesBetweenDeclarations.repl")
+    public void testExpressionLinesBetweenDeclarations() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/repl/expressionLinesBetweenDeclarations.repl");
+        doTest(fileName);
+    }
+
     @TestMetadata("function.repl")
     public void testFunction() throws Exception {
         String fileName = JetTestUtils.navigationMetadata("compiler/testData/repl/function.repl");
@@ -30,6 +30,7 @@ import org.jetbrains.jet.lang.resolve.calls.results.OverloadResolutionResults;
 import org.jetbrains.jet.lang.resolve.calls.smartcasts.DataFlowInfo;
 import org.jetbrains.jet.lang.resolve.java.structure.JavaClass;
 import org.jetbrains.jet.lang.resolve.java.structure.impl.JavaClassImpl;
+import org.jetbrains.jet.lang.resolve.java.structure.impl.classFiles.BinaryJavaClass;
 import org.jetbrains.jet.lang.resolve.name.ClassId;
 import org.jetbrains.jet.lang.resolve.name.FqName;
 import org.jetbrains.jet.lang.resolve.name.Name;
@@ -119,6 +120,14 @@ public class JetExpectedResolveDataUtil {
         InjectorForJavaDescriptorResolver injector = InjectorForJavaDescriptorResolverUtil.create(project, new BindingTraceContext(), false);
         JavaClass javaClass = injector.getJavaClassFinder().findClass(ClassId.topLevel(new FqName(qualifiedName)));
         Assert.assertNotNull("Class wasn't found: " + qualifiedName, javaClass);
+        if (javaClass instanceof BinaryJavaClass) {
+            // Library classes are read from class files, declarations are looked up in the compiled PSI of the same file
+            PsiFile psiFile = PsiManager.getInstance(project).findFile(((BinaryJavaClass) javaClass).getVirtualFile());
+            assertInstanceOf(psiFile, PsiClassOwner.class);
+            PsiClass[] psiClasses = ((PsiClassOwner) psiFile).getClasses();
+            Assert.assertEquals("Unexpected classes in " + psiFile, 1, psiClasses.length);
+            return psiClasses[0];
+        }
         assertInstanceOf(javaClass, JavaClassImpl.class);
         return ((JavaClassImpl) javaClass).getPsi();
     }
@@ -97,6 +97,12 @@ public class ResolveTestGenerated extends AbstractResolveTest {
         doTest(fileName);
     }
 
+    @TestMetadata("LocalFunctionBetweenCalls.resolve")
+    public void testLocalFunctionBetweenCalls() throws Exception {
+        String fileName = JetTestUtils.navigationMetadata("compiler/testData/resolve/LocalFunctionBetweenCalls.resolve");
+        doTest(fileName);
+    }
+
     @TestMetadata("LocalObjects.resolve")
     public void testLocalObjects() throws Exception {
         String fileName = JetTestUtils.navigationMetadata("compiler/testData/resolve/LocalObjects.resolve");
@@ -107,6 +107,18 @@ public class ConstraintSystemTestGenerated extends AbstractConstraintSystemTest
             String fileName = JetTestUtils.navigationMetadata("compiler/testData/constraintSystem/computeValues/superTypeOfLowerBounds2.bounds");
             doTest(fileName);
         }
+
+        @TestMetadata("upperBoundsSatisfiedByLowerBound.bounds")
+        public void testUpperBoundsSatisfiedByLowerBound() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/constraintSystem/computeValues/upperBoundsSatisfiedByLowerBound.bounds");
+            doTest(fileName);
+        }
+
+        @TestMetadata("upperBoundViolatedByLowerBound.bounds")
+        public void testUpperBoundViolatedByLowerBound() throws Exception {
+            String fileName = JetTestUtils.navigationMetadata("compiler/testData/constraintSystem/computeValues/upperBoundViolatedByLowerBound.bounds");
+            doTest(fileName);
+        }
     }
 
     @TestMetadata("compiler/testData/constraintSystem/integerValueTypes")
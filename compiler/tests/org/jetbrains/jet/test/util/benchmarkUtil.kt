@@ -0,0 +1,40 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.test.util
+
+// Hash codes of the results of all measured runs, so that the measured code is not optimized away
+private volatile var sink: Int = 0
+
+/**
+ * Returns average time of one run in milliseconds, after the same number of warm-up runs.
+ * Hash codes of the results are added to a volatile field, which a benchmark prints once at the end with [printBenchmarkSink]
+ */
+public fun measure(iterations: Int, run: () -> Any?): Double {
+    var result = 0
+    for (i in 1..iterations) result = 31 * result + run().hashCode()
+
+    val start = System.nanoTime()
+    for (i in 1..iterations) result = 31 * result + run().hashCode()
+    val time = (System.nanoTime() - start) / 1e6 / iterations
+
+    sink = sink xor result
+    return time
+}
+
+public fun printBenchmarkSink() {
+    println("Results checksum: $sink")
+}
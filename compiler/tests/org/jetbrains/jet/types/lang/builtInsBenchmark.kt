@@ -0,0 +1,113 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.jetbrains.jet.types.lang
+
+import org.jetbrains.jet.descriptors.serialization.NameResolver
+import org.jetbrains.jet.descriptors.serialization.ProtoBuf
+import org.jetbrains.jet.lang.resolve.name.ClassId
+import org.jetbrains.jet.lang.types.lang.BuiltInsPackedFile
+import org.jetbrains.jet.lang.types.lang.BuiltInsSerializationUtil
+import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns
+import org.jetbrains.jet.test.util.measure
+import org.jetbrains.jet.test.util.printBenchmarkSink
+import java.lang.management.ManagementFactory
+
+// Measures KotlinBuiltIns initialization, loading of the packed built-ins file and resolution of names in it
+fun main(args: Array<String>) {
+    val iterations = if (args.size > 0) args[0].toInt() else 50
+
+    // Must go first: KotlinBuiltIns is initialized only once per class loader
+    val initStart = System.nanoTime()
+    KotlinBuiltIns.getInstance()
+    println("KotlinBuiltIns.getInstance() (cold): %.3f ms".format((System.nanoTime() - initStart) / 1e6))
+
+    val classLoader = javaClass<KotlinBuiltIns>().getClassLoader()!!
+    val fqName = KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME
+    val path = BuiltInsSerializationUtil.getPackedFilePath(fqName)
+
+    val load = measure(iterations) { BuiltInsPackedFile.load(classLoader, path) }
+
+    val loadAll = measure(iterations) {
+        val packedFile = BuiltInsPackedFile.load(classLoader, path)
+        for (name in packedFile.classNames) {
+            packedFile.findClass(ClassId.topLevel(fqName.child(name))) ?: throw AssertionError("No class data: $name")
+        }
+    }
+
+    println("Packed file header: %.3f ms, header and all top-level classes: %.3f ms".format(load, loadAll))
+
+    // Resolves all names the deserializer asks for when all built-in declarations are loaded, with a fresh NameResolver each time
+    val resolveNamesRun = {
+        val packedFile = BuiltInsPackedFile.load(classLoader, path)
+        val resolver = packedFile.nameResolver
+        packedFile.packageProto.getMemberList().forEach { resolveNames(it, resolver) }
+        for (name in packedFile.classNames) {
+            resolveNames(packedFile.findClass(ClassId.topLevel(fqName.child(name)))!!, resolver)
+        }
+    }
+    val resolveNames = measure(iterations, resolveNamesRun)
+    val allocated = measureAllocatedBytes(iterations, resolveNamesRun)
+    println("Loading and resolving all names: %.3f ms, %d KB allocated".format(resolveNames, allocated / 1024))
+    printBenchmarkSink()
+}
+
+private fun resolveNames(classProto: ProtoBuf.Class, resolver: NameResolver) {
+    resolver.getClassId(classProto.getFqName())
+    classProto.getTypeParameterList().forEach { resolveNames(it, resolver) }
+    classProto.getSupertypeList().forEach { resolveNames(it, resolver) }
+    classProto.getNestedClassNameList().forEach { resolver.getName(it) }
+    classProto.getMemberList().forEach { resolveNames(it, resolver) }
+    classProto.getEnumEntryList().forEach { resolver.getName(it) }
+    if (classProto.hasPrimaryConstructor() && classProto.getPrimaryConstructor().hasData()) {
+        resolveNames(classProto.getPrimaryConstructor().getData(), resolver)
+    }
+}
+
+private fun resolveNames(callable: ProtoBuf.Callable, resolver: NameResolver) {
+    resolver.getName(callable.getName())
+    callable.getTypeParameterList().forEach { resolveNames(it, resolver) }
+    if (callable.hasReceiverType()) resolveNames(callable.getReceiverType(), resolver)
+    for (parameter in callable.getValueParameterList()) {
+        resolver.getName(parameter.getName())
+        resolveNames(parameter.getType(), resolver)
+    }
+    resolveNames(callable.getReturnType(), resolver)
+}
+
+private fun resolveNames(typeParameter: ProtoBuf.TypeParameter, resolver: NameResolver) {
+    resolver.getName(typeParameter.getName())
+    typeParameter.getUpperBoundList().forEach { resolveNames(it, resolver) }
+}
+
+private fun resolveNames(type: ProtoBuf.Type, resolver: NameResolver) {
+    if (type.getConstructor().getKind() == ProtoBuf.Type.Constructor.Kind.CLASS) {
+        resolver.getClassId(type.getConstructor().getId())
+    }
+    type.getArgumentList().forEach { resolveNames(it.getType(), resolver) }
+}
+
+// Returns average number of bytes allocated by the current thread in one run, after the same number of warm-up runs
+private fun measureAllocatedBytes(iterations: Int, run: () -> Unit): Long {
+    val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    val threadId = Thread.currentThread().getId()
+    for (i in 1..iterations) run()
+
+    val start = threadBean.getThreadAllocatedBytes(threadId)
+    for (i in 1..iterations) run()
+    return (threadBean.getThreadAllocatedBytes(threadId) - start) / iterations
+}
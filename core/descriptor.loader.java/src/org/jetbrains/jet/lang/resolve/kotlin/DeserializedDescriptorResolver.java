@@ -63,10 +63,9 @@ public final class DeserializedDescriptorResolver {
 
     @Nullable
     public JetScope createKotlinPackageScope(@NotNull PackageFragmentDescriptor descriptor, @NotNull KotlinJvmBinaryClass kotlinClass) {
-        String[] data = readData(kotlinClass, PACKAGE_FACADE);
-        if (data != null) {
+        if (readData(kotlinClass, PACKAGE_FACADE) != null) {
             //all classes are included in java scope
-            PackageData packageData = JavaProtoBufUtil.readPackageDataFrom(data);
+            PackageData packageData = kotlinClass.getClassHeader().getPackageData();
             return new DeserializedPackageMemberScope(
                     descriptor, packageData.getPackageProto(), packageData.getNameResolver(), components,
                     new Function0<Collection<Name>>() {
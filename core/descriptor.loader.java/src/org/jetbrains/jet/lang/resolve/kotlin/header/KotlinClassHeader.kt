@@ -18,6 +18,8 @@ package org.jetbrains.jet.lang.resolve.kotlin.header
 
 import org.jetbrains.jet.lang.resolve.java.JvmAnnotationNames.KotlinSyntheticClass
 import org.jetbrains.jet.lang.resolve.java.AbiVersionUtil
+import org.jetbrains.jet.descriptors.serialization.JavaProtoBufUtil
+import org.jetbrains.jet.descriptors.serialization.PackageData
 
 public class KotlinClassHeader(
         public val kind: KotlinClassHeader.Kind,
@@ -27,6 +29,9 @@ public class KotlinClassHeader(
 ) {
     public val isCompatibleAbiVersion: Boolean get() = AbiVersionUtil.isAbiVersionCompatible(version);
 
+    // Not synchronized: at worst the same data is parsed twice
+    private volatile var packageData: PackageData? = null
+
     {
         assert(!isCompatibleAbiVersion || (annotationData == null) == (kind != Kind.CLASS && kind != Kind.PACKAGE_FACADE)) {
             "Annotation data should be not null only for CLASS and PACKAGE_FACADE (kind=" + kind + ")"
@@ -36,6 +41,21 @@ public class KotlinClassHeader(
         }
     }
 
+    /**
+     * Decodes the package data of a package facade once per header. Headers read ahead of time are shared between threads
+     * (see KotlinPackageHeaderPreloader), so whoever parses the data first does it for everybody
+     */
+    public fun getPackageData(): PackageData {
+        assert(kind == Kind.PACKAGE_FACADE && annotationData != null) { "Package data is present only for PACKAGE_FACADE (kind=$kind)" }
+
+        val cached = packageData
+        if (cached != null) return cached
+
+        val result = JavaProtoBufUtil.readPackageDataFrom(annotationData!!)
+        packageData = result
+        return result
+    }
+
     public enum class Kind {
         CLASS
         PACKAGE_FACADE
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.resolve.calls.inference;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.jet.lang.types.CommonSupertypes;
+import org.jetbrains.jet.lang.types.JetType;
+import org.jetbrains.jet.lang.types.TypeUtils;
+import org.jetbrains.jet.lang.types.checker.JetTypeChecker;
+
+import java.util.*;
+
+/**
+ * Common supertypes and intersections computed while solving one constraint system (and its copies).
+ * Bounds of a type variable are recomputed each time a new bound is added, and most of the time
+ * the sets of lower or upper bounds haven't changed, so there is no need to walk the supertypes again.
+ */
+/*package*/ class CommonSupertypesCache {
+    private final Map<List<JetType>, JetType> commonSupertypes = new HashMap<List<JetType>, JetType>();
+    private final Map<List<JetType>, JetType> commonSupertypesForNumberTypes = new HashMap<List<JetType>, JetType>();
+    private final Map<List<JetType>, JetType> intersections = new HashMap<List<JetType>, JetType>();
+
+    @Nullable
+    public JetType commonSupertypeForNonDenotableTypes(@NotNull Collection<JetType> types) {
+        if (types.size() < 2) return CommonSupertypes.commonSupertypeForNonDenotableTypes(types);
+
+        List<JetType> key = new ArrayList<JetType>(types);
+        if (commonSupertypes.containsKey(key)) return commonSupertypes.get(key);
+        JetType result = CommonSupertypes.commonSupertypeForNonDenotableTypes(types);
+        commonSupertypes.put(key, result);
+        return result;
+    }
+
+    @Nullable
+    public JetType commonSupertypeForNumberTypes(@NotNull Collection<JetType> types) {
+        if (types.isEmpty()) return null;
+
+        List<JetType> key = new ArrayList<JetType>(types);
+        if (commonSupertypesForNumberTypes.containsKey(key)) return commonSupertypesForNumberTypes.get(key);
+        JetType result = TypeUtils.commonSupertypeForNumberTypes(types);
+        commonSupertypesForNumberTypes.put(key, result);
+        return result;
+    }
+
+    @Nullable
+    public JetType intersect(@NotNull Set<JetType> types) {
+        if (types.size() < 2) return TypeUtils.intersect(JetTypeChecker.DEFAULT, types);
+
+        List<JetType> key = new ArrayList<JetType>(types);
+        if (intersections.containsKey(key)) return intersections.get(key);
+        JetType result = TypeUtils.intersect(JetTypeChecker.DEFAULT, types);
+        intersections.put(key, result);
+        return result;
+    }
+}
@@ -46,6 +46,7 @@ public class ConstraintSystemImpl implements ConstraintSystem {
     private final Map<TypeParameterDescriptor, TypeBoundsImpl> typeParameterBounds =
             new LinkedHashMap<TypeParameterDescriptor, TypeBoundsImpl>();
     private final Set<ConstraintPosition> errorConstraintPositions = new HashSet<ConstraintPosition>();
+    private final CommonSupertypesCache supertypesCache = new CommonSupertypesCache();
     private boolean hasErrorInConstrainingTypes;
 
     private final ConstraintSystemStatus constraintSystemStatus = new ConstraintSystemStatus() {
@@ -176,7 +177,7 @@ public class ConstraintSystemImpl implements ConstraintSystem {
         for (Map.Entry<TypeParameterDescriptor, Variance> entry : typeVariables.entrySet()) {
             TypeParameterDescriptor typeVariable = entry.getKey();
             Variance positionVariance = entry.getValue();
-            typeParameterBounds.put(typeVariable, new TypeBoundsImpl(typeVariable, positionVariance));
+            typeParameterBounds.put(typeVariable, new TypeBoundsImpl(typeVariable, positionVariance, supertypesCache));
         }
         TypeSubstitutor constantSubstitutor = TypeUtils.makeConstantSubstitutor(typeParameterBounds.keySet(), DONT_CARE);
         for (Map.Entry<TypeParameterDescriptor, TypeBoundsImpl> entry : typeParameterBounds.entrySet()) {
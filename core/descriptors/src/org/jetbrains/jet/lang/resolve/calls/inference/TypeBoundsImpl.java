@@ -34,15 +34,27 @@ public class TypeBoundsImpl implements TypeBounds {
     private final TypeParameterDescriptor typeVariable;
     private final Variance varianceOfPosition;
     private final Set<Bound> bounds = new LinkedHashSet<Bound>();
+    private final CommonSupertypesCache supertypesCache;
 
     private Collection<JetType> resultValues;
+    // the single value was found before upper bounds were taken into account
+    private boolean valueIndependentOfUpperBounds;
 
     public TypeBoundsImpl(
             @NotNull TypeParameterDescriptor typeVariable,
             @NotNull Variance varianceOfPosition
+    ) {
+        this(typeVariable, varianceOfPosition, new CommonSupertypesCache());
+    }
+
+    /*package*/ TypeBoundsImpl(
+            @NotNull TypeParameterDescriptor typeVariable,
+            @NotNull Variance varianceOfPosition,
+            @NotNull CommonSupertypesCache supertypesCache
     ) {
         this.typeVariable = typeVariable;
         this.varianceOfPosition = varianceOfPosition;
+        this.supertypesCache = supertypesCache;
     }
 
     @NotNull
@@ -52,10 +64,21 @@ public class TypeBoundsImpl implements TypeBounds {
     }
 
     public void addBound(@NotNull BoundKind kind, @NotNull JetType type, @NotNull ConstraintPosition position) {
-        resultValues = null;
+        if (!isValueFixedFor(kind, type)) {
+            resultValues = null;
+        }
         bounds.add(new Bound(type, kind, position));
     }
 
+    private boolean isValueFixedFor(@NotNull BoundKind kind, @NotNull JetType type) {
+        // A new upper bound can't change the value that was chosen before upper bounds were checked
+        // as long as the value still satisfies it: all previous attempts fail as before
+        if (resultValues == null || resultValues.size() != 1 || !valueIndependentOfUpperBounds) return false;
+        if (kind != BoundKind.UPPER_BOUND || ErrorUtils.containsErrorType(type)) return false;
+
+        return JetTypeChecker.DEFAULT.isSubtypeOf(resultValues.iterator().next(), type);
+    }
+
     @Override
     public boolean isEmpty() {
         return getValues().isEmpty();
@@ -102,15 +125,16 @@ public class TypeBoundsImpl implements TypeBounds {
     }
 
     /*package*/ TypeBoundsImpl copy() {
-        TypeBoundsImpl typeBounds = new TypeBoundsImpl(typeVariable, varianceOfPosition);
+        TypeBoundsImpl typeBounds = new TypeBoundsImpl(typeVariable, varianceOfPosition, supertypesCache);
         typeBounds.bounds.addAll(bounds);
         typeBounds.resultValues = resultValues;
+        typeBounds.valueIndependentOfUpperBounds = valueIndependentOfUpperBounds;
         return typeBounds;
     }
 
     @NotNull
     public TypeBoundsImpl filter(@NotNull final Function1<ConstraintPosition, Boolean> condition) {
-        TypeBoundsImpl result = new TypeBoundsImpl(typeVariable, varianceOfPosition);
+        TypeBoundsImpl result = new TypeBoundsImpl(typeVariable, varianceOfPosition, supertypesCache);
         result.bounds.addAll(KotlinPackage.filter(bounds, new Function1<Bound, Boolean>() {
             @Override
             public Boolean invoke(Bound bound) {
@@ -141,6 +165,7 @@ public class TypeBoundsImpl implements TypeBounds {
 
     @NotNull
     private Collection<JetType> computeValues() {
+        valueIndependentOfUpperBounds = true;
         Set<JetType> values = new LinkedHashSet<JetType>();
         if (bounds.isEmpty()) {
             return Collections.emptyList();
@@ -168,7 +193,7 @@ public class TypeBoundsImpl implements TypeBounds {
         Collection<JetType> generalLowerBounds = new LinkedHashSet<JetType>();
         filterNumberTypes(filterBounds(bounds, LOWER_BOUND, values), numberLowerBounds, generalLowerBounds);
 
-        JetType superTypeOfLowerBounds = CommonSupertypes.commonSupertypeForNonDenotableTypes(generalLowerBounds);
+        JetType superTypeOfLowerBounds = supertypesCache.commonSupertypeForNonDenotableTypes(generalLowerBounds);
         if (tryPossibleAnswer(superTypeOfLowerBounds)) {
             return Collections.singleton(superTypeOfLowerBounds);
         }
@@ -178,14 +203,14 @@ public class TypeBoundsImpl implements TypeBounds {
         //fun <T> foo(t: T, consumer: Consumer<T>): T
         //foo(1, c: Consumer<Any>) - infer Int, not Any here
 
-        JetType superTypeOfNumberLowerBounds = TypeUtils.commonSupertypeForNumberTypes(numberLowerBounds);
+        JetType superTypeOfNumberLowerBounds = supertypesCache.commonSupertypeForNumberTypes(numberLowerBounds);
         if (tryPossibleAnswer(superTypeOfNumberLowerBounds)) {
             return Collections.singleton(superTypeOfNumberLowerBounds);
         }
         UtilsPackage.addIfNotNull(values, superTypeOfNumberLowerBounds);
 
         if (superTypeOfLowerBounds != null && superTypeOfNumberLowerBounds != null) {
-            JetType superTypeOfAllLowerBounds = CommonSupertypes.commonSupertypeForNonDenotableTypes(
+            JetType superTypeOfAllLowerBounds = supertypesCache.commonSupertypeForNonDenotableTypes(
                     Arrays.asList(superTypeOfLowerBounds, superTypeOfNumberLowerBounds)
             );
             if (tryPossibleAnswer(superTypeOfAllLowerBounds)) {
@@ -193,8 +218,9 @@ public class TypeBoundsImpl implements TypeBounds {
             }
         }
 
+        valueIndependentOfUpperBounds = false;
         Set<JetType> upperBounds = filterBounds(bounds, BoundKind.UPPER_BOUND, values);
-        JetType intersectionOfUpperBounds = TypeUtils.intersect(JetTypeChecker.DEFAULT, upperBounds);
+        JetType intersectionOfUpperBounds = supertypesCache.intersect(upperBounds);
         if (!upperBounds.isEmpty() && intersectionOfUpperBounds != null) {
             if (tryPossibleAnswer(intersectionOfUpperBounds)) {
                 return Collections.singleton(intersectionOfUpperBounds);
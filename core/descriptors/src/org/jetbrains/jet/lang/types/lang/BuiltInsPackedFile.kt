@@ -0,0 +1,148 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.lang.types.lang
+
+import org.jetbrains.jet.descriptors.serialization.NameResolver
+import org.jetbrains.jet.descriptors.serialization.NameSerializationUtil
+import org.jetbrains.jet.descriptors.serialization.ProtoBuf
+import org.jetbrains.jet.lang.resolve.name.ClassId
+import org.jetbrains.jet.lang.resolve.name.Name
+import java.io.File
+import java.io.InputStream
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.ArrayList
+import java.util.HashMap
+
+/**
+ * All serialized built-ins of one package in a single file, so that they're read with one resource lookup.
+ *
+ * The layout is (all numbers are big-endian ints):
+ *   MAGIC, VERSION,
+ *   name table size, name table (see [NameSerializationUtil.serializeNameTable]),
+ *   package proto size, package proto,
+ *   number of top-level class names, simple name index of each of them,
+ *   number of classes, (fqName index, offset, size) of each class proto,
+ *   class protos, offsets are relative to the start of this section.
+ *
+ * Only the name table, the package and the index are parsed upfront, each class proto is parsed when it's requested.
+ */
+public class BuiltInsPackedFile private(private val buffer: ByteBuffer) {
+    public val nameResolver: NameResolver
+    public val packageProto: ProtoBuf.Package
+    public val classNames: List<Name>
+
+    private val classFqNameIndices: IntArray
+    private val classOffsets: IntArray
+    private val classSizes: IntArray
+    private val classDataStart: Int
+
+    private var classIndex: Map<ClassId, Int>? = null
+
+    {
+        if (buffer.getInt() != MAGIC) throw IllegalStateException("Not a packed built-ins file")
+        val version = buffer.getInt()
+        if (version != VERSION) throw IllegalStateException("Unsupported packed built-ins version: $version, expected $VERSION")
+
+        nameResolver = NameSerializationUtil.deserializeNameResolver(readSection())
+        packageProto = ProtoBuf.Package.parseFrom(readSection())
+
+        val classNamesCount = buffer.getInt()
+        val names = ArrayList<Name>(classNamesCount)
+        for (i in 0..classNamesCount - 1) {
+            names.add(nameResolver.getName(buffer.getInt()))
+        }
+        classNames = names
+
+        val classCount = buffer.getInt()
+        classFqNameIndices = IntArray(classCount)
+        classOffsets = IntArray(classCount)
+        classSizes = IntArray(classCount)
+        for (i in 0..classCount - 1) {
+            classFqNameIndices[i] = buffer.getInt()
+            classOffsets[i] = buffer.getInt()
+            classSizes[i] = buffer.getInt()
+        }
+        classDataStart = buffer.position()
+    }
+
+    public fun findClass(classId: ClassId): ProtoBuf.Class? {
+        val index = getClassIndex()[classId] ?: return null
+        return ProtoBuf.Class.parseFrom(ByteBufferInputStream(slice(classDataStart + classOffsets[index], classSizes[index])))
+    }
+
+    synchronized private fun getClassIndex(): Map<ClassId, Int> {
+        val cached = classIndex
+        if (cached != null) return cached
+
+        // Only names are resolved here, class protos stay untouched until they're requested
+        val result = HashMap<ClassId, Int>(classFqNameIndices.size * 2)
+        for (i in classFqNameIndices.indices) {
+            result[nameResolver.getClassId(classFqNameIndices[i])] = i
+        }
+        classIndex = result
+        return result
+    }
+
+    private fun readSection(): InputStream {
+        val size = buffer.getInt()
+        val section = slice(buffer.position(), size)
+        buffer.position(buffer.position() + size)
+        return ByteBufferInputStream(section)
+    }
+
+    private fun slice(offset: Int, size: Int): ByteBuffer {
+        val result = buffer.duplicate()
+        result.position(offset)
+        result.limit(offset + size)
+        return result
+    }
+
+    private class ByteBufferInputStream(private val buffer: ByteBuffer) : InputStream() {
+        override fun read(): Int = if (buffer.hasRemaining()) buffer.get().toInt() and 0xFF else -1
+
+        override fun read(b: ByteArray, off: Int, len: Int): Int {
+            if (!buffer.hasRemaining()) return -1
+            val count = Math.min(len, buffer.remaining())
+            buffer.get(b, off, count)
+            return count
+        }
+
+        override fun available(): Int = buffer.remaining()
+    }
+
+    class object {
+        public val MAGIC: Int = 0x4B424931 // "KBI1"
+        public val VERSION: Int = 1
+
+        /**
+         * Maps the file if the resource is a plain file (e.g. when running from the output directory),
+         * otherwise reads it fully with a single stream
+         */
+        public fun load(classLoader: ClassLoader, path: String): BuiltInsPackedFile {
+            val url = classLoader.getResource(path) ?: throw IllegalStateException("Resource not found in classpath: " + path)
+            if (url.getProtocol() == "file") {
+                RandomAccessFile(File(url.toURI()), "r") use { file ->
+                    val channel = file.getChannel()
+                    return BuiltInsPackedFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()))
+                }
+            }
+            return BuiltInsPackedFile(ByteBuffer.wrap(url.openStream() use { it.readBytes() }))
+        }
+    }
+}
@@ -16,40 +16,14 @@
 
 package org.jetbrains.jet.lang.types.lang
 
-import org.jetbrains.jet.lang.resolve.name.*
+import org.jetbrains.jet.lang.resolve.name.FqName
 import kotlin.platform.platformStatic
 
 public object BuiltInsSerializationUtil {
-    private val CLASS_METADATA_FILE_EXTENSION = "kotlin_class"
-    private val PACKAGE_FILE_NAME = ".kotlin_package"
-    private val NAME_TABLE_FILE_NAME = ".kotlin_name_table"
-    private val CLASS_NAMES_FILE_NAME = ".kotlin_class_names"
-    private val CLASS_OBJECT_NAME = "object"
+    private val PACKED_FILE_NAME = ".kotlin_builtins"
 
-    private fun relativeClassNameToFilePath(className: FqNameUnsafe): String? {
-        return FqName.fromSegments(className.pathSegments().map { segment ->
-            when {
-                SpecialNames.isClassObjectName(segment) -> CLASS_OBJECT_NAME
-                !segment.isSpecial() -> segment.getIdentifier()
-                else -> return null
-            }
-        }).asString()
-    }
-
-    platformStatic public fun getClassMetadataPath(classId: ClassId): String? {
-        val filePath = relativeClassNameToFilePath(classId.getRelativeClassName())
-        if (filePath == null) return null
-        return packageFqNameToPath(classId.getPackageFqName()) + "/" + filePath + "." + CLASS_METADATA_FILE_EXTENSION
-    }
-
-    platformStatic public fun getPackageFilePath(fqName: FqName): String =
-            packageFqNameToPath(fqName) + "/" + PACKAGE_FILE_NAME
-
-    platformStatic public fun getNameTableFilePath(fqName: FqName): String =
-            packageFqNameToPath(fqName) + "/" + NAME_TABLE_FILE_NAME
-
-    platformStatic public fun getClassNamesFilePath(fqName: FqName): String =
-            packageFqNameToPath(fqName) + "/" + CLASS_NAMES_FILE_NAME
+    platformStatic public fun getPackedFilePath(fqName: FqName): String =
+            packageFqNameToPath(fqName) + "/" + PACKED_FILE_NAME
 
     private fun packageFqNameToPath(fqName: FqName): String =
             fqName.asString().replace('.', '/')
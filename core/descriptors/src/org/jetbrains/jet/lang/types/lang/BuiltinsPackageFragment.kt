@@ -28,65 +28,31 @@ import org.jetbrains.jet.lang.resolve.name.ClassId
 import org.jetbrains.jet.lang.resolve.name.FqName
 import org.jetbrains.jet.lang.resolve.name.Name
 import org.jetbrains.jet.storage.StorageManager
-import java.io.DataInputStream
-import java.io.IOException
-import java.io.InputStream
-import java.util.ArrayList
 import org.jetbrains.jet.descriptors.serialization.context.DeserializationComponents
 
 class BuiltinsPackageFragment(storageManager: StorageManager, module: ModuleDescriptor)
   : PackageFragmentDescriptorImpl(module, KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME) {
 
-    private val nameResolver = NameSerializationUtil.deserializeNameResolver(getStream(BuiltInsSerializationUtil.getNameTableFilePath(fqName)))
+    private val packedFile = BuiltInsPackedFile.load(javaClass<KotlinBuiltIns>().getClassLoader(), BuiltInsSerializationUtil.getPackedFilePath(fqName))
+
+    private val nameResolver = packedFile.nameResolver
 
     public val provider: PackageFragmentProvider = BuiltinsPackageFragmentProvider()
 
     private val members: DeserializedPackageMemberScope =
         DeserializedPackageMemberScope(
                 this,
-                loadPackage(),
+                packedFile.packageProto,
                 nameResolver,
                 DeserializationComponents(
                         storageManager, module, BuiltInsClassDataFinder(), AnnotationLoader.UNSUPPORTED, // TODO: support annotations
                         ConstantLoader.UNSUPPORTED, provider, FlexibleTypeCapabilitiesDeserializer.ThrowException
                 ),
-                { readClassNames() }
+                { packedFile.classNames }
         )
 
-    private fun loadPackage(): ProtoBuf.Package {
-        val packageFilePath = BuiltInsSerializationUtil.getPackageFilePath(fqName)
-        val stream = getStream(packageFilePath)
-        try {
-            return ProtoBuf.Package.parseFrom(stream)
-        }
-        catch (e: IOException) {
-            throw IllegalStateException(e)
-        }
-
-    }
-
-    private fun readClassNames(): List<Name> {
-        val `in` = getStream(BuiltInsSerializationUtil.getClassNamesFilePath(fqName))
-        val data = DataInputStream(`in`)
-        try {
-            val size = data.readInt()
-            val result = ArrayList<Name>(size)
-            for (i in 0..size - 1) {
-                result.add(nameResolver.getName(data.readInt()))
-            }
-            return result
-        }
-        finally {
-            data.close()
-        }
-    }
-
     override fun getMemberScope() = members
 
-    private fun getStream(path: String) = getStreamNullable(path) ?: throw IllegalStateException("Resource not found in classpath: " + path)
-
-    private fun getStreamNullable(path: String): InputStream? = javaClass<KotlinBuiltIns>().getClassLoader().getResourceAsStream(path)
-
     private inner class BuiltinsPackageFragmentProvider : PackageFragmentProvider {
         override fun getPackageFragments(fqName: FqName): List<PackageFragmentDescriptor>
                 = if (KotlinBuiltIns.BUILT_INS_PACKAGE_FQ_NAME == fqName) listOf(this@BuiltinsPackageFragment) else listOf()
@@ -97,19 +63,7 @@ class BuiltinsPackageFragment(storageManager: StorageManager, module: ModuleDesc
 
     private inner class BuiltInsClassDataFinder : ClassDataFinder {
         override fun findClassData(classId: ClassId): ClassData? {
-            val metadataPath = BuiltInsSerializationUtil.getClassMetadataPath(classId) ?: return null
-            val stream = getStreamNullable(metadataPath) ?: return null
-
-            val classProto = ProtoBuf.Class.parseFrom(stream)
-
-            val expectedShortName = classId.getRelativeClassName().shortName()
-            val actualShortName = nameResolver.getClassId(classProto.getFqName()).getRelativeClassName().shortName()
-            if (!actualShortName.isSpecial() && actualShortName != expectedShortName) {
-                // Workaround for case-insensitive file systems,
-                // otherwise we'd find "Collection" for "collection" etc
-                return null
-            }
-
+            val classProto = packedFile.findClass(classId) ?: return null
             return ClassData(nameResolver, classProto)
         }
     }
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package kotlin.reflect.jvm.internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of reflection objects (such as KClassImpl) created for Java classes, a replacement of java.lang.ClassValue which is not
+ * available on Java 6. Reads are lock-free and writes never lose entries of other threads.
+ *
+ * Values of classes loaded by the class loader of this library or by one of its parents are held strongly: such classes can't be
+ * unloaded before this library anyway, and a value which is only weakly referenced could be collected and then recreated
+ * with a different identity. Values of other classes are only weakly referenced, so the cache doesn't prevent their class loaders
+ * from being unloaded. Entries of collected values are removed on subsequent writes.
+ */
+public abstract class ClassCache<V> {
+    // Key is Class.getName(), each value is either an Entry or an Entry[]. Arrays are needed because the same class can be loaded
+    // by different class loaders, which results in different Class instances
+    private final ConcurrentHashMap<String, Object> map = new ConcurrentHashMap<String, Object>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    private static final ClassLoader OWN_CLASS_LOADER = ClassCache.class.getClassLoader();
+
+    private static class Entry extends WeakReference<Object> {
+        private final String name;
+        @SuppressWarnings({"UnusedDeclaration", "FieldCanBeLocal"})
+        private final Object strongValue;
+
+        public Entry(@NotNull String name, @NotNull Object value, boolean isStrong, @NotNull ReferenceQueue<Object> queue) {
+            super(value, queue);
+            this.name = name;
+            this.strongValue = isStrong ? value : null;
+        }
+    }
+
+    @NotNull
+    protected abstract Class<?> getJClass(@NotNull V value);
+
+    @NotNull
+    protected abstract V create(@NotNull Class<?> jClass);
+
+    @NotNull
+    public V get(@NotNull Class<?> jClass) {
+        // This method is invoked on each reflection access to Java classes, properties, etc. Performance is critical here
+        Object cached = map.get(jClass.getName());
+        V value = cached == null ? null : find(cached, jClass);
+        return value != null ? value : put(jClass, create(jClass));
+    }
+
+    /**
+     * Stores the value for the class. If there's another value cached for this class already, it's kept and returned instead
+     * of the given value, so that there's never more than one value for a class
+     */
+    @NotNull
+    public V put(@NotNull Class<?> jClass, @NotNull V value) {
+        expungeCollectedEntries();
+
+        String name = jClass.getName();
+        Entry entry = new Entry(name, value, isLoadedByOwnClassLoaderOrParent(jClass), queue);
+        while (true) {
+            Object cached = map.get(name);
+            if (cached == null) {
+                if (map.putIfAbsent(name, entry) == null) return value;
+                continue;
+            }
+
+            V existing = find(cached, jClass);
+            if (existing != null) return existing;
+
+            // Entries of other class loaders which are still alive are kept, a collected entry of this class is replaced
+            List<Entry> entries = new ArrayList<Entry>();
+            for (Entry e : entries(cached)) {
+                Object v = e.get();
+                //noinspection unchecked
+                if (v != null && getJClass((V) v) != jClass) {
+                    entries.add(e);
+                }
+            }
+            entries.add(entry);
+
+            if (map.replace(name, cached, pack(entries))) return value;
+        }
+    }
+
+    private static boolean isLoadedByOwnClassLoaderOrParent(@NotNull Class<?> jClass) {
+        ClassLoader classLoader = jClass.getClassLoader();
+        if (classLoader == null) return true;
+        for (ClassLoader loader = OWN_CLASS_LOADER; loader != null; loader = loader.getParent()) {
+            if (loader == classLoader) return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private V find(@NotNull Object cached, @NotNull Class<?> jClass) {
+        if (cached instanceof Entry) {
+            return valueForClass((Entry) cached, jClass);
+        }
+        for (Entry entry : (Entry[]) cached) {
+            V value = valueForClass(entry, jClass);
+            if (value != null) return value;
+        }
+        return null;
+    }
+
+    @Nullable
+    private V valueForClass(@NotNull Entry entry, @NotNull Class<?> jClass) {
+        //noinspection unchecked
+        V value = (V) entry.get();
+        return value != null && getJClass(value) == jClass ? value : null;
+    }
+
+    private void expungeCollectedEntries() {
+        Entry collected;
+        while ((collected = (Entry) queue.poll()) != null) {
+            String name = collected.name;
+            while (true) {
+                Object cached = map.get(name);
+                if (cached == null) break;
+
+                List<Entry> alive = new ArrayList<Entry>();
+                Entry[] entries = entries(cached);
+                for (Entry entry : entries) {
+                    if (entry.get() != null) alive.add(entry);
+                }
+                if (alive.size() == entries.length) break;
+
+                if (alive.isEmpty() ? map.remove(name, cached) : map.replace(name, cached, pack(alive))) break;
+            }
+        }
+    }
+
+    @NotNull
+    private static Entry[] entries(@NotNull Object cached) {
+        return cached instanceof Entry ? new Entry[] {(Entry) cached} : (Entry[]) cached;
+    }
+
+    @NotNull
+    private static Object pack(@NotNull List<Entry> entries) {
+        return entries.size() == 1 ? entries.get(0) : entries.toArray(new Entry[entries.size()]);
+    }
+}
@@ -19,6 +19,7 @@ package kotlin.reflect.jvm.internal
 import kotlin.reflect.*
 import kotlin.jvm.internal.KotlinClass
 import kotlin.jvm.internal.KotlinSyntheticClass
+import kotlin.reflect.jvm.internal.pcollections.HashPMap
 
 enum class KClassOrigin {
     BUILT_IN
@@ -43,20 +44,36 @@ class KClassImpl<T>(val jClass: Class<T>, isKnownToBeKotlin: Boolean) : KClass<T
                 // TODO: built-in classes
             }
 
+    // Key is the property name. The map is immutable and replaced as a whole, so readers on other threads always see a complete map.
+    // If two threads add members at the same time, one of the additions may be lost, and those members are just looked up once again
+    private volatile var propertyMembers = HashPMap.empty<String, KPropertyMembers>()
+
+    fun propertyMembers(name: String, isMutable: Boolean): KPropertyMembers {
+        val cached = propertyMembers[name]
+        // Members of a var serve its val counterpart as well, but not vice versa because they have no setter
+        if (cached != null && (cached.isMutable || !isMutable)) return cached
+
+        val members =
+                if (origin identityEquals KClassOrigin.KOTLIN) resolveKotlinPropertyMembers(jClass, name, isMutable)
+                else resolveForeignPropertyMembers(jClass, name)
+        propertyMembers = propertyMembers.plus(name, members)
+        return members
+    }
+
     fun memberProperty(name: String): KMemberProperty<T, *> =
             if (origin identityEquals KClassOrigin.KOTLIN) {
-                KMemberPropertyImpl<T, Any>(name, this)
+                KMemberPropertyImpl<T, Any>(name, this, propertyMembers(name, false))
             }
             else {
-                KForeignMemberProperty<T, Any>(name, this)
+                KForeignMemberProperty<T, Any>(name, this, propertyMembers(name, false))
             }
 
     fun mutableMemberProperty(name: String): KMutableMemberProperty<T, *> =
             if (origin identityEquals KClassOrigin.KOTLIN) {
-                KMutableMemberPropertyImpl<T, Any>(name, this)
+                KMutableMemberPropertyImpl<T, Any>(name, this, propertyMembers(name, true))
             }
             else {
-                KMutableForeignMemberProperty<T, Any>(name, this)
+                KMutableForeignMemberProperty<T, Any>(name, this, propertyMembers(name, true))
             }
 
     override fun equals(other: Any?): Boolean =
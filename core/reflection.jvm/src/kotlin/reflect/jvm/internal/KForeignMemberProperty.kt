@@ -21,20 +21,32 @@ import kotlin.reflect.*
 
 open class KForeignMemberProperty<T : Any, out R>(
         override val name: String,
-        protected val owner: KClassImpl<T>
+        protected val owner: KClassImpl<T>,
+        private val sharedMembers: KPropertyMembers
 ) : KMemberProperty<T, R>, KPropertyImpl<R> {
-    override val field: Field = try {
-        owner.jClass.getField(name)
-    }
-    catch (e: NoSuchFieldException) {
-        throw NoSuchPropertyException(e)
+    // Created when the Java field is requested, because it can be made accessible (see KPropertyMembers)
+    private var ownMembers: KPropertyMembers? = null
+
+    synchronized private fun getOwnMembers(): KPropertyMembers {
+        val cached = ownMembers
+        if (cached != null) return cached
+
+        val members = sharedMembers.copy()
+        ownMembers = members
+        return members
     }
 
+    protected val members: KPropertyMembers
+        get() = ownMembers ?: sharedMembers
+
+    override val field: Field
+        get() = getOwnMembers().field!!
+
     override val getter: Method? get() = null
 
     override fun get(receiver: T): R {
         try {
-            return field.get(receiver) as R
+            return members.field!!.get(receiver) as R
         }
         catch (e: java.lang.IllegalAccessException) {
             throw kotlin.reflect.IllegalAccessException(e)
@@ -54,13 +66,14 @@ open class KForeignMemberProperty<T : Any, out R>(
 
 class KMutableForeignMemberProperty<T : Any, R>(
         name: String,
-        owner: KClassImpl<T>
-) : KMutableMemberProperty<T, R>, KMutablePropertyImpl<R>, KForeignMemberProperty<T, R>(name, owner) {
+        owner: KClassImpl<T>,
+        sharedMembers: KPropertyMembers
+) : KMutableMemberProperty<T, R>, KMutablePropertyImpl<R>, KForeignMemberProperty<T, R>(name, owner, sharedMembers) {
     override val setter: Method? get() = null
 
     override fun set(receiver: T, value: R) {
         try {
-            field.set(receiver, value)
+            members.field!!.set(receiver, value)
         }
         catch (e: java.lang.IllegalAccessException) {
             throw kotlin.reflect.IllegalAccessException(e)
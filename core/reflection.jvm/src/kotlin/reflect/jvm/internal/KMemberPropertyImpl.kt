@@ -23,32 +23,35 @@ import kotlin.reflect.*
 
 open class KMemberPropertyImpl<T : Any, out R>(
         override val name: String,
-        protected val owner: KClassImpl<T>
+        protected val owner: KClassImpl<T>,
+        private val sharedMembers: KPropertyMembers
 ) : KMemberProperty<T, R>, KPropertyImpl<R> {
-    // TODO: extract, make lazy (weak?), use our descriptors knowledge
-    override val field: Field?
-    override val getter: Method?
+    // Created when Java reflection objects are requested, because they can be made accessible (see KPropertyMembers)
+    private var ownMembers: KPropertyMembers? = null
 
-    {
-        try {
-            field = owner.jClass.getDeclaredField(name)
-        }
-        catch (e: NoSuchFieldException) {
-            field = null
-        }
+    synchronized protected fun getOwnMembers(): KPropertyMembers {
+        val cached = ownMembers
+        if (cached != null) return cached
 
-        try {
-            getter = owner.jClass.getMaybeDeclaredMethod(getterName(name))
-        }
-        catch (e: NoSuchMethodException) {
-            if (field == null) throw NoSuchPropertyException(e)
-            getter = null
-        }
+        val members = sharedMembers.copy()
+        ownMembers = members
+        return members
     }
 
+    protected val members: KPropertyMembers
+        get() = ownMembers ?: sharedMembers
+
+    override val field: Field?
+        get() = getOwnMembers().field
+
+    override val getter: Method?
+        get() = getOwnMembers().getter
+
     override fun get(receiver: T): R {
+        val members = members
         try {
-            return (if (getter != null) getter!!(receiver) else field!!.get(receiver)) as R
+            val getter = members.getter
+            return (if (getter != null) getter(receiver) else members.field!!.get(receiver)) as R
         }
         catch (e: java.lang.IllegalAccessException) {
             throw kotlin.reflect.IllegalAccessException(e)
@@ -68,24 +71,17 @@ open class KMemberPropertyImpl<T : Any, out R>(
 
 class KMutableMemberPropertyImpl<T : Any, R>(
         name: String,
-        owner: KClassImpl<T>
-) : KMutableMemberProperty<T, R>, KMutablePropertyImpl<R>, KMemberPropertyImpl<T, R>(name, owner) {
+        owner: KClassImpl<T>,
+        sharedMembers: KPropertyMembers
+) : KMutableMemberProperty<T, R>, KMutablePropertyImpl<R>, KMemberPropertyImpl<T, R>(name, owner, sharedMembers) {
     override val setter: Method?
-
-    {
-        try {
-            val returnType = if (getter != null) getter.getReturnType() else field!!.getType()
-            setter = owner.jClass.getMaybeDeclaredMethod(setterName(name), returnType!!)
-        }
-        catch (e: NoSuchMethodException) {
-            if (field == null) throw NoSuchPropertyException(e)
-            setter = null
-        }
-    }
+        get() = getOwnMembers().setter
 
     override fun set(receiver: T, value: R) {
+        val members = members
         try {
-            if (setter != null) setter!!(receiver, value) else field!!.set(receiver, value)
+            val setter = members.setter
+            if (setter != null) setter(receiver, value) else members.field!!.set(receiver, value)
         }
         catch (e: java.lang.IllegalAccessException) {
             throw kotlin.reflect.IllegalAccessException(e)
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package kotlin.reflect.jvm.internal
+
+import java.lang.reflect.*
+import kotlin.reflect.*
+
+/**
+ * Java reflection objects of a member property. They're looked up once per class (see [KClassImpl.propertyMembers]) and are shared
+ * by all instances of this property. Shared objects are only used to access the property and must never be made accessible,
+ * so each property instance creates its own [copy] as soon as Java reflection objects are requested from it.
+ */
+class KPropertyMembers(val field: Field?, val getter: Method?, val setter: Method?, val isMutable: Boolean) {
+    fun copy(): KPropertyMembers =
+            KPropertyMembers(field?.copy(), getter?.copy(), setter?.copy(), isMutable)
+}
+
+private fun Field.copy(): Field =
+        getDeclaringClass()!!.getDeclaredField(getName()!!)
+
+private fun Method.copy(): Method =
+        getDeclaringClass()!!.getDeclaredMethod(getName()!!, *getParameterTypes()!!)
+
+// TODO: extract, use our descriptors knowledge
+private fun resolveKotlinPropertyMembers(jClass: Class<*>, name: String, isMutable: Boolean): KPropertyMembers {
+    val field = try {
+        jClass.getDeclaredField(name)
+    }
+    catch (e: NoSuchFieldException) {
+        null
+    }
+
+    val getter = try {
+        jClass.getMaybeDeclaredMethod(getterName(name))
+    }
+    catch (e: NoSuchMethodException) {
+        if (field == null) throw NoSuchPropertyException(e)
+        null
+    }
+
+    if (!isMutable) return KPropertyMembers(field, getter, null, false)
+
+    val setter = try {
+        val returnType = if (getter != null) getter.getReturnType() else field!!.getType()
+        jClass.getMaybeDeclaredMethod(setterName(name), returnType!!)
+    }
+    catch (e: NoSuchMethodException) {
+        if (field == null) throw NoSuchPropertyException(e)
+        null
+    }
+
+    return KPropertyMembers(field, getter, setter, true)
+}
+
+// Properties of foreign classes are only their public fields, which are the same for val and var
+private fun resolveForeignPropertyMembers(jClass: Class<*>, name: String): KPropertyMembers {
+    val field = try {
+        jClass.getField(name)
+    }
+    catch (e: NoSuchFieldException) {
+        throw NoSuchPropertyException(e)
+    }
+    return KPropertyMembers(field, null, null, true)
+}
@@ -19,13 +19,13 @@ package kotlin.reflect.jvm.internal
 import kotlin.reflect.*
 
 fun <T> kClass(jClass: Class<T>): KClassImpl<T> =
-        KClassImpl<T>(jClass, false)
+        foreignKotlinClass(jClass)
 
 fun <T> kClassFromKotlin(jClass: Class<T>): KClassImpl<T> =
-        KClassImpl<T>(jClass, true)
+        K_CLASSES.put(jClass, KClassImpl(jClass, true)) as KClassImpl<T>
 
 fun kPackage(jClass: Class<*>): KPackageImpl =
-        KPackageImpl(jClass)
+        K_PACKAGES.get(jClass)
 
 fun topLevelVariable(name: String, owner: KPackageImpl): KTopLevelVariableImpl<Any?> =
         KTopLevelVariableImpl<Any?>(name, owner)
@@ -16,50 +16,20 @@
 
 package kotlin.reflect.jvm.internal
 
-import java.lang.ref.WeakReference
-import kotlin.reflect.jvm.internal.pcollections.HashPMap
+// KClass instances of Kotlin classes are stored in the class initializer (see kClassFromKotlin), unless a lookup of this class
+// has created one before: then the class initializer stores that one. Other classes get a new KClass on the first lookup
+private val K_CLASSES = object : ClassCache<KClassImpl<*>>() {
+    override fun getJClass(value: KClassImpl<*>): Class<*> = value.jClass
 
-// TODO: collect nulls periodically
-// Key of the map is Class.getName(), each value is either a WeakReference<KClassImpl<*>> or an Array<WeakReference<KClassImpl<*>>>.
-// Arrays are needed because the same class can be loaded by different class loaders, which results in different Class instances.
-// This variable is not volatile intentionally: we don't care if there's a data race on it and some KClass instances will be lost.
-// We do care however about general performance on read access to it, thus no synchronization is done here whatsoever
-private var FOREIGN_K_CLASSES = HashPMap.empty<String, Any>()
-
-// This function is invoked on each reflection access to Java classes, properties, etc. Performance is critical here.
-fun <T> foreignKotlinClass(jClass: Class<T>): KClassImpl<T> {
-    val name = jClass.getName()
-    val cached = FOREIGN_K_CLASSES[name]
-    if (cached is WeakReference<*>) {
-        val kClass = cached.get() as KClassImpl<T>?
-        if (kClass?.jClass == jClass) {
-            return kClass!!
-        }
-    }
-    else if (cached != null) {
-        // If the cached value is not a weak reference, it's an array of weak references
-        cached as Array<WeakReference<KClassImpl<T>>>
-        for (ref in cached) {
-            val kClass = ref.get()
-            if (kClass?.jClass == jClass) {
-                return kClass!!
-            }
-        }
+    override fun create(jClass: Class<*>): KClassImpl<*> = KClassImpl(jClass as Class<Any?>, false)
+}
 
-        // This is the most unlikely case: we found a cached array of references of length at least 2 (can't be 1 because
-        // the single element would be cached instead), and none of those classes is the one we're looking for
-        val size = cached.size()
-        // Don't use Array constructor because it creates a lambda
-        val newArray = arrayOfNulls<WeakReference<KClassImpl<*>>>(size + 1)
-        // Don't use Arrays.copyOf because it works reflectively
-        System.arraycopy(cached, 0, newArray, 0, size)
-        val newKClass = kClass<T>(jClass)
-        newArray[size] = WeakReference(newKClass)
-        FOREIGN_K_CLASSES = FOREIGN_K_CLASSES.plus(name, newArray)
-        return newKClass
-    }
+private val K_PACKAGES = object : ClassCache<KPackageImpl>() {
+    override fun getJClass(value: KPackageImpl): Class<*> = value.jClass
 
-    val newKClass = kClass<T>(jClass)
-    FOREIGN_K_CLASSES = FOREIGN_K_CLASSES.plus(name, WeakReference(newKClass))
-    return newKClass
+    override fun create(jClass: Class<*>): KPackageImpl = KPackageImpl(jClass)
 }
+
+// This function is invoked on each reflection access to Java classes, properties, etc. Performance is critical here.
+fun <T> foreignKotlinClass(jClass: Class<T>): KClassImpl<T> =
+        K_CLASSES.get(jClass) as KClassImpl<T>
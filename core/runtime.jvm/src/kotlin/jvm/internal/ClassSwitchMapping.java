@@ -0,0 +1,69 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package kotlin.jvm.internal;
+
+/**
+ * Maps the classes checked in a 'when' by final classes to the indices of its branches, so that the branch is found
+ * with one lookup of the subject's class instead of a chain of instanceof checks.
+ * Classes are compared by identity, which is only correct because none of them can have subclasses.
+ * The table is filled once in the constructor and is never modified, so it's safe to share between threads.
+ */
+public final class ClassSwitchMapping {
+    private final Class<?>[] classes;
+    private final int[] indices;
+    private final int mask;
+
+    public ClassSwitchMapping(Class<?>[] classes) {
+        // Open addressing with linear probing, the table is at most half full
+        int capacity = Integer.highestOneBit(Math.max(2 * classes.length - 1, 1)) << 1;
+        this.classes = new Class<?>[capacity];
+        this.indices = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int index = 0; index < classes.length; index++) {
+            Class<?> klass = classes[index];
+            int i = hash(klass) & mask;
+            while (this.classes[i] != null && this.classes[i] != klass) {
+                i = (i + 1) & mask;
+            }
+            if (this.classes[i] == null) {
+                this.classes[i] = klass;
+                this.indices[i] = index;
+            }
+        }
+    }
+
+    /**
+     * @return the index of the class of {@code value} in the array this mapping was created with, or -1 if {@code value} is null
+     *         or its class is not there
+     */
+    public int indexOf(Object value) {
+        if (value == null) return -1;
+
+        Class<?> klass = value.getClass();
+        for (int i = hash(klass) & mask; ; i = (i + 1) & mask) {
+            Class<?> current = classes[i];
+            if (current == klass) return indices[i];
+            if (current == null) return -1;
+        }
+    }
+
+    private static int hash(Class<?> klass) {
+        int h = System.identityHashCode(klass);
+        return h ^ (h >>> 16);
+    }
+}
@@ -21,13 +21,11 @@ import org.jetbrains.jet.lang.descriptors.*;
 import org.jetbrains.jet.lang.descriptors.annotations.Annotated;
 import org.jetbrains.jet.lang.resolve.DescriptorFactory;
 import org.jetbrains.jet.lang.resolve.MemberComparator;
+import org.jetbrains.jet.lang.resolve.name.Name;
 import org.jetbrains.jet.lang.types.*;
 import org.jetbrains.jet.lang.types.lang.KotlinBuiltIns;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import static org.jetbrains.jet.lang.resolve.DescriptorUtils.*;
 
@@ -112,13 +110,16 @@ public class DescriptorSerializer {
 
         // TODO: other constructors
 
+        List<Name> memberNames = new ArrayList<Name>();
         for (DeclarationDescriptor descriptor : sort(classDescriptor.getDefaultType().getMemberScope().getAllDescriptors())) {
             if (descriptor instanceof CallableMemberDescriptor) {
                 CallableMemberDescriptor member = (CallableMemberDescriptor) descriptor;
                 if (member.getKind() == CallableMemberDescriptor.Kind.FAKE_OVERRIDE) continue;
                 builder.addMember(callableProto(member));
+                memberNames.add(member.getName());
             }
         }
+        builder.addAllMemberIndex(memberIndex(memberNames));
 
         Collection<DeclarationDescriptor> nestedClasses = classDescriptor.getUnsubstitutedInnerClassesScope().getAllDescriptors();
         for (DeclarationDescriptor descriptor : sort(nestedClasses)) {
@@ -418,15 +419,51 @@ public class DescriptorSerializer {
             members.addAll(fragment.getMemberScope().getAllDescriptors());
         }
 
+        List<Name> memberNames = new ArrayList<Name>();
         for (DeclarationDescriptor declaration : sort(members)) {
             if (declaration instanceof PropertyDescriptor || declaration instanceof FunctionDescriptor) {
                 builder.addMember(callableProto((CallableMemberDescriptor) declaration));
+                memberNames.add(declaration.getName());
             }
         }
+        builder.addAllMemberIndex(memberIndex(memberNames));
 
         return builder;
     }
 
+    // See member_index in descriptors.proto, names are sorted (see Name.compareTo) so that they can be found with a binary search
+    @NotNull
+    private List<Integer> memberIndex(@NotNull List<Name> memberNames) {
+        if (memberNames.isEmpty()) return Collections.emptyList();
+
+        Map<Name, List<Integer>> positions = new TreeMap<Name, List<Integer>>();
+        for (int i = 0; i < memberNames.size(); i++) {
+            Name name = memberNames.get(i);
+            List<Integer> list = positions.get(name);
+            if (list == null) {
+                list = new ArrayList<Integer>(1);
+                positions.put(name, list);
+            }
+            list.add(i);
+        }
+
+        List<Integer> result = new ArrayList<Integer>(2 * positions.size() + memberNames.size() + 2);
+        result.add(positions.size());
+        for (Name name : positions.keySet()) {
+            result.add(nameTable.getSimpleNameIndex(name));
+        }
+        int offset = 0;
+        for (List<Integer> list : positions.values()) {
+            result.add(offset);
+            offset += list.size();
+        }
+        result.add(offset);
+        for (List<Integer> list : positions.values()) {
+            result.addAll(list);
+        }
+        return result;
+    }
+
     @NotNull
     private static ProtoBuf.Type.Argument.Projection projection(@NotNull Variance projectionKind) {
         switch (projectionKind) {
@@ -29,12 +29,21 @@ public class NameResolver {
     private final ProtoBuf.StringTable strings;
     private final ProtoBuf.QualifiedNameTable qualifiedNames;
 
+    // Names are requested by index many times during deserialization, so the results are cached per index.
+    // The caches are not synchronized: all cached objects are immutable, so the worst case is an equal instance computed twice
+    private final Name[] names;
+    private final ClassId[] classIds;
+    private final FqName[] fqNames;
+
     public NameResolver(
             @NotNull ProtoBuf.StringTable strings,
             @NotNull ProtoBuf.QualifiedNameTable qualifiedNames
     ) {
         this.strings = strings;
         this.qualifiedNames = qualifiedNames;
+        this.names = new Name[strings.getStringCount()];
+        this.classIds = new ClassId[qualifiedNames.getQualifiedNameCount()];
+        this.fqNames = new FqName[qualifiedNames.getQualifiedNameCount()];
     }
 
     @NotNull
@@ -54,12 +63,26 @@ public class NameResolver {
 
     @NotNull
     public Name getName(int index) {
-        String name = strings.getString(index);
-        return Name.guess(name);
+        Name name = names[index];
+        if (name == null) {
+            name = Name.guess(strings.getString(index));
+            names[index] = name;
+        }
+        return name;
     }
 
     @NotNull
     public ClassId getClassId(int index) {
+        ClassId classId = classIds[index];
+        if (classId == null) {
+            classId = computeClassId(index);
+            classIds[index] = classId;
+        }
+        return classId;
+    }
+
+    @NotNull
+    private ClassId computeClassId(int index) {
         QualifiedName fqNameProto = qualifiedNames.getQualifiedName(index);
         assert fqNameProto.getKind() == ProtoBuf.QualifiedNameTable.QualifiedName.Kind.CLASS : "Not a class fqName: " + fqNameProto.getKind();
 
@@ -100,11 +123,15 @@ public class NameResolver {
 
     @NotNull
     public FqName getFqName(int index) {
-        QualifiedName qualifiedName = qualifiedNames.getQualifiedName(index);
-        Name shortName = getName(qualifiedName.getShortName());
-        if (!qualifiedName.hasParentQualifiedName()) {
-            return FqName.topLevel(shortName);
+        FqName fqName = fqNames[index];
+        if (fqName == null) {
+            QualifiedName qualifiedName = qualifiedNames.getQualifiedName(index);
+            Name shortName = getName(qualifiedName.getShortName());
+            fqName = qualifiedName.hasParentQualifiedName()
+                     ? getFqName(qualifiedName.getParentQualifiedName()).child(shortName)
+                     : FqName.topLevel(shortName);
+            fqNames[index] = fqName;
         }
-        return getFqName(qualifiedName.getParentQualifiedName()).child(shortName);
+        return fqName;
     }
 }
@@ -4859,6 +4859,35 @@ public final class ProtoBuf {
      * </pre>
      */
     org.jetbrains.jet.descriptors.serialization.ProtoBuf.Class.PrimaryConstructor getPrimaryConstructor();
+
+    // repeated int32 member_index = 14 [packed = true];
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getMemberIndexList();
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndexCount();
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndex(int index);
   }
   /**
    * Protobuf type {@code org.jetbrains.jet.descriptors.serialization.Class}
@@ -5010,6 +5039,27 @@ public final class ProtoBuf {
               bitField0_ |= 0x00000010;
               break;
             }
+            case 112: {
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              memberIndex_.add(input.readInt32());
+              break;
+            }
+            case 114: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000400) == 0x00000400) && input.getBytesUntilLimit() > 0) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000400;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                memberIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -5033,6 +5083,9 @@ public final class ProtoBuf {
         if (((mutable_bitField0_ & 0x00000100) == 0x00000100)) {
           enumEntry_ = java.util.Collections.unmodifiableList(enumEntry_);
         }
+        if (((mutable_bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+        }
         makeExtensionsImmutable();
       }
     }
@@ -6345,6 +6398,45 @@ public final class ProtoBuf {
       return primaryConstructor_;
     }
 
+    // repeated int32 member_index = 14 [packed = true];
+    public static final int MEMBER_INDEX_FIELD_NUMBER = 14;
+    private java.util.List<java.lang.Integer> memberIndex_;
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getMemberIndexList() {
+      return memberIndex_;
+    }
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndexCount() {
+      return memberIndex_.size();
+    }
+    /**
+     * <code>repeated int32 member_index = 14 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndex(int index) {
+      return memberIndex_.get(index);
+    }
+    private int memberIndexMemoizedSerializedSize = -1;
+
     private void initFields() {
       flags_ = 0;
       extraVisibility_ = "";
@@ -6356,6 +6448,7 @@ public final class ProtoBuf {
       member_ = java.util.Collections.emptyList();
       enumEntry_ = java.util.Collections.emptyList();
       primaryConstructor_ = org.jetbrains.jet.descriptors.serialization.ProtoBuf.Class.PrimaryConstructor.getDefaultInstance();
+      memberIndex_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -6433,6 +6526,13 @@ public final class ProtoBuf {
       if (((bitField0_ & 0x00000010) == 0x00000010)) {
         output.writeMessage(13, primaryConstructor_);
       }
+      if (getMemberIndexList().size() > 0) {
+        output.writeRawVarint32(114);
+        output.writeRawVarint32(memberIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < memberIndex_.size(); i++) {
+        output.writeInt32NoTag(memberIndex_.get(i));
+      }
     }
 
     private int memoizedSerializedSize = -1;
@@ -6491,6 +6591,20 @@ public final class ProtoBuf {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(13, primaryConstructor_);
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < memberIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(memberIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getMemberIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        memberIndexMemoizedSerializedSize = dataSize;
+      }
       memoizedSerializedSize = size;
       return size;
     }
@@ -6602,6 +6716,8 @@ public final class ProtoBuf {
         bitField0_ = (bitField0_ & ~0x00000100);
         primaryConstructor_ = org.jetbrains.jet.descriptors.serialization.ProtoBuf.Class.PrimaryConstructor.getDefaultInstance();
         bitField0_ = (bitField0_ & ~0x00000200);
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
         return this;
       }
 
@@ -6670,6 +6786,11 @@ public final class ProtoBuf {
           to_bitField0_ |= 0x00000010;
         }
         result.primaryConstructor_ = primaryConstructor_;
+        if (((bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+          bitField0_ = (bitField0_ & ~0x00000400);
+        }
+        result.memberIndex_ = memberIndex_;
         result.bitField0_ = to_bitField0_;
         return result;
       }
@@ -6743,6 +6864,16 @@ public final class ProtoBuf {
         if (other.hasPrimaryConstructor()) {
           mergePrimaryConstructor(other.getPrimaryConstructor());
         }
+        if (!other.memberIndex_.isEmpty()) {
+          if (memberIndex_.isEmpty()) {
+            memberIndex_ = other.memberIndex_;
+            bitField0_ = (bitField0_ & ~0x00000400);
+          } else {
+            ensureMemberIndexIsMutable();
+            memberIndex_.addAll(other.memberIndex_);
+          }
+          
+        }
         return this;
       }
 
@@ -7715,6 +7846,107 @@ public final class ProtoBuf {
         return this;
       }
 
+      // repeated int32 member_index = 14 [packed = true];
+      private java.util.List<java.lang.Integer> memberIndex_ = java.util.Collections.emptyList();
+      private void ensureMemberIndexIsMutable() {
+        if (!((bitField0_ & 0x00000400) == 0x00000400)) {
+          memberIndex_ = new java.util.ArrayList<java.lang.Integer>(memberIndex_);
+          bitField0_ |= 0x00000400;
+         }
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getMemberIndexList() {
+        return java.util.Collections.unmodifiableList(memberIndex_);
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndexCount() {
+        return memberIndex_.size();
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndex(int index) {
+        return memberIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder setMemberIndex(
+          int index, int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.set(index, value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addMemberIndex(int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.add(value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addAllMemberIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureMemberIndexIsMutable();
+        super.addAll(values, memberIndex_);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 14 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder clearMemberIndex() {
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000400);
+        
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:org.jetbrains.jet.descriptors.serialization.Class)
     }
 
@@ -7743,6 +7975,35 @@ public final class ProtoBuf {
      * <code>repeated .org.jetbrains.jet.descriptors.serialization.Callable member = 1;</code>
      */
     int getMemberCount();
+
+    // repeated int32 member_index = 2 [packed = true];
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    java.util.List<java.lang.Integer> getMemberIndexList();
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndexCount();
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    int getMemberIndex(int index);
   }
   /**
    * Protobuf type {@code org.jetbrains.jet.descriptors.serialization.Package}
@@ -7795,6 +8056,27 @@ public final class ProtoBuf {
               member_.add(input.readMessage(org.jetbrains.jet.descriptors.serialization.ProtoBuf.Callable.PARSER, extensionRegistry));
               break;
             }
+            case 16: {
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              memberIndex_.add(input.readInt32());
+              break;
+            }
+            case 18: {
+              int length = input.readRawVarint32();
+              int limit = input.pushLimit(length);
+              if (!((mutable_bitField0_ & 0x00000002) == 0x00000002) && input.getBytesUntilLimit() > 0) {
+                memberIndex_ = new java.util.ArrayList<java.lang.Integer>();
+                mutable_bitField0_ |= 0x00000002;
+              }
+              while (input.getBytesUntilLimit() > 0) {
+                memberIndex_.add(input.readInt32());
+              }
+              input.popLimit(limit);
+              break;
+            }
           }
         }
       } catch (com.google.protobuf.InvalidProtocolBufferException e) {
@@ -7806,6 +8088,9 @@ public final class ProtoBuf {
         if (((mutable_bitField0_ & 0x00000001) == 0x00000001)) {
           member_ = java.util.Collections.unmodifiableList(member_);
         }
+        if (((mutable_bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+        }
         makeExtensionsImmutable();
       }
     }
@@ -7860,8 +8145,48 @@ public final class ProtoBuf {
       return member_.get(index);
     }
 
+    // repeated int32 member_index = 2 [packed = true];
+    public static final int MEMBER_INDEX_FIELD_NUMBER = 2;
+    private java.util.List<java.lang.Integer> memberIndex_;
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public java.util.List<java.lang.Integer>
+        getMemberIndexList() {
+      return memberIndex_;
+    }
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndexCount() {
+      return memberIndex_.size();
+    }
+    /**
+     * <code>repeated int32 member_index = 2 [packed = true];</code>
+     *
+     * <pre>
+     * Index of members by name, to find members with the given name without looking at all of them:
+     * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+     * </pre>
+     */
+    public int getMemberIndex(int index) {
+      return memberIndex_.get(index);
+    }
+    private int memberIndexMemoizedSerializedSize = -1;
+
     private void initFields() {
       member_ = java.util.Collections.emptyList();
+      memberIndex_ = java.util.Collections.emptyList();
     }
     private byte memoizedIsInitialized = -1;
     public final boolean isInitialized() {
@@ -7884,6 +8209,13 @@ public final class ProtoBuf {
       for (int i = 0; i < member_.size(); i++) {
         output.writeMessage(1, member_.get(i));
       }
+      if (getMemberIndexList().size() > 0) {
+        output.writeRawVarint32(18);
+        output.writeRawVarint32(memberIndexMemoizedSerializedSize);
+      }
+      for (int i = 0; i < memberIndex_.size(); i++) {
+        output.writeInt32NoTag(memberIndex_.get(i));
+      }
     }
 
     private int memoizedSerializedSize = -1;
@@ -7896,6 +8228,20 @@ public final class ProtoBuf {
         size += com.google.protobuf.CodedOutputStream
           .computeMessageSize(1, member_.get(i));
       }
+      {
+        int dataSize = 0;
+        for (int i = 0; i < memberIndex_.size(); i++) {
+          dataSize += com.google.protobuf.CodedOutputStream
+            .computeInt32SizeNoTag(memberIndex_.get(i));
+        }
+        size += dataSize;
+        if (!getMemberIndexList().isEmpty()) {
+          size += 1;
+          size += com.google.protobuf.CodedOutputStream
+              .computeInt32SizeNoTag(dataSize);
+        }
+        memberIndexMemoizedSerializedSize = dataSize;
+      }
       memoizedSerializedSize = size;
       return size;
     }
@@ -7989,6 +8335,8 @@ public final class ProtoBuf {
         super.clear();
         member_ = java.util.Collections.emptyList();
         bitField0_ = (bitField0_ & ~0x00000001);
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
         return this;
       }
 
@@ -8016,6 +8364,11 @@ public final class ProtoBuf {
           bitField0_ = (bitField0_ & ~0x00000001);
         }
         result.member_ = member_;
+        if (((bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = java.util.Collections.unmodifiableList(memberIndex_);
+          bitField0_ = (bitField0_ & ~0x00000002);
+        }
+        result.memberIndex_ = memberIndex_;
         return result;
       }
 
@@ -8030,6 +8383,16 @@ public final class ProtoBuf {
             member_.addAll(other.member_);
           }
           
+        }
+        if (!other.memberIndex_.isEmpty()) {
+          if (memberIndex_.isEmpty()) {
+            memberIndex_ = other.memberIndex_;
+            bitField0_ = (bitField0_ & ~0x00000002);
+          } else {
+            ensureMemberIndexIsMutable();
+            memberIndex_.addAll(other.memberIndex_);
+          }
+          
         }
         return this;
       }
@@ -8188,6 +8551,107 @@ public final class ProtoBuf {
         return this;
       }
 
+      // repeated int32 member_index = 2 [packed = true];
+      private java.util.List<java.lang.Integer> memberIndex_ = java.util.Collections.emptyList();
+      private void ensureMemberIndexIsMutable() {
+        if (!((bitField0_ & 0x00000002) == 0x00000002)) {
+          memberIndex_ = new java.util.ArrayList<java.lang.Integer>(memberIndex_);
+          bitField0_ |= 0x00000002;
+         }
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public java.util.List<java.lang.Integer>
+          getMemberIndexList() {
+        return java.util.Collections.unmodifiableList(memberIndex_);
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndexCount() {
+        return memberIndex_.size();
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public int getMemberIndex(int index) {
+        return memberIndex_.get(index);
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder setMemberIndex(
+          int index, int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.set(index, value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addMemberIndex(int value) {
+        ensureMemberIndexIsMutable();
+        memberIndex_.add(value);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder addAllMemberIndex(
+          java.lang.Iterable<? extends java.lang.Integer> values) {
+        ensureMemberIndexIsMutable();
+        super.addAll(values, memberIndex_);
+        
+        return this;
+      }
+      /**
+       * <code>repeated int32 member_index = 2 [packed = true];</code>
+       *
+       * <pre>
+       * Index of members by name, to find members with the given name without looking at all of them:
+       * number of names N, ids of N names sorted by name, N + 1 offsets into the rest, positions in the member list grouped by name
+       * </pre>
+       */
+      public Builder clearMemberIndex() {
+        memberIndex_ = java.util.Collections.emptyList();
+        bitField0_ = (bitField0_ & ~0x00000002);
+        
+        return this;
+      }
+
       // @@protoc_insertion_point(builder_scope:org.jetbrains.jet.descriptors.serialization.Package)
     }
 
@@ -17,6 +17,7 @@
 package org.jetbrains.jet.descriptors.serialization.descriptors
 
 import org.jetbrains.jet.descriptors.serialization.Flags
+import org.jetbrains.jet.descriptors.serialization.NameResolver
 import org.jetbrains.jet.descriptors.serialization.ProtoBuf
 import org.jetbrains.jet.lang.descriptors.*
 import org.jetbrains.jet.lang.resolve.name.Name
@@ -30,7 +31,8 @@ import java.util.*
 
 public abstract class DeserializedMemberScope protected(
         protected val c: DeserializationContext,
-        membersList: Collection<ProtoBuf.Callable>
+        private val membersList: List<ProtoBuf.Callable>,
+        memberIndexList: List<Int> = listOf()
 ) : JetScope {
 
     private data class ProtoKey(val name: Name, val kind: Kind, val isExtension: Boolean)
@@ -46,6 +48,7 @@ public abstract class DeserializedMemberScope protected(
 
     private val membersProtos =
             c.storageManager.createLazyValue { groupByKey(filteredMemberProtos(membersList)) }
+    private val memberIndex = MemberIndex.create(memberIndexList, membersList.size())
     private val functions =
             c.storageManager.createMemoizedFunction<Name, Collection<FunctionDescriptor>> { computeFunctions(it) }
     private val properties =
@@ -72,8 +75,16 @@ public abstract class DeserializedMemberScope protected(
     }
 
     private fun <D : CallableMemberDescriptor> computeMembers(name: Name, kind: Kind): LinkedHashSet<D> {
-        val memberProtos = membersProtos()[ProtoKey(name, kind, isExtension = false)].orEmpty() +
-                           membersProtos()[ProtoKey(name, kind, isExtension = true)].orEmpty()
+        val memberProtos = if (memberIndex != null) {
+            val (extensions, nonExtensions) = filteredMemberProtos(memberIndex.findMembers(name, c.nameResolver).map { membersList[it] })
+                    .filter { Flags.CALLABLE_KIND[it.getFlags()].toKind() == kind }
+                    .partition { it.hasReceiverType() }
+            nonExtensions + extensions
+        }
+        else {
+            membersProtos()[ProtoKey(name, kind, isExtension = false)].orEmpty() +
+            membersProtos()[ProtoKey(name, kind, isExtension = true)].orEmpty()
+        }
 
         [suppress("UNCHECKED_CAST")]
         return memberProtos.mapTo(LinkedHashSet<D>()) { memberProto ->
@@ -149,7 +160,14 @@ public abstract class DeserializedMemberScope protected(
             return
         }
 
-        val keys = membersProtos().keySet().filter { nameFilter(it.name) }
+        val keys = if (memberIndex != null && nameFilter != JetScope.ALL_NAME_FILTER) {
+            // Only members with accepted names are looked at, in the order they were serialized in
+            val positions = memberIndex.findMembers(nameFilter, c.nameResolver).sort()
+            groupByKey(filteredMemberProtos(positions.map { membersList[it] })).keySet()
+        }
+        else {
+            membersProtos().keySet().filter { nameFilter(it.name) }
+        }
         if (acceptsProperties) {
             addMembers(result, keys, Kind.PROPERTY) { getProperties(it) }
         }
@@ -195,3 +213,52 @@ public abstract class DeserializedMemberScope protected(
         p.println("}")
     }
 }
+
+/**
+ * See member_index in descriptors.proto. Binaries without the index (or with a malformed one) are handled by the caller
+ * by grouping all members by name
+ */
+private class MemberIndex private(private val index: List<Int>) {
+    private val nameCount = index[0]
+
+    fun findMembers(name: Name, nameResolver: NameResolver): List<Int> {
+        val nameString = name.asString()
+        var low = 0
+        var high = nameCount - 1
+        while (low <= high) {
+            val middle = (low + high) ushr 1
+            val comparison = nameResolver.getString(index[1 + middle]).compareTo(nameString)
+            when {
+                comparison < 0 -> low = middle + 1
+                comparison > 0 -> high = middle - 1
+                else -> return positions(middle)
+            }
+        }
+        return listOf()
+    }
+
+    fun findMembers(nameFilter: (Name) -> Boolean, nameResolver: NameResolver): List<Int> {
+        val result = ArrayList<Int>()
+        for (i in 0..nameCount - 1) {
+            if (nameFilter(nameResolver.getName(index[1 + i]))) {
+                result.addAll(positions(i))
+            }
+        }
+        return result
+    }
+
+    private fun positions(nameIndex: Int): List<Int> {
+        val offsets = 1 + nameCount
+        val start = offsets + nameCount + 1
+        return index.subList(start + index[offsets + nameIndex], start + index[offsets + nameIndex + 1])
+    }
+
+    class object {
+        fun create(index: List<Int>, memberCount: Int): MemberIndex? {
+            if (index.isEmpty()) return null
+            val nameCount = index[0]
+            if (nameCount < 0 || index.size() != 2 * nameCount + 2 + memberCount) return null
+            return MemberIndex(index)
+        }
+    }
+}
@@ -33,7 +33,9 @@ public open class DeserializedPackageMemberScope(
         nameResolver: NameResolver,
         components: DeserializationComponents,
         classNames: () -> Collection<Name>
-) : DeserializedMemberScope(components.createContext(packageDescriptor, nameResolver), proto.getMemberList()) {
+) : DeserializedMemberScope(
+        components.createContext(packageDescriptor, nameResolver), proto.getMemberList(), proto.getMemberIndexList()
+) {
 
     private val packageFqName = packageDescriptor.fqName
     private val classNames = c.storageManager.createLazyValue(classNames)
@@ -125,20 +125,7 @@ public fun interpreterLoop(
 
     fun exceptionFromEvalCaught(exception: Throwable, exceptionValue: Value): Boolean {
         return exceptionCaught(exceptionValue) {
-            exceptionType ->
-            try {
-                val exceptionClass = exception.javaClass
-                val _class = Class.forName(
-                        exceptionType.getInternalName().replace('/', '.'),
-                        true,
-                        exceptionClass.getClassLoader()
-                )
-                _class.isAssignableFrom(exceptionClass)
-            }
-            catch (e: ClassNotFoundException) {
-                // If the class is not available in this VM, it can not be a superclass of an exception trown in it
-                false
-            }
+            exceptionType -> isInstanceOfInEvaluatorVm(exception, exceptionType)
         }
     }
 
@@ -257,6 +244,22 @@ public fun interpreterLoop(
     }
 }
 
+fun isInstanceOfInEvaluatorVm(exception: Throwable, exceptionType: Type): Boolean {
+    try {
+        val exceptionClass = exception.javaClass
+        val _class = Class.forName(
+                exceptionType.getInternalName().replace('/', '.'),
+                true,
+                exceptionClass.getClassLoader()
+        )
+        return _class.isAssignableFrom(exceptionClass)
+    }
+    catch (e: ClassNotFoundException) {
+        // If the class is not available in this VM, it can not be a superclass of an exception trown in it
+        return false
+    }
+}
+
 private fun <T: Value> Frame<T>.getStackTop(i: Int = 0) = this.getStack(this.getStackSize() - 1 - i) ?: throwBrokenCodeException(IllegalArgumentException("Couldn't get value with index = $i from top of stack"))
 
 // Copied from org.jetbrains.org.objectweb.asm.tree.analysis.Analyzer.analyze()
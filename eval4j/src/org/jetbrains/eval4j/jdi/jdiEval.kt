@@ -23,9 +23,11 @@ import com.sun.jdi.ClassNotLoadedException
 import com.sun.tools.jdi.ReferenceTypeImpl
 import com.sun.jdi.ObjectReference
 import com.sun.jdi.Method
+import java.util.ArrayList
 
 val CLASS = Type.getType(javaClass<Class<*>>())
 val BOOTSTRAP_CLASS_DESCRIPTORS = setOf("Ljava/lang/String;", "Ljava/lang/ClassLoader;", "Ljava/lang/Class;")
+val ARRAY_WINDOW_SIZE = 1024
 
 public class JDIEval(
         private val vm: jdi.VirtualMachine,
@@ -45,7 +47,23 @@ public class JDIEval(
             Type.DOUBLE_TYPE.getClassName() to vm.mirrorOf(1.0).type()
     )
 
+    // Mirrors are cached for the duration of one evaluation: each lookup is a JDWP round-trip
+    private val loadedClasses = hashMapOf<Type, Value>()
+    private val referenceTypes = hashMapOf<Type, jdi.ReferenceType>()
+    private val fields = hashMapOf<FieldDescription, jdi.Field>()
+    private val methods = hashMapOf<Pair<MethodDescription, jdi.ReferenceType>, jdi.Method>()
+    private val arrayWindows = hashMapOf<jdi.ArrayReference, ArrayWindow>()
+
     override fun loadClass(classType: Type): Value {
+        val cached = loadedClasses[classType]
+        if (cached != null) return cached
+
+        val result = doLoadClass(classType)
+        loadedClasses[classType] = result
+        return result
+    }
+
+    private fun doLoadClass(classType: Type): Value {
         val loadedClasses = vm.classesByName(classType.getInternalName())
         if (!loadedClasses.isEmpty()) {
             val loadedClass = loadedClasses[0]
@@ -89,7 +107,7 @@ public class JDIEval(
                 listOf(value)).boolean
     }
 
-    fun Type.asReferenceType(): jdi.ReferenceType = loadClass(this).jdiClass!!.reflectedType()
+    fun Type.asReferenceType(): jdi.ReferenceType = referenceTypes.getOrPut(this) { loadClass(this).jdiClass!!.reflectedType() }
     fun Type.asArrayType(): jdi.ArrayType = asReferenceType() as jdi.ArrayType
 
     override fun newArray(arrayType: Type, size: Int): Value {
@@ -109,9 +127,8 @@ public class JDIEval(
             val nestedElementType = elementType.arrayElementType
             val nestedSize = nestedSizes[0]
             val tail = nestedSizes.tail
-            for (i in 0..size - 1) {
-                setArrayElement(arr, int(i), fillArray(nestedElementType, nestedSize, tail))
-            }
+            val nestedArrays = (0..size - 1).map { fillArray(nestedElementType, nestedSize, tail).asJdiValue(vm, elementType) }
+            arr.array().setValues(nestedArrays)
         }
         return arr
     }
@@ -127,29 +144,65 @@ public class JDIEval(
     }
 
     override fun getArrayElement(array: Value, index: Value): Value {
+        val arrayReference = array.array()
+        val window = arrayWindows.getOrPut(arrayReference) { ArrayWindow(arrayReference) }
+        return window.get(index.int).asValue()
+    }
+
+    override fun setArrayElement(array: Value, index: Value, newValue: Value) {
+        val arrayReference = array.array()
+        val jdiValue = newValue.asJdiValue(vm, array.asmType.arrayElementType)
         try {
-            return array.array().getValue(index.int).asValue()
+            arrayReference.setValue(index.int, jdiValue)
         }
         catch (e: IndexOutOfBoundsException) {
             throwEvalException(ArrayIndexOutOfBoundsException(e.getMessage()))
         }
+        arrayWindows[arrayReference]?.update(index.int, jdiValue)
     }
 
-    override fun setArrayElement(array: Value, index: Value, newValue: Value) {
-        try {
-            return array.array().setValue(index.int, newValue.asJdiValue(vm, array.asmType.arrayElementType))
+    // Evaluated code may change any array in the debuggee
+    private fun invalidateArrays() {
+        arrayWindows.clear()
+    }
+
+    /**
+     * Elements of an array are read with one JDWP request per ARRAY_WINDOW_SIZE elements instead of one request per element.
+     * The window is dropped when any code is invoked in the debuggee.
+     */
+    private class ArrayWindow(private val array: jdi.ArrayReference) {
+        private val length = array.length()
+        private var start = 0
+        private var values: MutableList<jdi.Value?> = arrayListOf()
+
+        fun get(index: Int): jdi.Value? {
+            if (index < 0 || index >= length) {
+                throwEvalException(ArrayIndexOutOfBoundsException("Array index out of range: $index"))
+            }
+            if (index < start || index >= start + values.size()) {
+                start = index - index % ARRAY_WINDOW_SIZE
+                values = ArrayList(array.getValues(start, Math.min(ARRAY_WINDOW_SIZE, length - start))!!)
+            }
+            return values[index - start]
         }
-        catch (e: IndexOutOfBoundsException) {
-            throwEvalException(ArrayIndexOutOfBoundsException(e.getMessage()))
+
+        fun update(index: Int, value: jdi.Value?) {
+            if (index >= start && index < start + values.size()) {
+                values[index - start] = value
+            }
         }
     }
 
     private fun findField(fieldDesc: FieldDescription): jdi.Field {
+        val cached = fields[fieldDesc]
+        if (cached != null) return cached
+
         val _class = fieldDesc.ownerType.asReferenceType()
         val field = _class.fieldByName(fieldDesc.name)
         if (field == null) {
             throwBrokenCodeException(NoSuchFieldError("Field not found: $fieldDesc"))
         }
+        fields[fieldDesc] = field
         return field
     }
 
@@ -183,6 +236,16 @@ public class JDIEval(
     }
 
     private fun findMethod(methodDesc: MethodDescription, _class: jdi.ReferenceType = methodDesc.ownerType.asReferenceType()): jdi.Method {
+        val key = Pair(methodDesc, _class)
+        val cached = methods[key]
+        if (cached != null) return cached
+
+        val method = doFindMethod(methodDesc, _class)
+        methods[key] = method
+        return method
+    }
+
+    private fun doFindMethod(methodDesc: MethodDescription, _class: jdi.ReferenceType): jdi.Method {
         val method = when (_class) {
             is jdi.ClassType -> {
                 val m = _class.concreteMethodByName(methodDesc.name, methodDesc.desc)
@@ -205,6 +268,7 @@ public class JDIEval(
         if (_class !is jdi.ClassType) throwBrokenCodeException(NoSuchMethodError("Static method is a non-class type: $method"))
 
         val args = mapArguments(arguments, method.safeArgumentTypes())
+        invalidateArrays()
         val result = mayThrow { _class.invokeMethod(thread, method, args, invokePolicy) }
         return result.asValue()
     }
@@ -230,6 +294,7 @@ public class JDIEval(
             val ctor = findMethod(methodDesc)
             val _class = (instance as NewObjectValue).asmType.asReferenceType() as jdi.ClassType
             val args = mapArguments(arguments, ctor.safeArgumentTypes())
+            invalidateArrays()
             val result = mayThrow { _class.newInstance(thread, ctor, args, invokePolicy) }
             instance.value = result
             return result.asValue()
@@ -237,6 +302,7 @@ public class JDIEval(
 
         fun doInvokeMethod(obj: ObjectReference, method: Method, policy: Int): Value {
             val args = mapArguments(arguments, method.safeArgumentTypes())
+            invalidateArrays()
             val result = mayThrow { obj.invokeMethod(thread, method, args, policy) }
             return result.asValue()
         }
@@ -0,0 +1,679 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.eval4j
+
+import org.jetbrains.org.objectweb.asm.Opcodes.*
+import org.jetbrains.org.objectweb.asm.Type
+import org.jetbrains.org.objectweb.asm.tree.*
+import org.jetbrains.org.objectweb.asm.tree.analysis.Frame
+import org.jetbrains.org.objectweb.asm.util.Printer
+import org.jetbrains.eval4j.ExceptionThrown.ExceptionKind
+import java.util.ArrayList
+import java.util.HashMap
+
+public class DecodedHandler(public val exceptionType: Type, public val handlerIndex: Int)
+
+/**
+ * A method prepared once for [threadedInterpreterLoop]: labels, frames and line numbers are dropped,
+ * jump targets and exception handlers are resolved to indices in [insns].
+ */
+public class DecodedMethod(
+        public val methodNode: MethodNode,
+        public val insns: Array<AbstractInsnNode>,
+        public val opcodes: IntArray,
+        // Local variable index for loads, stores, IINC and RET, operand for BIPUSH and SIPUSH,
+        // number of popped values for invocations and MULTIANEWARRAY
+        public val operands: IntArray,
+        // Index of the instruction to jump to for jump instructions
+        public val jumpTargets: IntArray,
+        // true for invocations of non-void methods
+        public val returnsValue: BooleanArray,
+        public val handlers: Array<List<DecodedHandler>?>,
+        private val labelTargets: Map<LabelNode, Int>
+) {
+    public val returnType: Type = Type.getReturnType(methodNode.desc)
+
+    public fun indexOf(label: LabelNode): Int = labelTargets[label] ?: throw IllegalArgumentException("Unknown label: $label")
+}
+
+public fun decodeMethod(m: MethodNode): DecodedMethod {
+    val instructions = m.instructions
+    if (instructions.size() == 0) throw IllegalArgumentException("Empty method")
+
+    // A label points to the first real instruction after it
+    val labelTargets = HashMap<LabelNode, Int>()
+    val realInsns = ArrayList<AbstractInsnNode>()
+    val realInsnListIndices = ArrayList<Int>()
+    for (listIndex in 0..instructions.size() - 1) {
+        val insn = instructions.get(listIndex)
+        if (insn is LabelNode) {
+            labelTargets.put(insn, realInsns.size())
+        }
+        if (!isPseudoInstruction(insn)) {
+            realInsns.add(insn)
+            realInsnListIndices.add(listIndex)
+        }
+    }
+
+    val size = realInsns.size()
+    val tryCatchBlocks = computeHandlers(m)
+    val operands = IntArray(size)
+    val jumpTargets = IntArray(size)
+    val returnsValue = BooleanArray(size)
+    val handlers = Array<List<DecodedHandler>?>(size) { null }
+    for ((index, insn) in realInsns.withIndices()) {
+        when (insn) {
+            is JumpInsnNode -> jumpTargets[index] = labelTargets[insn.label]!!
+            is VarInsnNode -> operands[index] = insn.`var`
+            is IincInsnNode -> operands[index] = insn.`var`
+            is IntInsnNode -> operands[index] = insn.operand
+            is MethodInsnNode -> {
+                operands[index] = Type.getArgumentTypes(insn.desc).size + (if (insn.getOpcode() == INVOKESTATIC) 0 else 1)
+                returnsValue[index] = Type.getReturnType(insn.desc).getSort() != Type.VOID
+            }
+            is InvokeDynamicInsnNode -> {
+                operands[index] = Type.getArgumentTypes(insn.desc).size
+                returnsValue[index] = Type.getReturnType(insn.desc).getSort() != Type.VOID
+            }
+            is MultiANewArrayInsnNode -> operands[index] = insn.dims
+            else -> {}
+        }
+
+        // try-finally blocks (with no exception type) are skipped, as in interpreterLoop()
+        val catchBlocks = tryCatchBlocks[realInsnListIndices[index]]?.filter { it.type != null }
+        if (catchBlocks != null && !catchBlocks.isEmpty()) {
+            handlers[index] = catchBlocks.map { DecodedHandler(Type.getObjectType(it.type!!), labelTargets[it.handler]!!) }
+        }
+    }
+
+    return DecodedMethod(
+            m,
+            Array(size) { realInsns[it] },
+            IntArray(size) { realInsns[it].getOpcode() },
+            operands,
+            jumpTargets,
+            returnsValue,
+            handlers,
+            labelTargets
+    )
+}
+
+private fun isPseudoInstruction(insn: AbstractInsnNode): Boolean {
+    val type = insn.getType()
+    return type == AbstractInsnNode.LABEL || type == AbstractInsnNode.FRAME || type == AbstractInsnNode.LINE
+}
+
+/**
+ * Same as [interpreterLoop], but runs a pre-decoded method and keeps primitive values unboxed in [PrimitiveSlotFrame].
+ * Values are wrapped into [Value]s only when they are passed to [Eval] or to the [handler].
+ *
+ * [InterpretationEventHandler.instructionProcessed] is not called for labels, frames and line numbers.
+ */
+public fun threadedInterpreterLoop(
+        method: DecodedMethod,
+        initialState: Frame<Value>,
+        eval: Eval,
+        handler: InterpretationEventHandler = InterpretationEventHandler.NONE
+): InterpreterResult {
+    val insns = method.insns
+    val opcodes = method.opcodes
+    val operands = method.operands
+    val jumpTargets = method.jumpTargets
+
+    val interpreter = SingleInstructionInterpreter(eval)
+    val frame = PrimitiveSlotFrame(initialState.getLocals(), Math.max(method.methodNode.maxStack, initialState.getStackSize()))
+    frame.setState(initialState)
+
+    // Returns the index of the handler to continue from, or -1 if the exception is not caught by this method
+    fun exceptionCaught(pc: Int, exceptionValue: Value, instanceOf: (Type) -> Boolean): Int {
+        val catchBlocks = method.handlers[pc]
+        if (catchBlocks == null) return -1
+        for (catch in catchBlocks) {
+            if (instanceOf(catch.exceptionType)) {
+                val handled = handler.exceptionCaught(frame.toFrame(), insns[pc], exceptionValue)
+                if (handled != null) throw HandledByEventHandlerException(handled)
+                frame.clearStack()
+                frame.pushValue(exceptionValue)
+                return catch.handlerIndex
+            }
+        }
+        return -1
+    }
+
+    var pc = 0
+    try {
+        while (true) {
+            if (pc >= insns.size) throw IllegalArgumentException("Instruction flow ended with no RETURN")
+
+            val opcode = opcodes[pc]
+            try {
+                when (opcode) {
+                    NOP -> {}
+
+                    ACONST_NULL -> frame.pushValue(NULL_VALUE)
+                    ICONST_M1, ICONST_0, ICONST_1, ICONST_2, ICONST_3, ICONST_4, ICONST_5 -> frame.pushInt(opcode - ICONST_0)
+                    LCONST_0, LCONST_1 -> frame.pushLong((opcode - LCONST_0).toLong())
+                    FCONST_0, FCONST_1, FCONST_2 -> frame.pushFloat((opcode - FCONST_0).toFloat())
+                    DCONST_0, DCONST_1 -> frame.pushDouble((opcode - DCONST_0).toDouble())
+                    BIPUSH, SIPUSH -> frame.pushInt(operands[pc])
+                    LDC -> {
+                        val cst = (insns[pc] as LdcInsnNode).cst
+                        when (cst) {
+                            is Int -> frame.pushInt(cst)
+                            is Long -> frame.pushLong(cst)
+                            is Float -> frame.pushFloat(cst)
+                            is Double -> frame.pushDouble(cst)
+                            else -> frame.pushValue(interpreter.newOperation(insns[pc])!!)
+                        }
+                    }
+
+                    ILOAD, LLOAD, FLOAD, DLOAD, ALOAD -> frame.load(operands[pc])
+                    ISTORE, LSTORE, FSTORE, DSTORE, ASTORE -> frame.store(operands[pc])
+                    IINC -> frame.increment(operands[pc], (insns[pc] as IincInsnNode).incr)
+
+                    POP -> frame.pop(1)
+                    POP2 -> frame.pop(if (frame.categoryOf(0) == 2) 1 else 2)
+                    DUP -> frame.dup(1, 0)
+                    DUP_X1 -> frame.dup(1, 1)
+                    DUP_X2 -> frame.dup(1, if (frame.categoryOf(1) == 2) 1 else 2)
+                    DUP2 -> frame.dup(if (frame.categoryOf(0) == 2) 1 else 2, 0)
+                    DUP2_X1 -> frame.dup(if (frame.categoryOf(0) == 2) 1 else 2, 1)
+                    DUP2_X2 -> {
+                        if (frame.categoryOf(0) == 2) {
+                            frame.dup(1, if (frame.categoryOf(1) == 2) 1 else 2)
+                        }
+                        else {
+                            frame.dup(2, if (frame.categoryOf(2) == 2) 1 else 2)
+                        }
+                    }
+                    SWAP -> frame.swap()
+
+                    IADD -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() + v2) }
+                    ISUB -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() - v2) }
+                    IMUL -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() * v2) }
+                    IDIV -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() / v2) }
+                    IREM -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() % v2) }
+                    ISHL -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() shl v2) }
+                    ISHR -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() shr v2) }
+                    IUSHR -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() ushr v2) }
+                    IAND -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() and v2) }
+                    IOR -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() or v2) }
+                    IXOR -> { val v2 = frame.popInt(); frame.pushInt(frame.popInt() xor v2) }
+                    INEG -> frame.pushInt(-frame.popInt())
+
+                    LADD -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() + v2) }
+                    LSUB -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() - v2) }
+                    LMUL -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() * v2) }
+                    LDIV -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() / v2) }
+                    LREM -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() % v2) }
+                    LSHL -> { val v2 = frame.popInt(); frame.pushLong(frame.popLong() shl v2) }
+                    LSHR -> { val v2 = frame.popInt(); frame.pushLong(frame.popLong() shr v2) }
+                    LUSHR -> { val v2 = frame.popInt(); frame.pushLong(frame.popLong() ushr v2) }
+                    LAND -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() and v2) }
+                    LOR -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() or v2) }
+                    LXOR -> { val v2 = frame.popLong(); frame.pushLong(frame.popLong() xor v2) }
+                    LNEG -> frame.pushLong(-frame.popLong())
+
+                    FADD -> { val v2 = frame.popFloat(); frame.pushFloat(frame.popFloat() + v2) }
+                    FSUB -> { val v2 = frame.popFloat(); frame.pushFloat(frame.popFloat() - v2) }
+                    FMUL -> { val v2 = frame.popFloat(); frame.pushFloat(frame.popFloat() * v2) }
+                    FDIV -> { val v2 = frame.popFloat(); frame.pushFloat(frame.popFloat() / v2) }
+                    FREM -> { val v2 = frame.popFloat(); frame.pushFloat(frame.popFloat() % v2) }
+                    FNEG -> frame.pushFloat(-frame.popFloat())
+
+                    DADD -> { val v2 = frame.popDouble(); frame.pushDouble(frame.popDouble() + v2) }
+                    DSUB -> { val v2 = frame.popDouble(); frame.pushDouble(frame.popDouble() - v2) }
+                    DMUL -> { val v2 = frame.popDouble(); frame.pushDouble(frame.popDouble() * v2) }
+                    DDIV -> { val v2 = frame.popDouble(); frame.pushDouble(frame.popDouble() / v2) }
+                    DREM -> { val v2 = frame.popDouble(); frame.pushDouble(frame.popDouble() % v2) }
+                    DNEG -> frame.pushDouble(-frame.popDouble())
+
+                    I2L -> frame.pushLong(frame.popInt().toLong())
+                    I2F -> frame.pushFloat(frame.popInt().toFloat())
+                    I2D -> frame.pushDouble(frame.popInt().toDouble())
+                    L2I -> frame.pushInt(frame.popLong().toInt())
+                    L2F -> frame.pushFloat(frame.popLong().toFloat())
+                    L2D -> frame.pushDouble(frame.popLong().toDouble())
+                    F2I -> frame.pushInt(frame.popFloat().toInt())
+                    F2L -> frame.pushLong(frame.popFloat().toLong())
+                    F2D -> frame.pushDouble(frame.popFloat().toDouble())
+                    D2I -> frame.pushInt(frame.popDouble().toInt())
+                    D2L -> frame.pushLong(frame.popDouble().toLong())
+                    D2F -> frame.pushFloat(frame.popDouble().toFloat())
+                    I2B -> frame.pushInt(frame.popInt().toByte().toInt(), Type.BYTE)
+                    I2C -> frame.pushInt(frame.popInt().toChar().toInt(), Type.CHAR)
+                    I2S -> frame.pushInt(frame.popInt().toShort().toInt(), Type.SHORT)
+
+                    LCMP -> {
+                        val l2 = frame.popLong()
+                        val l1 = frame.popLong()
+                        frame.pushInt(when {
+                            l1 > l2 -> 1
+                            l1 == l2 -> 0
+                            else -> -1
+                        })
+                    }
+                    FCMPL, FCMPG -> {
+                        val f2 = frame.popFloat()
+                        val f1 = frame.popFloat()
+                        frame.pushInt(when {
+                            f1 > f2 -> 1
+                            f1 == f2 -> 0
+                            f1 < f2 -> -1
+                            // one of them is NaN
+                            else -> if (opcode == FCMPG) 1 else -1
+                        })
+                    }
+                    DCMPL, DCMPG -> {
+                        val d2 = frame.popDouble()
+                        val d1 = frame.popDouble()
+                        frame.pushInt(when {
+                            d1 > d2 -> 1
+                            d1 == d2 -> 0
+                            d1 < d2 -> -1
+                            // one of them is NaN
+                            else -> if (opcode == DCMPG) 1 else -1
+                        })
+                    }
+
+                    IFEQ, IFNE, IFLT, IFGE, IFGT, IFLE -> {
+                        val value = frame.popInt()
+                        val jump = when (opcode) {
+                            IFEQ -> value == 0
+                            IFNE -> value != 0
+                            IFLT -> value < 0
+                            IFGE -> value >= 0
+                            IFGT -> value > 0
+                            else -> value <= 0
+                        }
+                        if (jump) {
+                            pc = jumpTargets[pc]
+                            continue
+                        }
+                    }
+                    IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE -> {
+                        val value2 = frame.popInt()
+                        val value1 = frame.popInt()
+                        val jump = when (opcode) {
+                            IF_ICMPEQ -> value1 == value2
+                            IF_ICMPNE -> value1 != value2
+                            IF_ICMPLT -> value1 < value2
+                            IF_ICMPGE -> value1 >= value2
+                            IF_ICMPGT -> value1 > value2
+                            else -> value1 <= value2
+                        }
+                        if (jump) {
+                            pc = jumpTargets[pc]
+                            continue
+                        }
+                    }
+                    IFNULL, IFNONNULL, IF_ACMPEQ, IF_ACMPNE -> {
+                        val jump = if (opcode == IFNULL || opcode == IFNONNULL) {
+                            interpreter.checkUnaryCondition(frame.popValue(), opcode)
+                        }
+                        else {
+                            val value2 = frame.popValue()
+                            interpreter.checkBinaryCondition(frame.popValue(), value2, opcode)
+                        }
+                        if (jump) {
+                            pc = jumpTargets[pc]
+                            continue
+                        }
+                    }
+                    GOTO -> {
+                        pc = jumpTargets[pc]
+                        continue
+                    }
+                    RET -> {
+                        val address = frame.getLocalValue(operands[pc])
+                        pc = method.indexOf((address as LabelValue).value)
+                        continue
+                    }
+
+                    IRETURN, LRETURN, FRETURN, DRETURN, ARETURN -> return ValueReturned(frame.returnValue(method.returnType, opcode))
+                    RETURN -> return ValueReturned(VOID_VALUE)
+
+                    ATHROW -> {
+                        val exceptionValue = frame.popValue()
+                        val handled = handler.exceptionThrown(frame.toFrame(exceptionValue), insns[pc], exceptionValue)
+                        if (handled != null) return handled
+                        val handlerIndex = exceptionCaught(pc, exceptionValue) {
+                            exceptionType -> eval.isInstanceOf(exceptionValue, exceptionType)
+                        }
+                        if (handlerIndex < 0) return ExceptionThrown(exceptionValue, ExceptionKind.FROM_EVALUATED_CODE)
+                        pc = handlerIndex
+                        continue
+                    }
+
+                    else -> frame.execute(insns[pc], operands[pc], method.returnsValue[pc], interpreter)
+                }
+            }
+            catch (e: ThrownFromEvalExceptionBase) {
+                val exception = e.getCause()!!
+                val exceptionValue = ObjectValue(exception, Type.getType(exception.javaClass))
+                val handled = handler.exceptionThrown(frame.toFrame(), insns[pc], exceptionValue)
+                if (handled != null) return handled
+                val handlerIndex = exceptionCaught(pc, exceptionValue) {
+                    exceptionType -> isInstanceOfInEvaluatorVm(exception, exceptionType)
+                }
+                if (handlerIndex >= 0) {
+                    pc = handlerIndex
+                    continue
+                }
+
+                val exceptionType = if (e is BrokenCode) ExceptionKind.BROKEN_CODE else ExceptionKind.FROM_EVALUATOR
+                return ExceptionThrown(exceptionValue, exceptionType)
+            }
+            catch (e: ThrownFromEvaluatedCodeException) {
+                val handled = handler.exceptionThrown(frame.toFrame(), insns[pc], e.exception)
+                if (handled != null) return handled
+                val handlerIndex = exceptionCaught(pc, e.exception) {
+                    exceptionType -> eval.isInstanceOf(e.exception, exceptionType)
+                }
+                if (handlerIndex >= 0) {
+                    pc = handlerIndex
+                    continue
+                }
+                return ExceptionThrown(e.exception, ExceptionKind.FROM_EVALUATED_CODE)
+            }
+
+            val handled = handler.instructionProcessed(insns[pc])
+            if (handled != null) return handled
+
+            pc++
+        }
+    }
+    catch (e: HandledByEventHandlerException) {
+        return e.result
+    }
+}
+
+private class HandledByEventHandlerException(val result: InterpreterResult): RuntimeException()
+
+private val REFERENCE_SLOT = 0
+
+/**
+ * Locals followed by the operand stack. Primitive values are stored in [prims] with their [Type] sort in [kinds],
+ * other values are stored in [refs] with [REFERENCE_SLOT] kind.
+ * As in [Frame], a value of category 2 takes one stack slot and two local slots.
+ */
+class PrimitiveSlotFrame(private val maxLocals: Int, private val maxStack: Int) {
+    private val kinds = IntArray(maxLocals + maxStack)
+    private val prims = LongArray(maxLocals + maxStack)
+    private val refs = arrayOfNulls<Value>(maxLocals + maxStack)
+
+    // Index of the first free stack slot
+    private var top = maxLocals
+
+    fun setState(state: Frame<Value>) {
+        for (i in 0..maxLocals - 1) {
+            set(i, state.getLocal(i) ?: NOT_A_VALUE)
+        }
+        top = maxLocals
+        for (i in 0..state.getStackSize() - 1) {
+            pushValue(state.getStack(i) ?: NOT_A_VALUE)
+        }
+    }
+
+    fun pushInt(value: Int, kind: Int = Type.INT) {
+        kinds[top] = kind
+        prims[top++] = value.toLong()
+    }
+
+    fun pushLong(value: Long) {
+        kinds[top] = Type.LONG
+        prims[top++] = value
+    }
+
+    fun pushFloat(value: Float) {
+        kinds[top] = Type.FLOAT
+        prims[top++] = java.lang.Float.floatToRawIntBits(value).toLong()
+    }
+
+    fun pushDouble(value: Double) {
+        kinds[top] = Type.DOUBLE
+        prims[top++] = java.lang.Double.doubleToRawLongBits(value)
+    }
+
+    fun pushValue(value: Value) {
+        set(top++, value)
+    }
+
+    fun popInt(): Int {
+        val kind = kinds[--top]
+        if (kind < Type.BOOLEAN || kind > Type.INT) unexpectedKind(top, Type.INT_TYPE)
+        return prims[top].toInt()
+    }
+
+    fun popLong(): Long {
+        if (kinds[--top] != Type.LONG) unexpectedKind(top, Type.LONG_TYPE)
+        return prims[top]
+    }
+
+    fun popFloat(): Float {
+        if (kinds[--top] != Type.FLOAT) unexpectedKind(top, Type.FLOAT_TYPE)
+        return java.lang.Float.intBitsToFloat(prims[top].toInt())
+    }
+
+    fun popDouble(): Double {
+        if (kinds[--top] != Type.DOUBLE) unexpectedKind(top, Type.DOUBLE_TYPE)
+        return java.lang.Double.longBitsToDouble(prims[top])
+    }
+
+    fun popValue(): Value {
+        if (top == maxLocals) throwBrokenCodeException(IllegalStateException("Cannot pop operand off an empty stack"))
+        return get(--top)
+    }
+
+    fun pop(count: Int) {
+        top -= count
+    }
+
+    // Category of the i-th value from the top of the stack
+    fun categoryOf(i: Int): Int {
+        val slot = top - 1 - i
+        return when (kinds[slot]) {
+            Type.LONG, Type.DOUBLE -> 2
+            REFERENCE_SLOT -> refs[slot]?.getSize() ?: 1
+            else -> 1
+        }
+    }
+
+    // Inserts a copy of the top count values below the depth values under them
+    fun dup(count: Int, depth: Int) {
+        val from = top - count - depth
+        for (i in top - 1 downTo from) {
+            copy(i, i + count)
+        }
+        for (i in 0..count - 1) {
+            copy(top + i, from + i)
+        }
+        top += count
+    }
+
+    fun swap() {
+        val value1 = get(top - 1)
+        copy(top - 2, top - 1)
+        set(top - 2, value1)
+    }
+
+    fun load(local: Int) {
+        copy(local, top++)
+    }
+
+    fun store(local: Int) {
+        copy(--top, local)
+        if (sizeOf(local) == 2) {
+            set(local + 1, NOT_A_VALUE)
+        }
+        if (local > 0 && sizeOf(local - 1) == 2) {
+            set(local - 1, NOT_A_VALUE)
+        }
+    }
+
+    fun increment(local: Int, increment: Int) {
+        val kind = kinds[local]
+        if (kind < Type.BOOLEAN || kind > Type.INT) unexpectedKind(local, Type.INT_TYPE)
+        kinds[local] = Type.INT
+        prims[local] = (prims[local].toInt() + increment).toLong()
+    }
+
+    fun getLocalValue(local: Int): Value = get(local)
+
+    fun clearStack() {
+        for (i in maxLocals..top - 1) {
+            refs[i] = null
+        }
+        top = maxLocals
+    }
+
+    fun returnValue(expectedType: Type, opcode: Int): Value {
+        val slot = top - 1
+        if (expectedType.getSort() == Type.OBJECT || expectedType.getSort() == Type.ARRAY) {
+            val value = get(slot)
+            return if (value != NULL_VALUE && value.asmType != expectedType) ObjectValue(value.obj(), expectedType) else value
+        }
+        if (kinds[slot] == expectedType.getSort()) {
+            return get(slot)
+        }
+
+        assert(opcode == IRETURN, "Only ints should be coerced: " + Printer.OPCODES[opcode])
+        val value = popInt()
+        return when (expectedType.getSort()) {
+            Type.BOOLEAN -> boolean(value == 1)
+            Type.BYTE -> byte(value.toByte())
+            Type.SHORT -> short(value.toShort())
+            Type.CHAR -> char(value.toChar())
+            else -> throw UnsupportedByteCodeException("Should not be coerced: $expectedType")
+        }
+    }
+
+    // Instructions that need an Eval are delegated to SingleInstructionInterpreter
+    fun execute(insn: AbstractInsnNode, operand: Int, returnsValue: Boolean, interpreter: SingleInstructionInterpreter) {
+        when (insn.getOpcode()) {
+            LDC, JSR, GETSTATIC, NEW -> pushValue(interpreter.newOperation(insn)!!)
+
+            GETFIELD, NEWARRAY, ANEWARRAY, ARRAYLENGTH, CHECKCAST, INSTANCEOF -> pushValue(interpreter.unaryOperation(insn, popValue())!!)
+            PUTSTATIC, TABLESWITCH, LOOKUPSWITCH, MONITORENTER, MONITOREXIT -> interpreter.unaryOperation(insn, popValue())
+
+            IALOAD, LALOAD, FALOAD, DALOAD, AALOAD, BALOAD, CALOAD, SALOAD -> {
+                val index = popValue()
+                pushValue(interpreter.binaryOperation(insn, popValue(), index)!!)
+            }
+            PUTFIELD -> {
+                val value = popValue()
+                interpreter.binaryOperation(insn, popValue(), value)
+            }
+
+            IASTORE, LASTORE, FASTORE, DASTORE, AASTORE, BASTORE, CASTORE, SASTORE -> {
+                val value = popValue()
+                val index = popValue()
+                interpreter.ternaryOperation(insn, popValue(), index, value)
+            }
+
+            INVOKEVIRTUAL, INVOKESPECIAL, INVOKESTATIC, INVOKEINTERFACE, INVOKEDYNAMIC, MULTIANEWARRAY -> {
+                val values = ArrayList<Value>(operand)
+                for (i in top - operand..top - 1) {
+                    values.add(get(i))
+                }
+                top -= operand
+                val result = interpreter.naryOperation(insn, values)
+                if (returnsValue || insn.getOpcode() == MULTIANEWARRAY) {
+                    pushValue(result)
+                }
+            }
+
+            else -> throw UnsupportedByteCodeException("$insn")
+        }
+    }
+
+    fun toFrame(vararg extraStackValues: Value): Frame<Value> {
+        val frame = Frame<Value>(maxLocals, maxStack)
+        for (i in 0..maxLocals - 1) {
+            frame.setLocal(i, get(i))
+        }
+        for (i in maxLocals..top - 1) {
+            frame.push(get(i))
+        }
+        for (value in extraStackValues) {
+            frame.push(value)
+        }
+        return frame
+    }
+
+    private fun get(slot: Int): Value {
+        val value = prims[slot]
+        return when (kinds[slot]) {
+            Type.BOOLEAN -> IntValue(value.toInt(), Type.BOOLEAN_TYPE)
+            Type.CHAR -> IntValue(value.toInt(), Type.CHAR_TYPE)
+            Type.BYTE -> IntValue(value.toInt(), Type.BYTE_TYPE)
+            Type.SHORT -> IntValue(value.toInt(), Type.SHORT_TYPE)
+            Type.INT -> int(value.toInt())
+            Type.FLOAT -> float(java.lang.Float.intBitsToFloat(value.toInt()))
+            Type.LONG -> long(value)
+            Type.DOUBLE -> double(java.lang.Double.longBitsToDouble(value))
+            else -> refs[slot] ?: NOT_A_VALUE
+        }
+    }
+
+    private fun set(slot: Int, value: Value) {
+        when (value) {
+            is IntValue -> {
+                kinds[slot] = value.asmType.getSort()
+                prims[slot] = value.value.toLong()
+                refs[slot] = null
+            }
+            is LongValue -> {
+                kinds[slot] = Type.LONG
+                prims[slot] = value.value
+                refs[slot] = null
+            }
+            is FloatValue -> {
+                kinds[slot] = Type.FLOAT
+                prims[slot] = java.lang.Float.floatToRawIntBits(value.value).toLong()
+                refs[slot] = null
+            }
+            is DoubleValue -> {
+                kinds[slot] = Type.DOUBLE
+                prims[slot] = java.lang.Double.doubleToRawLongBits(value.value)
+                refs[slot] = null
+            }
+            else -> {
+                kinds[slot] = REFERENCE_SLOT
+                refs[slot] = value
+            }
+        }
+    }
+
+    private fun copy(from: Int, to: Int) {
+        kinds[to] = kinds[from]
+        prims[to] = prims[from]
+        refs[to] = refs[from]
+    }
+
+    private fun sizeOf(slot: Int): Int {
+        return when (kinds[slot]) {
+            Type.LONG, Type.DOUBLE -> 2
+            REFERENCE_SLOT -> refs[slot]?.getSize() ?: 1
+            else -> 1
+        }
+    }
+
+    private fun unexpectedKind(slot: Int, expectedType: Type): Nothing {
+        throwBrokenCodeException(IllegalStateException("$expectedType expected, but got ${get(slot)}"))
+    }
+}
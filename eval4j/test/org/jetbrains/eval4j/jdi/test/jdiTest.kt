@@ -113,8 +113,9 @@ fun suite(): TestSuite {
                     listOf()
                 }
 
-                val value = interpreterLoop(
-                        methodNode,
+                // The debugger runs evaluated code with the threaded loop
+                val value = threadedInterpreterLoop(
+                        decodeMethod(methodNode),
                         makeInitialFrame(methodNode, args),
                         eval
                 )
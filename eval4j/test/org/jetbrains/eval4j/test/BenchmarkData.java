@@ -0,0 +1,71 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.eval4j.test;
+
+// Methods interpreted by InterpreterBenchmark, see interpreterBenchmark.kt
+class BenchmarkData {
+    static int intLoop() {
+        int sum = 0;
+        for (int i = 0; i < 100000; i++) {
+            sum += i * 31 ^ (sum >>> 3);
+        }
+        return sum;
+    }
+
+    static long longAndDoubleArithmetic() {
+        long l = 1;
+        double d = 0.5;
+        for (int i = 0; i < 50000; i++) {
+            l = l * 6364136223846793005L + 1442695040888963407L;
+            d = d * 0.999 + (l & 0xFF);
+        }
+        return l + (long) d;
+    }
+
+    static int nestedLoops() {
+        int count = 0;
+        for (int i = 0; i < 300; i++) {
+            for (int j = 0; j < 300; j++) {
+                if ((i + j) % 3 == 0) count++;
+            }
+        }
+        return count;
+    }
+
+    static int arrayAccess() {
+        int[] array = new int[1000];
+        for (int k = 0; k < 20; k++) {
+            for (int i = 0; i < array.length; i++) {
+                array[i] += i + k;
+            }
+        }
+        return array[999];
+    }
+
+    static int exceptionsInLoop() {
+        int caught = 0;
+        for (int i = 0; i < 2000; i++) {
+            try {
+                if (i % 2 == 0) throw new IllegalStateException();
+            }
+            catch (IllegalStateException e) {
+                caught++;
+            }
+        }
+        return caught;
+    }
+}
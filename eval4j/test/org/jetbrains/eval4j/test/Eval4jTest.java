@@ -25,6 +25,7 @@ public class Eval4jTest extends TestSuite {
         TestSuite eval4jSuite = new TestSuite("Eval4j Tests");
         eval4jSuite.addTest(org.jetbrains.eval4j.jdi.test.TestPackage.suite());
         eval4jSuite.addTest(org.jetbrains.eval4j.test.TestPackage.suite());
+        eval4jSuite.addTest(org.jetbrains.eval4j.test.TestPackage.threadedCodeSuite());
         return eval4jSuite;
     }
 }
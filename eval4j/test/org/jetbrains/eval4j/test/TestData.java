@@ -581,6 +581,25 @@ class TestData extends BaseTestData {
         return s;
     }
 
+    static int sumOfLargeArray() {
+        int[] ints = new int[3000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i;
+        }
+        int sum = 0;
+        for (int i = ints.length - 1; i >= 0; i--) {
+            sum += ints[i];
+        }
+        return sum;
+    }
+
+    static String arrayChangedByInvokedMethod() {
+        int[] ints = new int[] {1, 2, 3};
+        int before = ints[1];
+        java.util.Arrays.fill(ints, 5);
+        return before + " " + ints[1];
+    }
+
     static void castToArray() {
         int[] i = (int[]) null;
     }
@@ -779,6 +798,30 @@ class TestData extends BaseTestData {
         return true;
     }
 
+    static long dupOfLongValues() {
+        long[] longs = new long[1];
+        long l = longs[0] = 5L;
+        long sum = 0;
+        for (int i = 0; i < 10; i++) {
+            sum += (l = l + i) * 2;
+        }
+        return sum + l + longs[0];
+    }
+
+    static int mixedPrimitivesInLoop() {
+        char c = 'a';
+        byte b = 0;
+        double d = 0.5;
+        int result = 0;
+        for (int i = 0; i < 100; i++) {
+            c++;
+            b += 3;
+            d = d * 1.5 - i;
+            result ^= c + b + (int) d;
+        }
+        return result;
+    }
+
     public TestData() {
     }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.eval4j.test
+
+import org.jetbrains.org.objectweb.asm.ClassReader
+import org.jetbrains.org.objectweb.asm.ClassVisitor
+import org.jetbrains.org.objectweb.asm.MethodVisitor
+import org.jetbrains.org.objectweb.asm.Opcodes.*
+import org.jetbrains.org.objectweb.asm.tree.MethodNode
+import org.jetbrains.eval4j.*
+import java.util.ArrayList
+
+// Compares interpreterLoop() with threadedInterpreterLoop() on the methods of BenchmarkData
+fun main(args: Array<String>) {
+    val iterations = if (args.size > 0) args[0].toInt() else 20
+    val ownerClass = javaClass<BenchmarkData>()
+
+    for (methodNode in readStaticMethods(ownerClass)) {
+        val decoded = decodeMethod(methodNode)
+
+        val expected = interpreterLoop(methodNode, initFrame(ownerClass.getInternalName(), methodNode), REFLECTION_EVAL)
+        val actual = threadedInterpreterLoop(decoded, initFrame(ownerClass.getInternalName(), methodNode), REFLECTION_EVAL)
+        if (expected.toString() != actual.toString()) {
+            throw AssertionError("${methodNode.name}: $expected expected, but threaded code returned $actual")
+        }
+
+        val plain = measure(iterations) {
+            interpreterLoop(methodNode, initFrame(ownerClass.getInternalName(), methodNode), REFLECTION_EVAL)
+        }
+        val threaded = measure(iterations) {
+            threadedInterpreterLoop(decoded, initFrame(ownerClass.getInternalName(), methodNode), REFLECTION_EVAL)
+        }
+        val decoding = measure(iterations) { decodeMethod(methodNode) }
+
+        println("%-25s interpreterLoop: %8.3f ms, threaded: %8.3f ms (x%.2f), decoding: %.3f ms".format(
+                methodNode.name, plain, threaded, plain / threaded, decoding))
+    }
+    println("Results checksum: $sink")
+}
+
+private fun readStaticMethods(ownerClass: Class<*>): List<MethodNode> {
+    val result = ArrayList<MethodNode>()
+    val inputStream = ownerClass.getClassLoader()!!.getResourceAsStream(ownerClass.getInternalName() + ".class")!!
+    ClassReader(inputStream).accept(object : ClassVisitor(ASM5) {
+        override fun visitMethod(access: Int, name: String, desc: String, signature: String?, exceptions: Array<out String>?): MethodVisitor? {
+            if ((access and ACC_STATIC) == 0) return null
+            val methodNode = MethodNode(ASM5, access, name, desc, signature, exceptions)
+            result.add(methodNode)
+            return methodNode
+        }
+    }, 0)
+    return result
+}
+
+// Hash codes of the results of all measured runs, so that the measured code is not optimized away
+private volatile var sink: Int = 0
+
+// Returns average time of one run in milliseconds, after the same number of warm-up runs.
+// eval4j tests don't depend on the compiler tests, so the helper from org.jetbrains.jet.test.util can't be used
+private fun measure(iterations: Int, run: () -> Any?): Double {
+    var result = 0
+    for (i in 1..iterations) result = 31 * result + run().hashCode()
+
+    val start = System.nanoTime()
+    for (i in 1..iterations) result = 31 * result + run().hashCode()
+    val time = (System.nanoTime() - start) / 1e6 / iterations
+
+    sink = sink xor result
+    return time
+}
@@ -31,19 +31,26 @@ import java.lang.reflect.InvocationTargetException
 import java.lang.reflect.Array as JArray
 import org.jetbrains.org.objectweb.asm.tree.analysis.Frame
 
-fun suite(): TestSuite = buildTestSuite {
+fun suite(): TestSuite = reflectionTestSuite {
+    methodNode, initialState -> interpreterLoop(methodNode, initialState, REFLECTION_EVAL)
+}
+
+fun threadedCodeSuite(): TestSuite = reflectionTestSuite {
+    methodNode, initialState -> threadedInterpreterLoop(decodeMethod(methodNode), initialState, REFLECTION_EVAL)
+}
+
+private fun reflectionTestSuite(interpret: (MethodNode, Frame<Value>) -> InterpreterResult): TestSuite = buildTestSuite {
     methodNode, ownerClass, expected ->
     object : TestCase(getTestName(methodNode.name)) {
 
             override fun runTest() {
                 if (!isIgnored(methodNode)) {
-                    val value = interpreterLoop(
+                    val value = interpret(
                             methodNode,
                             initFrame(
                                     ownerClass.getInternalName(),
                                     methodNode
-                            ),
-                            REFLECTION_EVAL
+                            )
                     )
                     
                     if (expected is ExceptionThrown && value is ExceptionThrown) {
@@ -169,7 +169,7 @@ public class CompilerOutputParser {
         private void reportToCollector(String text) {
             OutputMessageUtil.Output output = OutputMessageUtil.parseOutputMessage(text);
             if (output != null) {
-                collector.add(output.sourceFiles, output.outputFile);
+                collector.add(output.sourceFiles, output.outputFile, output.changed);
             }
         }
 
@@ -20,5 +20,6 @@ import java.io.File;
 import java.util.Collection;
 
 public interface OutputItemsCollector {
-    void add(Collection<File> sourceFiles, File outputFile);
+    // changed is false if the compiler found the same contents in the output file and didn't rewrite it
+    void add(Collection<File> sourceFiles, File outputFile, boolean changed);
 }
@@ -27,8 +27,8 @@ public class OutputItemsCollectorImpl implements OutputItemsCollector {
     private final List<SimpleOutputItem> outputs = ContainerUtil.newArrayList();
 
     @Override
-    public void add(Collection<File> sourceFiles, File outputFile) {
-        outputs.add(new SimpleOutputItem(sourceFiles, outputFile));
+    public void add(Collection<File> sourceFiles, File outputFile, boolean changed) {
+        outputs.add(new SimpleOutputItem(sourceFiles, outputFile, changed));
     }
 
     @NotNull
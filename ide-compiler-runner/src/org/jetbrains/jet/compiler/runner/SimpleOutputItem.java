@@ -24,10 +24,16 @@ import java.util.Collection;
 public class SimpleOutputItem {
     private final Collection<File> sourceFiles;
     private final File outputFile;
+    private final boolean changed;
 
     public SimpleOutputItem(@NotNull Collection<File> sourceFiles, @NotNull File outputFile) {
+        this(sourceFiles, outputFile, true);
+    }
+
+    public SimpleOutputItem(@NotNull Collection<File> sourceFiles, @NotNull File outputFile, boolean changed) {
         this.sourceFiles = sourceFiles;
         this.outputFile = outputFile;
+        this.changed = changed;
     }
 
     @NotNull
@@ -40,6 +46,14 @@ public class SimpleOutputItem {
         return outputFile;
     }
 
+    /**
+     * False if the compiler found the output file with the same contents already and didn't rewrite it.
+     * Only the command line compiler reports this, with -Xskip-unchanged-outputs
+     */
+    public boolean isChanged() {
+        return changed;
+    }
+
     @Override
     public String toString() {
         return sourceFiles + " -> " + outputFile;
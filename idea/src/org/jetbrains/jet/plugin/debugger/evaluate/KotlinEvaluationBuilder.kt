@@ -186,8 +186,8 @@ class KotlinEvaluator(val codeFragment: JetCodeFragment,
                                 val breakpoints = virtualMachine.eventRequestManager().breakpointRequests()
                                 breakpoints?.forEach { it.disable() }
 
-                                resultValue = interpreterLoop(
-                                        this,
+                                resultValue = threadedInterpreterLoop(
+                                        decodeMethod(this),
                                         makeInitialFrame(this, args),
                                         JDIEval(virtualMachine,
                                                 context.getClassLoader()!!,
@@ -55,6 +55,7 @@ import org.jetbrains.jet.lang.resolve.java.JvmAbi
 import org.jetbrains.org.objectweb.asm.ClassReader
 import org.jetbrains.jps.builders.java.JavaBuilderUtil
 import com.intellij.util.containers.MultiMap
+import com.intellij.util.xmlb.XmlSerializerUtil
 import org.jetbrains.jet.cli.common.arguments.CommonCompilerArguments
 import org.jetbrains.jet.compiler.CompilerSettings
 import org.jetbrains.jps.model.JpsProject
@@ -65,6 +66,9 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
     class object {
         public val KOTLIN_BUILDER_NAME: String = "Kotlin Builder"
 
+        private val LIGHT_CLASS_CACHE_ENABLED = "true" == System.getProperty("kotlin.jps.light.class.cache")
+        private val LIGHT_CLASS_CACHE_DIRECTORY_NAME = "kotlin-light-classes"
+
         private val LOG = Logger.getInstance("#org.jetbrains.jps.cmdline.BuildSession")
     }
 
@@ -139,7 +143,9 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
             recompilationDecision = IncrementalCacheImpl.RecompilationDecision.DO_NOTHING
         }
         else {
-            recompilationDecision = updateKotlinIncrementalCache(compilationErrors, dirtyFilesHolder, incrementalCaches, outputsItemsAndTargets)
+            recompilationDecision = updateKotlinIncrementalCache(
+                    compilationErrors, dirtyFilesHolder, incrementalCaches, filesToCompile, outputsItemsAndTargets
+            )
             updateJavaMappings(chunk, compilationErrors, context, dirtyFilesHolder, filesToCompile, outputsItemsAndTargets)
         }
 
@@ -152,6 +158,15 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
                 allCompiledFiles.clear()
                 return CHUNK_REBUILD_REQUIRED
             }
+            if (recompilationDecision == IncrementalCacheImpl.RecompilationDecision.COMPILE_AFFECTED) {
+                val changedUsages = incrementalCaches.values().flatMap { it.getAndClearChangedUsages() }
+                val affectedFiles = THashSet<File>(FileUtil.FILE_HASHING_STRATEGY)
+                incrementalCaches.values().forEach { affectedFiles.addAll(it.getSourceFilesWithUsages(changedUsages)) }
+
+                FSOperations.markDirty(context, chunk, { file ->
+                    file in affectedFiles && KotlinSourceFileCollector.isKotlinSourceFile(file) && file !in allCompiledFiles
+                })
+            }
             if (recompilationDecision == IncrementalCacheImpl.RecompilationDecision.COMPILE_OTHERS) {
                 // TODO should mark dependencies as dirty, as well
                 FSOperations.markDirty(context, chunk, { file ->
@@ -252,6 +267,7 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
             compilationErrors: Boolean,
             dirtyFilesHolder: DirtyFilesHolder<JavaSourceRootDescriptor, ModuleBuildTarget>,
             incrementalCaches: Map<ModuleBuildTarget, IncrementalCacheImpl>,
+            filesToCompile: MultiMap<ModuleBuildTarget, File>,
             outputsItemsAndTargets: List<Pair<SimpleOutputItem, ModuleBuildTarget>>
     ): IncrementalCacheImpl.RecompilationDecision {
         if (!IncrementalCompilation.ENABLED) {
@@ -259,6 +275,10 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         }
 
         for ((target, cache) in incrementalCaches) {
+            // Changes left from a previous round which didn't need them (e.g. a rebuild was requested)
+            cache.getAndClearChangedUsages()
+            // Usages of the compiled files are recorded anew from their outputs
+            cache.clearUsages(filesToCompile[target])
             cache.clearCacheForRemovedFiles(
                     KotlinSourceFileCollector.getRemovedKotlinFiles(dirtyFilesHolder, target),
                     target.getOutputDir()!!,
@@ -351,7 +371,12 @@ public class KotlinBuilder : ModuleLevelBuilder(BuilderCategory.SOURCE_PROCESSOR
         }
 
         val project = context.getProjectDescriptor().getProject()
-        val k2JvmArguments = JpsKotlinCompilerSettings.getK2JvmCompilerArguments(project)
+        // The arguments are shared by all modules of the project, so build-specific options are set on a copy
+        val k2JvmArguments = XmlSerializerUtil.createCopy(JpsKotlinCompilerSettings.getK2JvmCompilerArguments(project))
+        if (LIGHT_CLASS_CACHE_ENABLED) {
+            val dataStorageRoot = context.getProjectDescriptor().dataManager.getDataPaths().getDataStorageRoot()
+            k2JvmArguments.lightClassCache = File(dataStorageRoot, LIGHT_CLASS_CACHE_DIRECTORY_NAME).getAbsolutePath()
+        }
         val compilerSettings = JpsKotlinCompilerSettings.getCompilerSettings(project)
 
         runK2JvmCompiler(commonArguments, k2JvmArguments, compilerSettings, messageCollector, environment, moduleFile, outputItemCollector)
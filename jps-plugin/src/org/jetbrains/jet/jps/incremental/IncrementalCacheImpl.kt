@@ -34,6 +34,8 @@ import org.jetbrains.jet.lang.resolve.java.JvmClassName
 import java.util.HashSet
 import org.jetbrains.jet.lang.resolve.kotlin.incremental.cache.IncrementalCache
 import java.util.HashMap
+import java.util.ArrayList
+import com.intellij.util.containers.MultiMap
 import org.jetbrains.jet.lang.resolve.java.PackageClassUtils
 import com.intellij.openapi.util.io.FileUtil
 import java.security.MessageDigest
@@ -55,9 +57,13 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
         val CONSTANTS_MAP = "constants.tab"
         val INLINE_FUNCTIONS = "inline-functions.tab"
         val PACKAGE_PARTS = "package-parts.tab"
+        val MEMBER_HASHES = "member-hashes.tab"
+        val SUPERTYPES = "supertypes.tab"
+        val USAGES = "usages.tab"
+        val USERS = "users.tab"
 
         // Change this when incremental cache format changes
-        private val INCREMENTAL_CACHE_OWN_VERSION = 1
+        private val INCREMENTAL_CACHE_OWN_VERSION = 2
         public val CACHE_FORMAT_VERSION: Int = INCREMENTAL_CACHE_OWN_VERSION * 1000000 + JvmAbi.VERSION
 
         val FORMAT_VERSION_TXT = "format-version.txt"
@@ -67,8 +73,17 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
     private val constantsMap = ConstantsMap()
     private val inlineFunctionsMap = InlineFunctionsMap()
     private val packagePartMap = PackagePartMap()
+    private val memberHashesMap = MemberHashesMap()
+    private val supertypesMap = SupertypesMap()
+    private val usagesMap = UsagesMap()
+    private val usersMap = UsersMap()
 
-    private val maps = listOf(protoMap, constantsMap, inlineFunctionsMap, packagePartMap)
+    private val maps = listOf(protoMap, constantsMap, inlineFunctionsMap, packagePartMap, memberHashesMap, supertypesMap, usagesMap, usersMap)
+
+    // Usages (see classFileUsages.kt) affected by the changes in the protos saved since the last call to getAndClearChangedUsages()
+    private val changedUsages = HashSet<String>()
+    // Packages whose facades were saved without the source file attribute, i.e. generated from several sources
+    private val packagesWithMergedFacades = HashSet<String>()
 
     private fun getFormatVersionFile(): File {
         return File(baseDir, FORMAT_VERSION_TXT)
@@ -105,19 +120,42 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
         val className = JvmClassName.byClassId(kotlinClass.getClassId())
         val header = kotlinClass.getClassHeader()
 
+        if (!header.isCompatiblePackageFacadeKind()) {
+            // Package facades only delegate to package parts, which are compiled from the same sources
+            val usages = HashSet(getClassFileUsages(fileBytes))
+            if (header.syntheticClassKind == JvmAnnotationNames.KotlinSyntheticClass.Kind.PACKAGE_PART) {
+                usages.add(packageUsage(className.getPackageFqName().asString()))
+            }
+            supertypesMap.put(className, usages.filter { isSupertypeUsage(it) }.map { getSupertypeFromUsage(it) })
+            for (sourceFile in sourceFiles) {
+                addUsages(sourceFile, usages)
+            }
+        }
+
         val annotationDataEncoded = header.annotationData
         if (annotationDataEncoded != null) {
             val data = BitEncoding.decodeBytes(annotationDataEncoded)
             when {
                 header.isCompatiblePackageFacadeKind() -> {
-                    return if (protoMap.put(className, data)) COMPILE_OTHERS else DO_NOTHING
+                    if (!hasSourceFileAttribute(fileBytes)) {
+                        packagesWithMergedFacades.add(className.getPackageFqName().asString())
+                    }
+                    val protoChanged = protoMap.put(className, data)
+                    val membersChanged = protoChanged && memberHashesMap.process(className, getPackageMemberHashes(data))
+                    return if (membersChanged) COMPILE_AFFECTED else DO_NOTHING
                 }
                 header.isCompatibleClassKind() -> {
                     val inlinesChanged = inlineFunctionsMap.process(className, fileBytes)
                     val protoChanged = protoMap.put(className, data)
+                    val membersChanged = protoChanged && memberHashesMap.process(className, getClassMemberHashes(data))
                     val constantsChanged = constantsMap.process(className, fileBytes)
 
-                    return if (inlinesChanged) RECOMPILE_ALL else if (protoChanged || constantsChanged) COMPILE_OTHERS else DO_NOTHING
+                    return when {
+                        inlinesChanged -> RECOMPILE_ALL
+                        constantsChanged -> COMPILE_OTHERS
+                        membersChanged -> COMPILE_AFFECTED
+                        else -> DO_NOTHING
+                    }
                 }
                 else -> {
                     throw IllegalStateException("Unexpected kind with annotationData: ${header.kind}, isCompatible: ${header.isCompatibleAbiVersion}")
@@ -137,14 +175,85 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
 
     public fun clearCacheForRemovedFiles(removedSourceFiles: Collection<File>, outDirectory: File, compilationSuccessful: Boolean) {
         removedSourceFiles.forEach { packagePartMap.remove(it) }
+        clearUsages(removedSourceFiles)
 
         if (compilationSuccessful) {
             inlineFunctionsMap.clearOutdated(outDirectory)
             constantsMap.clearOutdated(outDirectory)
             protoMap.clearOutdated(outDirectory)
+            supertypesMap.clearOutdated(outDirectory)
+            memberHashesMap.clearOutdated(outDirectory).mapTo(changedUsages) { classUsage(it) }
+        }
+    }
+
+    /**
+     * Forgets the usages recorded for the given sources, must be called before their new outputs are saved
+     */
+    public fun clearUsages(sourceFiles: Collection<File>) {
+        for (sourceFile in sourceFiles) {
+            val path = sourceFile.getAbsolutePath()
+            val usages = usagesMap[path] ?: continue
+            for (usage in usages) {
+                usersMap.remove(usage, path)
+            }
+            usagesMap.remove(path)
         }
     }
 
+    private fun addUsages(sourceFile: File, usages: Collection<String>) {
+        val path = sourceFile.getAbsolutePath()
+        val oldUsages = HashSet(usagesMap[path] ?: listOf<String>())
+        val newUsages = usages.filter { it !in oldUsages }
+        if (newUsages.isEmpty()) return
+
+        usagesMap.put(path, oldUsages + newUsages)
+        for (usage in newUsages) {
+            usersMap.add(usage, path)
+        }
+    }
+
+    public fun getAndClearChangedUsages(): Collection<String> {
+        for (packageFqName in packagesWithMergedFacades) {
+            // A facade which is merged from the cache and a single remaining source should be generated from that source alone,
+            // as it is on a rebuild (with the source file attribute)
+            val usage = packageUsage(packageFqName)
+            if (usersMap[usage]?.size == 1) {
+                changedUsages.add(usage)
+            }
+        }
+        packagesWithMergedFacades.clear()
+
+        val result = changedUsages.toList()
+        changedUsages.clear()
+        return result
+    }
+
+    /**
+     * Sources with usages among the given ones. A changed supertype affects all of its subclasses, not only the direct ones
+     */
+    public fun getSourceFilesWithUsages(usages: Collection<String>): Collection<File> {
+        val allUsages = HashSet(usages)
+
+        val changedSupertypes = usages.filter { isSupertypeUsage(it) }.map { getSupertypeFromUsage(it) }
+        if (!changedSupertypes.isEmpty()) {
+            val subtypes = supertypesMap.getSubtypes()
+            val queue = ArrayList(changedSupertypes)
+            while (!queue.isEmpty()) {
+                for (subtype in subtypes[queue.remove(queue.size - 1)]) {
+                    if (allUsages.add(supertypeUsage(subtype))) {
+                        queue.add(subtype)
+                    }
+                }
+            }
+        }
+
+        val result = HashSet<File>()
+        for (usage in allUsages) {
+            usersMap[usage]?.mapTo(result) { File(it) }
+        }
+        return result
+    }
+
     public override fun getRemovedPackageParts(sourceFilesToCompileAndFqNames: Map<File, String>): Collection<String> {
         return packagePartMap.getRemovedPackageParts(sourceFilesToCompileAndFqNames)
     }
@@ -205,7 +314,8 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
     private abstract class ClassFileBasedMap<V>: BasicMap<V>() {
 
         // TODO may be too expensive, because it traverses all files in out directory
-        public fun clearOutdated(outDirectory: File) {
+        // Returns the internal names of the removed classes
+        public fun clearOutdated(outDirectory: File): Collection<String> {
             val keysToRemove = HashSet<String>()
 
             storage.processKeysWithExistingMapping { key ->
@@ -221,6 +331,7 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
             for (key in keysToRemove) {
                 storage.remove(key)
             }
+            return keysToRemove
         }
     }
 
@@ -434,6 +545,124 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
     }
 
 
+    private inner class MemberHashesMap: ClassFileBasedMap<Map<String, Long>>() {
+        override fun createMap(): PersistentHashMap<String, Map<String, Long>> = PersistentHashMap(
+                File(baseDir, MEMBER_HASHES),
+                EnumeratorStringDescriptor(),
+                InlineFunctionsMapExternalizer
+        )
+
+        // Records the usages affected by the difference between the old and the new hashes, returns true if there's any
+        public fun process(className: JvmClassName, hashes: Map<String, Long>): Boolean {
+            val key = className.getInternalName()
+
+            val oldHashes = storage[key]
+            if (oldHashes == hashes) {
+                return false
+            }
+            storage.put(key, hashes)
+
+            if (oldHashes == null) {
+                changedUsages.add(classUsage(key))
+                return true
+            }
+
+            var membersChanged = false
+            for (name in oldHashes.keySet() + hashes.keySet()) {
+                if (oldHashes[name] == hashes[name]) continue
+
+                if (name == CLASS_HEADER_HASH_KEY) {
+                    changedUsages.add(classUsage(key))
+                }
+                else {
+                    changedUsages.add(memberUsage(name))
+                    membersChanged = true
+                }
+            }
+            if (membersChanged) {
+                // Subclasses may override or hide the changed members
+                changedUsages.add(supertypeUsage(key))
+            }
+            return true
+        }
+    }
+
+    private inner class SupertypesMap: ClassFileBasedMap<Collection<String>>() {
+        override fun createMap(): PersistentHashMap<String, Collection<String>> = PersistentHashMap(
+                File(baseDir, SUPERTYPES),
+                EnumeratorStringDescriptor(),
+                StringCollectionExternalizer
+        )
+
+        public fun put(className: JvmClassName, supertypes: Collection<String>) {
+            storage.put(className.getInternalName(), supertypes)
+        }
+
+        public fun getSubtypes(): MultiMap<String, String> {
+            val result = MultiMap<String, String>()
+
+            storage.processKeysWithExistingMapping { key ->
+                for (supertype in storage[key!!]!!) {
+                    result.putValue(supertype, key)
+                }
+
+                true
+            }
+
+            return result
+        }
+    }
+
+    // Format: <source file path>  -->  <usages of the classes compiled from it>
+    private inner class UsagesMap: BasicMap<Collection<String>>() {
+        override fun createMap(): PersistentHashMap<String, Collection<String>> = PersistentHashMap(
+                File(baseDir, USAGES),
+                EnumeratorStringDescriptor(),
+                StringCollectionExternalizer
+        )
+
+        public fun get(path: String): Collection<String>? = storage[path]
+
+        public fun put(path: String, usages: Collection<String>) {
+            storage.put(path, usages)
+        }
+
+        public fun remove(path: String) {
+            storage.remove(path)
+        }
+    }
+
+    // Format: <usage>  -->  <paths of the source files with this usage>, the inverse of UsagesMap
+    private inner class UsersMap: BasicMap<Collection<String>>() {
+        override fun createMap(): PersistentHashMap<String, Collection<String>> = PersistentHashMap(
+                File(baseDir, USERS),
+                EnumeratorStringDescriptor(),
+                StringCollectionExternalizer
+        )
+
+        public fun get(usage: String): Collection<String>? = storage[usage]
+
+        public fun add(usage: String, path: String) {
+            val paths = storage[usage]
+            if (paths != null && path in paths) return
+
+            storage.put(usage, if (paths == null) listOf(path) else paths + path)
+        }
+
+        public fun remove(usage: String, path: String) {
+            val paths = storage[usage] ?: return
+            if (path !in paths) return
+
+            val newPaths = paths.filter { it != path }
+            if (newPaths.isEmpty()) {
+                storage.remove(usage)
+            }
+            else {
+                storage.put(usage, newPaths)
+            }
+        }
+    }
+
     private inner class PackagePartMap: BasicMap<String>() {
         // Format of serialization to string: <source file path>  -->  <package part JVM internal name>
         override fun createMap(): PersistentHashMap<String, String> = PersistentHashMap(
@@ -493,6 +722,8 @@ public class IncrementalCacheImpl(val baseDir: File): StorageOwner, IncrementalC
 
     enum class RecompilationDecision {
         DO_NOTHING
+        // Compile the sources which use the changes, see getAndClearChangedUsages()
+        COMPILE_AFFECTED
         COMPILE_OTHERS
         RECOMPILE_ALL
 
@@ -521,6 +752,24 @@ private fun ByteArray.md5(): Long {
             )
 }
 
+private object StringCollectionExternalizer: DataExternalizer<Collection<String>> {
+    override fun save(out: DataOutput, value: Collection<String>?) {
+        out.writeInt(value!!.size)
+        for (string in value) {
+            IOUtil.writeString(string, out)
+        }
+    }
+
+    override fun read(`in`: DataInput): Collection<String> {
+        val size = `in`.readInt()
+        val result = ArrayList<String>(size)
+        for (i in size.indices) {
+            result.add(IOUtil.readString(`in`)!!)
+        }
+        return result
+    }
+}
+
 private object ByteArrayExternalizer: DataExternalizer<ByteArray> {
     override fun save(out: DataOutput, value: ByteArray?) {
         out.writeInt(value!!.size)
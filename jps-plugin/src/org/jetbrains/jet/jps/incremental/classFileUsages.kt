@@ -0,0 +1,121 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jps.incremental
+
+import org.jetbrains.org.objectweb.asm.ClassReader
+import org.jetbrains.org.objectweb.asm.ClassVisitor
+import org.jetbrains.org.objectweb.asm.Opcodes
+import java.util.HashSet
+
+/*
+ * Usages are plain strings, so that they can be stored in a persistent map and compared with the changes found in the protos.
+ * Members are matched by name only: a reference may go through a subclass or a package facade, which declares nothing itself
+ */
+fun classUsage(internalName: String): String = "class:$internalName"
+fun memberUsage(name: String): String = "member:$name"
+fun supertypeUsage(internalName: String): String = "supertype:$internalName"
+// Recorded for the sources which have a package part, i.e. declare callables in the package
+fun packageUsage(packageFqName: String): String = "package:$packageFqName"
+
+fun isSupertypeUsage(usage: String): Boolean = usage.startsWith("supertype:")
+fun getSupertypeFromUsage(usage: String): String = usage.substring("supertype:".length)
+
+// Constant pool tags, see JVMS 4.4
+private val UTF8 = 1
+private val CLASS = 7
+private val FIELD = 9
+private val METHOD = 10
+private val INTERFACE_METHOD = 11
+
+/**
+ * Collects the classes and members referenced by a class file and its direct supertypes.
+ * Only the constant pool is read: every class or member which the code or signatures refer to is there
+ */
+fun getClassFileUsages(bytes: ByteArray): Set<String> {
+    val reader = ClassReader(bytes)
+    val buffer = CharArray(reader.getMaxStringLength())
+    val result = HashSet<String>()
+
+    for (i in 1..reader.getItemCount() - 1) {
+        val item = reader.getItem(i)
+        // The second slot of a long or a double constant
+        if (item == 0) continue
+
+        when (bytes[item - 1].toInt()) {
+            CLASS -> addTypeUsages(result, reader.readUTF8(item, buffer))
+            FIELD, METHOD, INTERFACE_METHOD -> {
+                val nameAndType = reader.getItem(reader.readUnsignedShort(item + 2))
+                result.add(memberUsage(reader.readUTF8(nameAndType, buffer)))
+            }
+            UTF8 -> {
+                // Descriptors and generic signatures, which mention classes not referenced from the code
+                val string = String(bytes, item + 2, reader.readUnsignedShort(item), "UTF-8")
+                if (string.indexOf(';') >= 0) {
+                    addTypeUsages(result, string)
+                }
+            }
+        }
+    }
+
+    val superName = reader.getSuperName()
+    if (superName != null) {
+        result.add(supertypeUsage(superName))
+    }
+    for (superInterface in reader.getInterfaces()) {
+        result.add(supertypeUsage(superInterface))
+    }
+
+    return result
+}
+
+private fun addTypeUsages(result: MutableSet<String>, descriptor: String) {
+    if (descriptor.indexOf(';') < 0) {
+        // An internal name of a class
+        if (!descriptor.startsWith("[")) {
+            result.add(classUsage(descriptor))
+        }
+        return
+    }
+
+    var i = 0
+    while (i < descriptor.length) {
+        if (descriptor[i] != 'L') {
+            i++
+            continue
+        }
+        var end = i + 1
+        while (end < descriptor.length && isInternalNamePart(descriptor[end])) end++
+        if (end > i + 1 && end < descriptor.length && (descriptor[end] == ';' || descriptor[end] == '<')) {
+            result.add(classUsage(descriptor.substring(i + 1, end)))
+        }
+        i = end
+    }
+}
+
+private fun isInternalNamePart(c: Char): Boolean = c == '/' || Character.isJavaIdentifierPart(c)
+
+fun hasSourceFileAttribute(bytes: ByteArray): Boolean {
+    var result = false
+    ClassReader(bytes).accept(object : ClassVisitor(Opcodes.ASM5) {
+        override fun visitSource(source: String?, debug: String?) {
+            if (source != null) {
+                result = true
+            }
+        }
+    }, ClassReader.SKIP_CODE or ClassReader.SKIP_FRAMES)
+    return result
+}
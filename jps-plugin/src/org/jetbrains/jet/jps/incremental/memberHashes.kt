@@ -0,0 +1,261 @@
+/*
+ * Copyright 2010-2014 JetBrains s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jetbrains.jet.jps.incremental
+
+import com.google.protobuf.CodedInputStream
+import com.google.protobuf.WireFormat
+import org.jetbrains.jet.descriptors.serialization.ClassData
+import org.jetbrains.jet.descriptors.serialization.Flags
+import org.jetbrains.jet.descriptors.serialization.JavaProtoBuf
+import org.jetbrains.jet.descriptors.serialization.JavaProtoBufUtil
+import org.jetbrains.jet.descriptors.serialization.NameResolver
+import org.jetbrains.jet.descriptors.serialization.PackageData
+import org.jetbrains.jet.descriptors.serialization.ProtoBuf
+import java.security.MessageDigest
+import java.util.HashMap
+import java.util.HashSet
+
+// Key of the hash of everything in a class proto except its members: supertypes, type parameters, flags, primary constructor etc.
+val CLASS_HEADER_HASH_KEY = "<class>"
+
+/**
+ * Hashes of the serialized signatures of the class members, keyed by their Kotlin and JVM names, plus [CLASS_HEADER_HASH_KEY].
+ * Private members can't be referenced from other files, so they don't affect the hashes
+ */
+fun getClassMemberHashes(data: ByteArray): Map<String, Long> {
+    val classData = ClassData.read(data, JavaProtoBufUtil.getExtensionRegistry())
+    val classProto = classData.getClassProto()
+    val hasher = ProtoHasher(classData.getNameResolver())
+
+    val result = HashMap<String, Long>()
+    for (member in classProto.getMemberList()) {
+        if (Flags.VISIBILITY.get(member.getFlags()) == ProtoBuf.Visibility.PRIVATE) continue
+        hasher.addMember(result, member)
+    }
+    val header = classProto.toBuilder().clearMember().clearMemberIndex().build()
+    result[CLASS_HEADER_HASH_KEY] = hasher.hash(header.toByteArray(), ProtoSchema.CLASS)
+    return result
+}
+
+/**
+ * Hashes of the serialized signatures of the package members, keyed by their Kotlin and JVM names.
+ * Private top-level members are visible to the whole package, so all members are hashed
+ */
+fun getPackageMemberHashes(data: ByteArray): Map<String, Long> {
+    val packageData = PackageData.read(data, JavaProtoBufUtil.getExtensionRegistry())
+    val hasher = ProtoHasher(packageData.getNameResolver())
+
+    val result = HashMap<String, Long>()
+    for (member in packageData.getPackageProto().getMemberList()) {
+        hasher.addMember(result, member)
+    }
+    return result
+}
+
+/**
+ * Hashes a message by walking its wire format, with indices into the name tables replaced by the names themselves,
+ * so that the hash doesn't depend on the order in which names were added to the tables.
+ * Fields which are not described in [ProtoSchema] are hashed as is
+ */
+private class ProtoHasher(private val nameResolver: NameResolver) {
+    private val digest = MessageDigest.getInstance("MD5")
+
+    fun addMember(result: MutableMap<String, Long>, member: ProtoBuf.Callable) {
+        val hash = hash(member.toByteArray(), ProtoSchema.CALLABLE)
+        // Overloads share the key, hashes are summed so that they don't depend on the order of the members
+        for (key in getMemberKeys(member)) {
+            result[key] = (result[key] ?: 0L) + hash
+        }
+    }
+
+    private fun getMemberKeys(member: ProtoBuf.Callable): Set<String> {
+        val result = HashSet<String>()
+        result.add(nameResolver.getString(member.getName()))
+
+        if (member.hasExtension(JavaProtoBuf.methodSignature)) {
+            result.add(nameResolver.getString(member.getExtension(JavaProtoBuf.methodSignature).getName()))
+        }
+        if (member.hasExtension(JavaProtoBuf.propertySignature)) {
+            val signature = member.getExtension(JavaProtoBuf.propertySignature)
+            if (signature.hasField()) result.add(nameResolver.getString(signature.getField().getName()))
+            if (signature.hasSyntheticMethod()) result.add(nameResolver.getString(signature.getSyntheticMethod().getName()))
+            if (signature.hasGetter()) result.add(nameResolver.getString(signature.getGetter().getName()))
+            if (signature.hasSetter()) result.add(nameResolver.getString(signature.getSetter().getName()))
+        }
+        return result
+    }
+
+    fun hash(bytes: ByteArray, schema: ProtoSchema): Long {
+        digest.reset()
+        update(CodedInputStream.newInstance(bytes), schema)
+        return digest.digest().toLong()
+    }
+
+    private fun update(input: CodedInputStream, schema: ProtoSchema) {
+        var isTypeParameter = false
+        while (true) {
+            val tag = input.readTag()
+            if (tag == 0) break
+
+            updateInt(tag)
+            val field = WireFormat.getTagFieldNumber(tag)
+            when (WireFormat.getTagWireType(tag)) {
+                WireFormat.WIRETYPE_VARINT -> {
+                    val value = input.readInt64()
+                    if (schema.isTypeConstructor && field == TYPE_CONSTRUCTOR_KIND) {
+                        isTypeParameter = value.toInt() == ProtoBuf.Type.Constructor.Kind.TYPE_PARAMETER_VALUE
+                    }
+                    updateValue(schema, field, value.toInt(), value, isTypeParameter)
+                }
+                WireFormat.WIRETYPE_LENGTH_DELIMITED -> {
+                    val nested = schema.messages[field]
+                    val limit = input.pushLimit(input.readRawVarint32())
+                    if (nested != null) {
+                        update(input, nested)
+                    }
+                    else if (field in schema.names || field in schema.fqNames) {
+                        // Packed repeated name indices
+                        while (!input.isAtEnd()) {
+                            updateValue(schema, field, input.readInt32(), 0L, false)
+                        }
+                    }
+                    else {
+                        digest.update(input.readRawBytes(input.getBytesUntilLimit()))
+                    }
+                    input.popLimit(limit)
+                    updateInt(MESSAGE_END)
+                }
+                WireFormat.WIRETYPE_FIXED32 -> updateInt(input.readRawLittleEndian32())
+                WireFormat.WIRETYPE_FIXED64 -> updateLong(input.readRawLittleEndian64())
+                else -> throw IllegalStateException("Unexpected wire type in tag $tag")
+            }
+        }
+    }
+
+    private fun updateValue(schema: ProtoSchema, field: Int, index: Int, rawValue: Long, isTypeParameter: Boolean) {
+        when {
+            field in schema.names -> updateString(nameResolver.getString(index))
+            field in schema.fqNames -> updateString(nameResolver.getFqName(index).asString())
+            schema.isTypeConstructor && field == TYPE_CONSTRUCTOR_ID && !isTypeParameter ->
+                updateString(nameResolver.getFqName(index).asString())
+            else -> updateLong(rawValue)
+        }
+    }
+
+    private fun updateString(value: String) {
+        digest.update(value.toByteArray())
+        updateInt(STRING_END)
+    }
+
+    private fun updateInt(value: Int) {
+        updateLong(value.toLong())
+    }
+
+    private fun updateLong(value: Long) {
+        for (i in 0..7) {
+            digest.update((value ushr (8 * i)).toByte())
+        }
+    }
+}
+
+// Markers which separate variable-length values, so that different sequences of fields don't produce the same input for the digest
+private val STRING_END = -1
+private val MESSAGE_END = -2
+
+private val TYPE_CONSTRUCTOR_KIND = 1
+private val TYPE_CONSTRUCTOR_ID = 2
+
+/**
+ * Field numbers of the messages from descriptors.proto and java_descriptors.proto which refer to the name tables or to other messages
+ */
+private class ProtoSchema(val isTypeConstructor: Boolean = false) {
+    val names = HashSet<Int>()
+    val fqNames = HashSet<Int>()
+    val messages = HashMap<Int, ProtoSchema>()
+
+    class object {
+        val TYPE_CONSTRUCTOR = ProtoSchema(isTypeConstructor = true)
+        val TYPE = ProtoSchema()
+        val TYPE_ARGUMENT = ProtoSchema()
+        val TYPE_PARAMETER = ProtoSchema()
+        val VALUE_PARAMETER = ProtoSchema()
+        val JAVA_TYPE = ProtoSchema()
+        val JAVA_METHOD_SIGNATURE = ProtoSchema()
+        val JAVA_FIELD_SIGNATURE = ProtoSchema()
+        val JAVA_PROPERTY_SIGNATURE = ProtoSchema()
+        val CALLABLE = ProtoSchema()
+        val CLASS = ProtoSchema()
+        val CLASS_OBJECT = ProtoSchema()
+        val PRIMARY_CONSTRUCTOR = ProtoSchema();
+
+        {
+            TYPE.messages[1] = TYPE_CONSTRUCTOR
+            TYPE.messages[2] = TYPE_ARGUMENT
+            TYPE.messages[5] = TYPE
+            TYPE_ARGUMENT.messages[2] = TYPE
+
+            TYPE_PARAMETER.names.add(2)
+            TYPE_PARAMETER.messages[5] = TYPE
+
+            VALUE_PARAMETER.names.add(2)
+            VALUE_PARAMETER.messages[3] = TYPE
+            VALUE_PARAMETER.messages[4] = TYPE
+
+            JAVA_TYPE.fqNames.add(2)
+
+            JAVA_METHOD_SIGNATURE.names.add(1)
+            JAVA_METHOD_SIGNATURE.messages[2] = JAVA_TYPE
+            JAVA_METHOD_SIGNATURE.messages[3] = JAVA_TYPE
+
+            JAVA_FIELD_SIGNATURE.names.add(1)
+            JAVA_FIELD_SIGNATURE.messages[2] = JAVA_TYPE
+
+            JAVA_PROPERTY_SIGNATURE.messages[1] = JAVA_FIELD_SIGNATURE
+            JAVA_PROPERTY_SIGNATURE.messages[2] = JAVA_METHOD_SIGNATURE
+            JAVA_PROPERTY_SIGNATURE.messages[3] = JAVA_METHOD_SIGNATURE
+            JAVA_PROPERTY_SIGNATURE.messages[4] = JAVA_METHOD_SIGNATURE
+
+            CALLABLE.messages[4] = TYPE_PARAMETER
+            CALLABLE.messages[5] = TYPE
+            CALLABLE.names.add(6)
+            CALLABLE.messages[7] = VALUE_PARAMETER
+            CALLABLE.messages[8] = TYPE
+            CALLABLE.messages[100] = JAVA_METHOD_SIGNATURE
+            CALLABLE.messages[101] = JAVA_PROPERTY_SIGNATURE
+            CALLABLE.names.add(102)
+
+            CLASS.fqNames.add(3)
+            CLASS.messages[4] = CLASS_OBJECT
+            CLASS.messages[5] = TYPE_PARAMETER
+            CLASS.messages[6] = TYPE
+            CLASS.names.add(7)
+            CLASS.messages[11] = CALLABLE
+            CLASS.names.add(12)
+            CLASS.messages[13] = PRIMARY_CONSTRUCTOR
+            CLASS_OBJECT.messages[1] = CLASS
+            PRIMARY_CONSTRUCTOR.messages[1] = CALLABLE
+        }
+    }
+}
+
+private fun ByteArray.toLong(): Long {
+    var result = 0L
+    for (i in 0..7) {
+        result = result or ((this[i].toLong() and 0xFFL) shl (8 * i))
+    }
+    return result
+}
@@ -0,0 +1,6 @@
+package test
+
+open class Base {
+    fun foo() {
+    }
+}
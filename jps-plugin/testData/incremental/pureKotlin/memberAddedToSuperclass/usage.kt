@@ -0,0 +1,5 @@
+package test
+
+fun usage(b: Base) {
+    b.foo()
+}
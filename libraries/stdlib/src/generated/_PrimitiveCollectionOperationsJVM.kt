@@ -0,0 +1,132 @@
+package kotlin
+
+//
+// NOTE THIS FILE IS AUTO-GENERATED by the GenerateStandardLib.kt
+// See: https://github.com/JetBrains/kotlin/tree/master/libraries/stdlib
+//
+
+import java.util.*
+
+/**
+ * Returns a new list containing all elements matching the given *predicate*
+ */
+public inline fun DoubleArrayList.filter(predicate: (Double) -> Boolean): DoubleArrayList {
+    val result = DoubleArrayList()
+    for (index in 0..size() - 1) {
+        val element = get(index)
+        if (predicate(element)) result.add(element)
+    }
+    return result
+}
+
+/**
+ * Returns a new list containing all elements matching the given *predicate*
+ */
+public inline fun IntArrayList.filter(predicate: (Int) -> Boolean): IntArrayList {
+    val result = IntArrayList()
+    for (index in 0..size() - 1) {
+        val element = get(index)
+        if (predicate(element)) result.add(element)
+    }
+    return result
+}
+
+/**
+ * Returns a new list containing all elements matching the given *predicate*
+ */
+public inline fun LongArrayList.filter(predicate: (Long) -> Boolean): LongArrayList {
+    val result = LongArrayList()
+    for (index in 0..size() - 1) {
+        val element = get(index)
+        if (predicate(element)) result.add(element)
+    }
+    return result
+}
+
+/**
+ * Performs the given *operation* on each element
+ */
+public inline fun DoubleArrayList.forEach(operation: (Double) -> Unit): Unit {
+    for (index in 0..size() - 1) operation(get(index))
+}
+
+/**
+ * Performs the given *operation* on each element
+ */
+public inline fun IntArrayList.forEach(operation: (Int) -> Unit): Unit {
+    for (index in 0..size() - 1) operation(get(index))
+}
+
+/**
+ * Performs the given *operation* on each element
+ */
+public inline fun LongArrayList.forEach(operation: (Long) -> Unit): Unit {
+    for (index in 0..size() - 1) operation(get(index))
+}
+
+/**
+ * Returns a list containing the results of applying the given *transform* function to each element of the original collection
+ */
+public inline fun <R> DoubleArrayList.map(transform: (Double) -> R): List<R> {
+    val result = ArrayList<R>(size())
+    for (index in 0..size() - 1) {
+        result.add(transform(get(index)))
+    }
+    return result
+}
+
+/**
+ * Returns a list containing the results of applying the given *transform* function to each element of the original collection
+ */
+public inline fun <R> IntArrayList.map(transform: (Int) -> R): List<R> {
+    val result = ArrayList<R>(size())
+    for (index in 0..size() - 1) {
+        result.add(transform(get(index)))
+    }
+    return result
+}
+
+/**
+ * Returns a list containing the results of applying the given *transform* function to each element of the original collection
+ */
+public inline fun <R> LongArrayList.map(transform: (Long) -> R): List<R> {
+    val result = ArrayList<R>(size())
+    for (index in 0..size() - 1) {
+        result.add(transform(get(index)))
+    }
+    return result
+}
+
+/**
+ * Returns the sum of all elements in the collection
+ */
+public fun DoubleArrayList.sum(): Double {
+    var sum: Double = 0.0
+    for (index in 0..size() - 1) {
+        sum += get(index)
+    }
+    return sum
+}
+
+/**
+ * Returns the sum of all elements in the collection
+ */
+public fun IntArrayList.sum(): Int {
+    var sum: Int = 0
+    for (index in 0..size() - 1) {
+        sum += get(index)
+    }
+    return sum
+}
+
+/**
+ * Returns the sum of all elements in the collection
+ */
+public fun LongArrayList.sum(): Long {
+    var sum: Long = 0
+    for (index in 0..size() - 1) {
+        sum += get(index)
+    }
+    return sum
+}
+
@@ -0,0 +1,1582 @@
+package kotlin
+
+//
+// NOTE THIS FILE IS AUTO-GENERATED by the GenerateStandardLib.kt
+// See: https://github.com/JetBrains/kotlin/tree/master/libraries/stdlib
+//
+
+import java.util.*
+
+/**
+ * A growable list of Int values, stored unboxed in an array
+ */
+public class IntArrayList(initialCapacity: Int = 10) {
+    private var elements = IntArray(initialCapacity)
+    private var length = 0
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun get(index: Int): Int {
+        checkIndex(index)
+        return elements[index]
+    }
+
+    public fun set(index: Int, element: Int) {
+        checkIndex(index)
+        elements[index] = element
+    }
+
+    public fun add(element: Int) {
+        ensureCapacity(length + 1)
+        elements[length++] = element
+    }
+
+    public fun addAll(elements: IntArray) {
+        ensureCapacity(length + elements.size)
+        System.arraycopy(elements, 0, this.elements, length, elements.size)
+        length += elements.size
+    }
+
+    public fun addAll(elements: IntArrayList) {
+        ensureCapacity(length + elements.length)
+        System.arraycopy(elements.elements, 0, this.elements, length, elements.length)
+        length += elements.length
+    }
+
+    public fun removeAt(index: Int): Int {
+        checkIndex(index)
+        val removed = elements[index]
+        System.arraycopy(elements, index + 1, elements, index, length - index - 1)
+        length--
+        return removed
+    }
+
+    public fun clear() {
+        length = 0
+    }
+
+    public fun contains(element: Int): Boolean = indexOf(element) >= 0
+
+    public fun indexOf(element: Int): Int {
+        for (index in 0..length - 1) {
+            if (primitiveEquals(elements[index], element)) return index
+        }
+        return -1
+    }
+
+    /**
+     * Sorts the elements in place, in ascending order
+     */
+    public fun sort() {
+        Arrays.sort(elements, 0, length)
+    }
+
+    public fun toArray(): IntArray = Arrays.copyOf(elements, length)
+
+    public fun iterator(): IntIterator = object : IntIterator() {
+        private var index = 0
+
+        override fun hasNext(): Boolean = index < length
+
+        override fun nextInt(): Int = get(index++)
+    }
+
+    public fun ensureCapacity(capacity: Int) {
+        if (capacity > elements.size) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.size * 2))
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= length) {
+            throw IndexOutOfBoundsException("Index: " + index + ", size: " + length)
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this identityEquals other) return true
+        if (other !is IntArrayList || other.length != length) return false
+        for (index in 0..length - 1) {
+            if (!primitiveEquals(elements[index], other.elements[index])) return false
+        }
+        return true
+    }
+
+    override fun hashCode(): Int {
+        var result = 1
+        for (index in 0..length - 1) {
+            result = 31 * result + primitiveHashCode(elements[index])
+        }
+        return result
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("[")
+        for (index in 0..length - 1) {
+            if (index > 0) builder.append(", ")
+            builder.append(elements[index])
+        }
+        return builder.append(']').toString()
+    }
+}
+
+/**
+ * Returns a new IntArrayList with the given elements
+ */
+public fun intArrayListOf(vararg elements: Int): IntArrayList {
+    val result = IntArrayList(elements.size)
+    result.addAll(elements)
+    return result
+}
+
+/**
+ * A growable list of Long values, stored unboxed in an array
+ */
+public class LongArrayList(initialCapacity: Int = 10) {
+    private var elements = LongArray(initialCapacity)
+    private var length = 0
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun get(index: Int): Long {
+        checkIndex(index)
+        return elements[index]
+    }
+
+    public fun set(index: Int, element: Long) {
+        checkIndex(index)
+        elements[index] = element
+    }
+
+    public fun add(element: Long) {
+        ensureCapacity(length + 1)
+        elements[length++] = element
+    }
+
+    public fun addAll(elements: LongArray) {
+        ensureCapacity(length + elements.size)
+        System.arraycopy(elements, 0, this.elements, length, elements.size)
+        length += elements.size
+    }
+
+    public fun addAll(elements: LongArrayList) {
+        ensureCapacity(length + elements.length)
+        System.arraycopy(elements.elements, 0, this.elements, length, elements.length)
+        length += elements.length
+    }
+
+    public fun removeAt(index: Int): Long {
+        checkIndex(index)
+        val removed = elements[index]
+        System.arraycopy(elements, index + 1, elements, index, length - index - 1)
+        length--
+        return removed
+    }
+
+    public fun clear() {
+        length = 0
+    }
+
+    public fun contains(element: Long): Boolean = indexOf(element) >= 0
+
+    public fun indexOf(element: Long): Int {
+        for (index in 0..length - 1) {
+            if (primitiveEquals(elements[index], element)) return index
+        }
+        return -1
+    }
+
+    /**
+     * Sorts the elements in place, in ascending order
+     */
+    public fun sort() {
+        Arrays.sort(elements, 0, length)
+    }
+
+    public fun toArray(): LongArray = Arrays.copyOf(elements, length)
+
+    public fun iterator(): LongIterator = object : LongIterator() {
+        private var index = 0
+
+        override fun hasNext(): Boolean = index < length
+
+        override fun nextLong(): Long = get(index++)
+    }
+
+    public fun ensureCapacity(capacity: Int) {
+        if (capacity > elements.size) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.size * 2))
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= length) {
+            throw IndexOutOfBoundsException("Index: " + index + ", size: " + length)
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this identityEquals other) return true
+        if (other !is LongArrayList || other.length != length) return false
+        for (index in 0..length - 1) {
+            if (!primitiveEquals(elements[index], other.elements[index])) return false
+        }
+        return true
+    }
+
+    override fun hashCode(): Int {
+        var result = 1
+        for (index in 0..length - 1) {
+            result = 31 * result + primitiveHashCode(elements[index])
+        }
+        return result
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("[")
+        for (index in 0..length - 1) {
+            if (index > 0) builder.append(", ")
+            builder.append(elements[index])
+        }
+        return builder.append(']').toString()
+    }
+}
+
+/**
+ * Returns a new LongArrayList with the given elements
+ */
+public fun longArrayListOf(vararg elements: Long): LongArrayList {
+    val result = LongArrayList(elements.size)
+    result.addAll(elements)
+    return result
+}
+
+/**
+ * A growable list of Double values, stored unboxed in an array
+ */
+public class DoubleArrayList(initialCapacity: Int = 10) {
+    private var elements = DoubleArray(initialCapacity)
+    private var length = 0
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun get(index: Int): Double {
+        checkIndex(index)
+        return elements[index]
+    }
+
+    public fun set(index: Int, element: Double) {
+        checkIndex(index)
+        elements[index] = element
+    }
+
+    public fun add(element: Double) {
+        ensureCapacity(length + 1)
+        elements[length++] = element
+    }
+
+    public fun addAll(elements: DoubleArray) {
+        ensureCapacity(length + elements.size)
+        System.arraycopy(elements, 0, this.elements, length, elements.size)
+        length += elements.size
+    }
+
+    public fun addAll(elements: DoubleArrayList) {
+        ensureCapacity(length + elements.length)
+        System.arraycopy(elements.elements, 0, this.elements, length, elements.length)
+        length += elements.length
+    }
+
+    public fun removeAt(index: Int): Double {
+        checkIndex(index)
+        val removed = elements[index]
+        System.arraycopy(elements, index + 1, elements, index, length - index - 1)
+        length--
+        return removed
+    }
+
+    public fun clear() {
+        length = 0
+    }
+
+    public fun contains(element: Double): Boolean = indexOf(element) >= 0
+
+    public fun indexOf(element: Double): Int {
+        for (index in 0..length - 1) {
+            if (primitiveEquals(elements[index], element)) return index
+        }
+        return -1
+    }
+
+    /**
+     * Sorts the elements in place, in ascending order
+     */
+    public fun sort() {
+        Arrays.sort(elements, 0, length)
+    }
+
+    public fun toArray(): DoubleArray = Arrays.copyOf(elements, length)
+
+    public fun iterator(): DoubleIterator = object : DoubleIterator() {
+        private var index = 0
+
+        override fun hasNext(): Boolean = index < length
+
+        override fun nextDouble(): Double = get(index++)
+    }
+
+    public fun ensureCapacity(capacity: Int) {
+        if (capacity > elements.size) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.size * 2))
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= length) {
+            throw IndexOutOfBoundsException("Index: " + index + ", size: " + length)
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this identityEquals other) return true
+        if (other !is DoubleArrayList || other.length != length) return false
+        for (index in 0..length - 1) {
+            if (!primitiveEquals(elements[index], other.elements[index])) return false
+        }
+        return true
+    }
+
+    override fun hashCode(): Int {
+        var result = 1
+        for (index in 0..length - 1) {
+            result = 31 * result + primitiveHashCode(elements[index])
+        }
+        return result
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("[")
+        for (index in 0..length - 1) {
+            if (index > 0) builder.append(", ")
+            builder.append(elements[index])
+        }
+        return builder.append(']').toString()
+    }
+}
+
+/**
+ * Returns a new DoubleArrayList with the given elements
+ */
+public fun doubleArrayListOf(vararg elements: Double): DoubleArrayList {
+    val result = DoubleArrayList(elements.size)
+    result.addAll(elements)
+    return result
+}
+
+/**
+ * A hash map from Int keys to unboxed Int values, stored in parallel arrays with open addressing and linear probing
+ */
+public class IntIntHashMap(expectedSize: Int = 16) {
+    private var keys: IntArray
+    private var values: IntArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = IntArray(capacity)
+        values = IntArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Int): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Int): Int {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Int, defaultValue: Int): Int {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Int, value: Int) {
+        put(key, value)
+    }
+
+    public fun put(key: Int, value: Int) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Int): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0)
+        length = 0
+    }
+
+    public fun keys(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Int): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = IntArray(capacity)
+        values = IntArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Int keys to unboxed Long values, stored in parallel arrays with open addressing and linear probing
+ */
+public class IntLongHashMap(expectedSize: Int = 16) {
+    private var keys: IntArray
+    private var values: LongArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = IntArray(capacity)
+        values = LongArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Int): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Int): Long {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Int, defaultValue: Long): Long {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Int, value: Long) {
+        put(key, value)
+    }
+
+    public fun put(key: Int, value: Long) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Int): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0L
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0L)
+        length = 0
+    }
+
+    public fun keys(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Int): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = IntArray(capacity)
+        values = LongArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Int keys to unboxed Double values, stored in parallel arrays with open addressing and linear probing
+ */
+public class IntDoubleHashMap(expectedSize: Int = 16) {
+    private var keys: IntArray
+    private var values: DoubleArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = IntArray(capacity)
+        values = DoubleArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Int): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Int): Double {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Int, defaultValue: Double): Double {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Int, value: Double) {
+        put(key, value)
+    }
+
+    public fun put(key: Int, value: Double) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Int): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0.0
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0.0)
+        length = 0
+    }
+
+    public fun keys(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): DoubleArray {
+        val result = DoubleArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Int): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = IntArray(capacity)
+        values = DoubleArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Int keys to values of type V, stored in parallel arrays with open addressing and linear probing
+ */
+public class IntObjectHashMap<V>(expectedSize: Int = 16) {
+    private var keys: IntArray
+    private var values: Array<Any?>
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = IntArray(capacity)
+        values = arrayOfNulls<Any>(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Int): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or null if there is no such key in the map
+     */
+    public fun get(key: Int): V? {
+        val slot = slotOf(key)
+        return if (slot < 0) null else values[slot] as V
+    }
+
+    public fun set(key: Int, value: V) {
+        put(key, value)
+    }
+
+    public fun put(key: Int, value: V) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Int): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = null
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, null)
+        length = 0
+    }
+
+    public fun keys(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): List<V> {
+        val result = ArrayList<V>(length)
+        for (slot in used.indices) {
+            if (used[slot]) result.add(values[slot] as V)
+        }
+        return result
+    }
+
+    private fun slotOf(key: Int): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = IntArray(capacity)
+        values = arrayOfNulls<Any>(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Long keys to unboxed Int values, stored in parallel arrays with open addressing and linear probing
+ */
+public class LongIntHashMap(expectedSize: Int = 16) {
+    private var keys: LongArray
+    private var values: IntArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = LongArray(capacity)
+        values = IntArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Long): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Long): Int {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Long, defaultValue: Int): Int {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Long, value: Int) {
+        put(key, value)
+    }
+
+    public fun put(key: Long, value: Int) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Long): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0)
+        length = 0
+    }
+
+    public fun keys(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): IntArray {
+        val result = IntArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Long): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = LongArray(capacity)
+        values = IntArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Long keys to unboxed Long values, stored in parallel arrays with open addressing and linear probing
+ */
+public class LongLongHashMap(expectedSize: Int = 16) {
+    private var keys: LongArray
+    private var values: LongArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = LongArray(capacity)
+        values = LongArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Long): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Long): Long {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Long, defaultValue: Long): Long {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Long, value: Long) {
+        put(key, value)
+    }
+
+    public fun put(key: Long, value: Long) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Long): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0L
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0L)
+        length = 0
+    }
+
+    public fun keys(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Long): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = LongArray(capacity)
+        values = LongArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Long keys to unboxed Double values, stored in parallel arrays with open addressing and linear probing
+ */
+public class LongDoubleHashMap(expectedSize: Int = 16) {
+    private var keys: LongArray
+    private var values: DoubleArray
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = LongArray(capacity)
+        values = DoubleArray(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Long): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: Long): Double {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: Long, defaultValue: Double): Double {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    public fun set(key: Long, value: Double) {
+        put(key, value)
+    }
+
+    public fun put(key: Long, value: Double) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Long): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = 0.0
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, 0.0)
+        length = 0
+    }
+
+    public fun keys(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): DoubleArray {
+        val result = DoubleArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }
+
+    private fun slotOf(key: Long): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = LongArray(capacity)
+        values = DoubleArray(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+/**
+ * A hash map from Long keys to values of type V, stored in parallel arrays with open addressing and linear probing
+ */
+public class LongObjectHashMap<V>(expectedSize: Int = 16) {
+    private var keys: LongArray
+    private var values: Array<Any?>
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = LongArray(capacity)
+        values = arrayOfNulls<Any>(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: Long): Boolean = slotOf(key) >= 0
+
+    /**
+     * Returns the value for the given key, or null if there is no such key in the map
+     */
+    public fun get(key: Long): V? {
+        val slot = slotOf(key)
+        return if (slot < 0) null else values[slot] as V
+    }
+
+    public fun set(key: Long, value: V) {
+        put(key, value)
+    }
+
+    public fun put(key: Long, value: V) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: Long): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = null
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, null)
+        length = 0
+    }
+
+    public fun keys(): LongArray {
+        val result = LongArray(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+    public fun values(): List<V> {
+        val result = ArrayList<V>(length)
+        for (slot in used.indices) {
+            if (used[slot]) result.add(values[slot] as V)
+        }
+        return result
+    }
+
+    private fun slotOf(key: Long): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = LongArray(capacity)
+        values = arrayOfNulls<Any>(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}
+
+// The table is kept at most half full
+private fun hashMapCapacity(expectedSize: Int): Int {
+    var capacity = 4
+    while (capacity < expectedSize * 2 && capacity < (1 shl 30)) {
+        capacity *= 2
+    }
+    return capacity
+}
+
+// Spreads the bits of the key with the golden ratio multiplier, so that sequential keys don't cluster
+private fun hashSlot(key: Int, mask: Int): Int {
+    val hash = key * -1640531527
+    return (hash xor (hash ushr 16)) and mask
+}
+
+private fun hashSlot(key: Long, mask: Int): Int = hashSlot((key xor (key ushr 32)).toInt(), mask)
+
+private fun primitiveHashCode(value: Int): Int = value
+
+private fun primitiveHashCode(value: Long): Int = (value xor (value ushr 32)).toInt()
+
+private fun primitiveHashCode(value: Double): Int = primitiveHashCode(java.lang.Double.doubleToLongBits(value))
+
+private fun primitiveEquals(a: Int, b: Int): Boolean = a == b
+
+private fun primitiveEquals(a: Long, b: Long): Boolean = a == b
+
+// Doubles are compared by their bits as java.lang.Double.equals does it, consistently with primitiveHashCode: NaN equals NaN,
+// but 0.0 doesn't equal -0.0
+private fun primitiveEquals(a: Double, b: Double): Boolean =
+        java.lang.Double.doubleToLongBits(a) == java.lang.Double.doubleToLongBits(b)
@@ -0,0 +1,361 @@
+package kotlin.concurrent
+
+import java.util.*
+import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Arrays and lists smaller than twice this number of elements are processed sequentially by the parallel operations,
+ * bigger ones are split into chunks of at least this size
+ */
+private val PARALLEL_THRESHOLD = 8192
+
+/**
+ * More chunks than threads are created, so that an uneven amount of work in the chunks is distributed between the threads
+ */
+private val CHUNKS_PER_PROCESSOR = 4
+
+private val availableProcessors = Runtime.getRuntime().availableProcessors()
+
+private val workerCount = AtomicInteger()
+
+private class ParallelWorkerThread(runnable: Runnable, index: Int) : Thread(runnable, "kotlin-parallel-$index") {
+    {
+        setDaemon(true)
+    }
+}
+
+/**
+ * The executor used by the parallel operations by default, a pool of daemon threads, one per available processor
+ */
+private val parallelExecutor: ExecutorService = Executors.newFixedThreadPool(availableProcessors, object : ThreadFactory {
+    override fun newThread(runnable: Runnable): Thread = ParallelWorkerThread(runnable, workerCount.incrementAndGet())
+})
+
+/**
+ * Performs the given *operation* on each element, the elements are processed concurrently in no particular order
+ */
+public fun <T> Array<out T>.parallelForEach(executor: ExecutorService = parallelExecutor, operation: (T) -> Unit) {
+    runInChunks(executor, size) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Performs the given *operation* on each element, the elements are processed concurrently in no particular order.
+ * Lists without random access are processed sequentially
+ */
+public fun <T> List<T>.parallelForEach(executor: ExecutorService = parallelExecutor, operation: (T) -> Unit) {
+    if (this !is RandomAccess) return forEach(operation)
+    runInChunks(executor, size()) { from, to ->
+        for (index in from..to - 1) operation(this[index])
+    }
+}
+
+/**
+ * Returns a list containing the results of applying the given *transform* function to each element of the original array,
+ * the function is applied concurrently, the order of the results is the same as with [[map]]
+ */
+public fun <T, R> Array<out T>.parallelMap(executor: ExecutorService = parallelExecutor, transform: (T) -> R): List<R> {
+    return concatenate(runInChunks(executor, size) { from, to ->
+        val result = ArrayList<R>(to - from)
+        for (index in from..to - 1) result.add(transform(this[index]))
+        result
+    })
+}
+
+/**
+ * Returns a list containing the results of applying the given *transform* function to each element of the original list,
+ * the function is applied concurrently, the order of the results is the same as with [[map]].
+ * Lists without random access are processed sequentially
+ */
+public fun <T, R> List<T>.parallelMap(executor: ExecutorService = parallelExecutor, transform: (T) -> R): List<R> {
+    if (this !is RandomAccess) return map(transform)
+    return concatenate(runInChunks(executor, size()) { from, to ->
+        val result = ArrayList<R>(to - from)
+        for (index in from..to - 1) result.add(transform(this[index]))
+        result
+    })
+}
+
+/**
+ * Returns a list containing all elements matching the given *predicate*, the predicate is checked concurrently,
+ * the order of the elements is the same as with [[filter]]
+ */
+public fun <T> Array<out T>.parallelFilter(executor: ExecutorService = parallelExecutor, predicate: (T) -> Boolean): List<T> {
+    return concatenate(runInChunks(executor, size) { from, to ->
+        val result = ArrayList<T>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) result.add(element)
+        }
+        result
+    })
+}
+
+/**
+ * Returns a list containing all elements matching the given *predicate*, the predicate is checked concurrently,
+ * the order of the elements is the same as with [[filter]].
+ * Lists without random access are processed sequentially
+ */
+public fun <T> List<T>.parallelFilter(executor: ExecutorService = parallelExecutor, predicate: (T) -> Boolean): List<T> {
+    if (this !is RandomAccess) return filter(predicate)
+    return concatenate(runInChunks(executor, size()) { from, to ->
+        val result = ArrayList<T>()
+        for (index in from..to - 1) {
+            val element = this[index]
+            if (predicate(element)) result.add(element)
+        }
+        result
+    })
+}
+
+/**
+ * Accumulates value starting with the first element and applying *operation* to current accumulator value and each element.
+ * Chunks of the array are reduced concurrently and then their results are reduced in order,
+ * so the *operation* should be associative to give the same result as [[reduce]]
+ */
+public fun <T> Array<out T>.parallelReduce(executor: ExecutorService = parallelExecutor, operation: (T, T) -> T): T {
+    if (isEmpty()) throw UnsupportedOperationException("Empty iterable can't be reduced")
+    return reduceInOrder(runInChunks(executor, size) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }, operation)
+}
+
+/**
+ * Accumulates value starting with the first element and applying *operation* to current accumulator value and each element.
+ * Chunks of the list are reduced concurrently and then their results are reduced in order,
+ * so the *operation* should be associative to give the same result as [[reduce]].
+ * Lists without random access are processed sequentially
+ */
+public fun <T> List<T>.parallelReduce(executor: ExecutorService = parallelExecutor, operation: (T, T) -> T): T {
+    if (this !is RandomAccess) return reduce(operation)
+    if (isEmpty()) throw UnsupportedOperationException("Empty iterable can't be reduced")
+    return reduceInOrder(runInChunks(executor, size()) { from, to ->
+        var accumulator = this[from]
+        for (index in from + 1..to - 1) accumulator = operation(accumulator, this[index])
+        accumulator
+    }, operation)
+}
+
+/**
+ * Returns the sum of all elements in the array, chunks of the array are summed concurrently
+ */
+public fun IntArray.parallelSum(executor: ExecutorService = parallelExecutor): Int {
+    return runInChunks(executor, size) { from, to ->
+        var sum = 0
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns the sum of all elements in the array, chunks of the array are summed concurrently
+ */
+public fun LongArray.parallelSum(executor: ExecutorService = parallelExecutor): Long {
+    return runInChunks(executor, size) { from, to ->
+        var sum = 0L
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns the sum of all elements in the array, chunks of the array are summed concurrently.
+ * The sums of the chunks are added in order, but the rounding may still differ from [[sum]] in the last digits
+ */
+public fun DoubleArray.parallelSum(executor: ExecutorService = parallelExecutor): Double {
+    return runInChunks(executor, size) { from, to ->
+        var sum = 0.0
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns the sum of all elements in the list, chunks of the list are summed concurrently.
+ * Lists without random access are processed sequentially
+ */
+public fun List<Int>.parallelSum(executor: ExecutorService = parallelExecutor): Int {
+    if (this !is RandomAccess) return sum()
+    return runInChunks(executor, size()) { from, to ->
+        var sum = 0
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns the sum of all elements in the list, chunks of the list are summed concurrently.
+ * Lists without random access are processed sequentially
+ */
+public fun List<Long>.parallelSum(executor: ExecutorService = parallelExecutor): Long {
+    if (this !is RandomAccess) return sum()
+    return runInChunks(executor, size()) { from, to ->
+        var sum = 0L
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns the sum of all elements in the list, chunks of the list are summed concurrently.
+ * The sums of the chunks are added in order, but the rounding may still differ from [[sum]] in the last digits.
+ * Lists without random access are processed sequentially
+ */
+public fun List<Double>.parallelSum(executor: ExecutorService = parallelExecutor): Double {
+    if (this !is RandomAccess) return sum()
+    return runInChunks(executor, size()) { from, to ->
+        var sum = 0.0
+        for (index in from..to - 1) sum += this[index]
+        sum
+    }.sum()
+}
+
+/**
+ * Returns a sorted list of all elements, ordered by results of specified *order* function.
+ * The *order* function is applied and chunks of the array are sorted concurrently, then the chunks are merged.
+ * The sort is stable, so the result is the same as with [[sortBy]]
+ */
+public fun <T, R : Comparable<R>> Array<out T>.parallelSortBy(executor: ExecutorService = parallelExecutor, order: (T) -> R): List<T> {
+    return sortInChunks(executor, size, { this[it] }, order)
+}
+
+/**
+ * Returns a sorted list of all elements, ordered by results of specified *order* function.
+ * The *order* function is applied and chunks of the list are sorted concurrently, then the chunks are merged.
+ * The sort is stable, so the result is the same as with [[sortBy]].
+ * Lists without random access are processed sequentially
+ */
+public fun <T, R : Comparable<R>> List<T>.parallelSortBy(executor: ExecutorService = parallelExecutor, order: (T) -> R): List<T> {
+    if (this !is RandomAccess) return sortBy(order)
+    return sortInChunks(executor, size(), { this[it] }, order)
+}
+
+private fun chunkBounds(size: Int): IntArray {
+    val chunks = if (size < 2 * PARALLEL_THRESHOLD) 1 else Math.min(size / PARALLEL_THRESHOLD, availableProcessors * CHUNKS_PER_PROCESSOR)
+    val bounds = IntArray(chunks + 1)
+    for (i in 1..chunks) {
+        bounds[i] = (size.toLong() * i / chunks).toInt()
+    }
+    return bounds
+}
+
+private fun <R> runInChunks(executor: ExecutorService, size: Int, task: (from: Int, to: Int) -> R): List<R> {
+    return runInChunks(executor, chunkBounds(size), task)
+}
+
+private fun <R> runInChunks(executor: ExecutorService, bounds: IntArray, task: (from: Int, to: Int) -> R): List<R> {
+    val tasks = ArrayList<() -> R>(bounds.size - 1)
+    for (i in 0..bounds.size - 2) {
+        val from = bounds[i]
+        val to = bounds[i + 1]
+        tasks.add { task(from, to) }
+    }
+    return runAll(executor, tasks)
+}
+
+/**
+ * Runs the tasks on the executor and returns their results in the order of the tasks.
+ * The tasks are run in the current thread if there's only one, or if it's a worker of the default executor itself:
+ * otherwise a nested parallel operation could wait for the workers that are all busy waiting for it
+ */
+private fun <R> runAll(executor: ExecutorService, tasks: List<() -> R>): List<R> {
+    val results = ArrayList<R>(tasks.size())
+    if (tasks.size() == 1 || currentThread is ParallelWorkerThread) {
+        for (task in tasks) results.add(task())
+        return results
+    }
+
+    val futures = ArrayList<Future<R>>(tasks.size())
+    for (task in tasks) {
+        futures.add(executor.submit(Callable<R> { task() }))
+    }
+    try {
+        for (future in futures) results.add(future.get())
+    }
+    catch (e: ExecutionException) {
+        for (future in futures) future.cancel(false)
+        throw e.getCause() ?: e
+    }
+    return results
+}
+
+private fun <T> concatenate(chunks: List<List<T>>): List<T> {
+    if (chunks.size() == 1) return chunks[0]
+
+    var size = 0
+    for (chunk in chunks) size += chunk.size()
+    val result = ArrayList<T>(size)
+    for (chunk in chunks) result.addAll(chunk)
+    return result
+}
+
+private fun <T> reduceInOrder(results: List<T>, operation: (T, T) -> T): T {
+    var accumulator = results[0]
+    for (index in 1..results.size() - 1) accumulator = operation(accumulator, results[index])
+    return accumulator
+}
+
+private class SortEntry(val key: Comparable<Any?>, val value: Any?) : Comparable<SortEntry> {
+    override fun compareTo(other: SortEntry): Int = key.compareTo(other.key)
+}
+
+private fun <T, R : Comparable<R>> sortInChunks(executor: ExecutorService, size: Int, get: (Int) -> T, order: (T) -> R): List<T> {
+    var bounds = chunkBounds(size)
+    var source = arrayOfNulls<SortEntry>(size)
+    var target = arrayOfNulls<SortEntry>(size)
+
+    val entries = source
+    runInChunks(executor, bounds) { from, to ->
+        for (index in from..to - 1) {
+            val element = get(index)
+            entries[index] = SortEntry(order(element) as Comparable<Any?>, element)
+        }
+        // Arrays.sort() is a stable merge sort for objects
+        Arrays.sort(entries, from, to)
+    }
+
+    // Adjacent sorted runs are merged pairwise, the merges of one pass are independent and run concurrently
+    while (bounds.size > 2) {
+        val runs = bounds.size - 1
+        val merged = IntArray((runs + 1) / 2 + 1)
+        val tasks = ArrayList<() -> Unit>(merged.size - 1)
+        for (i in 0..merged.size - 2) {
+            val from = bounds[2 * i]
+            val middle = bounds[Math.min(2 * i + 1, runs)]
+            val to = bounds[Math.min(2 * i + 2, runs)]
+            val mergeSource = source
+            val mergeTarget = target
+            tasks.add { merge(mergeSource, from, middle, to, mergeTarget) }
+            merged[i + 1] = to
+        }
+        runAll(executor, tasks)
+
+        bounds = merged
+        val swap = source
+        source = target
+        target = swap
+    }
+
+    val result = ArrayList<T>(size)
+    for (entry in source) result.add(entry!!.value as T)
+    return result
+}
+
+/**
+ * Merges sorted ranges [from, middle) and [middle, to) of the source into the same positions of the target,
+ * equal elements of the first range go first
+ */
+private fun merge(source: Array<SortEntry?>, from: Int, middle: Int, to: Int, target: Array<SortEntry?>) {
+    var left = from
+    var right = middle
+    var index = from
+    while (left < middle && right < to) {
+        target[index++] = if (source[right]!! < source[left]!!) source[right++] else source[left++]
+    }
+    System.arraycopy(source, left, target, index, middle - left)
+    System.arraycopy(source, right, target, index + middle - left, to - right)
+}
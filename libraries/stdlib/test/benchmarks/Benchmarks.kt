@@ -0,0 +1,33 @@
+package test.benchmarks
+
+/**
+ * Runs the benchmarks of the standard library collections, they are not run as tests.
+ * The optional argument is the number of elements in the collections
+ */
+fun main(args: Array<String>) {
+    val size = if (args.isNotEmpty()) args[0].toInt() else 1000000
+
+    PrimitiveCollectionsBenchmark(size).run()
+    println()
+    ParallelOperationsBenchmark(size).run()
+}
+
+/**
+ * Returns average time of one run in milliseconds, after the same number of warm-up runs.
+ * The results of the runs are accumulated and checked, so that the measured code is not optimized away
+ */
+fun measure(iterations: Int, run: () -> Long): Double {
+    var result = 0L
+    for (i in 1..iterations) result += run()
+
+    val start = System.nanoTime()
+    for (i in 1..iterations) result += run()
+    val time = (System.nanoTime() - start) / 1e6 / iterations
+
+    if (result == 42L) println()
+    return time
+}
+
+fun report(name: String, baseline: Double, time: Double) {
+    println("%-40s %10.2f ms %10.2f ms %6.2fx".format(name, baseline, time, baseline / time))
+}
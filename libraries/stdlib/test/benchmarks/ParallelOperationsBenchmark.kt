@@ -0,0 +1,63 @@
+package test.benchmarks
+
+import kotlin.concurrent.*
+import java.util.ArrayList
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Compares the parallel operations with the sequential ones, on thread pools from one thread up to the number of processors
+ */
+class ParallelOperationsBenchmark(val size: Int) {
+    val iterations = 10
+
+    fun run() {
+        val list = ArrayList<Int>(size)
+        val array = IntArray(size)
+        for (i in 0..size - 1) {
+            list.add(element(i))
+            array[i] = element(i)
+        }
+
+        val processors = Runtime.getRuntime().availableProcessors()
+        var threads = 1
+        while (threads <= processors) {
+            val pool = Executors.newFixedThreadPool(threads)
+            try {
+                println("%-40s %13s %13s".format("$size elements, $threads threads", "sequential", "parallel"))
+                run(list, array, pool)
+                println()
+            }
+            finally {
+                pool.shutdown()
+            }
+            threads = if (threads < processors && threads * 2 > processors) processors else threads * 2
+        }
+    }
+
+    private fun run(list: List<Int>, array: IntArray, pool: ExecutorService) {
+        report("map", measure(iterations) { list.map { work(it) }.size().toLong() },
+               measure(iterations) { list.parallelMap(pool) { work(it) }.size().toLong() })
+        report("filter", measure(iterations) { list.filter { work(it) % 3 == 0L }.size().toLong() },
+               measure(iterations) { list.parallelFilter(pool) { work(it) % 3 == 0L }.size().toLong() })
+        report("reduce", measure(iterations) { list.reduce { a, b -> Math.max(a, b) }.toLong() },
+               measure(iterations) { list.parallelReduce(pool) { a, b -> Math.max(a, b) }.toLong() })
+        report("sum", measure(iterations) { array.sum().toLong() }, measure(iterations) { array.parallelSum(pool).toLong() })
+        report("sortBy", measure(iterations) { list.sortBy { -it }[0].toLong() },
+               measure(iterations) { list.parallelSortBy(pool) { -it }[0].toLong() })
+        val found = AtomicLong()
+        report("forEach", measure(iterations) { list.forEach { if (work(it) == 42L) found.incrementAndGet() }; found.get() },
+               measure(iterations) { list.parallelForEach(pool) { if (work(it) == 42L) found.incrementAndGet() }; found.get() })
+    }
+
+    // Some arithmetic per element, so that the operations are not only bound by the memory bandwidth
+    private fun work(element: Int): Long {
+        var result = element.toLong()
+        for (i in 1..16) result = result * 6364136223846793005L + 1442695040888963407L
+        return result
+    }
+
+    // Pseudo-random, but the same in all runs
+    private fun element(i: Int): Int = (i * 1103515245 + 12345) ushr 8
+}
@@ -0,0 +1,64 @@
+package test.benchmarks
+
+import java.util.ArrayList
+import java.util.HashMap
+import java.util.Collections
+
+/**
+ * Compares the primitive array lists and hash maps with the boxed java.util collections of the same elements
+ */
+class PrimitiveCollectionsBenchmark(val size: Int) {
+    val iterations = 20
+
+    fun run() {
+        println("%-40s %13s %13s".format("$size elements", "boxed", "primitive"))
+
+        report("add", measure(iterations) { boxedList().size().toLong() }, measure(iterations) { primitiveList().size().toLong() })
+
+        val boxed = boxedList()
+        val primitive = primitiveList()
+
+        report("sum", measure(iterations) { boxed.fold(0L) { sum, element -> sum + element } }, measure(iterations) { primitive.sum().toLong() })
+        report("filter", measure(iterations) { boxed.filter { it % 3 == 0 }.size().toLong() },
+               measure(iterations) { primitive.filter { it % 3 == 0 }.size().toLong() })
+        report("map", measure(iterations) { boxed.map { it * 2 }.size().toLong() },
+               measure(iterations) { primitive.map { it * 2 }.size().toLong() })
+        report("forEach", measure(iterations) { var sum = 0L; boxed.forEach { sum += it }; sum },
+               measure(iterations) { var sum = 0L; primitive.forEach { sum += it }; sum })
+        report("sort", measure(iterations) { val copy = ArrayList(boxed); Collections.sort(copy); copy[0].toLong() },
+               measure(iterations) { val copy = IntArrayList(size); copy.addAll(primitive); copy.sort(); copy[0].toLong() })
+
+        report("hash map put and get", measure(iterations) { boxedMap() }, measure(iterations) { primitiveMap() })
+    }
+
+    private fun boxedList(): ArrayList<Int> {
+        val list = ArrayList<Int>()
+        for (i in 0..size - 1) list.add(element(i))
+        return list
+    }
+
+    private fun primitiveList(): IntArrayList {
+        val list = IntArrayList()
+        for (i in 0..size - 1) list.add(element(i))
+        return list
+    }
+
+    private fun boxedMap(): Long {
+        val map = HashMap<Int, Int>()
+        for (i in 0..size - 1) map[element(i)] = i
+        var sum = 0L
+        for (i in 0..size - 1) sum += map[element(i)] ?: 0
+        return sum
+    }
+
+    private fun primitiveMap(): Long {
+        val map = IntIntHashMap()
+        for (i in 0..size - 1) map[element(i)] = i
+        var sum = 0L
+        for (i in 0..size - 1) sum += map.getOrDefault(element(i), 0)
+        return sum
+    }
+
+    // Pseudo-random, but the same in all runs
+    private fun element(i: Int): Int = (i * 1103515245 + 12345) ushr 8
+}
@@ -0,0 +1,121 @@
+package test.collections
+
+import kotlin.test.*
+import org.junit.Test as test
+
+class PrimitiveCollectionsJVMTest {
+
+    test fun arrayListAddGetSet() {
+        val list = IntArrayList(0)
+        assertTrue(list.isEmpty())
+        for (i in 0..99) list.add(i * 2)
+        assertEquals(100, list.size())
+        assertEquals(42, list[21])
+
+        list[21] = -1
+        assertEquals(-1, list[21])
+        assertEquals(21, list.indexOf(-1))
+        assertFalse(list.contains(1))
+
+        fails { list[100] }
+        fails { list[-1] = 0 }
+    }
+
+    test fun arrayListRemoveAndClear() {
+        val list = longArrayListOf(1, 2, 3, 4)
+        assertEquals(2L, list.removeAt(1))
+        assertEquals(longArrayListOf(1, 3, 4), list)
+        assertEquals("[1, 3, 4]", list.toString())
+
+        list.clear()
+        assertTrue(list.isEmpty())
+        assertEquals(longArrayListOf(), list)
+    }
+
+    test fun arrayListAddAll() {
+        val list = intArrayListOf(1, 2)
+        list.addAll(intArray(3, 4))
+        list.addAll(intArrayListOf(5))
+        assertEquals(intArrayListOf(1, 2, 3, 4, 5), list)
+        assertEquals(intArrayListOf(1, 2, 3, 4, 5).hashCode(), list.hashCode())
+        assertEquals(5, list.toArray().size)
+    }
+
+    test fun arrayListIterator() {
+        var sum = 0.0
+        for (element in doubleArrayListOf(0.5, 1.5, 2.0)) {
+            sum += element
+        }
+        assertEquals(4.0, sum)
+    }
+
+    test fun doubleArrayListEqualsIsConsistentWithHashCode() {
+        val list = doubleArrayListOf(1.0, Double.NaN, -0.0)
+        assertEquals(1, list.indexOf(Double.NaN))
+        assertTrue(list.contains(-0.0))
+        assertEquals(-1, list.indexOf(0.0))
+
+        assertEquals(doubleArrayListOf(1.0, Double.NaN, -0.0), list)
+        assertEquals(doubleArrayListOf(1.0, Double.NaN, -0.0).hashCode(), list.hashCode())
+        assertNotEquals(doubleArrayListOf(1.0, Double.NaN, 0.0), list)
+    }
+
+    test fun arrayListOperations() {
+        val list = intArrayListOf(5, 3, 1, 4, 2)
+        assertEquals(15, list.sum())
+        assertEquals(intArrayListOf(4, 2), list.filter { it % 2 == 0 })
+        assertEquals(listOf("5", "3", "1", "4", "2"), list.map { it.toString() })
+
+        var product = 1
+        list.forEach { product *= it }
+        assertEquals(120, product)
+
+        list.sort()
+        assertEquals(intArrayListOf(1, 2, 3, 4, 5), list)
+
+        assertEquals(6.0, doubleArrayListOf(1.0, 2.0, 3.0).sum())
+        assertEquals(10000000000L, longArrayListOf(5000000000, 5000000000).sum())
+    }
+
+    test fun hashMapPutGetRemove() {
+        val map = IntIntHashMap()
+        for (i in 0..999) map[i * 31] = i
+        assertEquals(1000, map.size())
+        assertEquals(10, map[310])
+        assertEquals(-1, map.getOrDefault(1, -1))
+        fails { map[1] }
+
+        map[310] = 11
+        assertEquals(11, map[310])
+        assertEquals(1000, map.size())
+
+        // Removal shifts the colliding entries back, all the others should stay reachable
+        for (i in 0..999 step 2) assertTrue(map.remove(i * 31))
+        assertFalse(map.remove(0))
+        assertEquals(500, map.size())
+        for (i in 0..999) {
+            assertEquals(i % 2 == 1, map.containsKey(i * 31))
+        }
+        assertEquals(500, map.keys().size)
+        assertEquals(500, map.values().size)
+
+        map.clear()
+        assertTrue(map.isEmpty())
+        assertFalse(map.containsKey(31))
+    }
+
+    test fun hashMapWithObjectValues() {
+        val map = LongObjectHashMap<String>(1)
+        map[1L shl 40] = "a"
+        map[-1L] = "b"
+        map[0] = "c"
+        assertEquals("a", map[1L shl 40])
+        assertEquals("b", map[-1L])
+        assertNull(map[1])
+        assertEquals(setOf("a", "b", "c"), map.values().toSet())
+
+        assertTrue(map.remove(-1L))
+        assertNull(map[-1L])
+        assertEquals(2, map.size())
+    }
+}
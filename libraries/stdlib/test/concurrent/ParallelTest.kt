@@ -0,0 +1,96 @@
+package test.concurrent
+
+import kotlin.concurrent.*
+import kotlin.test.*
+
+import org.junit.Test as test
+
+import java.util.*
+import java.util.concurrent.*
+import java.util.concurrent.atomic.AtomicLong
+
+class ParallelTest {
+    val size = 100000
+    val list: List<Int> = (0..size - 1).map { (it * 7919) % 1000 }
+    val array: Array<Int> = list.copyToArray()
+
+    test fun forEach() {
+        val sum = AtomicLong()
+        array.parallelForEach { sum.addAndGet(it.toLong()) }
+        list.parallelForEach { sum.addAndGet(it.toLong()) }
+        assertEquals(2 * list.fold(0L) { sum, element -> sum + element }, sum.get())
+    }
+
+    test fun map() {
+        assertEquals(list.map { it * 2 }, array.parallelMap { it * 2 })
+        assertEquals(list.map { it.toString() }, list.parallelMap { it.toString() })
+        assertEquals(listOf<String>(), array<Int>().parallelMap { it.toString() })
+    }
+
+    test fun filter() {
+        assertEquals(list.filter { it % 3 == 0 }, array.parallelFilter { it % 3 == 0 })
+        assertEquals(list.filter { it > 500 }, list.parallelFilter { it > 500 })
+        assertEquals(listOf<Int>(), list.parallelFilter { it < 0 })
+    }
+
+    test fun reduce() {
+        assertEquals(list.reduce { a, b -> Math.max(a, b) }, array.parallelReduce { a, b -> Math.max(a, b) })
+        assertEquals(list.reduce { a, b -> a + b }, list.parallelReduce { a, b -> a + b })
+        assertEquals(5, listOf(5).parallelReduce { a, b -> a + b })
+        fails { array<Int>().parallelReduce { a, b -> a + b } }
+    }
+
+    test fun sum() {
+        val ints = IntArray(size)
+        val longs = LongArray(size)
+        val doubles = DoubleArray(size)
+        for (i in 0..size - 1) {
+            ints[i] = list[i]
+            longs[i] = list[i] * 1000000000L
+            doubles[i] = list[i] / 3.0
+        }
+        assertEquals(list.sum(), ints.parallelSum())
+        assertEquals(list.sum(), list.parallelSum())
+        assertEquals(longs.sum(), longs.parallelSum())
+        assertEquals(list.map { it * 1000000000L }.sum(), list.map { it * 1000000000L }.parallelSum())
+        assertTrue(Math.abs(doubles.sum() - doubles.parallelSum()) < 1e-6)
+        assertEquals(0, intArray().parallelSum())
+    }
+
+    test fun sortByIsStable() {
+        val words = array.map { "w$it" }
+        assertEquals(words.sortBy { it.length() }, words.parallelSortBy { it.length() })
+        assertEquals(list.sortBy { it % 10 }, array.parallelSortBy { it % 10 })
+        assertEquals(listOf<Int>(), listOf<Int>().parallelSortBy { it })
+    }
+
+    test fun listWithoutRandomAccess() {
+        val linked = LinkedList(list)
+        assertEquals(list.map { it + 1 }, linked.parallelMap { it + 1 })
+        assertEquals(list.filter { it % 2 == 0 }, linked.parallelFilter { it % 2 == 0 })
+        assertEquals(list.sum(), linked.parallelSum())
+        assertEquals(list.sortBy { -it }, linked.parallelSortBy { -it })
+    }
+
+    test fun customExecutor() {
+        val pool = Executors.newFixedThreadPool(2)
+        try {
+            assertEquals(list.map { it - 1 }, list.parallelMap(pool) { it - 1 })
+        }
+        finally {
+            pool.shutdown()
+        }
+    }
+
+    test fun nestedOperations() {
+        val expected = list.sum()
+        val sums = list.parallelMap { if (it == 0) list.parallelSum() else expected }
+        assertTrue(sums.all { it == expected })
+    }
+
+    test fun exceptionIsRethrown() {
+        failsWith(javaClass<IllegalStateException>()) {
+            list.parallelForEach { if (it == 999) throw IllegalStateException() }
+        }
+    }
+}
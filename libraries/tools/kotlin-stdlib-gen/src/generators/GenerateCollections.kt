@@ -19,6 +19,7 @@ fun generateCollectionsAPI(outDir: File) {
     strings().writeTo(File(outDir, "_Strings.kt")) { build() }
     streams().writeTo(File(outDir, "_Streams.kt")) { build() }
     specialJVM().writeTo(File(outDir, "_SpecialJVM.kt")) { build() }
+    primitiveCollections().writeTo(File(outDir, "_PrimitiveCollectionOperationsJVM.kt")) { build() }
 
     numeric().writeTo(File(outDir, "_Numeric.kt")) {
         val builder = StringBuilder()
@@ -0,0 +1,385 @@
+package generators
+
+import java.io.File
+import java.io.FileWriter
+import java.io.PrintWriter
+
+private val ARRAY_LIST_TYPES = listOf("Int", "Long", "Double")
+private val HASH_MAP_KEY_TYPES = listOf("Int", "Long")
+private val HASH_MAP_VALUE_TYPES = listOf("Int", "Long", "Double", "Object")
+
+/**
+ * Generates array lists and hash maps which store primitive elements unboxed.
+ * The operations over the lists are generated from the templates in PrimitiveCollections.kt
+ */
+fun generatePrimitiveCollections(outputFile: File) {
+    println("Generating file: ${outputFile.getPath()}")
+
+    val writer = PrintWriter(FileWriter(outputFile))
+    try {
+        writer.println("package kotlin")
+        writer.println()
+        writer.println(COMMON_AUTOGENERATED_WARNING)
+        writer.println()
+        writer.println("import java.util.*")
+
+        for (type in ARRAY_LIST_TYPES) {
+            generateArrayList(writer, type)
+        }
+
+        for (key in HASH_MAP_KEY_TYPES) {
+            for (value in HASH_MAP_VALUE_TYPES) {
+                generateHashMap(writer, key, value)
+            }
+        }
+
+        writer.println("""
+// The table is kept at most half full
+private fun hashMapCapacity(expectedSize: Int): Int {
+    var capacity = 4
+    while (capacity < expectedSize * 2 && capacity < (1 shl 30)) {
+        capacity *= 2
+    }
+    return capacity
+}
+
+// Spreads the bits of the key with the golden ratio multiplier, so that sequential keys don't cluster
+private fun hashSlot(key: Int, mask: Int): Int {
+    val hash = key * -1640531527
+    return (hash xor (hash ushr 16)) and mask
+}
+
+private fun hashSlot(key: Long, mask: Int): Int = hashSlot((key xor (key ushr 32)).toInt(), mask)
+
+private fun primitiveHashCode(value: Int): Int = value
+
+private fun primitiveHashCode(value: Long): Int = (value xor (value ushr 32)).toInt()
+
+private fun primitiveHashCode(value: Double): Int = primitiveHashCode(java.lang.Double.doubleToLongBits(value))
+
+private fun primitiveEquals(a: Int, b: Int): Boolean = a == b
+
+private fun primitiveEquals(a: Long, b: Long): Boolean = a == b
+
+// Doubles are compared by their bits as java.lang.Double.equals does it, consistently with primitiveHashCode: NaN equals NaN,
+// but 0.0 doesn't equal -0.0
+private fun primitiveEquals(a: Double, b: Double): Boolean =
+        java.lang.Double.doubleToLongBits(a) == java.lang.Double.doubleToLongBits(b)""")
+    } finally {
+        writer.close()
+    }
+}
+
+private fun generateArrayList(writer: PrintWriter, type: String) {
+    val array = "${type}Array"
+    val factoryName = "${type.toLowerCase()}ArrayListOf"
+
+    writer.println("""
+/**
+ * A growable list of ${type} values, stored unboxed in an array
+ */
+public class ${type}ArrayList(initialCapacity: Int = 10) {
+    private var elements = ${array}(initialCapacity)
+    private var length = 0
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun get(index: Int): ${type} {
+        checkIndex(index)
+        return elements[index]
+    }
+
+    public fun set(index: Int, element: ${type}) {
+        checkIndex(index)
+        elements[index] = element
+    }
+
+    public fun add(element: ${type}) {
+        ensureCapacity(length + 1)
+        elements[length++] = element
+    }
+
+    public fun addAll(elements: ${array}) {
+        ensureCapacity(length + elements.size)
+        System.arraycopy(elements, 0, this.elements, length, elements.size)
+        length += elements.size
+    }
+
+    public fun addAll(elements: ${type}ArrayList) {
+        ensureCapacity(length + elements.length)
+        System.arraycopy(elements.elements, 0, this.elements, length, elements.length)
+        length += elements.length
+    }
+
+    public fun removeAt(index: Int): ${type} {
+        checkIndex(index)
+        val removed = elements[index]
+        System.arraycopy(elements, index + 1, elements, index, length - index - 1)
+        length--
+        return removed
+    }
+
+    public fun clear() {
+        length = 0
+    }
+
+    public fun contains(element: ${type}): Boolean = indexOf(element) >= 0
+
+    public fun indexOf(element: ${type}): Int {
+        for (index in 0..length - 1) {
+            if (primitiveEquals(elements[index], element)) return index
+        }
+        return -1
+    }
+
+    /**
+     * Sorts the elements in place, in ascending order
+     */
+    public fun sort() {
+        Arrays.sort(elements, 0, length)
+    }
+
+    public fun toArray(): ${array} = Arrays.copyOf(elements, length)
+
+    public fun iterator(): ${type}Iterator = object : ${type}Iterator() {
+        private var index = 0
+
+        override fun hasNext(): Boolean = index < length
+
+        override fun next${type}(): ${type} = get(index++)
+    }
+
+    public fun ensureCapacity(capacity: Int) {
+        if (capacity > elements.size) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.size * 2))
+        }
+    }
+
+    private fun checkIndex(index: Int) {
+        if (index < 0 || index >= length) {
+            throw IndexOutOfBoundsException("Index: " + index + ", size: " + length)
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if (this identityEquals other) return true
+        if (other !is ${type}ArrayList || other.length != length) return false
+        for (index in 0..length - 1) {
+            if (!primitiveEquals(elements[index], other.elements[index])) return false
+        }
+        return true
+    }
+
+    override fun hashCode(): Int {
+        var result = 1
+        for (index in 0..length - 1) {
+            result = 31 * result + primitiveHashCode(elements[index])
+        }
+        return result
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("[")
+        for (index in 0..length - 1) {
+            if (index > 0) builder.append(", ")
+            builder.append(elements[index])
+        }
+        return builder.append(']').toString()
+    }
+}
+
+/**
+ * Returns a new ${type}ArrayList with the given elements
+ */
+public fun ${factoryName}(vararg elements: ${type}): ${type}ArrayList {
+    val result = ${type}ArrayList(elements.size)
+    result.addAll(elements)
+    return result
+}""")
+}
+
+private fun zeroOf(type: String): String = when (type) {
+    "Long" -> "0L"
+    "Double" -> "0.0"
+    "Object" -> "null"
+    else -> "0"
+}
+
+private fun generateHashMap(writer: PrintWriter, key: String, value: String) {
+    val isObject = value == "Object"
+    val className = "$key${value}HashMap"
+    val keyArray = "${key}Array"
+    val valueType = if (isObject) "V" else value
+    val valueArray = if (isObject) "Array<Any?>" else "${value}Array"
+    val newValueArray = if (isObject) "arrayOfNulls<Any>" else "${value}Array"
+    val typeParameters = if (isObject) "<V>" else ""
+    val description = if (isObject) "values of type V" else "unboxed $value values"
+    val zero = zeroOf(value)
+
+    val getFunctions = if (isObject) """    /**
+     * Returns the value for the given key, or null if there is no such key in the map
+     */
+    public fun get(key: ${key}): V? {
+        val slot = slotOf(key)
+        return if (slot < 0) null else values[slot] as V
+    }""" else """    /**
+     * Returns the value for the given key, or throws NoSuchElementException if there is no such key in the map
+     */
+    public fun get(key: ${key}): ${value} {
+        val slot = slotOf(key)
+        if (slot < 0) throw NoSuchElementException("Key " + key + " is missing in the map")
+        return values[slot]
+    }
+
+    public fun getOrDefault(key: ${key}, defaultValue: ${value}): ${value} {
+        val slot = slotOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }"""
+
+    val valuesFunction = if (isObject) """    public fun values(): List<V> {
+        val result = ArrayList<V>(length)
+        for (slot in used.indices) {
+            if (used[slot]) result.add(values[slot] as V)
+        }
+        return result
+    }""" else """    public fun values(): ${value}Array {
+        val result = ${value}Array(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = values[slot]
+        }
+        return result
+    }"""
+
+    writer.println("""
+/**
+ * A hash map from ${key} keys to ${description}, stored in parallel arrays with open addressing and linear probing
+ */
+public class ${className}${typeParameters}(expectedSize: Int = 16) {
+    private var keys: ${keyArray}
+    private var values: ${valueArray}
+    private var used: BooleanArray
+    private var length = 0
+
+    {
+        val capacity = hashMapCapacity(expectedSize)
+        keys = ${keyArray}(capacity)
+        values = ${newValueArray}(capacity)
+        used = BooleanArray(capacity)
+    }
+
+    public fun size(): Int = length
+
+    public fun isEmpty(): Boolean = length == 0
+
+    public fun containsKey(key: ${key}): Boolean = slotOf(key) >= 0
+
+${getFunctions}
+
+    public fun set(key: ${key}, value: ${valueType}) {
+        put(key, value)
+    }
+
+    public fun put(key: ${key}, value: ${valueType}) {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = (slot + 1) and mask
+        }
+        keys[slot] = key
+        values[slot] = value
+        used[slot] = true
+        if (++length * 2 > keys.size) {
+            rehash(keys.size * 2)
+        }
+    }
+
+    /**
+     * Removes the key and its value from the map, returns false if there is no such key
+     */
+    public fun remove(key: ${key}): Boolean {
+        var slot = slotOf(key)
+        if (slot < 0) return false
+
+        // Entries after the removed one are shifted back, so that no probe sequence is broken by the freed slot
+        val mask = keys.size - 1
+        var next = (slot + 1) and mask
+        while (used[next]) {
+            val ideal = hashSlot(keys[next], mask)
+            if (((next - ideal) and mask) >= ((next - slot) and mask)) {
+                keys[slot] = keys[next]
+                values[slot] = values[next]
+                slot = next
+            }
+            next = (next + 1) and mask
+        }
+        used[slot] = false
+        values[slot] = ${zero}
+        length--
+        return true
+    }
+
+    public fun clear() {
+        Arrays.fill(used, false)
+        Arrays.fill(values, ${zero})
+        length = 0
+    }
+
+    public fun keys(): ${keyArray} {
+        val result = ${keyArray}(length)
+        var index = 0
+        for (slot in used.indices) {
+            if (used[slot]) result[index++] = keys[slot]
+        }
+        return result
+    }
+
+${valuesFunction}
+
+    private fun slotOf(key: ${key}): Int {
+        val mask = keys.size - 1
+        var slot = hashSlot(key, mask)
+        while (used[slot]) {
+            if (keys[slot] == key) return slot
+            slot = (slot + 1) and mask
+        }
+        return -1
+    }
+
+    private fun rehash(capacity: Int) {
+        val oldKeys = keys
+        val oldValues = values
+        val oldUsed = used
+        keys = ${keyArray}(capacity)
+        values = ${newValueArray}(capacity)
+        used = BooleanArray(capacity)
+        val mask = capacity - 1
+        for (oldSlot in oldUsed.indices) {
+            if (!oldUsed[oldSlot]) continue
+            var slot = hashSlot(oldKeys[oldSlot], mask)
+            while (used[slot]) {
+                slot = (slot + 1) and mask
+            }
+            keys[slot] = oldKeys[oldSlot]
+            values[slot] = oldValues[oldSlot]
+            used[slot] = true
+        }
+    }
+
+    override fun toString(): String {
+        val builder = StringBuilder("{")
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            if (builder.length() > 1) builder.append(", ")
+            builder.append(keys[slot]).append('=').append(values[slot])
+        }
+        return builder.append('}').toString()
+    }
+}""")
+}
@@ -29,6 +29,7 @@ fun main(args: Array<String>) {
     generateDomEventsAPI(File(jsCoreDir, "domEvents.kt"))
 
     generateCollectionsAPI(outDir)
+    generatePrimitiveCollections(File(outDir, "_PrimitiveCollectionsJVM.kt"))
 
     generateDownTos(File(outDir, "_DownTo.kt"), "package kotlin")
 }
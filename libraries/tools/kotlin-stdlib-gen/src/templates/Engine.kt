@@ -15,6 +15,7 @@ enum class Family {
     Maps
     ArraysOfObjects
     ArraysOfPrimitives
+    ArrayListsOfPrimitives
     Strings
 }
 
@@ -29,6 +30,9 @@ enum class PrimitiveType(val name: String) {
     Double: PrimitiveType("Double")
 }
 
+// Primitive types which have an array list in _PrimitiveCollectionsJVM.kt
+val arrayListPrimitives = listOf(PrimitiveType.Int, PrimitiveType.Long, PrimitiveType.Double)
+
 
 class GenericFunction(val signature: String) : Comparable<GenericFunction> {
     val defaultFamilies = array(Iterables, Streams, ArraysOfObjects, ArraysOfPrimitives, Strings)
@@ -152,6 +156,9 @@ class GenericFunction(val signature: String) : Comparable<GenericFunction> {
         if (f == ArraysOfPrimitives) {
             for (primitive in buildPrimitives.sortBy { it.name() })
                 build(builder, f, primitive)
+        } else if (f == ArrayListsOfPrimitives) {
+            for (primitive in buildPrimitives.filter { it in arrayListPrimitives }.sortBy { it.name() })
+                build(builder, f, primitive)
         } else {
             build(builder, f, null)
         }
@@ -172,6 +179,7 @@ class GenericFunction(val signature: String) : Comparable<GenericFunction> {
             ArraysOfObjects -> "Array<$isAsteriskOrT>"
             Strings -> "String"
             ArraysOfPrimitives -> primitive?.let { it.name() + "Array" } ?: throw IllegalArgumentException("Primitive array should specify primitive type")
+            ArrayListsOfPrimitives -> primitive?.let { it.name() + "ArrayList" } ?: throw IllegalArgumentException("Primitive array list should specify primitive type")
             else -> throw IllegalStateException("Invalid family")
         }
 
@@ -0,0 +1,74 @@
+package templates
+
+import templates.Family.*
+
+fun primitiveCollections(): List<GenericFunction> {
+    val templates = arrayListOf<GenericFunction>()
+
+    templates add f("forEach(operation: (T) -> Unit)") {
+        only(ArrayListsOfPrimitives)
+        inline(true)
+
+        doc { "Performs the given *operation* on each element" }
+        returns("Unit")
+        body {
+            """
+            for (index in 0..size() - 1) operation(get(index))
+            """
+        }
+    }
+
+    templates add f("map(transform: (T) -> R)") {
+        only(ArrayListsOfPrimitives)
+        inline(true)
+
+        doc { "Returns a list containing the results of applying the given *transform* function to each element of the original collection" }
+        typeParam("R")
+        returns("List<R>")
+        body {
+            """
+            val result = ArrayList<R>(size())
+            for (index in 0..size() - 1) {
+                result.add(transform(get(index)))
+            }
+            return result
+            """
+        }
+    }
+
+    templates add f("filter(predicate: (T) -> Boolean)") {
+        only(ArrayListsOfPrimitives)
+        inline(true)
+
+        doc { "Returns a new list containing all elements matching the given *predicate*" }
+        returns("SELF")
+        body {
+            """
+            val result = SELF()
+            for (index in 0..size() - 1) {
+                val element = get(index)
+                if (predicate(element)) result.add(element)
+            }
+            return result
+            """
+        }
+    }
+
+    templates add f("sum()") {
+        only(ArrayListsOfPrimitives)
+
+        doc { "Returns the sum of all elements in the collection" }
+        returns("SUM")
+        body {
+            """
+            var sum: SUM = ZERO
+            for (index in 0..size() - 1) {
+                sum += get(index)
+            }
+            return sum
+            """
+        }
+    }
+
+    return templates
+}